@@ -36,4 +36,14 @@ public @interface Field {
 
 	// Allow setting a bridge for the field.
 	Class<? extends DataBridge> bridge() default DataBridge.class;
+
+	// Allow setting the encoding of an int[] or long[] field.
+	Encoding encoding() default Encoding.NONE;
+
+	/**
+	 * Encodings of integer arrays. NONE writes each element as a zig-zag varint.
+	 */
+	enum Encoding {
+		NONE, DELTA, FRAME_OF_REFERENCE, STREAM_VBYTE
+	}
 }
@@ -25,12 +25,21 @@ import java.lang.reflect.Type;
 import java.math.BigInteger;
 import java.util.Date;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class DataBindContext {
 
 	// Resolved class information
 	private final ConcurrentHashMap<Type, DataClass> descriptors = new ConcurrentHashMap<>();
 
+	// Per class slot for the erased class descriptor, avoids a hash lookup on every getClass() lookup.
+	private final ClassValue<AtomicReference<DataClass>> classDescriptors = new ClassValue<>() {
+		@Override
+		protected AtomicReference<DataClass> computeValue(Class<?> type) {
+			return new AtomicReference<>();
+		}
+	};
+
 	// default resolver
 	private final DefaultClassBinder dataClassResolver;
 
@@ -101,14 +110,17 @@ public class DataBindContext {
 
 	public DataClass getDescriptor(Class<?> targetClass, Type parameterizedType) throws DataBindException {
 
-		DataClass descriptor = descriptors.get(parameterizedType);
+		DataClass descriptor = parameterizedType == targetClass ? classDescriptors.get(targetClass).get()
+				: descriptors.get(parameterizedType);
 		if (descriptor == null) {
 			descriptor = dataClassResolver.resolve(this, targetClass, parameterizedType);
 			if (descriptor == null) {
 				throw new DataBindException(
 						String.format("Unable to find suitable data descriptor for class: %s", targetClass.getName()));
 			}
-			register(parameterizedType, descriptor);
+
+			// Another thread may have resolved the same class, first one wins.
+			descriptor = publish(parameterizedType, descriptor);
 		}
 
 		return descriptor;
@@ -123,7 +135,19 @@ public class DataBindContext {
 	private <T> void register(Type targetClass, DataClass descriptor) throws DataBindException {
 		checkExists(targetClass);
 
-		descriptors.put(targetClass, descriptor);
+		publish(targetClass, descriptor);
+	}
+
+	private DataClass publish(Type targetClass, DataClass descriptor) {
+		DataClass existing = descriptors.putIfAbsent(targetClass, descriptor);
+		if (existing != null) {
+			return existing;
+		}
+
+		if (targetClass instanceof Class<?> clss) {
+			classDescriptors.get(clss).set(descriptor);
+		}
+		return descriptor;
 	}
 
 
@@ -15,6 +15,8 @@
  */
 package io.litterat.bind;
 
+import io.litterat.annotation.Field.Encoding;
+
 import java.lang.invoke.MethodHandle;
 import java.util.Optional;
 
@@ -67,8 +69,16 @@ public class DataClassField {
 	// setter write handle. signature object.setT( type t);
 	private final Optional<MethodHandle> setter;
 
+	// Encoding of integer array fields.
+	private final Encoding encoding;
+
 	public DataClassField(int index, String name, Class<?> type,  DataClass dataClass, boolean isRequired,
 			MethodHandle isPresent, MethodHandle readHandle, MethodHandle setter) {
+		this(index, name, type, dataClass, isRequired, isPresent, readHandle, setter, Encoding.NONE);
+	}
+
+	public DataClassField(int index, String name, Class<?> type, DataClass dataClass, boolean isRequired,
+			MethodHandle isPresent, MethodHandle readHandle, MethodHandle setter, Encoding encoding) {
 		this.index = index;
 		this.name = name;
 		this.type = type;
@@ -77,6 +87,7 @@ public class DataClassField {
 		this.isPresent = isPresent;
 		this.accessor = readHandle;
 		this.setter = Optional.ofNullable(setter);
+		this.encoding = encoding;
 	}
 
 	public int index() {
@@ -140,6 +151,13 @@ public class DataClassField {
 		return setter;
 	}
 
+	/**
+	 * The encoding set with the Field annotation, NONE unless set.
+	 */
+	public Encoding encoding() {
+		return encoding;
+	}
+
 	public void set(Object record, Object value) {
 		try {
 			setter.get().invoke(record, value);
@@ -32,15 +32,23 @@ public class DataClassRecord extends DataClass {
 	// Constructor for the data object.
 	private final MethodHandle constructor;
 
+	// Constructor taking each field directly, or null if fields need conversion or setters.
+	private final MethodHandle directConstructor;
+
 	// All fields in the projected class.
 	private final DataClassField[] fields;
 
 	public DataClassRecord( Class<?> targetType, DataClassBridge bridge, boolean isMutable, MethodHandle creator, MethodHandle constructor,  DataClassField[] fields) {
+		this(targetType, bridge, isMutable, creator, constructor, null, fields);
+	}
+
+	public DataClassRecord( Class<?> targetType, DataClassBridge bridge, boolean isMutable, MethodHandle creator, MethodHandle constructor, MethodHandle directConstructor, DataClassField[] fields) {
 		super(targetType, bridge);
 		this.fields = fields;
 		this.isMutable = isMutable;
 		this.creator = creator;
 		this.constructor = constructor;
+		this.directConstructor = directConstructor;
 	}
 
 	public boolean isMutable() {
@@ -58,6 +66,14 @@ public class DataClassRecord extends DataClass {
 		return constructor;
 	}
 
+	/**
+	 * @return A MethodHandle that has the signature T constructor(field0, field1, ...) with each field
+	 *         passed as its declared type, or null if any field requires conversion or a setter.
+	 */
+	public MethodHandle directConstructor() {
+		return directConstructor;
+	}
+
 	/**
 	 * @return The list of fields and their types returned by the embed function.
 	 */
@@ -2,6 +2,7 @@ package io.litterat.bind.analysis;
 
 import io.litterat.annotation.DataBridge;
 import io.litterat.annotation.Field;
+import io.litterat.annotation.Field.Encoding;
 import io.litterat.annotation.FieldOrder;
 import io.litterat.annotation.Record;
 import io.litterat.annotation.ToData;
@@ -117,7 +118,7 @@ public class DefaultRecordBinder {
 				DataClassRecord descriptor = resolveClassRecord(context, bridge.dataClass());
 
 				return new DataClassRecord(targetClass, bridge, descriptor.isMutable(), descriptor.creator(),
-						descriptor.constructor(), descriptor.fields());
+						descriptor.constructor(), descriptor.directConstructor(), descriptor.fields());
 			} else {
 
 				DataClassRecord descriptor = resolveClassRecord(context, targetClass);
@@ -130,7 +131,7 @@ public class DefaultRecordBinder {
 				registerUnionSubclasses(context, targetClass);
 
 				return new DataClassRecord(descriptor.typeClass(), bridge, descriptor.isMutable(), descriptor.creator(),
-						descriptor.constructor(), descriptor.fields());
+						descriptor.constructor(), descriptor.directConstructor(), descriptor.fields());
 			}
 		} catch (IllegalAccessException | NoSuchMethodException | SecurityException | DataBindException e) {
 			throw new DataBindException("Failed to resolve", e);
@@ -183,6 +184,9 @@ public class DefaultRecordBinder {
 		// fields as defined in components.
 		MethodHandle constructor = createTupleConstructor(targetClass, components, dataComponents, dataConstructor);
 
+		// Where fields map one to one onto the constructor also offer it without the Object[].
+		MethodHandle directConstructor = createDirectConstructor(targetClass, components, dataConstructor);
+
 		// See if there's an empty constructor available.
 		MethodHandle creator = null;
 		try {
@@ -192,7 +196,42 @@ public class DefaultRecordBinder {
 			// ignore.
 		}
 
-		return new DataClassRecord(targetClass, null, false, creator, constructor, dataComponents);
+		return new DataClassRecord(targetClass, null, false, creator, constructor, directConstructor, dataComponents);
+	}
+
+	/**
+	 * Returns the data constructor typed as (field0, field1, ...) -> dataClass when every field is passed
+	 * to the constructor in field order without a bridge or Optional wrapping. Readers can then pass
+	 * primitive values straight through without boxing. Returns null otherwise.
+	 */
+	private MethodHandle createDirectConstructor(Class<?> dataClass, List<ComponentInfo> fields,
+			MethodHandle dataConstructor) {
+
+		if (dataConstructor.type().parameterCount() != fields.size()) {
+			return null;
+		}
+
+		for (int x = 0; x < fields.size(); x++) {
+			ComponentInfo field = fields.get(x);
+
+			if (field.getConstructorArgument() != x) {
+				return null;
+			}
+
+			Field fieldAnnotation = field.getField();
+			if (fieldAnnotation != null && fieldAnnotation.bridge() != null
+					&& fieldAnnotation.bridge() != DataBridge.class) {
+				return null;
+			}
+
+			Class<?> type = field.getType();
+			if (type == Optional.class || type == OptionalInt.class || type == OptionalLong.class
+					|| type == OptionalDouble.class) {
+				return null;
+			}
+		}
+
+		return dataConstructor.asType(dataConstructor.type().changeReturnType(dataClass));
 	}
 
 	/**
@@ -369,7 +408,9 @@ public class DefaultRecordBinder {
 			isPresent = MethodHandles.filterArguments(isPresent, 0, accessor);
 		}
 
-		return new DataClassField(index, fieldName, info.getType(), dataClass, isRequired, isPresent, accessor, setter);
+		Encoding encoding = info.getField() != null ? info.getField().encoding() : Encoding.NONE;
+		return new DataClassField(index, fieldName, info.getType(), dataClass, isRequired, isPresent, accessor, setter,
+				encoding);
 	}
 
 	private DataClassField resolveUnionField(DataBindContext context, Class<?> targetClass,
@@ -20,12 +20,15 @@ import io.litterat.schema.TypeLibrary;
 import io.litterat.schema.TypeLibraryState;
 import io.litterat.schema.TypeNotDefinedException;
 import io.litterat.schema.meta.Definition;
+import io.litterat.schema.meta.Field;
 import io.litterat.schema.meta.Meta;
+import io.litterat.schema.meta.Record;
 import io.litterat.schema.meta.Typename;
 
 import java.lang.reflect.Type;
 import java.util.Stack;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The TypeContext binds the Class/DataClass pair provided by the DataBindContext with the Typename/Definition
@@ -39,8 +42,16 @@ import java.util.concurrent.ConcurrentHashMap;
 public class TypeContext {
 	// Resolved class information
 	private final ConcurrentHashMap<Typename, Class<?>> typenameClass = new ConcurrentHashMap<>();
-	private final ConcurrentHashMap<Class<?>, Typename> classTypename = new ConcurrentHashMap<>();
-	private final Stack<Typename> registerStack = new Stack<>();
+
+	// Per class slot holding the class typename and erased DataClass, resolved with a single lookup.
+	private final ClassValue<AtomicReference<ClassBinding>> classBindings = new ClassValue<>() {
+		@Override
+		protected AtomicReference<ClassBinding> computeValue(Class<?> type) {
+			return new AtomicReference<>();
+		}
+	};
+	// Types being registered by the current thread, used to break cycles.
+	private final ThreadLocal<Stack<Typename>> registerStack = ThreadLocal.withInitial(Stack::new);
 	private final DataBindContext bindContext;
 	private final TypeLibrary typeLibrary;
 
@@ -52,6 +63,9 @@ public class TypeContext {
 	private final UnionResolver unionResolver;
 
 
+	// The dataClass is null if the class was first bound through a parameterized type.
+	private record ClassBinding(Typename typename, DataClass dataClass) {}
+
 	public static class Builder {
 
 		DataBindContext bindContext = null;
@@ -117,15 +131,24 @@ public class TypeContext {
             register(Meta.BOOLEAN, Boolean.class);
 			register(Meta.BOOLEAN, boolean.class);
 
+			register(Meta.INT8, Byte.class);
+			register(Meta.INT8, byte.class);
+
 			register(Meta.INT32, Integer.class);
 			register(Meta.INT32, int.class);
 
+			register(Meta.INT64, Long.class);
+			register(Meta.INT64, long.class);
+
 			register(Meta.INT16, Short.class);
 			register(Meta.INT16, short.class);
 
 			register(Meta.FLOAT, Float.class);
 			register(Meta.FLOAT, float.class);
 
+			register(Meta.DOUBLE, Double.class);
+			register(Meta.DOUBLE, double.class);
+
 			register(Meta.STRING, String.class);
         } catch (TypeException e) {
             throw new RuntimeException(e);
@@ -159,11 +182,13 @@ public class TypeContext {
 	public DataClass getDescriptor(Class<?> targetClass, Type parameterizedType) throws TypeException {
         try {
 			DataClass result = null;
-			Typename typename = classTypename.get(targetClass);
-			if (typename == null) {
+			ClassBinding binding = classBindings.get(targetClass).get();
+			if (binding == null) {
 				DataClass dataClass = bindContext.getDescriptor(targetClass, parameterizedType);
-				typename = nameBinder.resolve(this, dataClass);
+				Typename typename = nameBinder.resolve(this, dataClass);
 				result = register(typename, targetClass);
+			} else if (binding.dataClass() != null && parameterizedType == targetClass) {
+				result = binding.dataClass();
 			} else {
 				result = bindContext.getDescriptor(targetClass, parameterizedType);
 			}
@@ -195,7 +220,8 @@ public class TypeContext {
 	}
 
 	public Typename getTypename(Class<?> targetClass, Type parameterizedType) throws TypeException {
-		Typename typename = classTypename.get(targetClass);
+		ClassBinding binding = classBindings.get(targetClass).get();
+		Typename typename = binding != null ? binding.typename() : null;
 		if (typename == null) {
 			try {
 				DataClass dataClass = bindContext.getDescriptor(targetClass, parameterizedType);
@@ -208,13 +234,69 @@ public class TypeContext {
 		return typename;
 	}
 
+	/**
+	 * Bind the fields of a record class by name to the fields of a source record definition, so the
+	 * class can be read as a projection of the source. Returns the index of the source field for each
+	 * field of the class. Every field of the class must be in the source with the same type.
+	 */
+	public int[] bindFields(Class<?> targetClass, Record source) throws TypeException {
+		Typename typename = getTypename(targetClass);
+		if (!(getDefinition(typename) instanceof Record target)) {
+			throw new TypeException("Class is not a record: " + targetClass.getName());
+		}
+
+		Field[] targetFields = target.fields();
+		Field[] sourceFields = source.fields();
+		int[] result = new int[targetFields.length];
+		for (int x = 0; x < targetFields.length; x++) {
+			result[x] = -1;
+			for (int y = 0; y < sourceFields.length; y++) {
+				if (sourceFields[y].name().equals(targetFields[x].name())) {
+					result[x] = y;
+					break;
+				}
+			}
+
+			if (result[x] < 0) {
+				throw new TypeException(String.format("Field '%s' of %s not found in source", targetFields[x].name(),
+						targetClass.getName()));
+			}
+			if (!sourceFields[result[x]].type().equals(targetFields[x].type())) {
+				throw new TypeException(String.format("Field '%s' of %s does not match source type",
+						targetFields[x].name(), targetClass.getName()));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Find the local class for a typename, binding it by name if it has not been seen. The definition of
+	 * the class is registered from the class itself, so it can be compared with a definition received
+	 * from a peer before registering that. Returns null if no local class is bound to the typename.
+	 */
+	public DataClass bindLocal(Typename typename) throws TypeException {
+		Class<?> targetClass = typenameClass.get(typename);
+		if (targetClass == null) {
+			targetClass = nameBinder.resolve(this, typename);
+			if (targetClass == null) {
+				return null;
+			}
+		}
+
+		DataClass dataClass = getDescriptor(targetClass);
+		return typename.equals(getTypename(targetClass)) ? dataClass : null;
+	}
+
 	public DataClass register(Typename typename, Definition definition) throws TypeException {
 
 		// Register the schema.
 		typeLibrary.register(typename, definition);
 
-		// Find a class
-		Class<?> targetClass = nameBinder.resolve(this, typename);
+		// Find a class, explicitly registered typenames first.
+		Class<?> targetClass = typenameClass.get(typename);
+		if (targetClass == null) {
+			targetClass = nameBinder.resolve(this, typename);
+		}
 		if (targetClass == null) {
 			throw new TypeException("Failed to find system class for :" + typename);
 		}
@@ -223,7 +305,7 @@ public class TypeContext {
         try {
             DataClass dataClass = dataBindContext().getDescriptor(targetClass);
 			typenameClass.putIfAbsent(typename, targetClass);
-			classTypename.putIfAbsent(targetClass, typename);
+			bind(targetClass, typename, dataClass, targetClass);
 			return dataClass;
 		} catch (DataBindException e) {
             throw new TypeException("Failed to find data class for :" + targetClass.getName());
@@ -244,6 +326,7 @@ public class TypeContext {
 
 	private DataClass register(Typename typename, DataClass dataClass, Type parameterizedType) throws TypeException, DataBindException {
 		Class<?> targetClass = dataClass.typeClass();
+		Stack<Typename> registerStack = this.registerStack.get();
 
 			if (registerStack.contains(typename)) {
 				System.out.println("already trying to register: " + typename);
@@ -265,13 +348,18 @@ public class TypeContext {
 
 			typeLibrary.register(typename, definition);
 			typenameClass.putIfAbsent(typename, targetClass);
-			classTypename.putIfAbsent(targetClass, typename);
+			bind(targetClass, typename, dataClass, parameterizedType);
 
 			registerStack.pop();
 			return dataClass;
 
 	}
 
+	// First binding of a class wins.
+	private void bind(Class<?> targetClass, Typename typename, DataClass dataClass, Type parameterizedType) {
+		ClassBinding binding = new ClassBinding(typename, parameterizedType == targetClass ? dataClass : null);
+		classBindings.get(targetClass).compareAndSet(null, binding);
+	}
 
 	/**
 	 * Create a meta definition for the TypeLibrary from the in-built DataClass.
@@ -1,5 +1,6 @@
 package io.litterat.core.resolve;
 
+import io.litterat.annotation.Field.Encoding;
 import io.litterat.annotation.ToData;
 import io.litterat.bind.DataClass;
 import io.litterat.bind.DataClassArray;
@@ -10,7 +11,9 @@ import io.litterat.bind.DataClassUnion;
 import io.litterat.core.TypeContext;
 import io.litterat.schema.TypeException;
 import io.litterat.schema.meta.Array;
+import io.litterat.schema.meta.ArrayEncoding;
 import io.litterat.schema.meta.Element;
+import io.litterat.schema.meta.EncodedArray;
 import io.litterat.schema.meta.Field;
 import io.litterat.schema.meta.Record;
 import io.litterat.schema.meta.Typename;
@@ -31,7 +34,8 @@ public class RecordResolver implements TypeResolver<Record, DataClassRecord> {
 
                 Element element = switch (fieldDataClass) {
                     case DataClassAtom atom -> context.getTypename(atom.dataClass());
-                    case DataClassArray array -> new Array(context.getTypename(array.arrayDataClass().dataClass()));
+                    case DataClassArray array -> array(context.getTypename(array.arrayDataClass().dataClass()),
+                            classField.encoding());
                     case DataClassUnion union -> {
 
                         // This is a field union, which means that the union type has its own typename.
@@ -63,6 +67,18 @@ public class RecordResolver implements TypeResolver<Record, DataClassRecord> {
 
     }
 
+    // Encodings are checked against the element type when the array is compiled. Arrays without an
+    // encoding are plain arrays so their definition is unchanged.
+    private static Array array(Typename type, Encoding encoding) {
+        return switch (encoding) {
+            case NONE -> new Array(type);
+            case DELTA -> new EncodedArray(type, new ArrayEncoding[] { new ArrayEncoding.ArrayDelta() });
+            case FRAME_OF_REFERENCE -> new EncodedArray(type,
+                    new ArrayEncoding[] { new ArrayEncoding.ArrayFrameOfReference() });
+            case STREAM_VBYTE -> new EncodedArray(type, new ArrayEncoding[] { new ArrayEncoding.ArrayStreamVByte() });
+        };
+    }
+
     private Class<?> resolveTargetClass(Class<?> targetClass) throws CodeAnalysisException {
 
         // Default to targetClass.
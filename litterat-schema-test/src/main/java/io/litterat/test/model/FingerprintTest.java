@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ */
+package io.litterat.test.model;
+
+import io.litterat.schema.TypeException;
+import io.litterat.schema.TypeLibrary;
+import io.litterat.schema.meta.Array;
+import io.litterat.schema.meta.CanonicalForm;
+import io.litterat.schema.meta.Field;
+import io.litterat.schema.meta.Meta;
+import io.litterat.schema.meta.Record;
+import io.litterat.schema.meta.Typename;
+import io.litterat.schema.meta.atom.AtomAttribute;
+import io.litterat.schema.meta.atom.IntegerAtom;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class FingerprintTest {
+
+	private static Record point(String x, String y) {
+		// @formatter:off
+		return new Record(
+				new Field[] {
+						new Field(x, Meta.INT32),
+						new Field(y, Meta.INT32) });
+		// @formatter:on
+	}
+
+	@Test
+	public void testEqualStructures() throws Throwable {
+		Record a = point("x", "y");
+		Record b = point("x", "y");
+
+		Assertions.assertNotSame(a, b);
+		Assertions.assertEquals(a.fingerprint(), b.fingerprint());
+		Assertions.assertEquals(a, b);
+		Assertions.assertEquals(a.hashCode(), b.hashCode());
+		Assertions.assertArrayEquals(CanonicalForm.of(a), CanonicalForm.of(b));
+	}
+
+	@Test
+	public void testDifferentStructures() throws Throwable {
+		Record a = point("x", "y");
+
+		Assertions.assertTrue(a.fingerprint() != point("x", "z").fingerprint());
+		Assertions.assertTrue(a.fingerprint() != point("y", "x").fingerprint());
+		Assertions.assertTrue(a.fingerprint() != new Record(
+				new Field[] { new Field("x", Meta.INT32), new Field("y", Meta.INT64) }).fingerprint());
+		Assertions.assertTrue(new Array(Meta.INT32).fingerprint() != new Array(Meta.INT64).fingerprint());
+		Assertions.assertTrue(Meta.INT32.fingerprint() != new Array(Meta.INT32).fingerprint());
+	}
+
+	@Test
+	public void testAtomAttributes() throws Throwable {
+		IntegerAtom a = new IntegerAtom(new AtomAttribute[] { new IntegerAtom.AtomSigned() });
+		IntegerAtom b = new IntegerAtom(new AtomAttribute[] { new IntegerAtom.AtomSigned() });
+		IntegerAtom c = new IntegerAtom(new AtomAttribute[] { new IntegerAtom.AtomUnsigned() });
+
+		Assertions.assertEquals(a, b);
+		Assertions.assertFalse(a.equals(c));
+	}
+
+	@Test
+	public void testAtomLengths() throws Throwable {
+		IntegerAtom a = new IntegerAtom(new AtomAttribute[] { new AtomAttribute.AtomFixedLength(4) });
+		IntegerAtom b = new IntegerAtom(new AtomAttribute[] { new AtomAttribute.AtomFixedLength(4) });
+		IntegerAtom c = new IntegerAtom(new AtomAttribute[] { new AtomAttribute.AtomFixedLength(8) });
+		IntegerAtom d = new IntegerAtom(new AtomAttribute[] { new AtomAttribute.AtomVariableLength(1, 4) });
+
+		Assertions.assertEquals(a, b);
+		Assertions.assertEquals(a.hashCode(), b.hashCode());
+		Assertions.assertFalse(a.equals(c));
+		Assertions.assertFalse(a.equals(d));
+		Assertions.assertEquals(d, new IntegerAtom(new AtomAttribute[] { new AtomAttribute.AtomVariableLength(1, 4) }));
+	}
+
+	@Test
+	public void testReRegister() throws Throwable {
+		TypeLibrary typeLibrary = new TypeLibrary();
+		Typename typePoint = new Typename("point");
+
+		typeLibrary.register(typePoint, point("x", "y"));
+		typeLibrary.register(typePoint, point("x", "y"));
+
+		Assertions.assertThrows(TypeException.class, () -> typeLibrary.register(typePoint, point("x", "z")));
+	}
+}
@@ -1,8 +1,8 @@
 package io.litterat.schema;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 import io.litterat.schema.meta.Definition;
 import io.litterat.schema.meta.Meta;
@@ -14,14 +14,22 @@ public class TypeLibrary {
 	private final Map<Typename, TypeLibraryEntry> definitionMap;
 
 	public TypeLibrary() {
-		this.definitionMap = new HashMap<>();
+		this.definitionMap = new ConcurrentHashMap<>();
 
 		try {
 			// Atoms
 			register(Meta.FLOAT, new RealAtom(new AtomAttribute[]{}));
 			register(Meta.BOOLEAN, new BooleanAtom(new AtomAttribute[]{}));
 			register(Meta.STRING,  new StringAtom(new AtomAttribute[]{}));
+			register(Meta.INT8, new IntegerAtom(new AtomAttribute[]{}));
+			register(Meta.INT16, new IntegerAtom(new AtomAttribute[]{}));
 			register(Meta.INT32, new IntegerAtom(new AtomAttribute[]{}));
+			register(Meta.INT64, new IntegerAtom(new AtomAttribute[]{}));
+			register(Meta.UINT8, new IntegerAtom(new AtomAttribute[]{}));
+			register(Meta.UINT16, new IntegerAtom(new AtomAttribute[]{}));
+			register(Meta.UINT32, new IntegerAtom(new AtomAttribute[]{}));
+			register(Meta.UINT64, new IntegerAtom(new AtomAttribute[]{}));
+			register(Meta.DOUBLE, new RealAtom(new AtomAttribute[]{}));
 		} catch (TypeException e) {
 			throw new RuntimeException(e);
 		}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.schema.meta;
+
+/**
+ * Base of the definition classes. The fingerprint of the canonical form is calculated once and used
+ * by equals and hashCode, subclasses only compare their structure.
+ */
+public abstract class AbstractDefinition implements Definition {
+
+	// Fingerprint of the canonical form, zero until first used. Volatile as definitions are shared
+	// between threads and a plain long may be written in two halves.
+	private volatile long fingerprint;
+
+	@Override
+	public final long fingerprint() {
+		long result = fingerprint;
+		if (result == 0) {
+			result = CanonicalForm.fingerprint(this);
+			fingerprint = result;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns true if the other definition, which is of the same class, has the same structure.
+	 */
+	protected abstract boolean sameStructure(AbstractDefinition other);
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		if (o == null || getClass() != o.getClass()) return false;
+		AbstractDefinition other = (AbstractDefinition) o;
+
+		// Fingerprints differ for most unequal definitions. Compare structure in case of a collision.
+		return fingerprint() == other.fingerprint() && sameStructure(other);
+	}
+
+	@Override
+	public int hashCode() {
+		return Long.hashCode(fingerprint());
+	}
+}
@@ -26,11 +26,15 @@ import java.util.Objects;
  * In the future it might be useful to introduce restrictions on the array type to specify a min/max
  * elements.
  *
+ * Arrays of int32 and int64 with an encoding are an EncodedArray. A plain array has no encoding.
+ *
  */
 
 @Record
 @io.litterat.annotation.Typename(namespace = "meta", name = "array")
-public class Array implements Element {
+public class Array extends AbstractDefinition implements Element {
+
+	private static final ArrayEncoding[] NO_ENCODING = new ArrayEncoding[0];
 
 	private final Typename type;
 
@@ -42,16 +46,31 @@ public class Array implements Element {
 		return this.type;
 	}
 
-	@Override
-	public boolean equals(Object o) {
-		if (o == null || getClass() != o.getClass()) return false;
-		Array array = (Array) o;
-		return Objects.equals(type, array.type);
+	/**
+	 * Encoding of the elements, empty for the default encoding.
+	 */
+	public ArrayEncoding[] encoding() {
+		return NO_ENCODING;
 	}
 
 	@Override
-	public int hashCode() {
-		return Objects.hashCode(type);
+	protected boolean sameStructure(AbstractDefinition other) {
+		Array array = (Array) other;
+		return Objects.equals(type, array.type) && sameEncoding(encoding(), array.encoding());
+	}
+
+	// Encodings have no values so are equal when they are the same class.
+	private static boolean sameEncoding(ArrayEncoding[] a, ArrayEncoding[] b) {
+		int length = a != null ? a.length : 0;
+		if (length != (b != null ? b.length : 0)) {
+			return false;
+		}
+		for (int x = 0; x < length; x++) {
+			if (a[x] == null ? b[x] != null : b[x] == null || a[x].getClass() != b[x].getClass()) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	@Override
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.schema.meta;
+
+import io.litterat.annotation.Record;
+import io.litterat.annotation.Typename;
+import io.litterat.annotation.Union;
+
+/**
+ * How the elements of an int32 or int64 array are encoded. An array without an encoding writes each
+ * element as a zig-zag varint.
+ */
+@Typename(namespace = "schema", name = "array_encoding")
+@Union(value = { ArrayEncoding.ArrayDelta.class, ArrayEncoding.ArrayFrameOfReference.class,
+		ArrayEncoding.ArrayStreamVByte.class }, sealed = true)
+public interface ArrayEncoding {
+
+	// Zig-zag varints of the first element and the difference between each element and the one before.
+	@Record
+	@Typename(namespace = "schema", name = "array_delta")
+	public static class ArrayDelta implements ArrayEncoding {}
+
+	// Blocks of elements bit packed as the offset from the smallest element of the block.
+	@Record
+	@Typename(namespace = "schema", name = "array_frame_of_reference")
+	public static class ArrayFrameOfReference implements ArrayEncoding {}
+
+	// Two bit byte length codes for every element followed by the significant bytes of each element.
+	@Record
+	@Typename(namespace = "schema", name = "array_stream_vbyte")
+	public static class ArrayStreamVByte implements ArrayEncoding {}
+}
@@ -20,7 +20,7 @@ import io.litterat.annotation.Union;
 import io.litterat.schema.meta.atom.AtomAttribute;
 
 import java.util.Arrays;
-import java.util.Objects;
+
 
 /**
  *
@@ -30,7 +30,7 @@ import java.util.Objects;
 
 @Typename(namespace = "meta", name = "atom")
 @Union(value = {}, sealed = false)
-public abstract class Atom implements Definition {
+public abstract class Atom extends AbstractDefinition {
 
 	private final AtomAttribute[] attributes;
 
@@ -43,14 +43,7 @@ public abstract class Atom implements Definition {
 	}
 
 	@Override
-	public boolean equals(Object o) {
-		if (o == null || getClass() != o.getClass()) return false;
-		Atom atom = (Atom) o;
-		return Objects.deepEquals(attributes, atom.attributes);
-	}
-
-	@Override
-	public int hashCode() {
-		return Arrays.hashCode(attributes);
+	protected boolean sameStructure(AbstractDefinition other) {
+		return Arrays.equals(attributes, ((Atom) other).attributes);
 	}
 }
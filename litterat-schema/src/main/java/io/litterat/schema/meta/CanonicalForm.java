@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.schema.meta;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import io.litterat.schema.meta.atom.AtomAttribute;
+import io.litterat.schema.meta.atom.AtomAttribute.AtomFixedLength;
+import io.litterat.schema.meta.atom.AtomAttribute.AtomVariableLength;
+
+/**
+ * @formatter:off
+ *
+ * The canonical binary form of a definition and its 64-bit fingerprint. Structurally equal
+ * definitions have identical canonical forms. The form is a tag byte per node followed by
+ * its contents:
+ *
+ *    typename  : 1 namespace name
+ *    record    : 2 count ( name required type ) *
+ *    array     : 3 typename ( 7 encoding ) *
+ *    union     : 4 sealed count typename *
+ *    atom      : 5 kind count ( attribute [ values ] ) *
+ *    interface : 6 count ( name return count argument * ) *
+ *
+ * Strings are modified UTF-8 with a two byte length and counts are four bytes, as written by
+ * DataOutputStream. The fingerprint is the CRC-64-AVRO (Rabin) fingerprint of the canonical form.
+ *
+ * @formatter:on
+ */
+public final class CanonicalForm {
+
+	private static final int TYPENAME = 1;
+	private static final int RECORD = 2;
+	private static final int ARRAY = 3;
+	private static final int UNION = 4;
+	private static final int ATOM = 5;
+	private static final int INTERFACE = 6;
+	private static final int ENCODING = 7;
+
+	private static final long EMPTY = 0xc15d213aa4d7a795L;
+	private static final long[] TABLE = new long[256];
+
+	static {
+		for (int x = 0; x < 256; x++) {
+			long fp = x;
+			for (int y = 0; y < 8; y++) {
+				fp = (fp >>> 1) ^ (EMPTY & -(fp & 1L));
+			}
+			TABLE[x] = fp;
+		}
+	}
+
+	private CanonicalForm() {
+	}
+
+	public static byte[] of(Definition definition) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			write(out, definition);
+			out.flush();
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			// Not expected writing to memory.
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public static long fingerprint(Definition definition) {
+		return fingerprint(of(definition));
+	}
+
+	public static long fingerprint(byte[] bytes) {
+		long fp = EMPTY;
+		for (byte b : bytes) {
+			fp = (fp >>> 8) ^ TABLE[(int) (fp ^ b) & 0xff];
+		}
+
+		// Zero is used to mark a fingerprint not yet computed.
+		return fp == 0 ? EMPTY : fp;
+	}
+
+	private static void write(DataOutputStream out, Definition definition) throws IOException {
+		switch (definition) {
+			case Typename typename -> {
+				out.writeByte(TYPENAME);
+				out.writeUTF(typename.namespace());
+				out.writeUTF(typename.name());
+			}
+			case Record record -> {
+				out.writeByte(RECORD);
+				out.writeInt(record.fields().length);
+				for (Field field : record.fields()) {
+					out.writeUTF(field.name());
+					out.writeBoolean(field.isRequired());
+					write(out, field.type());
+				}
+			}
+			case Array array -> {
+				out.writeByte(ARRAY);
+				write(out, array.type());
+
+				// Unencoded arrays keep the form they had before encodings were added.
+				ArrayEncoding[] encodings = array.encoding() != null ? array.encoding() : new ArrayEncoding[0];
+				for (ArrayEncoding encoding : encodings) {
+					io.litterat.annotation.Typename typename = encoding.getClass()
+							.getAnnotation(io.litterat.annotation.Typename.class);
+					out.writeByte(ENCODING);
+					out.writeUTF(typename.namespace() + "." + typename.name());
+				}
+			}
+			case Union union -> {
+				out.writeByte(UNION);
+				out.writeBoolean(union.isSealed());
+				out.writeInt(union.map().length);
+				for (Typename member : union.map()) {
+					write(out, member);
+				}
+			}
+			case Atom atom -> {
+				out.writeByte(ATOM);
+				out.writeUTF(atom.getClass().getSimpleName());
+				AtomAttribute[] attributes = atom.attributes() != null ? atom.attributes() : new AtomAttribute[0];
+				out.writeInt(attributes.length);
+				for (AtomAttribute attribute : attributes) {
+					write(out, attribute);
+				}
+			}
+			case Interface iface -> {
+				out.writeByte(INTERFACE);
+				Function[] methods = iface.methods != null ? iface.methods : new Function[0];
+				out.writeInt(methods.length);
+				for (Function method : methods) {
+					out.writeUTF(method.name());
+					write(out, method.signature().returnType());
+					out.writeInt(method.signature().arguments().length);
+					for (Typename argument : method.signature().arguments()) {
+						write(out, argument);
+					}
+				}
+			}
+			default -> throw new IllegalArgumentException("Unknown definition: " + definition.getClass());
+		}
+	}
+
+	private static void write(DataOutputStream out, AtomAttribute attribute) throws IOException {
+		io.litterat.annotation.Typename typename = attribute.getClass()
+				.getAnnotation(io.litterat.annotation.Typename.class);
+		out.writeUTF(typename != null ? typename.namespace() + "." + typename.name()
+				: attribute.getClass().getSimpleName());
+
+		if (attribute instanceof AtomFixedLength fixed) {
+			out.writeInt(fixed.bytes());
+		} else if (attribute instanceof AtomVariableLength variable) {
+			out.writeInt(variable.minBytes());
+			out.writeInt(variable.maxBytes());
+		}
+	}
+}
@@ -29,4 +29,9 @@ import io.litterat.annotation.Union;
 @Union(value = { Element.class, Atom.class }, sealed = true)
 public interface Definition {
 
+	/**
+	 * 64-bit fingerprint of the definition's canonical form, see CanonicalForm. Structurally equal
+	 * definitions have equal fingerprints.
+	 */
+	long fingerprint();
 }
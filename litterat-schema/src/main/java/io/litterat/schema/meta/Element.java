@@ -21,7 +21,8 @@ package io.litterat.schema.meta;
  */
 
 @io.litterat.annotation.Typename(namespace = "meta", name = "element")
-@io.litterat.annotation.Union(value = { Record.class, Union.class, Array.class, Typename.class }, sealed = true)
+@io.litterat.annotation.Union(value = { Record.class, Union.class, Array.class, EncodedArray.class,
+		Typename.class }, sealed = true)
 public interface Element extends Definition {
 
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.schema.meta;
+
+import io.litterat.annotation.Record;
+
+import java.util.Arrays;
+
+/**
+ *
+ * An array of int32 or int64 whose elements are written with an encoding. It is a separate
+ * definition so that a plain array keeps the definition and fingerprint it had before encodings were
+ * added.
+ *
+ */
+
+@Record
+@io.litterat.annotation.Typename(namespace = "meta", name = "encoded_array")
+public class EncodedArray extends Array {
+
+	private final ArrayEncoding[] encoding;
+
+	public EncodedArray(Typename type, ArrayEncoding[] encoding) {
+		super(type);
+		this.encoding = encoding;
+	}
+
+	@Override
+	public ArrayEncoding[] encoding() {
+		return this.encoding;
+	}
+
+	@Override
+	public String toString() {
+		return "EncodedArray{" +
+				"type=" + type() +
+				", encoding=" + Arrays.toString(encoding) +
+				'}';
+	}
+}
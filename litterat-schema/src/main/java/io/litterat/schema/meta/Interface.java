@@ -18,13 +18,20 @@ package io.litterat.schema.meta;
 import io.litterat.annotation.Record;
 import io.litterat.annotation.Typename;
 
+import java.util.Arrays;
+
 @Record
 @Typename(namespace = "schema", name = "interface")
-public class Interface implements Definition {
+public class Interface extends AbstractDefinition {
 
 	final Function[] methods;
 
 	public Interface(Function[] methods) {
 		this.methods = methods;
 	}
+
+	@Override
+	protected boolean sameStructure(AbstractDefinition other) {
+		return Arrays.equals(methods, ((Interface) other).methods);
+	}
 }
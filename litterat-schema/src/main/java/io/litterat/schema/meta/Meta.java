@@ -16,6 +16,7 @@ public final class Meta {
 	public static final Typename ENTRY = new Typename("meta", "entry");
 	public static final Typename UNION = new Typename("meta", "union");
 	public static final Typename ARRAY = new Typename("meta", "array");
+	public static final Typename ENCODED_ARRAY = new Typename("meta", "encoded_array");
 
 	// Strings as well as UTF8, UTF16, ASCII and other encodings need to better types.
 	public static final Typename UTF16_CHAR = new Typename ("meta", "utf16");
@@ -18,7 +18,6 @@ package io.litterat.schema.meta;
 import io.litterat.annotation.Typename;
 
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  *
@@ -28,7 +27,7 @@ import java.util.Objects;
 
 @io.litterat.annotation.Record
 @Typename(namespace = "meta", name = "record")
-public class Record implements Element {
+public class Record extends AbstractDefinition implements Element {
 
 	private final Field[] fields;
 
@@ -41,15 +40,8 @@ public class Record implements Element {
 	}
 
 	@Override
-	public boolean equals(Object o) {
-		if (o == null || getClass() != o.getClass()) return false;
-		Record record = (Record) o;
-		return Objects.deepEquals(fields, record.fields);
-	}
-
-	@Override
-	public int hashCode() {
-		return Arrays.hashCode(fields);
+	protected boolean sameStructure(AbstractDefinition other) {
+		return Arrays.equals(fields, ((Record) other).fields);
 	}
 
 	@Override
@@ -40,7 +40,7 @@ import io.litterat.annotation.Record;
  */
 
 @io.litterat.annotation.Typename(namespace = "meta", name = "type_name")
-public class Typename implements Element {
+public class Typename extends AbstractDefinition implements Element {
 
 	public static final String ROOT_NAMESPACE = "";
 
@@ -81,6 +81,12 @@ public class Typename implements Element {
 		return this.name;
 	}
 
+	// Names are cheap to compare, so equals and hashCode below use them directly.
+	@Override
+	protected boolean sameStructure(AbstractDefinition other) {
+		return equals(other);
+	}
+
 	@Override
 	public String toString() {
 		return (!namespace.equals(ROOT_NAMESPACE) ? (namespace + ".") : "") + name;
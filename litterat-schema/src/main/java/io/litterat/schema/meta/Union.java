@@ -18,7 +18,6 @@ package io.litterat.schema.meta;
 import io.litterat.annotation.Record;
 
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  *
@@ -29,7 +28,7 @@ import java.util.Objects;
 
 @Record
 @io.litterat.annotation.Typename(namespace = "meta", name = "union")
-public class Union implements Element {
+public class Union extends AbstractDefinition implements Element {
 
 
 	private final Typename[] map;
@@ -55,15 +54,9 @@ public class Union implements Element {
 	}
 
 	@Override
-	public boolean equals(Object o) {
-		if (o == null || getClass() != o.getClass()) return false;
-		Union union = (Union) o;
-		return isSealed == union.isSealed && Objects.deepEquals(map, union.map);
-	}
-
-	@Override
-	public int hashCode() {
-		return Objects.hash(Arrays.hashCode(map), isSealed);
+	protected boolean sameStructure(AbstractDefinition other) {
+		Union union = (Union) other;
+		return isSealed == union.isSealed && Arrays.equals(map, union.map);
 	}
 
 	@Override
@@ -24,6 +24,18 @@ import io.litterat.annotation.Union;
 @Typename(namespace = "schema", name = "atom_attribute")
 public abstract class AtomAttribute {
 
+	// Attributes without values are equal when they are the same class.
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) return true;
+		return o != null && getClass() == o.getClass();
+	}
+
+	@Override
+	public int hashCode() {
+		return getClass().hashCode();
+	}
+
 	@Record
 	@Typename(namespace = "schema", name = "atom_fixed_length")
 	public static class AtomFixedLength extends AtomAttribute {
@@ -38,6 +50,16 @@ public abstract class AtomAttribute {
 		public int bytes() {
 			return this.bytes;
 		}
+
+		@Override
+		public boolean equals(Object o) {
+			return super.equals(o) && bytes == ((AtomFixedLength) o).bytes;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * super.hashCode() + bytes;
+		}
 	}
 
 	@Record
@@ -62,6 +84,17 @@ public abstract class AtomAttribute {
 		public int maxBytes() {
 			return this.maxBytes;
 		}
+
+		@Override
+		public boolean equals(Object o) {
+			return super.equals(o) && minBytes == ((AtomVariableLength) o).minBytes
+					&& maxBytes == ((AtomVariableLength) o).maxBytes;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * super.hashCode() + minBytes) + maxBytes;
+		}
 	}
 
 }
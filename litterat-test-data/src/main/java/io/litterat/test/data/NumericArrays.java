@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.data;
+
+import io.litterat.annotation.Record;
+
+public class NumericArrays {
+
+	private final int[] ints;
+	private final long[] longs;
+	private final float[] floats;
+	private final double[] doubles;
+
+	@Record
+	public NumericArrays(int[] ints, long[] longs, float[] floats, double[] doubles) {
+		this.ints = ints;
+		this.longs = longs;
+		this.floats = floats;
+		this.doubles = doubles;
+	}
+
+	public int[] ints() {
+		return ints;
+	}
+
+	public long[] longs() {
+		return longs;
+	}
+
+	public float[] floats() {
+		return floats;
+	}
+
+	public double[] doubles() {
+		return doubles;
+	}
+}
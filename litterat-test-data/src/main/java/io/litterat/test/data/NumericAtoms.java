@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.data;
+
+import io.litterat.annotation.Record;
+
+public class NumericAtoms {
+
+	private final byte pByte;
+	private final short pShort;
+	private final int pInteger;
+	private final long pLong;
+	private final Long oLong;
+	private final float pFloat;
+	private final double pDouble;
+	private final Double oDouble;
+
+	@Record
+	public NumericAtoms(byte pByte, short pShort, int pInteger, long pLong, Long oLong, float pFloat, double pDouble,
+			Double oDouble) {
+		this.pByte = pByte;
+		this.pShort = pShort;
+		this.pInteger = pInteger;
+		this.pLong = pLong;
+		this.oLong = oLong;
+		this.pFloat = pFloat;
+		this.pDouble = pDouble;
+		this.oDouble = oDouble;
+	}
+
+	public byte pByte() {
+		return pByte;
+	}
+
+	public short pShort() {
+		return pShort;
+	}
+
+	public int pInteger() {
+		return pInteger;
+	}
+
+	public long pLong() {
+		return pLong;
+	}
+
+	public Long oLong() {
+		return oLong;
+	}
+
+	public float pFloat() {
+		return pFloat;
+	}
+
+	public double pDouble() {
+		return pDouble;
+	}
+
+	public Double oDouble() {
+		return oDouble;
+	}
+}
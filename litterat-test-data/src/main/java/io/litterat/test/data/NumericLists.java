@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.data;
+
+import io.litterat.annotation.Record;
+
+import java.util.List;
+
+public class NumericLists {
+
+	private final List<Integer> ints;
+	private final List<Long> longs;
+	private final List<Float> floats;
+	private final List<Double> doubles;
+
+	@Record
+	public NumericLists(List<Integer> ints, List<Long> longs, List<Float> floats, List<Double> doubles) {
+		this.ints = ints;
+		this.longs = longs;
+		this.floats = floats;
+		this.doubles = doubles;
+	}
+
+	public List<Integer> ints() {
+		return ints;
+	}
+
+	public List<Long> longs() {
+		return longs;
+	}
+
+	public List<Float> floats() {
+		return floats;
+	}
+
+	public List<Double> doubles() {
+		return doubles;
+	}
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.data;
+
+import io.litterat.annotation.Record;
+
+/**
+ * First version of an order, evolved by OrderV2.
+ */
+public class OrderV1 {
+
+	private final int id;
+	private final String customer;
+	private final String note;
+	private final int quantity;
+	private final SimpleImmutable location;
+
+	@Record
+	public OrderV1(int id, String customer, String note, int quantity, SimpleImmutable location) {
+		this.id = id;
+		this.customer = customer;
+		this.note = note;
+		this.quantity = quantity;
+		this.location = location;
+	}
+
+	public int id() {
+		return id;
+	}
+
+	public String customer() {
+		return customer;
+	}
+
+	public String note() {
+		return note;
+	}
+
+	public int quantity() {
+		return quantity;
+	}
+
+	public SimpleImmutable location() {
+		return location;
+	}
+}
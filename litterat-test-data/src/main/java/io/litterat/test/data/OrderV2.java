@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.data;
+
+import io.litterat.annotation.Record;
+
+import java.util.Optional;
+
+/**
+ * Second version of OrderV1. The note is removed, currency and discount are added, quantity is widened
+ * to a long and the fields are reordered.
+ */
+public class OrderV2 {
+
+	private final long quantity;
+	private final SimpleImmutable location;
+	private final int id;
+	private final Optional<String> currency;
+	private final String customer;
+	private final double discount;
+
+	@Record
+	public OrderV2(long quantity, SimpleImmutable location, int id, Optional<String> currency, String customer,
+			double discount) {
+		this.quantity = quantity;
+		this.location = location;
+		this.id = id;
+		this.currency = currency;
+		this.customer = customer;
+		this.discount = discount;
+	}
+
+	public long quantity() {
+		return quantity;
+	}
+
+	public SimpleImmutable location() {
+		return location;
+	}
+
+	public int id() {
+		return id;
+	}
+
+	public Optional<String> currency() {
+		return currency;
+	}
+
+	public String customer() {
+		return customer;
+	}
+
+	public double discount() {
+		return discount;
+	}
+}
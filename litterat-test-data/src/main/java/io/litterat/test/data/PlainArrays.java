@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.data;
+
+import io.litterat.annotation.Record;
+
+/**
+ *
+ * The fields of EncodedArrays without encodings.
+ *
+ */
+public class PlainArrays {
+
+	private final long[] timestamps;
+	private final int[] sequence;
+	private final long[] ids;
+	private final int[] counts;
+
+	@Record
+	public PlainArrays(long[] timestamps, int[] sequence, long[] ids, int[] counts) {
+		this.timestamps = timestamps;
+		this.sequence = sequence;
+		this.ids = ids;
+		this.counts = counts;
+	}
+
+	public long[] timestamps() {
+		return timestamps;
+	}
+
+	public int[] sequence() {
+		return sequence;
+	}
+
+	public long[] ids() {
+		return ids;
+	}
+
+	public int[] counts() {
+		return counts;
+	}
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.data;
+
+import io.litterat.annotation.Record;
+
+import java.util.Objects;
+
+/**
+ *
+ * A small record with mostly numeric fields, as found in large arrays of measurements.
+ *
+ */
+public class Sample {
+
+	private final long time;
+	private final double value;
+	private final float weight;
+	private final int count;
+	private final String label;
+
+	@Record
+	public Sample(long time, double value, float weight, int count, String label) {
+		this.time = time;
+		this.value = value;
+		this.weight = weight;
+		this.count = count;
+		this.label = label;
+	}
+
+	public long time() {
+		return time;
+	}
+
+	public double value() {
+		return value;
+	}
+
+	public float weight() {
+		return weight;
+	}
+
+	public int count() {
+		return count;
+	}
+
+	public String label() {
+		return label;
+	}
+
+	@Override
+	public String toString() {
+		return "{" + time + "," + value + "," + weight + "," + count + "," + label + "}";
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		Sample other = (Sample) obj;
+		return time == other.time && Double.compare(value, other.value) == 0
+				&& Float.compare(weight, other.weight) == 0 && count == other.count
+				&& Objects.equals(label, other.label);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(time, value, weight, count, label);
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.data;
+
+import io.litterat.annotation.Record;
+
+import java.util.Arrays;
+
+/**
+ *
+ * A named array of samples.
+ *
+ */
+public class SampleSeries {
+
+	private final String name;
+	private final Sample[] samples;
+
+	@Record
+	public SampleSeries(String name, Sample[] samples) {
+		this.name = name;
+		this.samples = samples;
+	}
+
+	public String name() {
+		return name;
+	}
+
+	public Sample[] samples() {
+		return samples;
+	}
+
+	@Override
+	public String toString() {
+		return "SampleSeries{" + name + "," + Arrays.toString(samples) + "}";
+	}
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.data;
+
+import io.litterat.annotation.Record;
+
+/**
+ *
+ * A named array of samples read with the later version of Sample.
+ *
+ */
+public class SampleSeriesV2 {
+
+	private final String name;
+	private final SampleV2[] samples;
+
+	@Record
+	public SampleSeriesV2(String name, SampleV2[] samples) {
+		this.name = name;
+		this.samples = samples;
+	}
+
+	public String name() {
+		return name;
+	}
+
+	public SampleV2[] samples() {
+		return samples;
+	}
+}
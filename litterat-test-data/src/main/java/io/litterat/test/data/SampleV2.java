@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.data;
+
+import io.litterat.annotation.Record;
+
+/**
+ *
+ * A later version of Sample. The weight has been removed, the count widened and the fields reordered.
+ *
+ */
+public class SampleV2 {
+
+	private final String label;
+	private final long time;
+	private final long count;
+	private final double value;
+
+	@Record
+	public SampleV2(String label, long time, long count, double value) {
+		this.label = label;
+		this.time = time;
+		this.count = count;
+		this.value = value;
+	}
+
+	public String label() {
+		return label;
+	}
+
+	public long time() {
+		return time;
+	}
+
+	public long count() {
+		return count;
+	}
+
+	public double value() {
+		return value;
+	}
+}
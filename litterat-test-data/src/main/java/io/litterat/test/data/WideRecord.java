@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.data;
+
+import io.litterat.annotation.Record;
+
+public class WideRecord {
+
+	private final int id;
+	private final String name;
+	private final SimpleImmutable[] points;
+	private final double[] values;
+	private final long count;
+	private final String[] tags;
+	private final SimpleImmutable origin;
+	private final float ratio;
+
+	@Record
+	public WideRecord(int id, String name, SimpleImmutable[] points, double[] values, long count, String[] tags,
+			SimpleImmutable origin, float ratio) {
+		this.id = id;
+		this.name = name;
+		this.points = points;
+		this.values = values;
+		this.count = count;
+		this.tags = tags;
+		this.origin = origin;
+		this.ratio = ratio;
+	}
+
+	public int id() {
+		return id;
+	}
+
+	public String name() {
+		return name;
+	}
+
+	public SimpleImmutable[] points() {
+		return points;
+	}
+
+	public double[] values() {
+		return values;
+	}
+
+	public long count() {
+		return count;
+	}
+
+	public String[] tags() {
+		return tags;
+	}
+
+	public SimpleImmutable origin() {
+		return origin;
+	}
+
+	public float ratio() {
+		return ratio;
+	}
+}
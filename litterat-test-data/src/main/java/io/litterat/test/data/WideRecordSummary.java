@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.data;
+
+import io.litterat.annotation.Record;
+
+/**
+ * A projection of WideRecord, with fields in a different order.
+ */
+public class WideRecordSummary {
+
+	private final float ratio;
+	private final int id;
+	private final String[] tags;
+
+	@Record
+	public WideRecordSummary(float ratio, int id, String[] tags) {
+		this.ratio = ratio;
+		this.id = id;
+		this.tags = tags;
+	}
+
+	public float ratio() {
+		return ratio;
+	}
+
+	public int id() {
+		return id;
+	}
+
+	public String[] tags() {
+		return tags;
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.test.data.WideRecord;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+public class BatchTest {
+
+	TypeContext context;
+
+	List<SimpleImmutable> points;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+
+		points = new ArrayList<>();
+		for (int x = 0; x < 1000; x++) {
+			points.add(new SimpleImmutable(x, -x));
+		}
+	}
+
+	@Test
+	public void testWriteReadAll() throws IOException {
+		byte[] buffer = new byte[20000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), buffer);
+		out.writeAll(points, SimpleImmutable.class);
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		List<SimpleImmutable> result = in.readAll(SimpleImmutable.class).collect(Collectors.toList());
+		Assertions.assertEquals(points, result);
+	}
+
+	@Test
+	public void testBatchBetweenValues() throws IOException {
+		// Values written around a batch are read as usual, and definitions may appear inside it.
+		WideRecord wide = new WideRecord(1, "wide", new SimpleImmutable[] { new SimpleImmutable(1, 2) },
+				new double[] { 1.0 }, 2L, new String[] { "a", "b" }, new SimpleImmutable(3, 4), 0.5f);
+
+		byte[] buffer = new byte[20000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), buffer).enableStringReferences();
+		out.writeObject("before");
+		out.writeAll(List.of(wide, wide, wide), WideRecord.class);
+		out.writeAll(List.of(), SimpleImmutable.class);
+		out.writeObject("after");
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		Assertions.assertEquals("before", in.readObject());
+		List<WideRecord> result = in.readAll(WideRecord.class).collect(Collectors.toList());
+		Assertions.assertEquals(3, result.size());
+		for (WideRecord record : result) {
+			Assertions.assertEquals(wide.name(), record.name());
+			Assertions.assertArrayEquals(wide.tags(), record.tags());
+			Assertions.assertEquals(wide.origin(), record.origin());
+		}
+		Assertions.assertEquals(0, in.readAll(SimpleImmutable.class).count());
+		Assertions.assertEquals("after", in.readObject());
+	}
+
+	@Test
+	public void testSameAsWriteObject() throws IOException {
+		// A batch is the values as writeObject writes them between the batch header and end.
+		byte[] batch = new byte[20000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), batch);
+		out.writeAll(points, SimpleImmutable.class);
+
+		byte[] single = new byte[20000];
+		TypeOutputStream singleOut = new TypeOutputStream(new TypeMap(context), single);
+		for (SimpleImmutable point : points) {
+			singleOut.writeObject(point);
+		}
+
+		Assertions.assertEquals(singleOut.output().position() + 3, out.output().position());
+	}
+
+	@Test
+	public void testReadWrongType() throws IOException {
+		byte[] buffer = new byte[20000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), buffer);
+		out.writeAll(points, SimpleImmutable.class);
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		Assertions.assertThrows(UncheckedIOException.class, () -> in.readAll(WideRecord.class).count());
+	}
+
+	@Test
+	public void testParallelSameAsSequential() throws IOException {
+		List<SimpleImmutable> many = new ArrayList<>();
+		for (int x = 0; x < 20000; x++) {
+			many.add(new SimpleImmutable(x, x * 7));
+		}
+
+		byte[] sequential = new byte[200000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), sequential);
+		out.writeAll(many, SimpleImmutable.class);
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			byte[] parallel = new byte[200000];
+			TypeOutputStream parallelOut = new TypeOutputStream(new TypeMap(context), parallel);
+			parallelOut.writeAll(many, SimpleImmutable.class, pool);
+
+			Assertions.assertEquals(out.output().position(), parallelOut.output().position());
+			Assertions.assertTrue(Arrays.equals(sequential, parallel));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelNestedTypes() throws IOException {
+		// Nested types are first used inside the chunks and may be defined by several of them.
+		List<WideRecord> many = new ArrayList<>();
+		for (int x = 0; x < 5000; x++) {
+			many.add(new WideRecord(x, "record" + x, new SimpleImmutable[] { new SimpleImmutable(x, 1) },
+					new double[] { x }, x * 3L, new String[] { "t" + (x % 10) }, new SimpleImmutable(1, x), x / 2f));
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		byte[] buffer = new byte[1000000];
+		try {
+			TypeOutputStream out = new TypeOutputStream(new TypeMap(context), buffer);
+			out.writeAll(many, WideRecord.class, pool);
+			out.writeObject(new SimpleImmutable(-1, -1));
+		} finally {
+			pool.shutdown();
+		}
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		List<WideRecord> result = in.readAll(WideRecord.class).collect(Collectors.toList());
+		Assertions.assertEquals(many.size(), result.size());
+		for (int x = 0; x < many.size(); x++) {
+			Assertions.assertEquals(many.get(x).name(), result.get(x).name());
+			Assertions.assertArrayEquals(many.get(x).tags(), result.get(x).tags());
+			Assertions.assertEquals(many.get(x).origin(), result.get(x).origin());
+		}
+		Assertions.assertEquals(new SimpleImmutable(-1, -1), in.readObject());
+	}
+
+	@Test
+	public void testParallelStringReferencesRejected() throws IOException {
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), new byte[1000]).enableStringReferences();
+		Assertions.assertThrows(IllegalStateException.class,
+				() -> out.writeAll(points, SimpleImmutable.class, ForkJoinPool.commonPool()));
+	}
+
+	@Test
+	public void testFramedRejected() throws IOException {
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), new byte[1000]).enableFrames();
+		Assertions.assertThrows(IllegalStateException.class, () -> out.writeAll(points, SimpleImmutable.class));
+	}
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Typename;
+import io.litterat.test.data.NumericArrays;
+import io.litterat.test.data.NumericLists;
+import io.litterat.test.data.PrimitiveArray;
+import io.litterat.xpl.TypeBaseInput;
+import io.litterat.xpl.TypeBaseOutput;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.io.ByteArrayBaseInput;
+import io.litterat.xpl.io.ByteArrayBaseOutput;
+import io.litterat.xpl.io.ByteBufferBaseInput;
+import io.litterat.xpl.io.ByteBufferBaseOutput;
+import io.litterat.xpl.io.StreamBaseInput;
+import io.litterat.xpl.io.StreamBaseOutput;
+import io.litterat.xpl.lang.CompilerBackend;
+import io.litterat.xpl.resolve.DeltaCodec;
+import io.litterat.xpl.resolve.FrameOfReferenceCodec;
+import io.litterat.xpl.resolve.PrimitiveArrays;
+import io.litterat.xpl.resolve.StreamVByteCodec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkArrayTest {
+
+	static final Typename NUMBERS = new Typename("test", "numbers");
+
+	NumericArrays test;
+
+	TypeContext context;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+
+		int[] ints = new int[1000];
+		long[] longs = new long[1000];
+		float[] floats = new float[1000];
+		double[] doubles = new double[1000];
+		for (int x = 0; x < 1000; x++) {
+			ints[x] = x * 31 - 500;
+			longs[x] = (long) x * 0x1_0000_0001L - 7;
+			floats[x] = x / 3.0f;
+			doubles[x] = -x / 7.0;
+		}
+		test = new NumericArrays(ints, longs, floats, doubles);
+	}
+
+	private void check(NumericArrays result) {
+		Assertions.assertArrayEquals(test.ints(), result.ints());
+		Assertions.assertArrayEquals(test.longs(), result.longs());
+		Assertions.assertArrayEquals(test.floats(), result.floats());
+		Assertions.assertArrayEquals(test.doubles(), result.doubles());
+	}
+
+	@Test
+	public void testBackends() throws IOException {
+		for (CompilerBackend backend : CompilerBackend.values()) {
+			byte[] buffer = new byte[30000];
+			TypeOutputStream out = new TypeOutputStream(new TypeMap(context, backend), buffer);
+			out.writeObject(test);
+			out.close();
+
+			TypeInputStream in = new TypeInputStream(new TypeMap(context, backend), buffer);
+			check(in.readObject());
+		}
+	}
+
+	@Test
+	public void testStream() throws IOException {
+		// Buffer smaller than the arrays so the blocks are split across refills.
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), new StreamBaseOutput(bytes, 100));
+		out.writeObject(test);
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context),
+				new StreamBaseInput(new ByteArrayInputStream(bytes.toByteArray()), 100));
+		check(in.readObject());
+	}
+
+	@Test
+	public void testByteBuffer() throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocateDirect(30000);
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), buffer);
+		out.writeObject(test);
+		out.close();
+		buffer.flip();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		check(in.readObject());
+	}
+
+	@Test
+	public void testBulkMatchesElementEncoding() throws IOException {
+		// Bulk float and double blocks are identical to writing the elements one at a time.
+		byte[] bulk = new byte[100];
+		byte[] single = new byte[100];
+		TypeBaseOutput bulkOut = new ByteArrayBaseOutput(bulk);
+		TypeBaseOutput singleOut = new ByteArrayBaseOutput(single);
+
+		float[] floats = { 1.5f, -2f, 300000f, Float.MIN_VALUE };
+		double[] doubles = { 0.25, -1e300, Double.NaN };
+		bulkOut.writeFloats(floats, 0, floats.length);
+		bulkOut.writeDoubles(doubles, 0, doubles.length);
+		for (float f : floats) {
+			singleOut.writeFloat(f);
+		}
+		for (double d : doubles) {
+			singleOut.writeDouble(d);
+		}
+		Assertions.assertArrayEquals(single, bulk);
+
+		TypeBaseInput in = new ByteArrayBaseInput(bulk);
+		float[] floatResult = new float[4];
+		double[] doubleResult = new double[3];
+		in.readFloats(floatResult, 0, 4);
+		in.readDoubles(doubleResult, 0, 3);
+		Assertions.assertArrayEquals(floats, floatResult);
+		Assertions.assertArrayEquals(doubles, doubleResult);
+	}
+
+	@Test
+	public void testArrayWrittenListRead() throws IOException, TypeException {
+		// The wire only depends on the schema, an int[] is read by a peer binding the type to a List.
+		TypeContext writerContext = TypeContext.builder().build();
+		writerContext.register(NUMBERS, NumericArrays.class);
+		TypeContext readerContext = TypeContext.builder().build();
+		readerContext.register(NUMBERS, NumericLists.class);
+
+		byte[] buffer = new byte[30000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(writerContext), buffer);
+		out.writeObject(test);
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(readerContext), buffer);
+		NumericLists result = in.readObject();
+		for (int x = 0; x < test.ints().length; x++) {
+			Assertions.assertEquals(test.ints()[x], (int) result.ints().get(x));
+			Assertions.assertEquals(test.longs()[x], (long) result.longs().get(x));
+			Assertions.assertEquals(test.floats()[x], (float) result.floats().get(x));
+			Assertions.assertEquals(test.doubles()[x], (double) result.doubles().get(x));
+		}
+	}
+
+	@Test
+	public void testListWrittenArrayRead() throws IOException, TypeException {
+		TypeContext writerContext = TypeContext.builder().build();
+		writerContext.register(NUMBERS, NumericLists.class);
+		TypeContext readerContext = TypeContext.builder().build();
+		readerContext.register(NUMBERS, NumericArrays.class);
+
+		List<Integer> ints = new ArrayList<>();
+		List<Long> longs = new ArrayList<>();
+		List<Float> floats = new ArrayList<>();
+		List<Double> doubles = new ArrayList<>();
+		for (int x = 0; x < test.ints().length; x++) {
+			ints.add(test.ints()[x]);
+			longs.add(test.longs()[x]);
+			floats.add(test.floats()[x]);
+			doubles.add(test.doubles()[x]);
+		}
+
+		byte[] buffer = new byte[30000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(writerContext), buffer);
+		out.writeObject(new NumericLists(ints, longs, floats, doubles));
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(readerContext), buffer);
+		check(in.readObject());
+	}
+
+	@Test
+	public void testPrimitiveArrayWireCompatible() throws IOException {
+		PrimitiveArray array = new PrimitiveArray(new int[] { 5, 6, 7 });
+		byte[] buffer = new byte[200];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), new ByteBufferBaseOutput(ByteBuffer.wrap(buffer)));
+		out.writeObject(array);
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), new ByteBufferBaseInput(ByteBuffer.wrap(buffer)));
+		PrimitiveArray result = in.readObject();
+		Assertions.assertArrayEquals(array.intArray(), result.intArray());
+	}
+
+	@Test
+	public void testPeerLengthBounded() throws IOException {
+		// A length larger than the input could hold, or one which wraps negative, is rejected before
+		// the array is allocated.
+		byte[] huge = new byte[10];
+		new ByteArrayBaseOutput(huge).writeUVarInt32(Integer.MAX_VALUE);
+		byte[] negative = new byte[10];
+		new ByteArrayBaseOutput(negative).writeUVarInt32(-1);
+
+		for (byte[] buffer : List.of(huge, negative)) {
+			Assertions.assertThrows(IOException.class, () -> PrimitiveArrays.readInt32s(input(buffer)));
+			Assertions.assertThrows(IOException.class, () -> PrimitiveArrays.readInt64s(input(buffer)));
+			Assertions.assertThrows(IOException.class, () -> PrimitiveArrays.readFloats(input(buffer)));
+			Assertions.assertThrows(IOException.class, () -> PrimitiveArrays.readDoubles(input(buffer)));
+			Assertions.assertThrows(IOException.class, () -> new DeltaCodec().readInt32s(input(buffer)));
+			Assertions.assertThrows(IOException.class, () -> new StreamVByteCodec().readInt64s(input(buffer)));
+			Assertions.assertThrows(IOException.class, () -> new FrameOfReferenceCodec().readInt32s(input(buffer)));
+
+			// A stream can not tell how much is left, so only the maximum length applies.
+			Assertions.assertThrows(IOException.class,
+					() -> PrimitiveArrays.readInt64s(new StreamBaseInput(new ByteArrayInputStream(buffer))));
+		}
+	}
+
+	private static TypeBaseInput input(byte[] buffer) {
+		return new ByteArrayBaseInput(buffer);
+	}
+}
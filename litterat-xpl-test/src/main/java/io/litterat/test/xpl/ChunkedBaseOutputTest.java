@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.schema.TypeException;
+import io.litterat.test.data.SimpleArray;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.io.BufferPool;
+import io.litterat.xpl.io.ChunkedBaseOutput;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class ChunkedBaseOutputTest {
+
+	SimpleArray test = new SimpleArray(
+			new SimpleImmutable[] { new SimpleImmutable(1, 2), new SimpleImmutable(22, 212), new SimpleImmutable(-7, 99) });
+
+	TypeContext context;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+	}
+
+	@Test
+	public void testValuesSpanChunks() throws IOException, TypeException {
+		BufferPool pool = BufferPool.heap(16);
+		ChunkedBaseOutput output = new ChunkedBaseOutput(pool);
+		TypeMap typeMap = new TypeMap(context);
+		TypeOutputStream out = new TypeOutputStream(typeMap, output);
+		for (int x = 0; x < 20; x++) {
+			out.writeObject(test);
+		}
+		out.close();
+
+		Assertions.assertTrue(output.buffers().length > 1);
+		Assertions.assertTrue(typeMap.getEntry(SimpleArray.class).sizeHint() > 0);
+
+		byte[] bytes = output.toByteArray();
+		Assertions.assertEquals(output.position(), bytes.length);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), bytes);
+		for (int x = 0; x < 20; x++) {
+			SimpleArray result = (SimpleArray) in.readObject();
+			Assertions.assertArrayEquals(test.arrayImmutable(), result.arrayImmutable());
+		}
+	}
+
+	@Test
+	public void testWriteBytesAcrossChunks() throws IOException {
+		ChunkedBaseOutput output = new ChunkedBaseOutput(BufferPool.heap(16));
+		byte[] data = new byte[100];
+		for (int x = 0; x < data.length; x++) {
+			data[x] = (byte) x;
+		}
+		output.writeInt8((byte) -1);
+		output.writeBytes(data, 0, data.length);
+
+		byte[] result = output.toByteArray();
+		Assertions.assertEquals(101, result.length);
+		Assertions.assertEquals(-1, result[0]);
+		Assertions.assertEquals(99, result[100]);
+	}
+
+	@Test
+	public void testGatheringWrite() throws IOException {
+		ChunkedBaseOutput output = new ChunkedBaseOutput(BufferPool.direct(32));
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), output);
+		for (int x = 0; x < 10; x++) {
+			out.writeObject(test);
+		}
+
+		Path file = Files.createTempFile("litterat", ".bin");
+		try {
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+				Assertions.assertEquals(output.position(), output.writeTo(channel));
+			}
+			Assertions.assertArrayEquals(output.toByteArray(), Files.readAllBytes(file));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testReleaseReturnsChunks() throws IOException {
+		BufferPool pool = BufferPool.heap(16);
+		ChunkedBaseOutput output = new ChunkedBaseOutput(pool);
+		output.reserve(64);
+		for (int x = 0; x < 12; x++) {
+			output.writeInt32(x);
+		}
+		Assertions.assertEquals(48, output.position());
+
+		output.release();
+		Assertions.assertEquals(0, output.position());
+		Assertions.assertTrue(pool.pooled() >= 3);
+
+		ByteBuffer chunk = pool.acquire();
+		Assertions.assertEquals(0, chunk.position());
+		Assertions.assertEquals(16, chunk.capacity());
+	}
+
+	@Test
+	public void testChunkTakenOnFirstWrite() throws IOException {
+		BufferPool pool = BufferPool.heap(16);
+		pool.release(pool.acquire());
+		Assertions.assertEquals(1, pool.pooled());
+
+		// An output discarded without writing does not take a chunk from the pool.
+		ChunkedBaseOutput output = new ChunkedBaseOutput(pool);
+		Assertions.assertEquals(1, pool.pooled());
+		Assertions.assertEquals(0, output.buffers().length);
+		Assertions.assertEquals(0, output.toByteArray().length);
+
+		output.writeInt8((byte) 1);
+		Assertions.assertEquals(0, pool.pooled());
+		output.release();
+		Assertions.assertEquals(1, pool.pooled());
+	}
+
+	@Test
+	public void testUInt64Range() throws IOException {
+		ChunkedBaseOutput output = new ChunkedBaseOutput(BufferPool.heap(16));
+		output.writeUInt64(Long.MAX_VALUE);
+		Assertions.assertThrows(IOException.class, () -> output.writeUInt64(-1));
+		Assertions.assertEquals(8, output.position());
+	}
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Typename;
+import io.litterat.test.data.Sample;
+import io.litterat.test.data.SampleSeries;
+import io.litterat.test.data.SampleSeriesV2;
+import io.litterat.test.data.SampleV2;
+import io.litterat.test.data.SimpleArray;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.lang.CompilerBackend;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+public class ColumnsTest {
+
+	TypeContext context;
+
+	SampleSeries series;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+
+		Sample[] samples = new Sample[100];
+		for (int x = 0; x < samples.length; x++) {
+			samples[x] = new Sample(1000L + x, x * 0.25, x / 4.0f, x % 7, x % 10 == 0 ? null : "s" + (x % 3));
+		}
+		series = new SampleSeries("series", samples);
+	}
+
+	private byte[] write(TypeMap typeMap, boolean columns, Object... values) throws IOException {
+		byte[] buffer = new byte[20000];
+		TypeOutputStream out = new TypeOutputStream(typeMap, buffer);
+		if (columns) {
+			out.enableColumns();
+		}
+		for (Object value : values) {
+			out.writeObject(value);
+		}
+		out.close();
+		return buffer;
+	}
+
+	private void check(SampleSeries expected, SampleSeries result) {
+		Assertions.assertEquals(expected.name(), result.name());
+		Assertions.assertArrayEquals(expected.samples(), result.samples());
+	}
+
+	@Test
+	public void testColumnsRoundTrip() throws IOException {
+		byte[] buffer = write(new TypeMap(context), true, series, series);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		check(series, in.readObject());
+		check(series, in.readObject());
+		Assertions.assertTrue(in.columns());
+	}
+
+	@Test
+	public void testIntegerColumns() throws IOException {
+		// Int and long columns are read into primitive arrays, check the full range of each.
+		long[] times = { Long.MIN_VALUE, -1L, 0L, 1L << 40, Long.MAX_VALUE };
+		int[] counts = { Integer.MIN_VALUE, -300, 0, 70000, Integer.MAX_VALUE };
+		Sample[] samples = new Sample[times.length];
+		for (int x = 0; x < samples.length; x++) {
+			samples[x] = new Sample(times[x], -x, x, counts[x], null);
+		}
+		SampleSeries extremes = new SampleSeries("extremes", samples);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), write(new TypeMap(context), true, extremes));
+		check(extremes, in.readObject());
+	}
+
+	@Test
+	public void testColumnsDisabledByDefault() throws IOException {
+		// Without columns arrays of records are written element by element as before.
+		SimpleArray array = new SimpleArray(new SimpleImmutable[] { new SimpleImmutable(1, 2), new SimpleImmutable(3, 4) });
+
+		Assertions.assertFalse(new TypeOutputStream(new TypeMap(context), new byte[1000]).columns());
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), write(new TypeMap(context), false, array));
+		SimpleArray result = in.readObject();
+		Assertions.assertFalse(in.columns());
+		Assertions.assertArrayEquals(array.arrayImmutable(), result.arrayImmutable());
+	}
+
+	@Test
+	public void testColumnsSmallerThanRows() throws IOException {
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), new byte[20000]);
+		long rows = out.sizeOf(series);
+		long columns = out.enableColumns().sizeOf(series);
+
+		// Each element of the rows repeats its stream id.
+		Assertions.assertTrue(columns < rows - series.samples().length / 2);
+	}
+
+	@Test
+	public void testEmptyAndNestedArrays() throws IOException {
+		SampleSeries empty = new SampleSeries("empty", new Sample[0]);
+		SimpleArray array = new SimpleArray(new SimpleImmutable[] { new SimpleImmutable(5, 6) });
+		byte[] buffer = write(new TypeMap(context), true, empty, array, series);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		check(empty, in.readObject());
+		SimpleArray result = in.readObject();
+		Assertions.assertArrayEquals(array.arrayImmutable(), result.arrayImmutable());
+		check(series, in.readObject());
+	}
+
+	@Test
+	public void testSkipColumns() throws IOException, TypeException {
+		byte[] buffer = write(new TypeMap(context), true, series, "after");
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		in.skipValue(context.getTypename(SampleSeries.class));
+		Assertions.assertEquals("after", in.readObject());
+	}
+
+	@Test
+	public void testNullElementRejected() throws IOException {
+		SampleSeries nulls = new SampleSeries("nulls", new Sample[] { series.samples()[0], null });
+
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), new byte[1000]).enableColumns();
+		Assertions.assertThrows(IOException.class, () -> out.writeObject(nulls));
+	}
+
+	@Test
+	public void testFramedColumns() throws IOException {
+		byte[] buffer = new byte[40000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), buffer).enableFrames().enableColumns();
+		for (int x = 0; x < 20; x++) {
+			out.writeObject(series);
+		}
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		check(series, in.readObject());
+		in.skipFrame();
+		check(series, in.readObject());
+
+		// Frames decoded on other threads take the setting of the stream they were read from.
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			var results = in.readFrames(SampleSeries.class, pool, 4).collect(Collectors.toList());
+			Assertions.assertEquals(17, results.size());
+			results.forEach((result) -> check(series, result));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testResolveColumns() throws IOException, TypeException {
+		Typename sampleType = new Typename("test", "sample");
+		Typename seriesType = new Typename("test", "series");
+
+		TypeContext writerContext = TypeContext.builder().build();
+		writerContext.register(sampleType, Sample.class);
+		writerContext.register(seriesType, SampleSeries.class);
+
+		TypeContext readerContext = TypeContext.builder().build();
+		readerContext.register(sampleType, SampleV2.class);
+		readerContext.register(seriesType, SampleSeriesV2.class);
+
+		byte[] buffer = write(new TypeMap(writerContext), true, series);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(readerContext), buffer);
+		SampleSeriesV2 result = in.readObject();
+		Assertions.assertEquals(series.name(), result.name());
+		Assertions.assertEquals(series.samples().length, result.samples().length);
+		for (int x = 0; x < result.samples().length; x++) {
+			Sample expected = series.samples()[x];
+			SampleV2 sample = result.samples()[x];
+			Assertions.assertEquals(expected.time(), sample.time());
+			Assertions.assertEquals(expected.value(), sample.value());
+			Assertions.assertEquals(expected.count(), sample.count());
+			Assertions.assertEquals(expected.label(), sample.label());
+		}
+	}
+
+	@Test
+	public void testBackends() throws IOException {
+		byte[] expected = null;
+		for (CompilerBackend backend : CompilerBackend.values()) {
+			TypeContext backendContext = TypeContext.builder().build();
+			byte[] buffer = write(new TypeMap(backendContext, backend), true, series);
+			if (expected == null) {
+				expected = buffer;
+			}
+			Assertions.assertTrue(Arrays.equals(expected, buffer), backend.toString());
+
+			TypeInputStream in = new TypeInputStream(new TypeMap(backendContext, backend), buffer);
+			check(series, in.readObject());
+		}
+	}
+}
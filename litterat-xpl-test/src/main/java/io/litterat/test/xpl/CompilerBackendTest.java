@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.schema.TypeException;
+import io.litterat.test.data.ListOfString;
+import io.litterat.test.data.PrimitiveArray;
+import io.litterat.test.data.SimpleArray;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.lang.CompilerBackend;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+public class CompilerBackendTest {
+
+	SimpleArray simpleArray = new SimpleArray(
+			new SimpleImmutable[] { new SimpleImmutable(1, 2), new SimpleImmutable(22, 212) });
+
+	PrimitiveArray primitiveArray = new PrimitiveArray(new int[] { 1, -2, 300000 });
+
+	ListOfString listOfString = new ListOfString(List.of("one", "two", "three"));
+
+	TypeContext context;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+	}
+
+	@Test
+	public void testInterpreter() throws IOException, TypeException {
+		roundTrip(CompilerBackend.INTERPRETER);
+	}
+
+	@Test
+	public void testMethodHandle() throws IOException, TypeException {
+		roundTrip(CompilerBackend.METHOD_HANDLE);
+	}
+
+	@Test
+	public void testBytecode() throws IOException, TypeException {
+		roundTrip(CompilerBackend.BYTECODE);
+	}
+
+	private void roundTrip(CompilerBackend backend) throws IOException, TypeException {
+
+		byte[] buffer = new byte[1000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context, backend), buffer);
+		out.writeObject(simpleArray);
+		out.writeObject(primitiveArray);
+		out.writeObject(listOfString);
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context, backend), buffer);
+		SimpleArray simpleArrayRead = in.readObject();
+		PrimitiveArray primitiveArrayRead = in.readObject();
+		ListOfString listOfStringRead = in.readObject();
+
+		Assertions.assertArrayEquals(simpleArray.arrayImmutable(), simpleArrayRead.arrayImmutable());
+		Assertions.assertArrayEquals(primitiveArray.intArray(), primitiveArrayRead.intArray());
+		Assertions.assertEquals(listOfString.list(), listOfStringRead.list());
+	}
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Array;
+import io.litterat.schema.meta.ArrayEncoding;
+import io.litterat.schema.meta.EncodedArray;
+import io.litterat.schema.meta.Meta;
+import io.litterat.schema.meta.Record;
+import io.litterat.schema.meta.Typename;
+import io.litterat.test.data.EncodedArrays;
+import io.litterat.test.data.PlainArrays;
+import io.litterat.test.data.PrimitiveArray;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeMapEntry;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.io.ByteArrayBaseInput;
+import io.litterat.xpl.io.ByteArrayBaseOutput;
+import io.litterat.xpl.lang.CompilerBackend;
+import io.litterat.xpl.resolve.DeltaCodec;
+import io.litterat.xpl.resolve.FrameOfReferenceCodec;
+import io.litterat.xpl.resolve.IntegerArrayCodec;
+import io.litterat.xpl.resolve.PrimitiveArrays;
+import io.litterat.xpl.resolve.StreamVByteCodec;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class EncodedArrayTest {
+
+	static final Typename ARRAYS = new Typename("test", "arrays");
+
+	TypeContext context;
+
+	EncodedArrays encoded;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+
+		long[] timestamps = new long[1000];
+		int[] sequence = new int[1000];
+		long[] ids = new long[1000];
+		int[] counts = new int[1000];
+		for (int x = 0; x < timestamps.length; x++) {
+			timestamps[x] = 1_600_000_000_000L + x * 1000L + (x % 7);
+			sequence[x] = 50_000 + x;
+			ids[x] = x * 31L - 500;
+			counts[x] = x % 300;
+		}
+		encoded = new EncodedArrays(timestamps, sequence, ids, counts);
+	}
+
+	private void check(EncodedArrays expected, EncodedArrays result) {
+		Assertions.assertArrayEquals(expected.timestamps(), result.timestamps());
+		Assertions.assertArrayEquals(expected.sequence(), result.sequence());
+		Assertions.assertArrayEquals(expected.ids(), result.ids());
+		Assertions.assertArrayEquals(expected.counts(), result.counts());
+	}
+
+	@Test
+	public void testCodecs() throws IOException {
+		int[][] ints = { {}, { 0 }, { -1, 1 }, { Integer.MIN_VALUE, Integer.MAX_VALUE, 0, -1, 1 },
+				{ 5, 5, 5, 5, 5, 5, 5 }, { 1, 300, 70000, 20000000, -20000000, -70000, -300 } };
+		long[][] longs = { {}, { 0 }, { -1, 1 }, { Long.MIN_VALUE, Long.MAX_VALUE, 0, -1, 1 },
+				{ 1L << 40, 1L << 48, 1L << 56, -(1L << 56), 3 }, { 7, 7, 7 } };
+
+		for (IntegerArrayCodec codec : new IntegerArrayCodec[] { new DeltaCodec(), new FrameOfReferenceCodec(),
+				new StreamVByteCodec() }) {
+			byte[] buffer = new byte[20000];
+			ByteArrayBaseOutput output = new ByteArrayBaseOutput(buffer);
+			for (int[] values : ints) {
+				codec.write(output, values);
+			}
+			for (long[] values : longs) {
+				codec.write(output, values);
+			}
+			codec.write(output, encoded.sequence());
+			codec.write(output, encoded.timestamps());
+
+			ByteArrayBaseInput input = new ByteArrayBaseInput(buffer);
+			for (int[] values : ints) {
+				Assertions.assertArrayEquals(values, codec.readInt32s(input));
+			}
+			for (long[] values : longs) {
+				Assertions.assertArrayEquals(values, codec.readInt64s(input));
+			}
+			Assertions.assertArrayEquals(encoded.sequence(), codec.readInt32s(input));
+			Assertions.assertArrayEquals(encoded.timestamps(), codec.readInt64s(input));
+			Assertions.assertEquals(output.position(), input.position());
+		}
+	}
+
+	@Test
+	public void testEncodedSmaller() throws IOException {
+		PlainArrays plain = new PlainArrays(encoded.timestamps(), encoded.sequence(), encoded.ids(), encoded.counts());
+
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), new byte[100]);
+		long plainSize = out.sizeOf(plain);
+		long encodedSize = out.sizeOf(encoded);
+
+		// Timestamps are six byte varints, deltas of about 1000 fit in two bytes.
+		Assertions.assertTrue(encodedSize * 3 < plainSize * 2, encodedSize + " " + plainSize);
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		byte[] buffer = new byte[40000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), buffer);
+		out.writeObject(encoded);
+		out.writeObject(new EncodedArrays(new long[0], new int[0], new long[0], new int[0]));
+		out.writeObject("after");
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		check(encoded, in.readObject());
+		EncodedArrays empty = in.readObject();
+		Assertions.assertEquals(0, empty.timestamps().length);
+		Assertions.assertEquals("after", in.readObject());
+	}
+
+	@Test
+	public void testDefinitionCarriesEncoding() throws IOException, TypeException {
+		// The reader binds the typename to a class without encodings and decodes with the writer's.
+		TypeContext writerContext = TypeContext.builder().build();
+		writerContext.register(ARRAYS, EncodedArrays.class);
+		TypeContext readerContext = TypeContext.builder().build();
+		readerContext.register(ARRAYS, PlainArrays.class);
+
+		byte[] buffer = new byte[40000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(writerContext), buffer);
+		out.writeObject(encoded);
+		out.writeObject("after");
+		out.close();
+
+		TypeMap readerMap = new TypeMap(readerContext);
+		TypeInputStream in = new TypeInputStream(readerMap, buffer);
+		PlainArrays result = in.readObject();
+		Assertions.assertArrayEquals(encoded.timestamps(), result.timestamps());
+		Assertions.assertArrayEquals(encoded.sequence(), result.sequence());
+		Assertions.assertArrayEquals(encoded.ids(), result.ids());
+		Assertions.assertArrayEquals(encoded.counts(), result.counts());
+		Assertions.assertEquals("after", in.readObject());
+
+		// The resolved entry is registered by its stream id with the writer's definition.
+		TypeMapEntry entry = null;
+		for (int streamId = 0; entry == null && streamId < 1000; streamId++) {
+			TypeMapEntry candidate = readerMap.getEntry(streamId);
+			if (candidate != null && candidate.typename().equals(ARRAYS)) {
+				entry = candidate;
+			}
+		}
+		Assertions.assertNotNull(entry);
+		Record definition = (Record) entry.definition();
+		Array timestamps = (Array) definition.fields()[0].type();
+		Assertions.assertTrue(timestamps.encoding()[0] instanceof ArrayEncoding.ArrayDelta);
+	}
+
+	@Test
+	public void testSkipEncoded() throws IOException, TypeException {
+		byte[] buffer = new byte[40000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), buffer);
+		out.writeObject(encoded);
+		out.writeObject("after");
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		in.skipValue(context.getTypename(EncodedArrays.class));
+		Assertions.assertEquals("after", in.readObject());
+	}
+
+	@Test
+	public void testFingerprint() throws TypeException {
+		// Encodings change the fingerprint.
+		Array plain = new Array(Meta.INT64);
+		Array delta = new EncodedArray(Meta.INT64, new ArrayEncoding[] { new ArrayEncoding.ArrayDelta() });
+		Array vbyte = new EncodedArray(Meta.INT64, new ArrayEncoding[] { new ArrayEncoding.ArrayStreamVByte() });
+		Assertions.assertEquals(0, plain.encoding().length);
+		Assertions.assertFalse(plain.equals(delta));
+		Assertions.assertFalse(delta.equals(vbyte));
+		Assertions.assertEquals(delta,
+				new EncodedArray(Meta.INT64, new ArrayEncoding[] { new ArrayEncoding.ArrayDelta() }));
+		Assertions.assertEquals(PrimitiveArrays.getCodec(delta).getClass(), DeltaCodec.class);
+	}
+
+	@Test
+	public void testPlainArrayUnchanged() throws IOException, TypeException {
+		// Definitions and fingerprints of arrays without an encoding are the same as before encodings
+		// were added, so existing streams and snapshots are still read.
+		Assertions.assertEquals(0x018505cd477ebec6L, new Array(Meta.INT32).fingerprint());
+		Typename primitiveArray = context.getTypename(PrimitiveArray.class);
+		Assertions.assertEquals(0xc198e3acc51f54a8L, context.getDefinition(primitiveArray).fingerprint());
+
+		byte[] buffer = new byte[200];
+		ByteArrayBaseOutput output = new ByteArrayBaseOutput(buffer);
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), output);
+		out.writeObject(new PrimitiveArray(new int[] { 1, -2, 300000 }));
+
+		// The meta definition of an array still has the element type only.
+		Record array = (Record) context.getDefinition(Meta.ARRAY);
+		Assertions.assertEquals(1, array.fields().length);
+
+		Assertions.assertEquals("ae0201a802092002030116696f2e6c697474657261742e746573742e64617461010f5072696d69"
+				+ "746976654172726179040501060109696e74417272617907080301056d6574610106696e7433320010030203c0cf24",
+				hex(buffer, (int) output.position()));
+	}
+
+	private static String hex(byte[] bytes, int length) {
+		StringBuilder builder = new StringBuilder();
+		for (int x = 0; x < length; x++) {
+			builder.append(String.format("%02x", bytes[x]));
+		}
+		return builder.toString();
+	}
+
+	@Test
+	public void testBackends() throws IOException {
+		for (CompilerBackend backend : CompilerBackend.values()) {
+			TypeContext backendContext = TypeContext.builder().build();
+			byte[] buffer = new byte[40000];
+			TypeOutputStream out = new TypeOutputStream(new TypeMap(backendContext, backend), buffer);
+			out.writeObject(encoded);
+			out.close();
+
+			TypeInputStream in = new TypeInputStream(new TypeMap(backendContext, backend), buffer);
+			check(encoded, in.readObject());
+		}
+	}
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.test.data.NumericAtoms;
+import io.litterat.test.data.SimpleArray;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+public class FramedStreamTest {
+
+	SimpleImmutable immutable = new SimpleImmutable(1, 2);
+
+	SimpleArray array = new SimpleArray(
+			new SimpleImmutable[] { new SimpleImmutable(3, 4), new SimpleImmutable(22, 212) });
+
+	NumericAtoms atoms = new NumericAtoms((byte) 1, (short) 2, 3, 4L, 5L, 6f, 7.0, 8.0);
+
+	TypeContext context;
+
+	byte[] buffer;
+
+	@BeforeEach
+	public void setup() throws IOException {
+		context = TypeContext.builder().build();
+
+		buffer = new byte[1000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), buffer).enableFrames();
+		out.writeObject(immutable);
+		out.writeObject(array);
+		out.writeObject(atoms);
+		out.writeObject(immutable);
+		out.close();
+	}
+
+	@Test
+	public void testReadFrames() throws IOException {
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+
+		Assertions.assertEquals(immutable, in.readObject());
+		SimpleArray arrayResult = in.readObject();
+		Assertions.assertEquals(array.arrayImmutable()[1], arrayResult.arrayImmutable()[1]);
+		NumericAtoms atomsResult = in.readObject();
+		Assertions.assertEquals(atoms.pLong(), atomsResult.pLong());
+		Assertions.assertEquals(immutable, in.readObject());
+	}
+
+	@Test
+	public void testSkipAndSlice() throws IOException {
+		TypeMap map = new TypeMap(context);
+		TypeInputStream in = new TypeInputStream(map, buffer);
+
+		in.skipFrame();
+
+		// Definitions for the skipped values are still applied.
+		ByteBuffer frame = in.nextFrame();
+		Assertions.assertEquals(SimpleArray.class, in.frameEntry(frame).dataClass().typeClass());
+
+		SimpleArray arrayResult = new TypeInputStream(map, frame).readObject();
+		Assertions.assertEquals(array.arrayImmutable()[0], arrayResult.arrayImmutable()[0]);
+
+		in.skipFrame();
+		Assertions.assertEquals(immutable, in.readObject());
+	}
+
+	@Test
+	public void testResynchronise() throws IOException {
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+
+		// The rest of the frame of a failed read is skipped on the next read.
+		Assertions.assertThrows(IOException.class, () -> in.readObject(SimpleArray.class));
+		in.readObject(SimpleArray.class);
+
+		Assertions.assertThrows(IOException.class, () -> in.readObject(SimpleImmutable.class));
+		Assertions.assertEquals(immutable, in.readObject());
+	}
+
+	@Test
+	public void testSizeOf() throws IOException {
+		byte[] framed = new byte[1000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), framed).enableFrames();
+
+		for (Object value : new Object[] { array, array, atoms }) {
+			long expected = out.sizeOf(value);
+			long start = out.output().position();
+			out.writeObject(value);
+			Assertions.assertEquals(expected, out.output().position() - start);
+		}
+	}
+
+	@Test
+	public void testNotFramed() throws IOException {
+		byte[] plain = new byte[1000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), plain);
+		out.writeObject(immutable);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), plain);
+		Assertions.assertThrows(IOException.class, () -> in.skipFrame());
+		Assertions.assertThrows(IllegalStateException.class,
+				() -> new TypeOutputStream(plain).enableFrames().enableStringReferences());
+	}
+
+	@Test
+	public void testReadFramesParallel() throws IOException {
+		// New types are defined part way through, after earlier frames are already being decoded.
+		List<Object> values = new ArrayList<>();
+		for (int x = 0; x < 3000; x++) {
+			values.add(new SimpleImmutable(x, -x));
+			if (x == 1000) {
+				values.add(array);
+			}
+			if (x == 2000) {
+				values.add(atoms);
+			}
+		}
+
+		byte[] large = new byte[100000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), large).enableFrames();
+		for (Object value : values) {
+			out.writeObject(value);
+		}
+		out.close();
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			TypeInputStream in = new TypeInputStream(new TypeMap(context), large);
+			List<Object> result = in.readFrames(Object.class, pool, 16).collect(Collectors.toList());
+
+			Assertions.assertEquals(values.size(), result.size());
+			for (int x = 0; x < values.size(); x++) {
+				if (values.get(x) instanceof SimpleImmutable) {
+					Assertions.assertEquals(values.get(x), result.get(x));
+				} else {
+					Assertions.assertEquals(values.get(x).getClass(), result.get(x).getClass());
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testReadFramesWrongType() throws IOException {
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		Assertions.assertThrows(UncheckedIOException.class,
+				() -> in.readFrames(SimpleImmutable.class, ForkJoinPool.commonPool(), 2).count());
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.schema.TypeException;
+import io.litterat.test.data.PrimitiveArray;
+import io.litterat.test.data.SimpleArray;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeMapEntry;
+import io.litterat.xpl.TypeOutputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class LitteratAssemblerTest {
+
+	SimpleArray test = new SimpleArray(
+			new SimpleImmutable[] { new SimpleImmutable(1, 2), new SimpleImmutable(22, 212) });
+
+	PrimitiveArray primitives = new PrimitiveArray(new int[] { 1, -2, 300000 });
+
+	TypeContext context;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+	}
+
+	@Test
+	public void testRecordCodecIsHiddenClass() throws IOException, TypeException {
+
+		TypeMap map = new TypeMap(context);
+
+		byte[] buffer = new byte[500];
+		TypeOutputStream out = new TypeOutputStream(map, buffer);
+		out.writeObject(test);
+		out.close();
+
+		TypeMapEntry entry = map.getEntry(SimpleArray.class);
+		Assertions.assertNotNull(entry);
+		Assertions.assertTrue(entry.writer().getClass().isHidden());
+		Assertions.assertSame(entry.reader(), entry.writer());
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		SimpleArray result = in.readObject();
+
+		Assertions.assertArrayEquals(test.arrayImmutable(), result.arrayImmutable());
+	}
+
+	@Test
+	public void testPrimitiveArrayRoundTrip() throws IOException, TypeException {
+
+		byte[] buffer = new byte[500];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), buffer);
+		out.writeObject(primitives);
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		PrimitiveArray result = in.readObject();
+
+		Assertions.assertTrue(Arrays.equals(primitives.intArray(), result.intArray()));
+	}
+}
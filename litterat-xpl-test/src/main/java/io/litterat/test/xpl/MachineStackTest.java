@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.schema.TypeException;
+import io.litterat.test.data.SimpleArray;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.lang.CompilerBackend;
+import io.litterat.xpl.lang.LitteratMachine;
+import io.litterat.xpl.lang.MachineStack;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class MachineStackTest {
+
+	@Test
+	public void testFramesAreReused() {
+		TypeMap map = new TypeMap(TypeContext.builder().build());
+		MachineStack stack = new MachineStack();
+
+		LitteratMachine first = stack.push(map, new Class<?>[] { Object.class, int.class });
+		LitteratMachine nested = stack.push(map, new Class<?>[] { Object.class });
+		Assertions.assertNotSame(first, nested);
+		stack.pop();
+		stack.pop();
+
+		Assertions.assertSame(first, stack.push(map, new Class<?>[] { Object.class, double.class, long.class }));
+		stack.pop();
+		Assertions.assertEquals(0, stack.depth());
+	}
+
+	@Test
+	public void testTypedSlots() {
+		TypeMap map = new TypeMap(TypeContext.builder().build());
+		LitteratMachine machine = new LitteratMachine(map,
+				new Class<?>[] { Object.class, int.class, double.class, float.class, boolean.class });
+
+		machine.setInt(1, -5);
+		machine.setDouble(2, 3.25);
+		machine.setVariable(3, 1.5f);
+		machine.setBoolean(4, true);
+
+		Assertions.assertEquals(-5, machine.getVariable(1));
+		Assertions.assertEquals(3.25, machine.getDouble(2));
+		Assertions.assertEquals(1.5f, machine.getFloat(3));
+		Assertions.assertEquals(Boolean.TRUE, machine.getVariable(4));
+	}
+
+	@Test
+	public void testStackUnwoundAfterNestedWrite() throws IOException, TypeException {
+		SimpleArray test = new SimpleArray(new SimpleImmutable[] { new SimpleImmutable(1, 2) });
+
+		TypeOutputStream out = new TypeOutputStream(
+				new TypeMap(TypeContext.builder().build(), CompilerBackend.INTERPRETER), new byte[500]);
+		out.writeObject(test);
+
+		Assertions.assertEquals(0, out.machines().depth());
+	}
+}
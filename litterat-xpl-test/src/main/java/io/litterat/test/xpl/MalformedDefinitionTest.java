@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Entry;
+import io.litterat.schema.meta.Typename;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.TypeStream;
+import io.litterat.xpl.TypeStreamEntry;
+import io.litterat.xpl.io.ByteArrayBaseOutput;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class MalformedDefinitionTest {
+
+	TypeContext context;
+
+	Typename typename;
+
+	@BeforeEach
+	public void setup() throws TypeException {
+		context = TypeContext.builder().build();
+		typename = context.getTypename(SimpleImmutable.class);
+	}
+
+	// A stream holding a definition of SimpleImmutable with the given stream id and a value using it.
+	private byte[] define(int streamId) throws IOException, TypeException {
+		return define(streamId, true);
+	}
+
+	private byte[] define(int streamId, boolean versioned) throws IOException, TypeException {
+		// Writing the entry defines the typename it holds first, so write that beforehand and only keep
+		// the bytes of the entry.
+		byte[] scratch = new byte[500];
+		ByteArrayBaseOutput scratchOutput = new ByteArrayBaseOutput(scratch);
+		TypeOutputStream scratchOut = new TypeOutputStream(new TypeMap(context), scratchOutput);
+		scratchOut.writeObject(typename);
+		int start = (int) scratchOutput.position();
+		scratchOut.writeObject(new TypeStreamEntry(streamId, new Entry(typename, context.getDefinition(typename))));
+		int end = (int) scratchOutput.position();
+
+		byte[] buffer = new byte[500];
+		ByteArrayBaseOutput output = new ByteArrayBaseOutput(buffer);
+		if (versioned) {
+			output.writeUVarInt32(TypeStream.VERSION);
+			output.writeUVarInt32(TypeStream.FORMAT_VERSION);
+		}
+		output.writeUVarInt32(TypeStream.DEFINE_TYPE);
+		output.writeBytes(scratch, start, end - start);
+		output.writeUVarInt32(streamId);
+		output.writeVarInt32(1);
+		output.writeVarInt32(2);
+		return buffer;
+	}
+
+	private void assertRejected(int streamId) throws IOException, TypeException {
+		TypeMap map = new TypeMap(context);
+		TypeInputStream in = new TypeInputStream(map, define(streamId));
+
+		IOException e = Assertions.assertThrows(IOException.class, () -> in.readObject());
+		Assertions.assertTrue(e.getCause() instanceof TypeException, String.valueOf(e.getCause()));
+
+		// Nothing was registered for the definition.
+		Assertions.assertNull(map.getEntry(typename));
+	}
+
+	@Test
+	public void testValidDefinition() throws IOException, TypeException {
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), define(40));
+		SimpleImmutable value = in.readObject();
+
+		Assertions.assertEquals(new SimpleImmutable(1, 2), value);
+	}
+
+	@Test
+	public void testUnversionedStream() throws IOException, TypeException {
+		// Streams written before the format version was added start with a definition.
+		TypeMap map = new TypeMap(context);
+		TypeInputStream in = new TypeInputStream(map, define(40, false));
+
+		IOException e = Assertions.assertThrows(IOException.class, () -> in.readObject());
+		Assertions.assertTrue(e.getCause() instanceof TypeException, String.valueOf(e.getCause()));
+		Assertions.assertNull(map.getEntry(typename));
+	}
+
+	@Test
+	public void testUnsupportedVersion() throws IOException, TypeException {
+		byte[] buffer = define(40);
+		buffer[2] = (byte) (TypeStream.FORMAT_VERSION + 1);
+
+		IOException e = Assertions.assertThrows(IOException.class,
+				() -> new TypeInputStream(new TypeMap(context), buffer).readObject());
+		Assertions.assertTrue(e.getCause() instanceof TypeException, String.valueOf(e.getCause()));
+	}
+
+	@Test
+	public void testHugeStreamId() throws IOException, TypeException {
+		assertRejected(0x7FFFFFF0);
+	}
+
+	@Test
+	public void testNegativeStreamId() throws IOException, TypeException {
+		assertRejected(-5);
+	}
+
+	@Test
+	public void testZeroStreamId() throws IOException, TypeException {
+		assertRejected(0);
+	}
+
+	@Test
+	public void testReservedStreamId() throws IOException, TypeException {
+		assertRejected(TypeStream.DEFINE_TYPE);
+		assertRejected(TypeStream.COLUMNS);
+	}
+
+	@Test
+	public void testRegisterEntry() throws TypeException {
+		TypeMap map = new TypeMap(context);
+		Entry entry = new Entry(typename, context.getDefinition(typename));
+
+		Assertions.assertThrows(TypeException.class, () -> map.registerEntry(new TypeStreamEntry(-1, entry)));
+		Assertions.assertThrows(TypeException.class,
+				() -> map.registerEntry(new TypeStreamEntry(TypeStream.BATCH, entry)));
+		Assertions.assertThrows(TypeException.class,
+				() -> map.registerEntry(new TypeStreamEntry(Integer.MAX_VALUE, entry)));
+	}
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.test.data.SimpleArray;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.io.MappedFileBaseInput;
+import io.litterat.xpl.io.StreamBaseOutput;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class MappedFileBaseInputTest {
+
+	SimpleArray test = new SimpleArray(
+			new SimpleImmutable[] { new SimpleImmutable(1, 2), new SimpleImmutable(22, 212) });
+
+	TypeContext context;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+	}
+
+	@Test
+	public void testPrimitivesAcrossSegments() throws IOException {
+		Path file = Files.createTempFile("litterat", ".xpl");
+		try {
+			try (OutputStream stream = Files.newOutputStream(file)) {
+				StreamBaseOutput output = new StreamBaseOutput(stream);
+				for (int x = 0; x < 20; x++) {
+					output.writeInt8((byte) x);
+					output.writeInt16((short) -x);
+					output.writeInt32(0x01020304 * x);
+					output.writeInt64(-0x0102030405060708L * x);
+					output.writeUVarInt64(-1L);
+				}
+				output.flush();
+			}
+
+			try (FileChannel channel = FileChannel.open(file)) {
+				// An odd segment size forces values across segment boundaries.
+				MappedFileBaseInput input = new MappedFileBaseInput(channel, 17);
+				for (int x = 0; x < 20; x++) {
+					Assertions.assertEquals((byte) x, input.readInt8());
+					Assertions.assertEquals((short) -x, input.readInt16());
+					Assertions.assertEquals(0x01020304 * x, input.readInt32());
+					Assertions.assertEquals(-0x0102030405060708L * x, input.readInt64());
+					Assertions.assertEquals(-1L, input.readUVarInt64());
+				}
+				Assertions.assertFalse(input.hasRemaining());
+				Assertions.assertThrows(EOFException.class, () -> input.readInt8());
+
+				input.seek(1);
+				Assertions.assertEquals((short) 0, input.readInt16());
+				Assertions.assertEquals(3, input.position());
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testBulkAcrossSegments() throws IOException {
+		float[] floats = new float[9];
+		double[] doubles = new double[7];
+		for (int x = 0; x < floats.length; x++) {
+			floats[x] = x * 1.5f;
+		}
+		for (int x = 0; x < doubles.length; x++) {
+			doubles[x] = -x * 0.25;
+		}
+		String text = "caf\u00e9 \u4e16\u754c \ud83d\ude00";
+		byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+
+		Path file = Files.createTempFile("litterat", ".xpl");
+		try {
+			try (OutputStream stream = Files.newOutputStream(file)) {
+				StreamBaseOutput output = new StreamBaseOutput(stream);
+				output.writeInt8((byte) 1);
+				output.writeFloats(floats, 0, floats.length);
+				output.writeDoubles(doubles, 0, doubles.length);
+				output.writeBytes(utf8, 0, utf8.length);
+				output.writeInt8((byte) 2);
+				output.flush();
+			}
+
+			try (FileChannel channel = FileChannel.open(file)) {
+				// An odd segment size puts values across segment boundaries.
+				MappedFileBaseInput input = new MappedFileBaseInput(channel, 17);
+				Assertions.assertEquals(1, input.readInt8());
+
+				float[] floatResult = new float[floats.length];
+				double[] doubleResult = new double[doubles.length];
+				input.readFloats(floatResult, 0, floats.length);
+				input.readDoubles(doubleResult, 0, doubles.length);
+				Assertions.assertArrayEquals(floats, floatResult);
+				Assertions.assertArrayEquals(doubles, doubleResult);
+				Assertions.assertEquals(text, input.readUtf8(utf8.length));
+				Assertions.assertEquals(2, input.readInt8());
+
+				// Skip moves across segments and is checked against the end of the file.
+				input.seek(0);
+				input.skip(1 + floats.length * 4);
+				Assertions.assertEquals(doubles[0], input.readDouble());
+				input.skip(input.remaining() - 1);
+				Assertions.assertEquals(2, input.readInt8());
+				Assertions.assertThrows(EOFException.class, () -> input.skip(1));
+				Assertions.assertThrows(EOFException.class, () -> input.readFloats(floatResult, 0, 1));
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testReplayFile() throws IOException {
+		Path file = Files.createTempFile("litterat", ".xpl");
+		try {
+			try (OutputStream stream = Files.newOutputStream(file)) {
+				TypeOutputStream out = new TypeOutputStream(new TypeMap(context), stream);
+				for (int x = 0; x < 50; x++) {
+					out.writeObject(test);
+				}
+				out.close();
+			}
+
+			try (FileChannel channel = FileChannel.open(file)) {
+				MappedFileBaseInput input = new MappedFileBaseInput(channel, 64);
+				for (int pass = 0; pass < 2; pass++) {
+					input.seek(0);
+					TypeInputStream in = new TypeInputStream(new TypeMap(context), input);
+					int count = 0;
+					while (input.hasRemaining()) {
+						SimpleArray result = (SimpleArray) in.readObject();
+						Assertions.assertArrayEquals(test.arrayImmutable(), result.arrayImmutable());
+						count++;
+					}
+					Assertions.assertEquals(50, count);
+				}
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.test.data.SimpleArray;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.io.MemorySegmentBaseInput;
+import io.litterat.xpl.io.MemorySegmentBaseOutput;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MemorySegmentBaseTest {
+
+	SimpleArray test = new SimpleArray(
+			new SimpleImmutable[] { new SimpleImmutable(1, 2), new SimpleImmutable(22, 212) });
+
+	TypeContext context;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+	}
+
+	@Test
+	public void testArenaSegment() throws IOException {
+		try (Arena arena = Arena.ofConfined()) {
+			MemorySegmentBaseOutput output = new MemorySegmentBaseOutput(arena.allocate(1024));
+			output.writeInt16((short) -2);
+			output.writeInt64(Long.MIN_VALUE + 7);
+			output.writeVarInt32(-65);
+			output.writeUVarInt64(-1L);
+
+			MemorySegmentBaseInput input = new MemorySegmentBaseInput(output.written());
+			Assertions.assertEquals((short) -2, input.readInt16());
+			Assertions.assertEquals(Long.MIN_VALUE + 7, input.readInt64());
+			Assertions.assertEquals(-65, input.readVarInt32());
+			Assertions.assertEquals(-1L, input.readUVarInt64());
+			Assertions.assertEquals(0, input.remaining());
+			Assertions.assertThrows(EOFException.class, () -> input.readInt8());
+		}
+	}
+
+	@Test
+	public void testSegmentFull() throws IOException {
+		try (Arena arena = Arena.ofConfined()) {
+			MemorySegmentBaseOutput output = new MemorySegmentBaseOutput(arena.allocate(6));
+			output.writeInt32(1);
+			Assertions.assertThrows(EOFException.class, () -> output.writeInt32(2));
+		}
+	}
+
+	@Test
+	public void testSharedMappedSegment() throws IOException {
+		Path file = Files.createTempFile("litterat", ".xpl");
+		try (Arena arena = Arena.ofShared();
+				FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			MemorySegment shared = channel.map(FileChannel.MapMode.READ_WRITE, 0, 4096, arena);
+
+			MemorySegmentBaseOutput output = new MemorySegmentBaseOutput(shared);
+			TypeOutputStream out = new TypeOutputStream(new TypeMap(context), output);
+			for (int x = 0; x < 10; x++) {
+				out.writeObject(test);
+			}
+			out.close();
+
+			MemorySegmentBaseInput input = new MemorySegmentBaseInput(output.written());
+			TypeInputStream in = new TypeInputStream(new TypeMap(context), input);
+			for (int x = 0; x < 10; x++) {
+				SimpleArray result = (SimpleArray) in.readObject();
+				Assertions.assertArrayEquals(test.arrayImmutable(), result.arrayImmutable());
+			}
+			Assertions.assertEquals(0, input.remaining());
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
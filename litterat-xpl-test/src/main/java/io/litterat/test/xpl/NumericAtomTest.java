@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.bind.DataClassRecord;
+import io.litterat.core.TypeContext;
+import io.litterat.test.data.NumericAtoms;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.io.ByteArrayBaseInput;
+import io.litterat.xpl.io.ByteArrayBaseOutput;
+import io.litterat.xpl.lang.CompilerBackend;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class NumericAtomTest {
+
+	TypeContext context;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+	}
+
+	private NumericAtoms roundTrip(CompilerBackend backend, NumericAtoms test) throws IOException {
+		byte[] buffer = new byte[1000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context, backend), buffer);
+		out.writeObject(test);
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context, backend), buffer);
+		return in.readObject();
+	}
+
+	private void check(NumericAtoms test, NumericAtoms result) {
+		Assertions.assertEquals(test.pByte(), result.pByte());
+		Assertions.assertEquals(test.pShort(), result.pShort());
+		Assertions.assertEquals(test.pInteger(), result.pInteger());
+		Assertions.assertEquals(test.pLong(), result.pLong());
+		Assertions.assertEquals(test.oLong(), result.oLong());
+		Assertions.assertEquals(test.pFloat(), result.pFloat());
+		Assertions.assertEquals(test.pDouble(), result.pDouble());
+		Assertions.assertEquals(test.oDouble(), result.oDouble());
+	}
+
+	@Test
+	public void testLimits() throws IOException {
+		NumericAtoms min = new NumericAtoms(Byte.MIN_VALUE, Short.MIN_VALUE, Integer.MIN_VALUE, Long.MIN_VALUE,
+				Long.MIN_VALUE, -Float.MAX_VALUE, -Double.MAX_VALUE, Double.MIN_VALUE);
+		NumericAtoms max = new NumericAtoms(Byte.MAX_VALUE, Short.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE,
+				Long.MAX_VALUE, Float.MAX_VALUE, Double.MAX_VALUE, Double.NaN);
+
+		for (CompilerBackend backend : CompilerBackend.values()) {
+			check(min, roundTrip(backend, min));
+			check(max, roundTrip(backend, max));
+		}
+	}
+
+	@Test
+	public void testSmallValuesAreCompact() throws IOException {
+		// A timestamp delta of -1 is a single zig-zag byte rather than eight fixed bytes.
+		TypeMap map = new TypeMap(context);
+		byte[] buffer = new byte[1000];
+		TypeOutputStream out = new TypeOutputStream(map, buffer);
+		NumericAtoms small = new NumericAtoms((byte) -1, (short) -1, -1, -1L, 1L, 0.5f, 0.25, 2.0);
+		out.writeObject(small);
+		long definition = out.output().position();
+
+		out.writeObject(small);
+		long value = out.output().position() - definition;
+		out.close();
+
+		// stream id + byte + 4 single byte varints + float + double + double.
+		Assertions.assertEquals(1 + 1 + 4 + 4 + 8 + 8, value);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		check(small, in.readObject());
+		check(small, in.readObject());
+	}
+
+	@Test
+	public void testZigZag() throws IOException {
+		byte[] buffer = new byte[100];
+		ByteArrayBaseOutput out = new ByteArrayBaseOutput(buffer);
+		out.writeVarInt32(-1);
+		out.writeVarInt64(-2);
+		out.writeVarInt64(Long.MIN_VALUE);
+		Assertions.assertEquals(1, buffer[0]);
+		Assertions.assertEquals(3, buffer[1]);
+		Assertions.assertEquals(1 + 1 + 10, out.position());
+
+		ByteArrayBaseInput in = new ByteArrayBaseInput(java.util.Arrays.copyOf(buffer, (int) out.position()));
+		Assertions.assertEquals(-1, in.readVarInt32());
+		Assertions.assertEquals(-2, in.readVarInt64());
+		Assertions.assertEquals(Long.MIN_VALUE, in.readVarInt64());
+	}
+
+	@Test
+	public void testDirectConstructor() throws Exception {
+		DataClassRecord dataClass = (DataClassRecord) context.getDescriptor(NumericAtoms.class);
+		Assertions.assertTrue(dataClass.directConstructor() != null);
+		Assertions.assertEquals(long.class, dataClass.directConstructor().type().parameterType(3));
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Typename;
+import io.litterat.test.data.OrderV1;
+import io.litterat.test.data.OrderV2;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.lang.CompilerBackend;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+
+public class SchemaEvolutionTest {
+
+	static final Typename ORDER = new Typename("test", "order");
+
+	OrderV1 first = new OrderV1(1, "alice", "leave at door", 3, new SimpleImmutable(1, 2));
+	OrderV1 second = new OrderV1(2, "bob", null, 70000, new SimpleImmutable(3, 4));
+
+	SimpleImmutable point = new SimpleImmutable(10, 20);
+
+	// Each version is bound to the same typename in its own context, as a writer and reader would be.
+	TypeContext writerContext;
+	TypeContext readerContext;
+
+	@BeforeEach
+	public void setup() throws TypeException {
+		writerContext = TypeContext.builder().build();
+		writerContext.register(ORDER, OrderV1.class);
+
+		readerContext = TypeContext.builder().build();
+		readerContext.register(ORDER, OrderV2.class);
+	}
+
+	private byte[] write(Object... values) throws IOException {
+		byte[] buffer = new byte[1000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(writerContext), buffer);
+		for (Object value : values) {
+			out.writeObject(value);
+		}
+		out.close();
+		return buffer;
+	}
+
+	private void check(OrderV1 expected, OrderV2 result) {
+		Assertions.assertEquals(expected.id(), result.id());
+		Assertions.assertEquals(expected.customer(), result.customer());
+		Assertions.assertEquals(expected.quantity(), result.quantity());
+		Assertions.assertEquals(expected.location(), result.location());
+		Assertions.assertEquals(Optional.empty(), result.currency());
+		Assertions.assertEquals(0.0, result.discount());
+	}
+
+	@Test
+	public void testResolve() throws IOException {
+		byte[] buffer = write(first, point, second);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(readerContext), buffer);
+		check(first, in.readObject());
+		Assertions.assertEquals(point, in.readObject());
+		check(second, in.readObject());
+	}
+
+	@Test
+	public void testResolveBackends() throws IOException {
+		// Removed, added, widened and reordered fields are resolved by the compiled reader of each backend.
+		byte[] buffer = write(first, point, second);
+
+		for (CompilerBackend backend : CompilerBackend.values()) {
+			TypeInputStream in = new TypeInputStream(new TypeMap(readerContext, backend), buffer);
+			check(first, in.readObject());
+			Assertions.assertEquals(point, in.readObject());
+			check(second, in.readObject());
+		}
+	}
+
+	@Test
+	public void testResolveClass() throws IOException {
+		byte[] buffer = write(first, second);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(readerContext), buffer);
+		check(first, in.readObject(OrderV2.class));
+		check(second, in.readObject(OrderV2.class));
+	}
+
+	@Test
+	public void testSkipResolved() throws IOException {
+		// Skipping follows the writer definition, including the removed note field.
+		byte[] buffer = write(first, point);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(readerContext), buffer);
+		in.skipValue(ORDER);
+		Assertions.assertEquals(point, in.readObject());
+	}
+
+	@Test
+	public void testWriteAfterResolve() throws IOException {
+		// The local definition is still used to write once a peer definition has been resolved.
+		byte[] buffer = write(first);
+
+		TypeMap typeMap = new TypeMap(readerContext);
+		TypeInputStream in = new TypeInputStream(typeMap, buffer);
+		OrderV2 order = in.readObject();
+
+		byte[] output = new byte[1000];
+		TypeOutputStream out = new TypeOutputStream(typeMap, output);
+		out.writeObject(order);
+		out.close();
+
+		OrderV2 result = new TypeInputStream(new TypeMap(readerContext), output).readObject();
+		Assertions.assertEquals(order.quantity(), result.quantity());
+		Assertions.assertEquals(order.customer(), result.customer());
+	}
+
+	@Test
+	public void testNarrowingFails() throws IOException {
+		// A long quantity can not be read into the int of the earlier version.
+		byte[] buffer = new byte[1000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(readerContext), buffer);
+		out.writeObject(new OrderV2(5L, point, 1, Optional.of("AUD"), "carol", 0.5));
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(writerContext), buffer);
+		Assertions.assertThrows(IOException.class, () -> in.readObject());
+	}
+}
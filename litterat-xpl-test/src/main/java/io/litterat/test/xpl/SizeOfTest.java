@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.test.data.ListOfString;
+import io.litterat.test.data.NumericArrays;
+import io.litterat.test.data.NumericAtoms;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.io.ByteArrayBaseInput;
+import io.litterat.xpl.io.ByteArrayBaseOutput;
+import io.litterat.xpl.io.SizeBaseOutput;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+public class SizeOfTest {
+
+	TypeContext context;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+	}
+
+	private void checkSizes(TypeOutputStream out, Object... values) throws IOException {
+		for (Object value : values) {
+			long expected = out.sizeOf(value);
+			long start = out.output().position();
+			out.writeObject(value);
+			Assertions.assertEquals(expected, out.output().position() - start);
+		}
+	}
+
+	@Test
+	public void testExactSize() throws IOException {
+		NumericAtoms atoms = new NumericAtoms((byte) 1, (short) -300, 70000, -1L << 40, 5L, 1.5f, 2.5, -0.0);
+		NumericArrays arrays = new NumericArrays(new int[] { 1, 2, 3 }, new long[] { 4 }, new float[0],
+				new double[] { 1.0, 2.0 });
+		ListOfString strings = new ListOfString(List.of("a", "été", "😀", "a"));
+
+		byte[] buffer = new byte[2000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), buffer);
+
+		// The first of each includes the type definitions.
+		checkSizes(out, atoms, atoms, arrays, arrays, strings, strings);
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		for (int x = 0; x < 6; x++) {
+			Assertions.assertTrue(in.readObject() != null);
+		}
+	}
+
+	@Test
+	public void testSizeWithStringReferences() throws IOException {
+		ListOfString strings = new ListOfString(List.of("tenant", "status", "tenant"));
+
+		byte[] buffer = new byte[2000];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), buffer).enableStringReferences();
+		checkSizes(out, strings, strings, strings);
+	}
+
+	@Test
+	public void testSharedTypeMapDefinesPerStream() throws IOException {
+		// A second stream over the same TypeMap still sends the definitions its reader needs.
+		TypeMap map = new TypeMap(context);
+		NumericAtoms atoms = new NumericAtoms((byte) 1, (short) 2, 3, 4L, 5L, 6f, 7.0, 8.0);
+
+		new TypeOutputStream(map, new byte[1000]).writeObject(atoms);
+
+		byte[] buffer = new byte[1000];
+		TypeOutputStream out = new TypeOutputStream(map, buffer);
+		checkSizes(out, atoms);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		NumericAtoms result = in.readObject();
+		Assertions.assertEquals(atoms.pLong(), result.pLong());
+	}
+
+	@Test
+	public void testVarIntSizes() throws IOException {
+		long[] values = { 0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE, Long.MAX_VALUE,
+				Long.MIN_VALUE, 1L << 35, 1L << 56, 1L << 63 - 1 };
+		byte[] buffer = new byte[16];
+		for (long value : values) {
+			ByteArrayBaseOutput out = new ByteArrayBaseOutput(buffer);
+			out.writeUVarInt64(value);
+			Assertions.assertEquals(out.position(), SizeBaseOutput.sizeOfUVarInt64(value));
+
+			out = new ByteArrayBaseOutput(buffer);
+			out.writeVarInt64(value);
+			Assertions.assertEquals(out.position(), SizeBaseOutput.sizeOfVarInt64(value));
+			Assertions.assertEquals(value, new ByteArrayBaseInput(buffer).readVarInt64());
+
+			out = new ByteArrayBaseOutput(buffer);
+			out.writeUVarInt32((int) value);
+			Assertions.assertEquals(out.position(), SizeBaseOutput.sizeOfUVarInt32((int) value));
+
+			out = new ByteArrayBaseOutput(buffer);
+			out.writeVarInt32((int) value);
+			Assertions.assertEquals(out.position(), SizeBaseOutput.sizeOfVarInt32((int) value));
+		}
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Typename;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.test.data.WideRecord;
+import io.litterat.test.data.WideRecordSummary;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.lang.CompilerBackend;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class SkipProjectionTest {
+
+	WideRecord first = new WideRecord(1, "first",
+			new SimpleImmutable[] { new SimpleImmutable(1, 2), new SimpleImmutable(3, 4) },
+			new double[] { 1.5, 2.5, 3.5 }, 1L << 40, new String[] { "red", "green" }, new SimpleImmutable(5, 6),
+			0.25f);
+
+	WideRecord second = new WideRecord(2, "second", new SimpleImmutable[0], new double[] { -1.0 }, -7L,
+			new String[] { "green", "blue", "red" }, new SimpleImmutable(7, 8), 0.75f);
+
+	SimpleImmutable point = new SimpleImmutable(10, 20);
+
+	TypeContext context;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+	}
+
+	private byte[] write(TypeOutputStream out, byte[] buffer) throws IOException {
+		out.writeObject(first);
+		out.writeObject(point);
+		out.writeObject(second);
+		out.close();
+		return buffer;
+	}
+
+	private void checkSecond(WideRecord result) {
+		Assertions.assertEquals(second.id(), result.id());
+		Assertions.assertEquals(second.name(), result.name());
+		Assertions.assertArrayEquals(second.tags(), result.tags());
+		Assertions.assertEquals(second.origin(), result.origin());
+	}
+
+	@Test
+	public void testSkipValue() throws IOException, TypeException {
+		byte[] buffer = new byte[1000];
+		write(new TypeOutputStream(new TypeMap(context), buffer), buffer);
+
+		Typename wide = context.getTypename(WideRecord.class);
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		in.skipValue(wide);
+		Assertions.assertEquals(point, in.readObject());
+		checkSecond(in.readObject());
+	}
+
+	@Test
+	public void testSkipWrongType() throws IOException, TypeException {
+		byte[] buffer = new byte[1000];
+		write(new TypeOutputStream(new TypeMap(context), buffer), buffer);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		Assertions.assertThrows(IOException.class, () -> in.skipValue(context.getTypename(SimpleImmutable.class)));
+	}
+
+	@Test
+	public void testSkipWithStringReferences() throws IOException, TypeException {
+		// Skipped strings must still be added to the reader's string table.
+		byte[] buffer = new byte[1000];
+		write(new TypeOutputStream(new TypeMap(context), buffer).enableStringReferences(), buffer);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		in.skipValue(context.getTypename(WideRecord.class));
+		in.skipValue(context.getTypename(SimpleImmutable.class));
+		checkSecond(in.readObject());
+	}
+
+	@Test
+	public void testProjection() throws IOException {
+		byte[] buffer = new byte[1000];
+		write(new TypeOutputStream(new TypeMap(context), buffer), buffer);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		WideRecordSummary summary = in.readProjection(WideRecordSummary.class);
+		Assertions.assertEquals(first.id(), summary.id());
+		Assertions.assertEquals(first.ratio(), summary.ratio());
+		Assertions.assertArrayEquals(first.tags(), summary.tags());
+
+		Assertions.assertEquals(point, in.readObject());
+
+		summary = in.readProjection(WideRecordSummary.class);
+		Assertions.assertEquals(second.id(), summary.id());
+		Assertions.assertArrayEquals(second.tags(), summary.tags());
+	}
+
+	@Test
+	public void testProjectionBackends() throws IOException {
+		byte[] buffer = new byte[1000];
+		write(new TypeOutputStream(new TypeMap(context), buffer), buffer);
+
+		for (CompilerBackend backend : CompilerBackend.values()) {
+			TypeInputStream in = new TypeInputStream(new TypeMap(context, backend), buffer);
+			Assertions.assertEquals(first.ratio(), in.readProjection(WideRecordSummary.class).ratio());
+			Assertions.assertEquals(point, in.readObject());
+
+			WideRecordSummary summary = in.readProjection(WideRecordSummary.class);
+			Assertions.assertEquals(second.id(), summary.id());
+			Assertions.assertArrayEquals(second.tags(), summary.tags());
+		}
+	}
+
+	@Test
+	public void testProjectionMissingField() throws IOException {
+		byte[] buffer = new byte[1000];
+		write(new TypeOutputStream(new TypeMap(context), buffer), buffer);
+
+		// SimpleImmutable has fields x and y which WideRecord does not.
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), buffer);
+		Assertions.assertThrows(IOException.class, () -> in.readProjection(SimpleImmutable.class));
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.test.data.SimpleArray;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.io.StreamBaseInput;
+import io.litterat.xpl.io.StreamBaseOutput;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class StreamBaseTest {
+
+	SimpleArray test = new SimpleArray(
+			new SimpleImmutable[] { new SimpleImmutable(1, 2), new SimpleImmutable(22, 212) });
+
+	TypeContext context;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+	}
+
+	// Returns at most one byte per read call to exercise refill and short read handling.
+	static class TrickleInputStream extends FilterInputStream {
+
+		TrickleInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return super.read(b, off, Math.min(1, len));
+		}
+	}
+
+	@Test
+	public void testPrimitivesAcrossBuffers() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		StreamBaseOutput output = new StreamBaseOutput(bytes, 16);
+
+		byte[] data = new byte[40];
+		for (int x = 0; x < data.length; x++) {
+			data[x] = (byte) (x * 3);
+		}
+
+		for (int x = 0; x < 10; x++) {
+			output.writeInt8((byte) -x);
+			output.writeInt16((short) -1234);
+			output.writeInt32(0x12345678 * x);
+			output.writeInt64(-0x123456789abcdefL * x);
+			output.writeVarInt32(-300 * x);
+			output.writeUVarInt32(Integer.MIN_VALUE);
+			output.writeVarInt64(Long.MIN_VALUE + x);
+			output.writeUVarInt64(-1L);
+			output.writeBytes(data, 0, data.length);
+		}
+		output.flush();
+		Assertions.assertEquals(output.position(), bytes.size());
+
+		StreamBaseInput input = new StreamBaseInput(
+				new TrickleInputStream(new ByteArrayInputStream(bytes.toByteArray())), 16);
+		for (int x = 0; x < 10; x++) {
+			Assertions.assertEquals((byte) -x, input.readInt8());
+			Assertions.assertEquals((short) -1234, input.readInt16());
+			Assertions.assertEquals(0x12345678 * x, input.readInt32());
+			Assertions.assertEquals(-0x123456789abcdefL * x, input.readInt64());
+			Assertions.assertEquals(-300 * x, input.readVarInt32());
+			Assertions.assertEquals(Integer.MIN_VALUE, input.readUVarInt32());
+			Assertions.assertEquals(Long.MIN_VALUE + x, input.readVarInt64());
+			Assertions.assertEquals(-1L, input.readUVarInt64());
+
+			byte[] result = new byte[data.length];
+			input.readBytes(result, 0, result.length);
+			Assertions.assertArrayEquals(data, result);
+		}
+		Assertions.assertEquals(bytes.size(), input.position());
+		Assertions.assertThrows(EOFException.class, () -> input.readInt8());
+	}
+
+	@Test
+	public void testTypeStreamRoundTrip() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), bytes);
+		for (int x = 0; x < 100; x++) {
+			out.writeObject(test);
+		}
+		out.close();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context),
+				new StreamBaseInput(new TrickleInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+		for (int x = 0; x < 100; x++) {
+			SimpleArray result = (SimpleArray) in.readObject();
+			Assertions.assertArrayEquals(test.arrayImmutable(), result.arrayImmutable());
+		}
+	}
+}
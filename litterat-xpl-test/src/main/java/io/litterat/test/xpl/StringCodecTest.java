@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.test.data.ListOfString;
+import io.litterat.xpl.TypeBaseInput;
+import io.litterat.xpl.TypeBaseOutput;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.io.BufferPool;
+import io.litterat.xpl.io.ByteArrayBaseInput;
+import io.litterat.xpl.io.ByteArrayBaseOutput;
+import io.litterat.xpl.io.ByteBufferBaseInput;
+import io.litterat.xpl.io.ByteBufferBaseOutput;
+import io.litterat.xpl.io.ChunkedBaseOutput;
+import io.litterat.xpl.io.StreamBaseInput;
+import io.litterat.xpl.io.StreamBaseOutput;
+import io.litterat.xpl.util.Utf8;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class StringCodecTest {
+
+	static final String LONG = "long string ".repeat(20) + "é世界";
+
+	ListOfString test = new ListOfString(
+			List.of("", "ascii", "café", "世界", "emoji 😀 pair", LONG));
+
+	TypeContext context;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+	}
+
+	@Test
+	public void testEncodeMatchesJdk() {
+		for (String s : test.list()) {
+			byte[] expected = s.getBytes(StandardCharsets.UTF_8);
+			byte[] bytes = new byte[Utf8.encodedLength(s) + 2];
+			int end = Utf8.encode(s, bytes, 2);
+
+			Assertions.assertEquals(expected.length + 2, end);
+			for (int x = 0; x < expected.length; x++) {
+				Assertions.assertEquals(expected[x], bytes[x + 2]);
+			}
+		}
+	}
+
+	@Test
+	public void testUnpairedSurrogates() {
+		// Unpaired surrogates are written as '?' like String.getBytes.
+		for (String s : List.of("bad \ud83d", "\ude00 low", "\ud83d\ud83d\ude00", "a\ude00\ud83db", "\ud83d")) {
+			byte[] expected = s.getBytes(StandardCharsets.UTF_8);
+			byte[] bytes = new byte[Utf8.encodedLength(s)];
+
+			Assertions.assertEquals(expected.length, bytes.length);
+			Assertions.assertEquals(expected.length, Utf8.encode(s, bytes, 0));
+			Assertions.assertArrayEquals(expected, bytes);
+		}
+	}
+
+	private void roundTrip(TypeBaseOutput output, Runnable flush, Supplier<TypeBaseInput> input)
+			throws IOException {
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), output);
+		out.writeObject(test);
+		out.writeObject(test);
+		out.close();
+		flush.run();
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), input.get());
+		for (int x = 0; x < 2; x++) {
+			ListOfString result = (ListOfString) in.readObject();
+			Assertions.assertEquals(test.list(), result.list());
+		}
+	}
+
+	@Test
+	public void testByteArray() throws IOException {
+		byte[] buffer = new byte[2000];
+		roundTrip(new ByteArrayBaseOutput(buffer), () -> {
+		}, () -> new ByteArrayBaseInput(buffer));
+	}
+
+	@Test
+	public void testStreamSmallBuffer() throws IOException {
+		// The long string is larger than the buffers and takes the fallback path.
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		roundTrip(new StreamBaseOutput(bytes, 64), () -> {
+		}, () -> new StreamBaseInput(new ByteArrayInputStream(bytes.toByteArray()), 64));
+	}
+
+	@Test
+	public void testChunked() throws IOException {
+		ChunkedBaseOutput output = new ChunkedBaseOutput(BufferPool.heap(64));
+		roundTrip(output, () -> {
+		}, () -> new ByteArrayBaseInput(output.toByteArray()));
+	}
+
+	@Test
+	public void testByteBuffers() throws IOException {
+		ByteBuffer heap = ByteBuffer.allocate(2000);
+		roundTrip(new ByteBufferBaseOutput(heap), heap::flip, () -> new ByteBufferBaseInput(heap));
+
+		ByteBuffer direct = ByteBuffer.allocateDirect(2000);
+		roundTrip(new ByteBufferBaseOutput(direct), direct::flip, () -> new ByteBufferBaseInput(direct));
+	}
+}
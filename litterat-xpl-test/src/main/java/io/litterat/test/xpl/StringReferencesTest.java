@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.test.data.ListOfString;
+import io.litterat.xpl.StringTable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.io.ByteArrayBaseInput;
+import io.litterat.xpl.io.ByteArrayBaseOutput;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+public class StringReferencesTest {
+
+	ListOfString test = new ListOfString(List.of("ACME-tenant", "status-ok", "ACME-tenant", "a much longer symbol name"));
+
+	TypeContext context;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+	}
+
+	private long write(byte[] buffer, StringTable strings) throws IOException {
+		ByteArrayBaseOutput output = new ByteArrayBaseOutput(buffer);
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), output);
+		if (strings != null) {
+			out.enableStringReferences(strings);
+		}
+		for (int x = 0; x < 10; x++) {
+			out.writeObject(test);
+		}
+		out.close();
+		return output.position();
+	}
+
+	@Test
+	public void testReferencesShrinkAndCanonicalize() throws IOException {
+		byte[] plain = new byte[4000];
+		byte[] referenced = new byte[4000];
+		long plainSize = write(plain, null);
+		long referencedSize = write(referenced, new StringTable());
+
+		Assertions.assertTrue(referencedSize < plainSize / 2);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), new ByteArrayBaseInput(referenced));
+		ListOfString first = in.readObject();
+		Assertions.assertEquals(test.list(), first.list());
+		Assertions.assertSame(first.list().get(0), first.list().get(2));
+		for (int x = 1; x < 10; x++) {
+			ListOfString result = in.readObject();
+			Assertions.assertEquals(test.list(), result.list());
+			Assertions.assertSame(first.list().get(1), result.list().get(1));
+		}
+		Assertions.assertTrue(in.strings().size() > 0);
+	}
+
+	@Test
+	public void testWriterLimits() throws IOException {
+		// Only short strings and a few entries are added; the reader follows the writer's flags.
+		byte[] buffer = new byte[4000];
+		StringTable strings = new StringTable(3, 10);
+		write(buffer, strings);
+		Assertions.assertEquals(3, strings.size());
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), new ByteArrayBaseInput(buffer))
+				.stringReferences(new StringTable(3, 10));
+		for (int x = 0; x < 10; x++) {
+			ListOfString result = in.readObject();
+			Assertions.assertEquals(test.list(), result.list());
+		}
+		Assertions.assertEquals(3, in.strings().size());
+	}
+
+	@Test
+	public void testReaderLimits() throws IOException {
+		// The writer adds more and longer strings than the reader's table allows.
+		byte[] buffer = new byte[4000];
+		write(buffer, new StringTable());
+
+		TypeInputStream entries = new TypeInputStream(new TypeMap(context), new ByteArrayBaseInput(buffer))
+				.stringReferences(new StringTable(2, StringTable.DEFAULT_MAX_LENGTH));
+		Assertions.assertThrows(IOException.class, () -> entries.readObject());
+
+		TypeInputStream length = new TypeInputStream(new TypeMap(context), new ByteArrayBaseInput(buffer))
+				.stringReferences(new StringTable(StringTable.DEFAULT_MAX_ENTRIES, 10));
+		Assertions.assertThrows(IOException.class, () -> length.readObject());
+
+		// The default limits match the default writer.
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), new ByteArrayBaseInput(buffer));
+		Assertions.assertEquals(test.list(), in.<ListOfString>readObject().list());
+	}
+}
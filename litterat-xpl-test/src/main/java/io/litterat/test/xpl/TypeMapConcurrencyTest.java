@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.schema.TypeException;
+import io.litterat.test.data.NumericAtoms;
+import io.litterat.test.data.SimpleArray;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeMapEntry;
+import io.litterat.xpl.TypeOutputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class TypeMapConcurrencyTest {
+
+	static final int THREADS = 8;
+
+	SimpleArray test = new SimpleArray(
+			new SimpleImmutable[] { new SimpleImmutable(1, 2), new SimpleImmutable(22, 212) });
+
+	NumericAtoms atoms = new NumericAtoms((byte) 1, (short) 2, 3, 4L, 5L, 6f, 7.0, 8.0);
+
+	TypeMap map;
+
+	@BeforeEach
+	public void setup() throws TypeException {
+		TypeContext context = TypeContext.builder().build();
+
+		// Bind the classes up front so the threads only race on the TypeMap registration.
+		context.getTypename(SimpleArray.class);
+		context.getTypename(NumericAtoms.class);
+
+		map = new TypeMap(context);
+	}
+
+	@Test
+	public void testSharedRegistration() throws Throwable {
+		writeAndRead();
+
+		// Each type was given a single stream id.
+		TypeMapEntry entry = map.getEntry(SimpleImmutable.class);
+		Assertions.assertSame(entry, map.getEntry(entry.typename()));
+		Assertions.assertSame(entry, map.getEntry(entry.streamId()));
+	}
+
+	@Test
+	public void testSharedBinding() throws Throwable {
+		// Nothing bound up front, the threads race on binding the classes as well.
+		map = new TypeMap(TypeContext.builder().build());
+
+		writeAndRead();
+	}
+
+	private void writeAndRead() throws Throwable {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+
+		try {
+			List<Future<byte[]>> results = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				Callable<byte[]> task = () -> {
+					start.await();
+					byte[] buffer = new byte[1000];
+					TypeOutputStream out = new TypeOutputStream(map, buffer);
+					out.writeObject(test);
+					out.writeObject(atoms);
+					out.close();
+					return buffer;
+				};
+				results.add(executor.submit(task));
+			}
+			start.countDown();
+
+			// Every stream must decode against the shared map.
+			for (Future<byte[]> result : results) {
+				TypeInputStream in = new TypeInputStream(map, result.get());
+				SimpleArray array = in.readObject();
+				NumericAtoms numbers = in.readObject();
+
+				Assertions.assertEquals(test.arrayImmutable()[1], array.arrayImmutable()[1]);
+				Assertions.assertEquals(atoms.pInteger(), numbers.pInteger());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testUnknownStreamId() {
+		Assertions.assertNull(map.getEntry(-1));
+		Assertions.assertNull(map.getEntry(Integer.MAX_VALUE));
+	}
+}
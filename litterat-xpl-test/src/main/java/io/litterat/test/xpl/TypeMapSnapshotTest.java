@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.schema.TypeException;
+import io.litterat.test.data.NumericAtoms;
+import io.litterat.test.data.SimpleArray;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeMapSnapshot;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.io.ByteArrayBaseOutput;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+public class TypeMapSnapshotTest {
+
+	SimpleArray test = new SimpleArray(
+			new SimpleImmutable[] { new SimpleImmutable(1, 2), new SimpleImmutable(22, 212) });
+
+	NumericAtoms atoms = new NumericAtoms((byte) 1, (short) 2, 3, 4L, 5L, 6f, 7.0, 8.0);
+
+	byte[] snapshot;
+
+	@BeforeEach
+	public void setup() throws IOException, TypeException {
+		// Register the types by writing them once, then export.
+		TypeMap map = new TypeMap(TypeContext.builder().build());
+		TypeOutputStream out = new TypeOutputStream(map, new byte[1000]);
+		out.writeObject(test);
+		out.writeObject(atoms);
+		snapshot = map.snapshot().bytes();
+	}
+
+	private TypeMap peer() throws TypeException {
+		TypeMap map = new TypeMap(TypeContext.builder().build());
+		map.load(TypeMapSnapshot.read(snapshot));
+		return map;
+	}
+
+	private long write(TypeMap map, byte[] buffer) throws IOException {
+		ByteArrayBaseOutput output = new ByteArrayBaseOutput(buffer);
+		TypeOutputStream out = new TypeOutputStream(map, output);
+		out.writeObject(test);
+		out.writeObject(atoms);
+		out.close();
+		return output.position();
+	}
+
+	@Test
+	public void testNoDefinitionsSent() throws IOException, TypeException {
+		byte[] plain = new byte[1000];
+		byte[] buffer = new byte[1000];
+		long plainSize = write(new TypeMap(TypeContext.builder().build()), plain);
+		long size = write(peer(), buffer);
+
+		// Values plus the snapshot header only.
+		Assertions.assertTrue(size < plainSize / 4);
+
+		TypeInputStream in = new TypeInputStream(peer(), buffer);
+		SimpleArray result = in.readObject();
+		Assertions.assertEquals(test.arrayImmutable()[1], result.arrayImmutable()[1]);
+		NumericAtoms resultAtoms = in.readObject();
+		Assertions.assertEquals(atoms.pLong(), resultAtoms.pLong());
+	}
+
+	@Test
+	public void testSnapshotIsStable() throws TypeException {
+		TypeMap map = peer();
+		Assertions.assertEquals(TypeMapSnapshot.read(snapshot).id(), map.snapshotId());
+		Assertions.assertArrayEquals(snapshot, map.snapshot().bytes());
+	}
+
+	@Test
+	public void testMismatchedReader() throws IOException, TypeException {
+		byte[] buffer = new byte[1000];
+		write(peer(), buffer);
+
+		TypeInputStream in = new TypeInputStream(new TypeMap(TypeContext.builder().build()), buffer);
+		Assertions.assertThrows(IOException.class, () -> in.readObject());
+	}
+
+	@Test
+	public void testCorruptSnapshot() {
+		byte[] corrupt = snapshot.clone();
+		corrupt[corrupt.length - 1] ^= 1;
+		Assertions.assertThrows(TypeException.class, () -> TypeMapSnapshot.read(corrupt));
+	}
+
+	@Test
+	public void testLoadAfterRegister() throws IOException, TypeException {
+		TypeMap map = new TypeMap(TypeContext.builder().build());
+		new TypeOutputStream(map, new byte[1000]).writeObject(atoms);
+		Assertions.assertThrows(TypeException.class, () -> map.load(TypeMapSnapshot.read(snapshot)));
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.test.xpl;
+
+import io.litterat.core.TypeContext;
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Typename;
+import io.litterat.test.data.SimpleArray;
+import io.litterat.test.data.SimpleImmutable;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.TypeStreamStatistics;
+import io.litterat.xpl.io.ByteArrayBaseInput;
+import io.litterat.xpl.io.ByteArrayBaseOutput;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Set;
+
+public class TypeStreamStatisticsTest {
+
+	SimpleArray test = new SimpleArray(
+			new SimpleImmutable[] { new SimpleImmutable(1, 2), new SimpleImmutable(22, 212) });
+
+	TypeContext context;
+
+	@BeforeEach
+	public void setup() {
+		context = TypeContext.builder().build();
+	}
+
+	@Test
+	public void testWriteAndReadStatistics() throws IOException, TypeException {
+
+		Typename arrayName = context.getTypename(SimpleArray.class);
+		Typename immutableName = context.getTypename(SimpleImmutable.class);
+
+		TypeStreamStatistics written = new TypeStreamStatistics();
+		byte[] buffer = new byte[500];
+		ByteArrayBaseOutput output = new ByteArrayBaseOutput(buffer);
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), output, written);
+		out.writeObject(test);
+		out.writeObject(test);
+		out.close();
+
+		Assertions.assertEquals(2, written.get(arrayName).count());
+		Assertions.assertEquals(4, written.get(immutableName).count());
+		Assertions.assertEquals(1, written.get(arrayName).definitions());
+		Assertions.assertEquals(1, written.get(immutableName).definitions());
+
+		Assertions.assertTrue(written.get(arrayName).bytes() <= output.position());
+		Assertions.assertTrue(written.totalDefinitionBytes() > 0);
+
+		TypeStreamStatistics read = new TypeStreamStatistics();
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), new ByteArrayBaseInput(buffer), read);
+		in.readObject();
+		in.readObject();
+
+		Assertions.assertEquals(2, read.get(arrayName).count());
+		Assertions.assertEquals(4, read.get(immutableName).count());
+		Assertions.assertEquals(written.get(immutableName).bytes(), read.get(immutableName).bytes());
+		Assertions.assertEquals(1, read.get(immutableName).definitions());
+	}
+
+	@Test
+	public void testDefinitionsAreNotValues() throws IOException, TypeException {
+
+		Typename immutableName = context.getTypename(SimpleImmutable.class);
+
+		TypeStreamStatistics written = new TypeStreamStatistics();
+		byte[] buffer = new byte[500];
+		TypeOutputStream out = new TypeOutputStream(new TypeMap(context), new ByteArrayBaseOutput(buffer), written);
+		out.writeObject(new SimpleImmutable(1, 2));
+		out.writeObject(new SimpleImmutable(3, 4));
+		out.writeObject(new SimpleImmutable(5, 6));
+		out.close();
+
+		// The meta values making up the definition are only counted as definition bytes.
+		Assertions.assertEquals(Set.of(immutableName), written.all().keySet());
+		Assertions.assertEquals(3, written.get(immutableName).count());
+		Assertions.assertEquals(1, written.get(immutableName).definitions());
+
+		TypeStreamStatistics read = new TypeStreamStatistics();
+		TypeInputStream in = new TypeInputStream(new TypeMap(context), new ByteArrayBaseInput(buffer), read);
+		in.readObject();
+		in.readObject();
+		in.readObject();
+
+		Assertions.assertEquals(Set.of(immutableName), read.all().keySet());
+		Assertions.assertEquals(3, read.get(immutableName).count());
+		Assertions.assertEquals(written.get(immutableName).bytes(), read.get(immutableName).bytes());
+		Assertions.assertEquals(written.totalDefinitionBytes(), read.totalDefinitionBytes());
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * Decodes the value frames of a framed stream on a ForkJoinPool while delivering the values in stream
+ * order. The frames are scanned on the consuming thread using their length prefixes, which also applies
+ * control frames to the TypeMap before any later frame is handed to the pool. At most window frames are
+ * in flight ahead of the consumer. Each frame is decoded by its own TypeInputStream on the shared
+ * TypeMap.
+ */
+final class FrameDecoder<T> extends Spliterators.AbstractSpliterator<T> {
+
+	private final TypeInputStream input;
+	private final Class<T> clss;
+	private final ForkJoinPool pool;
+	private final int window;
+
+	// Frames submitted to the pool in stream order.
+	private final ArrayDeque<ForkJoinTask<T>> pending;
+
+	private boolean scanned;
+
+	FrameDecoder(TypeInputStream input, Class<T> clss, ForkJoinPool pool, int window) {
+		super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+		if (window < 1) {
+			throw new IllegalArgumentException("window must be at least 1: " + window);
+		}
+		this.input = input;
+		this.clss = clss;
+		this.pool = pool;
+		this.window = window;
+		this.pending = new ArrayDeque<>(window);
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		while (!scanned && pending.size() < window) {
+			ByteBuffer frame = nextFrame();
+			if (frame == null) {
+				scanned = true;
+			} else {
+				pending.add(pool.submit(() -> decode(frame)));
+			}
+		}
+
+		ForkJoinTask<T> next = pending.poll();
+		if (next == null) {
+			return false;
+		}
+		action.accept(next.join());
+		return true;
+	}
+
+	// Returns null at the end of the input, or at an empty value frame such as zero filled space after
+	// the last frame.
+	private ByteBuffer nextFrame() {
+		long start = input.input().position();
+		try {
+			ByteBuffer frame = input.nextFrame();
+			return frame.hasRemaining() ? frame : null;
+		} catch (EOFException | BufferUnderflowException e) {
+			if (input.input().position() == start) {
+				return null;
+			}
+			pending.clear();
+			throw new UncheckedIOException(new EOFException("Stream ends part way through a frame"));
+		} catch (IOException e) {
+			pending.clear();
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private T decode(ByteBuffer frame) {
+		try {
+			Object value = new TypeInputStream(input.typeMap(), frame).columns(input.columns()).readObject();
+			if (!clss.isInstance(value)) {
+				throw new IOException("wrong type on stream: " + value.getClass().getName());
+			}
+			return clss.cast(value);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stream local table of strings used by the string back reference encoding. The writer adds
+ * strings as they are first written and later writes the index in place of the string. The reader
+ * adds the same strings in the same order so that references resolve to a single canonical String
+ * instance.
+ *
+ * Each literal on the stream carries a flag saying whether the writer added it to the table. The
+ * reader checks the strings it is asked to add against the same limits and fails the stream if the
+ * peer exceeds them, so the reader's table must have the writer's limits.
+ */
+public class StringTable {
+
+	public static final int DEFAULT_MAX_ENTRIES = 4096;
+	public static final int DEFAULT_MAX_LENGTH = 256;
+
+	private final int maxEntries;
+	private final int maxLength;
+
+	private final List<String> strings = new ArrayList<>();
+
+	// Only used when writing.
+	private final Map<String, Integer> indexes = new HashMap<>();
+
+	public StringTable() {
+		this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_LENGTH);
+	}
+
+	/**
+	 * @param maxEntries maximum number of strings the writer will add to the table.
+	 * @param maxLength  maximum UTF-8 length of a string the writer will add to the table.
+	 */
+	public StringTable(int maxEntries, int maxLength) {
+		this.maxEntries = maxEntries;
+		this.maxLength = maxLength;
+	}
+
+	/**
+	 * Writer side. Returns an independent table with the same limits and contents.
+	 */
+	public StringTable copy() {
+		StringTable copy = new StringTable(maxEntries, maxLength);
+		copy.strings.addAll(strings);
+		copy.indexes.putAll(indexes);
+		return copy;
+	}
+
+	public int size() {
+		return strings.size();
+	}
+
+	/**
+	 * Returns the index of a string previously added by the writer, or -1.
+	 */
+	public int indexOf(String s) {
+		Integer index = indexes.get(s);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Writer side. Adds the string if within the table limits and returns true if it was added.
+	 */
+	public boolean add(String s, int encodedLength) {
+		if (encodedLength > maxLength || strings.size() >= maxEntries) {
+			return false;
+		}
+		indexes.put(s, strings.size());
+		strings.add(s);
+		return true;
+	}
+
+	/**
+	 * Reader side. Adds a string the writer has flagged as added, throws an IOException if the string
+	 * is longer or the table larger than the writer's limits allow.
+	 */
+	public void addRead(String s, int encodedLength) throws IOException {
+		if (encodedLength > maxLength) {
+			throw new IOException("string reference longer than the table limit: " + encodedLength);
+		}
+		if (strings.size() >= maxEntries) {
+			throw new IOException("string table has more than " + maxEntries + " entries");
+		}
+		strings.add(s);
+	}
+
+	public String get(int index) throws IOException {
+		if (index < 0 || index >= strings.size()) {
+			throw new IOException("string reference out of range: " + index);
+		}
+		return strings.get(index);
+	}
+}
@@ -17,6 +17,9 @@ package io.litterat.xpl;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 
 /**
  *
@@ -28,6 +31,19 @@ import java.math.BigInteger;
  */
 public interface TypeBaseInput {
 
+	/**
+	 * Returns the current byte position of the input. Used to measure the size of values.
+	 */
+	public long position();
+
+	/**
+	 * Returns the number of bytes left in the input, or Long.MAX_VALUE if the input can not tell. Used
+	 * to reject lengths sent by the peer which could not possibly be read.
+	 */
+	default public long remaining() {
+		return Long.MAX_VALUE;
+	}
+
 	default public boolean readBoolean() throws IOException {
 		return readInt8() == 0 ? false : true;
 	}
@@ -71,6 +87,10 @@ public interface TypeBaseInput {
 	public BigInteger readLeUInt64() throws IOException;
 
 	// Variable length signed integer using zig-zag encoding.
+	default public short readVarInt16() throws IOException {
+		return (short) readVarInt32();
+	}
+
 	default public int readVarInt32() throws IOException {
 		int i = readUVarInt32();
 		return (i >>> 1) ^ -(i & 1);
@@ -95,4 +115,51 @@ public interface TypeBaseInput {
 
 	public void readBytes(byte[] buffer, int offset, int length) throws IOException;
 
+	// Bulk reads of float and double arrays written as contiguous fixed width values. Backends with
+	// direct access to their buffer override these to avoid a call per element.
+
+	default public void readFloats(float[] values, int offset, int length) throws IOException {
+		for (int x = offset; x < offset + length; x++) {
+			values[x] = readFloat();
+		}
+	}
+
+	default public void readDoubles(double[] values, int offset, int length) throws IOException {
+		for (int x = offset; x < offset + length; x++) {
+			values[x] = readDouble();
+		}
+	}
+
+	/**
+	 * Read length bytes of UTF-8 and return them as a String. Array backed inputs override this to
+	 * decode directly from their buffer without an intermediate copy.
+	 */
+	default public String readUtf8(int length) throws IOException {
+		byte[] bytes = new byte[length];
+		readBytes(bytes, 0, length);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Skip the next length bytes. Array and buffer backed inputs override this to move their position.
+	 */
+	default public void skip(long length) throws IOException {
+		byte[] scratch = new byte[(int) Math.min(length, 4096)];
+		while (length > 0) {
+			int count = (int) Math.min(length, scratch.length);
+			readBytes(scratch, 0, count);
+			length -= count;
+		}
+	}
+
+	/**
+	 * Read the next length bytes as a little endian ByteBuffer. Array and buffer backed inputs override
+	 * this to return a view of their buffer instead of a copy.
+	 */
+	default public ByteBuffer readSlice(int length) throws IOException {
+		byte[] bytes = new byte[length];
+		readBytes(bytes, 0, length);
+		return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
 }
@@ -17,6 +17,7 @@ package io.litterat.xpl;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 
 /**
  *
@@ -44,6 +45,11 @@ public interface TypeBaseOutput {
 	public final long UINT64_MIN = 0;
 	public final long UINT64_MAX = 9223372036854775807l; // 2^63-1;
 
+	/**
+	 * Returns the current byte position of the output. Used to measure the size of values.
+	 */
+	public long position();
+
 	public void writeInt8(byte b) throws IOException;
 
 	public void writeUInt8(short b) throws IOException;
@@ -75,6 +81,10 @@ public interface TypeBaseOutput {
 	public void writeUVarInt32(int i) throws IOException;
 
 	// Variable length signed integer using zig-zag encoding.
+	default public void writeVarInt16(short s) throws IOException {
+		writeVarInt32(s);
+	}
+
 	default public void writeVarInt32(int s) throws IOException {
 		writeUVarInt32((s << 1) ^ (s >> 31));
 	}
@@ -113,6 +123,37 @@ public interface TypeBaseOutput {
 
 	public void writeBytes(byte[] buffer, int offset, int length) throws IOException;
 
+	// Bulk writes of float and double arrays as contiguous fixed width values. Backends with direct
+	// access to their buffer override these to avoid a call per element.
+
+	default public void writeFloats(float[] values, int offset, int length) throws IOException {
+		for (int x = offset; x < offset + length; x++) {
+			writeFloat(values[x]);
+		}
+	}
+
+	default public void writeDoubles(double[] values, int offset, int length) throws IOException {
+		for (int x = offset; x < offset + length; x++) {
+			writeDouble(values[x]);
+		}
+	}
+
+	/**
+	 * Write the UTF-8 bytes of a string. The length prefix is written by the caller and encodedLength
+	 * must be the value of Utf8.encodedLength(s). Array backed outputs override this to encode
+	 * directly into their buffer.
+	 */
+	default public void writeUtf8(String s, int encodedLength) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		writeBytes(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * Write any buffered bytes to the underlying transport. Outputs that do not buffer do nothing.
+	 */
+	default public void flush() throws IOException {
+	}
+
 	default public void writeBoolean(boolean b) throws IOException {
 		writeInt8((byte) (b ? 1 : 0));
 	}
@@ -21,19 +21,64 @@ import io.litterat.schema.meta.Typename;
 import io.litterat.xpl.io.ByteArrayBaseInput;
 import io.litterat.xpl.io.ByteBufferBaseInput;
 import io.litterat.xpl.io.StreamBaseInput;
+import io.litterat.xpl.lang.MachineStack;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
 import java.nio.ByteBuffer;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class TypeInputStream implements TypeStream {
 
 	private final TypeBaseInput input;
 	private final TypeMap typeMap;
+	private final TypeStreamListener listener;
+	private final MachineStack machines = new MachineStack();
+
+	// Created when the writer announces string back references.
+	private StringTable strings;
+
+	// Table used when the writer announces string back references, if not the default limits.
+	private StringTable stringTable;
+
+	// Position of the last identifier read. Only maintained when a listener is present.
+	private long valueStart;
+
+	// Set when the stream header with the format version has been read.
+	private boolean versioned;
+
+	// Set when the writer announces frames.
+	private boolean framed;
+
+	// Set when the writer announces arrays of records are written as columns.
+	private boolean columns;
+
+	// Set while a definition is read, its meta values are not reported as values to the listener.
+	private boolean defining;
+
+	// End of the frame being read, -1 between frames.
+	private long frameEnd = -1;
+	private boolean valueFrame;
+
+	// Nesting of readObject calls, values can contain values read with readObject. Only the outer
+	// call reads frames.
+	private int depth;
 
 	public TypeInputStream(TypeMap typeMap, TypeBaseInput input) {
+		this(typeMap, input, null);
+	}
+
+	public TypeInputStream(TypeMap typeMap, TypeBaseInput input, TypeStreamListener listener) {
 		this.typeMap = typeMap;
 		this.input = input;
+		this.listener = listener;
 	}
 
 	public TypeInputStream(TypeBaseInput input) {
@@ -69,10 +114,44 @@ public class TypeInputStream implements TypeStream {
 		return typeMap;
 	}
 
+	@Override
+	public MachineStack machines() {
+		return machines;
+	}
+
 	public TypeBaseInput input() {
 		return input;
 	}
 
+	/**
+	 * The string back reference table, or null if the stream has not used string references.
+	 */
+	public StringTable strings() {
+		return strings;
+	}
+
+	/**
+	 * Returns true if the writer has announced arrays of records are written as columns. Frames
+	 * returned by nextFrame must be decoded by a stream with the same setting.
+	 */
+	public boolean columns() {
+		return columns;
+	}
+
+	public TypeInputStream columns(boolean columns) {
+		this.columns = columns;
+		return this;
+	}
+
+	/**
+	 * Use the table for string back references instead of one with the default limits. The table must
+	 * have the limits of the writer's table, a peer adding more or longer strings fails the stream.
+	 */
+	public TypeInputStream stringReferences(StringTable table) {
+		this.stringTable = table;
+		return this;
+	}
+
 	/**
 	 * Reads the next identifier which signifies the next value. If the identifier is a registration
 	 * value then the meta data value is read and the type registered.
@@ -82,15 +161,250 @@ public class TypeInputStream implements TypeStream {
 	 * @throws TypeException
 	 */
 	private int readNextIdentifier() throws IOException, TypeException {
+		// Between frames, or a failed read left a value frame part read.
+		if (framed && depth == 1 && (frameEnd < 0 || valueFrame)) {
+			readValueFrame();
+		}
+
+		long start = listener != null ? input.position() : 0;
 		int token = input().readUVarInt32();
-		while (token == DEFINE_TYPE) {
-			TypeStreamEntry def = this.readObject(TypeStreamEntry.class);
-			typeMap.registerEntry(def);
+		while (token == DEFINE_TYPE || token == STRING_REFERENCES || token == SNAPSHOT || token == FRAMES
+				|| token == COLUMNS || token == VERSION) {
+			if (token == FRAMES) {
+				framed = true;
+				readValueFrame();
+				start = listener != null ? input.position() : 0;
+			} else {
+				start = readControl(token, start);
+			}
 			token = input().readUVarInt32();
 		}
+		valueStart = start;
 		return token;
 	}
 
+	// Apply a control token and its value. Returns the position after it.
+	private long readControl(int token, long start) throws IOException, TypeException {
+		if (token == VERSION) {
+			int version = input().readUVarInt32();
+			if (version != FORMAT_VERSION) {
+				throw new TypeException("Unsupported stream format version: " + version);
+			}
+			versioned = true;
+			return listener != null ? input.position() : 0;
+		} else if (!versioned) {
+			throw new TypeException("Stream does not start with a format version, it was written by an older release");
+		}
+
+		if (token == SNAPSHOT) {
+			long snapshotId = input().readInt64();
+			if (snapshotId != typeMap.snapshotId()) {
+				throw new TypeException(String.format("Stream snapshot %016x does not match TypeMap snapshot %016x",
+						snapshotId, typeMap.snapshotId()));
+			}
+		} else if (token == STRING_REFERENCES) {
+			if (strings == null) {
+				strings = stringTable != null ? stringTable : new StringTable();
+			}
+		} else if (token == COLUMNS) {
+			columns = true;
+		} else if (token == DEFINE_TYPE) {
+			// Definitions are always written as rows.
+			boolean valueColumns = columns;
+			boolean valueDefining = defining;
+			TypeStreamEntry def;
+			try {
+				columns = false;
+				defining = true;
+				def = this.readObject(TypeStreamEntry.class);
+			} finally {
+				columns = valueColumns;
+				defining = valueDefining;
+			}
+			typeMap.registerEntry(def);
+			if (listener != null) {
+				listener.definitionRead(typeMap.getEntry(def.streamId()), input.position() - start);
+			}
+		} else {
+			throw new TypeException("Unexpected token in control frame: " + token);
+		}
+		return listener != null ? input.position() : 0;
+	}
+
+	// Read frames up to the next value frame, applying any control frames on the way. Leaves the input
+	// at the start of the value frame body.
+	private void readValueFrame() throws IOException, TypeException {
+		if (valueFrame) {
+			// A failed read left the previous value frame partly read, skip what is left of it.
+			if (input.position() > frameEnd) {
+				throw new IOException("Read past the end of frame, unable to resynchronise");
+			}
+			input.skip(frameEnd - input.position());
+			endFrame();
+		}
+
+		while (true) {
+			int length = input.readUVarInt32();
+			int flags = input.readUInt8();
+			frameEnd = input.position() + length;
+			if ((flags & FRAME_CONTROL) == 0) {
+				valueFrame = true;
+				return;
+			}
+
+			long start = listener != null ? input.position() : 0;
+			while (input.position() < frameEnd) {
+				start = readControl(input.readUVarInt32(), start);
+			}
+			frameEnd = -1;
+		}
+	}
+
+	// Called after a value is read, checks the value used the whole frame.
+	private void endFrame() throws IOException {
+		if (!valueFrame || depth > 1) {
+			return;
+		}
+		long end = frameEnd;
+		valueFrame = false;
+		frameEnd = -1;
+		if (input.position() != end) {
+			throw new IOException("Value does not match frame length");
+		}
+	}
+
+	private void requireFramed() throws IOException {
+		if (!framed) {
+			if (input.readUVarInt32() != FRAMES) {
+				throw new IOException("Stream is not framed");
+			}
+			framed = true;
+		}
+	}
+
+	/**
+	 * Returns the next value frame without decoding the value. Any control frames before it are applied
+	 * to the TypeMap. The frame holds the stream id followed by the value, frameEntry returns its type
+	 * and it can be decoded with a TypeInputStream on the same TypeMap, including on another thread.
+	 * Array and buffer backed inputs return a view of their buffer.
+	 */
+	public ByteBuffer nextFrame() throws IOException {
+		try {
+			requireFramed();
+			readValueFrame();
+			ByteBuffer frame = input.readSlice((int) (frameEnd - input.position()));
+			endFrame();
+			return frame;
+		} catch (TypeException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Skip the next value frame without decoding it. Any control frames before it are applied to the
+	 * TypeMap.
+	 */
+	public void skipFrame() throws IOException {
+		try {
+			requireFramed();
+			readValueFrame();
+			input.skip(frameEnd - input.position());
+			endFrame();
+		} catch (TypeException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Read the remaining value frames of a framed stream, decoding them in parallel on the pool and
+	 * delivering them in stream order. Frames are scanned on the consuming thread and at most window
+	 * frames are decoded ahead of the consumer. The values must be of the class or a subclass. The
+	 * stream ends at the end of the input or at an empty value frame, and must be consumed before
+	 * anything else is read from this stream. Failures are thrown as UncheckedIOException.
+	 */
+	public <T> Stream<T> readFrames(Class<T> clss, ForkJoinPool pool, int window) {
+		return StreamSupport.stream(new FrameDecoder<>(this, clss, pool, window), false);
+	}
+
+	/**
+	 * Returns the type of the value in a frame returned by nextFrame, only the stream id is read.
+	 */
+	public TypeMapEntry frameEntry(ByteBuffer frame) throws IOException {
+		int streamId = new ByteBufferBaseInput(frame.duplicate()).readUVarInt32();
+		TypeMapEntry entry = typeMap.getEntry(streamId);
+		if (entry == null) {
+			throw new IOException("type not known in stream: " + streamId);
+		}
+		return entry;
+	}
+
+	/**
+	 * Read the identifier of a value written inline by a compiled reader, applying any definitions
+	 * ahead of it.
+	 */
+	public int readStreamIdentifier() throws IOException {
+		depth++;
+		try {
+			return readNextIdentifier();
+		} catch (TypeException e) {
+			throw new IOException(e);
+		} finally {
+			depth--;
+		}
+	}
+
+	/**
+	 * Skip the next value, which must be of the given type, without constructing it. Records are
+	 * skipped field by field by a skipper compiled from the definition.
+	 */
+	public void skipValue(Typename typeName) throws IOException {
+		depth++;
+		try {
+			int type = readNextIdentifier();
+			TypeMapEntry entry = typeMap.getEntry(type);
+			if (entry == null) {
+				throw new IOException("type not mapped to stream: " + typeName.toString());
+			}
+			if (!entry.typename().equals(typeName)) {
+				throw new IOException("wrong type on stream: expected " + typeName.toString() + " found: "
+						+ entry.typename().toString());
+			}
+			typeMap.skipper(entry).skip(this);
+			endFrame();
+		} catch (Throwable e) {
+			throw new IOException(e);
+		} finally {
+			depth--;
+		}
+	}
+
+	/**
+	 * Read the next value into a class that has a subset of the fields of the value's record type.
+	 * Fields are matched by name and the fields not in the class are skipped.
+	 */
+	public <T> T readProjection(Class<T> clss) throws IOException {
+		depth++;
+		try {
+			int type = readNextIdentifier();
+			long start = valueStart;
+			TypeMapEntry entry = typeMap.getEntry(type);
+			if (entry == null) {
+				throw new IOException("type not known in stream: " + type);
+			}
+
+			Object value = typeMap.projection(entry, clss).read(this);
+			if (listener != null && !defining) {
+				listener.valueRead(entry, input.position() - start);
+			}
+			endFrame();
+			return clss.cast(value);
+		} catch (Throwable e) {
+			throw new IOException(e);
+		} finally {
+			depth--;
+		}
+	}
+
 	/**
 	 *
 	 * Reads the first uvarint32 as the identifier in this context and then reads the value.
@@ -100,8 +414,10 @@ public class TypeInputStream implements TypeStream {
 
 	@SuppressWarnings("unchecked")
 	public <T> T readObject() throws IOException {
+		depth++;
 		try {
 			int type = readNextIdentifier();
+			long start = valueStart;
 			// Read the value.
 			TypeMapEntry entry = typeMap.getEntry(type);
 			if (entry == null) {
@@ -109,12 +425,18 @@ public class TypeInputStream implements TypeStream {
 			}
 
 			Object value = entry.reader().read(this);
+			if (listener != null && !defining) {
+				listener.valueRead(entry, input.position() - start);
+			}
+			endFrame();
 			if (entry.dataClass().bridge().isPresent()) {
 				value = entry.dataClass().bridge().get().toObject().invoke(value);
 			}
 			return (T) value;
 		} catch (Throwable e) {
 			throw new IOException(e);
+		} finally {
+			depth--;
 		}
 	}
 
@@ -129,29 +451,127 @@ public class TypeInputStream implements TypeStream {
 
 	@SuppressWarnings("unchecked")
 	public <T> T readObject(Class<? extends T> clss) throws IOException {
-
+		depth++;
 		try {
 			int type = readNextIdentifier();
+			long start = valueStart;
 			TypeMapEntry entry = typeMap.getEntry(type);
 			TypeMapEntry clssEntry = typeMap.getEntry(clss);
-			if (entry != clssEntry) {
+
+			// Entries resolved from a peer definition are not bound to the class but read into it.
+			if (entry == null || (entry != clssEntry && entry.dataClass().typeClass() != clss)) {
 				throw new IOException("wrong type on stream");
 			}
 			Object value = entry.reader().read(this);
+			if (listener != null && !defining) {
+				listener.valueRead(entry, input.position() - start);
+			}
+			endFrame();
 			if (entry.dataClass().bridge().isPresent()) {
 				value = entry.dataClass().bridge().get().toObject().invoke(value);
 			}
 			return (T) value;
 		} catch (Throwable e) {
 			throw new IOException(e);
+		} finally {
+			depth--;
+		}
+	}
+
+	/**
+	 * Read a batch written with TypeOutputStream.writeAll. The batch header is read immediately and the
+	 * values as the stream is consumed, which must happen before anything else is read from this
+	 * stream. Values may be of the class or a subclass, the entry of each stream id is resolved once
+	 * and reused while the values that follow have the same id. Read failures are thrown as
+	 * UncheckedIOException.
+	 */
+	public <T> Stream<T> readAll(Class<T> clss) throws IOException {
+		if (framed) {
+			throw new IOException("Batches can not be read from a framed stream");
+		}
+
+		try {
+			int token = readNextIdentifier();
+			if (token != BATCH) {
+				throw new IOException("Expected batch on stream, found: " + token);
+			}
+		} catch (TypeException e) {
+			throw new IOException(e);
+		}
+
+		return StreamSupport.stream(new BatchSpliterator<>(clss), false);
+	}
+
+	private final class BatchSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+		private final Class<T> clss;
+
+		// Entry of the last value read, with its reader and bridge.
+		private int streamId = -1;
+		private TypeMapEntry entry;
+		private TypeReader reader;
+		private MethodHandle toObject;
+
+		private boolean done;
+
+		BatchSpliterator(Class<T> clss) {
+			super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+			this.clss = clss;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			if (done) {
+				return false;
+			}
+
+			try {
+				int type = readNextIdentifier();
+				if (type == 0) {
+					done = true;
+					return false;
+				}
+
+				long start = valueStart;
+				if (type != streamId) {
+					resolve(type);
+				}
+				Object value = reader.read(TypeInputStream.this);
+				if (listener != null && !defining) {
+					listener.valueRead(entry, input.position() - start);
+				}
+				if (toObject != null) {
+					value = toObject.invoke(value);
+				}
+				action.accept(clss.cast(value));
+				return true;
+			} catch (IOException e) {
+				done = true;
+				throw new UncheckedIOException(e);
+			} catch (Throwable e) {
+				done = true;
+				throw new UncheckedIOException(new IOException(e));
+			}
+		}
+
+		private void resolve(int type) throws IOException {
+			TypeMapEntry next = typeMap.getEntry(type);
+			if (next == null || !clss.isAssignableFrom(next.dataClass().typeClass())) {
+				throw new IOException("wrong type on stream");
+			}
+			streamId = type;
+			entry = next;
+			reader = next.reader();
+			toObject = next.dataClass().bridge().isPresent() ? next.dataClass().bridge().get().toObject() : null;
 		}
 	}
 
 	@SuppressWarnings("unchecked")
 	public <T> T readObject(Typename typeName) throws IOException {
+		depth++;
 		try {
-
 			int type = readNextIdentifier();
+			long start = valueStart;
 			TypeMapEntry entry = typeMap.getEntry(type);
 			if (entry == null) {
 				throw new IOException("type not mapped to stream: " + typeName.toString());
@@ -161,12 +581,18 @@ public class TypeInputStream implements TypeStream {
 						+ entry.typename().toString());
 			}
 			Object value = entry.reader().read(this);
+			if (listener != null && !defining) {
+				listener.valueRead(entry, input.position() - start);
+			}
+			endFrame();
 			if (entry.dataClass().bridge().isPresent()) {
 				value = entry.dataClass().bridge().get().toObject().invoke(value);
 			}
 			return (T) value;
 		} catch (Throwable e) {
 			throw new IOException(e);
+		} finally {
+			depth--;
 		}
 	}
 }
@@ -15,6 +15,8 @@
  */
 package io.litterat.xpl;
 
+import io.litterat.bind.DataClass;
+import io.litterat.bind.DataClassRecord;
 import io.litterat.core.TypeContext;
 import io.litterat.schema.TypeException;
 import io.litterat.schema.meta.Array;
@@ -25,41 +27,90 @@ import io.litterat.schema.meta.Field;
 import io.litterat.schema.meta.Meta;
 import io.litterat.schema.meta.Record;
 import io.litterat.schema.meta.Typename;
+import io.litterat.xpl.lang.CompilerBackend;
+import io.litterat.xpl.resolve.ResolvingReader;
 import io.litterat.xpl.resolve.SchemaResolver;
-import io.litterat.xpl.util.IntObjectHashMap;
+import io.litterat.xpl.resolve.ValueSkipper;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class TypeMap {
 
 	private final TypeContext context;
-	private final IntObjectHashMap<TypeMapEntry> types;
-	private final ConcurrentHashMap<Type, TypeMapEntry> classes;
+	private final CompilerBackend backend;
+
+	// Entries indexed by stream id. Stream ids are small and dense so lookups are a single array read.
+	// The array is copied on registration and swapped in with a CAS, its length is the highest id + 1.
+	private final AtomicReference<TypeMapEntry[]> types;
+
+	// Per class slot holding the entry bound to the class, set once on registration.
+	private final ClassValue<AtomicReference<TypeMapEntry>> classes;
+
 	private final ConcurrentHashMap<Typename, TypeMapEntry> typeNames;
 
 	private final SchemaResolver resolver;
 
-	private final AtomicInteger lastIdentifier;
+	// Projection readers by source stream id and target class.
+	private final ConcurrentHashMap<Projection, TypeReader> projections;
+
+	private record Projection(int streamId, Class<?> target) {}
+
+	// Readers of peer definitions which differ from the local class, by definition fingerprint and class.
+	private final ConcurrentHashMap<Resolution, TypeReader> resolutions;
+
+	private record Resolution(long fingerprint, Class<?> local) {}
+
+	// Stream ids of the base types every TypeMap registers.
+	private final int metaIdentifiers;
+
+	// Stream ids up to and including this value are known to every peer and never defined on a stream.
+	// Raised when a snapshot is loaded.
+	private volatile int predefined;
+
+	// Identity of the loaded snapshot, zero if none.
+	private volatile long snapshotId;
+
+	// Highest stream id accepted from a peer beyond those registered, bounds the entry array a stream
+	// or snapshot can make the map allocate.
+	private static final int MAX_IDENTIFIER_GAP = 1 << 16;
 
 	public TypeMap(TypeContext context) {
+		this(context, CompilerBackend.BYTECODE);
+	}
+
+	public TypeMap(TypeContext context, CompilerBackend backend) {
 		Objects.requireNonNull(context, "TypeContext is required");
+		Objects.requireNonNull(backend, "CompilerBackend is required");
 
 		this.context = context;
+		this.backend = backend;
 
-		this.types = new IntObjectHashMap<>();
-		this.classes = new ConcurrentHashMap<>();
+		this.types = new AtomicReference<>(new TypeMapEntry[1]);
+		this.classes = new ClassValue<>() {
+			@Override
+			protected AtomicReference<TypeMapEntry> computeValue(Class<?> type) {
+				return new AtomicReference<>();
+			}
+		};
 		this.typeNames = new ConcurrentHashMap<>();
-		this.lastIdentifier = new AtomicInteger(0);
+		this.projections = new ConcurrentHashMap<>();
+		this.resolutions = new ConcurrentHashMap<>();
 
 		this.resolver = new SchemaResolver(this);
 
 		// Register the base types to communicate schema definitions.
 		registerMetaData(resolver);
+		this.metaIdentifiers = lastIdentifier();
+		this.predefined = metaIdentifiers;
 	}
 
+	// The base stream ids are part of the wire format, changing them needs a new TypeStream.FORMAT_VERSION.
 	private void registerMetaData(SchemaResolver resolver) {
 		try {
 			register(1, resolver.register(Meta.STRING, String.class));
@@ -73,52 +124,117 @@ public class TypeMap {
 			register(9, resolver.register(TypeStreamEntry.STREAM_ENTRY, TypeStreamEntry.class));
 			register( 10, resolver.register(Meta.INT32, int.class));
 			register( 10, resolver.register(Meta.BOOLEAN, boolean.class));
+			register( 11, resolver.register(Meta.INT64, long.class));
+			register( 12, resolver.register(Meta.FLOAT, float.class));
+			register( 13, resolver.register(Meta.DOUBLE, double.class));
+			register( 14, resolver.register(Meta.INT8, byte.class));
+			register( 15, resolver.register(Meta.INT16, short.class));
 		} catch (TypeException e) {
 			throw new RuntimeException("Initialization error", e);
 		}
 	}
 
+	/**
+	 * Returns true if the stream id belongs to the base types every TypeMap registers or to a loaded
+	 * snapshot, these are never sent as definitions on a stream.
+	 */
+	public boolean isPredefined(int streamId) {
+		return streamId <= predefined;
+	}
+
+	/**
+	 * Identity of the snapshot loaded into this map, or zero if none has been loaded.
+	 */
+	public long snapshotId() {
+		return snapshotId;
+	}
+
+	/**
+	 * Export the stream ids and definitions of all types registered beyond the base types.
+	 */
+	public TypeMapSnapshot snapshot() throws TypeException {
+		TypeMapEntry[] current = types.get();
+
+		List<TypeMapEntry> entries = new ArrayList<>();
+		for (int streamId = metaIdentifiers + 1; streamId < current.length; streamId++) {
+			if (current[streamId] != null) {
+				entries.add(current[streamId]);
+			}
+		}
+
+		return TypeMapSnapshot.write(this, entries);
+	}
+
+	/**
+	 * Register every type in the snapshot with the snapshot's stream ids. Streams using this map then
+	 * reference those ids without sending definitions, and readers check the snapshot identity. The
+	 * map must not have any types registered beyond the base types, and must be loaded before the map
+	 * is shared with other threads.
+	 */
+	public void load(TypeMapSnapshot snapshot) throws TypeException {
+		if (lastIdentifier() != metaIdentifiers) {
+			throw new TypeException("Snapshot must be loaded before any other types are registered");
+		}
+
+		for (TypeStreamEntry entry : snapshot.entries(this)) {
+			registerEntry(entry);
+		}
+
+		this.predefined = lastIdentifier();
+		this.snapshotId = snapshot.id();
+	}
+
 	public TypeContext context() {
 		return context;
 	}
 
-	private TypeMapEntry register(int streamId, TypeMapEntry newEntry) throws TypeException {
+	public CompilerBackend backend() {
+		return backend;
+	}
 
-		// Very simplistic lock strategy. Revisit sometime.
-		synchronized (lastIdentifier) {
+	private int lastIdentifier() {
+		return types.get().length - 1;
+	}
 
-			if (lastIdentifier.get() < streamId ) {
-				lastIdentifier.set(streamId);
-			}
+	private TypeMapEntry register(int streamId, TypeMapEntry newEntry) throws TypeException {
 
-			// Check it isn't already registered.
-			TypeMapEntry entry = typeNames.get(newEntry.typename());
-			if (entry != null) {
-				// just return what was there.
-				return entry;
-			}
+		// Atomic per typename, so concurrent registrations of one type are given a single stream id.
+		// Just return what was there if it is already registered.
+		return typeNames.computeIfAbsent(newEntry.typename(), typename -> publish(streamId, newEntry, true));
+	}
 
-			// Grab next identifier.
-			if (streamId == 0) {
+	// Copy the entries with the new entry added and CAS it in. Explicit stream ids replace whatever is in
+	// the slot, atomic types share a slot this way. Entries resolved from a peer definition are only read
+	// by stream id and are not bound to the class.
+	private TypeMapEntry publish(int streamId, TypeMapEntry newEntry, boolean bindClass) {
+		while (true) {
+			TypeMapEntry[] current = types.get();
 
-				while (true) {
-					streamId = lastIdentifier.incrementAndGet();
-					if (types.get(streamId) == null) {
-						break;
-					}
+			// Grab next identifier.
+			int id = streamId;
+			if (id == 0) {
+				id = current.length;
+				while (isReserved(id)) {
+					id++;
 				}
 			}
 
-			// Crate new entry.
-			entry = new TypeMapEntry(streamId, newEntry.typename(), newEntry.definition(), newEntry.dataClass(), newEntry.reader(),
-					newEntry.writer());
-			types.put(streamId, entry);
-			typeNames.put(entry.typename(), entry);
+			// Create new entry.
+			TypeMapEntry entry = new TypeMapEntry(id, newEntry.typename(), newEntry.definition(), newEntry.dataClass(),
+					newEntry.reader(), newEntry.writer());
 
-			// Atomic types will duplicate entries. First one wins.
-			classes.putIfAbsent(entry.dataClass().typeClass(), entry);
+			TypeMapEntry[] updated = Arrays.copyOf(current, Math.max(current.length, id + 1));
+			updated[id] = entry;
 
-			return entry;
+			if (types.compareAndSet(current, updated)) {
+
+				// Atomic types will duplicate entries. First one wins.
+				if (bindClass) {
+					classes.get(entry.dataClass().typeClass()).compareAndSet(null, entry);
+				}
+
+				return entry;
+			}
 		}
 	}
 
@@ -129,15 +245,44 @@ public class TypeMap {
 	}
 
 	public TypeMapEntry getEntry(Class<?> clzz) throws TypeException {
-		TypeMapEntry entry = classes.get(clzz);
+		TypeMapEntry entry = classes.get(clzz).get();
 
 		return entry;
 	}
 
 	public TypeMapEntry getEntry(int streamId) {
-		TypeMapEntry entry = types.get(streamId);
+		TypeMapEntry[] current = types.get();
 
-		return entry;
+		return streamId >= 0 && streamId < current.length ? current[streamId] : null;
+	}
+
+	/**
+	 * Returns the skipper for values of the entry, compiled from its definition on first use.
+	 */
+	public TypeSkipper skipper(TypeMapEntry entry) throws TypeException {
+		TypeSkipper skipper = entry.skipper();
+		if (skipper == null) {
+			skipper = ValueSkipper.compile(this, entry);
+			entry.skipper(skipper);
+		}
+		return skipper;
+	}
+
+	/**
+	 * Returns a reader of values of the source entry into the target class, which has a subset of the
+	 * source fields.
+	 */
+	public TypeReader projection(TypeMapEntry source, Class<?> target) throws TypeException {
+		Projection key = new Projection(source.streamId(), target);
+		TypeReader reader = projections.get(key);
+		if (reader == null) {
+			reader = ResolvingReader.projection(this, source, target);
+			TypeReader existing = projections.putIfAbsent(key, reader);
+			if (existing != null) {
+				reader = existing;
+			}
+		}
+		return reader;
 	}
 
 	public TypeMapEntry registerStreamEntry(Typename typename) throws TypeException {
@@ -150,10 +295,36 @@ public class TypeMap {
 		return register(entry.streamId(), entry);
 	}
 
+	// Stream ids which are control tokens on the stream and never given to a type.
+	private static boolean isReserved(int id) {
+		return id == TypeStream.DEFINE_TYPE || id == TypeStream.STRING_REFERENCES || id == TypeStream.SNAPSHOT
+				|| id == TypeStream.FRAMES || id == TypeStream.BATCH || id == TypeStream.COLUMNS;
+	}
+
 	public void registerEntry(TypeStreamEntry def) throws TypeException {
-		TypeMapEntry entry = getEntry(def.streamId());
+		// The stream id comes from the peer and is used as an index, check it before it is used.
+		int streamId = def.streamId();
+		if (streamId <= 0) {
+			throw new TypeException(String.format("Invalid stream id %d for %s", streamId, def.typename()));
+		}
+		if (isReserved(streamId)) {
+			throw new TypeException(String.format("Reserved stream id %d for %s", streamId, def.typename()));
+		}
+		if (streamId > lastIdentifier() + MAX_IDENTIFIER_GAP) {
+			throw new TypeException(String.format("Stream id %d for %s is beyond the registered types",
+					streamId, def.typename()));
+		}
+
+		TypeMapEntry entry = getEntry(streamId);
 		if (entry == null) {
 
+			// Find the local class, a peer may have written the type with a different definition.
+			DataClass local = context.bindLocal(def.typename());
+			if (local != null && !context.getDefinition(def.typename()).equals(def.definition())) {
+				publish(def.streamId(), resolve(def, local), false);
+				return;
+			}
+
 			// Register the typename and definition to the context.
 			// will attempt to find a native class to bind to.
 			context.register(def.typename(),def.definition());
@@ -171,4 +342,27 @@ public class TypeMap {
 
 	}
 
+	// Entry for values written with a peer definition that differs from the local one. Values are read
+	// into the local class and the entry keeps the peer definition for skipping and projections.
+	private TypeMapEntry resolve(TypeStreamEntry def, DataClass local) throws TypeException {
+		if (!(def.definition() instanceof Record writer) || !(local instanceof DataClassRecord dataClass)
+				|| !(context.getDefinition(def.typename()) instanceof Record localRecord)) {
+			throw new TypeException("Definition on stream does not match local definition: " + def.typename());
+		}
+
+		Resolution key = new Resolution(writer.fingerprint(), dataClass.typeClass());
+		TypeReader reader = resolutions.get(key);
+		if (reader == null) {
+			reader = ResolvingReader.resolution(this, writer, dataClass, localRecord);
+			TypeReader existing = resolutions.putIfAbsent(key, reader);
+			if (existing != null) {
+				reader = existing;
+			}
+		}
+
+		return new TypeMapEntry(def.streamId(), def.typename(), writer, dataClass, reader, (output, value) -> {
+			throw new IOException("Type resolved from a stream definition can not be written: " + def.typename());
+		});
+	}
+
 }
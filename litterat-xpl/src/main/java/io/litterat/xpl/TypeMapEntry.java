@@ -28,6 +28,12 @@ public class TypeMapEntry {
 	private final TypeReader reader;
 	private final TypeWriter writer;
 
+	// Recent encoded size used to pre-size chunked outputs. Updates are racy but any value is usable.
+	private int sizeHint;
+
+	// Compiled on first use, racing threads compile equivalent skippers.
+	private volatile TypeSkipper skipper;
+
 	public TypeMapEntry(int streamId, Typename typename, Definition definition, DataClass dataClass, TypeReader reader, TypeWriter writer) {
 		this.streamId = streamId;
 		this.dataClass = dataClass;
@@ -65,4 +71,32 @@ public class TypeMapEntry {
 		return writer;
 	}
 
+	/**
+	 * Skipper for values of this type, or null if not compiled yet.
+	 */
+	public TypeSkipper skipper() {
+		return skipper;
+	}
+
+	public void skipper(TypeSkipper skipper) {
+		this.skipper = skipper;
+	}
+
+	/**
+	 * Approximate encoded size in bytes of recent values of this type, or zero if unknown.
+	 */
+	public int sizeHint() {
+		return sizeHint;
+	}
+
+	/**
+	 * Record the encoded size of a value. Larger values raise the hint immediately while smaller
+	 * values let it decay so that a single large value does not over-size every later write.
+	 */
+	public void sizeHint(long bytes) {
+		int hint = sizeHint;
+		int size = (int) Math.min(bytes, Integer.MAX_VALUE);
+		sizeHint = size >= hint ? size : hint - ((hint - size) >> 2);
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Array;
+import io.litterat.schema.meta.Definition;
+import io.litterat.schema.meta.Entry;
+import io.litterat.schema.meta.Field;
+import io.litterat.schema.meta.Record;
+import io.litterat.schema.meta.Typename;
+import io.litterat.schema.meta.Union;
+import io.litterat.xpl.io.ByteArrayBaseInput;
+import io.litterat.xpl.io.StreamBaseOutput;
+
+/**
+ * A binary export of a TypeMap's stream ids and definitions. Both peers load the same snapshot at
+ * startup so streams reference its ids without sending definitions in band.
+ *
+ * The format is a small header followed by the entries as xpl values:
+ *
+ * <pre>
+ * 'X' 'P' 'L' 'S' | version:uint8 | id:int64 | count:uvarint | TypeStreamEntry * count
+ * </pre>
+ *
+ * Entries are ordered so that every type follows the types its definition references. The id is a
+ * 64-bit FNV-1a hash of the entries and is checked when the snapshot is read and against the id a
+ * writer sends at the start of each stream.
+ */
+public final class TypeMapSnapshot {
+
+	private static final byte[] MAGIC = { 'X', 'P', 'L', 'S' };
+	// Version 2 entries are encoded with stream format version 1, see TypeStream.FORMAT_VERSION.
+	private static final int VERSION = 2;
+	private static final int HEADER_LENGTH = MAGIC.length + 1 + 8;
+
+	private final byte[] bytes;
+	private final long id;
+
+	private TypeMapSnapshot(byte[] bytes, long id) {
+		this.bytes = bytes;
+		this.id = id;
+	}
+
+	/**
+	 * Read a snapshot previously returned by bytes().
+	 */
+	public static TypeMapSnapshot read(byte[] bytes) throws TypeException {
+		if (bytes.length < HEADER_LENGTH || !Arrays.equals(bytes, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+			throw new TypeException("Not a TypeMap snapshot");
+		}
+		if (bytes[MAGIC.length] != VERSION) {
+			throw new TypeException("Unsupported TypeMap snapshot version: " + bytes[MAGIC.length]);
+		}
+
+		long id = ByteBuffer.wrap(bytes, MAGIC.length + 1, 8).order(ByteOrder.LITTLE_ENDIAN).getLong();
+		if (id != fingerprint(bytes, HEADER_LENGTH)) {
+			throw new TypeException("TypeMap snapshot is corrupt");
+		}
+
+		return new TypeMapSnapshot(bytes.clone(), id);
+	}
+
+	public long id() {
+		return id;
+	}
+
+	public byte[] bytes() {
+		return bytes.clone();
+	}
+
+	static TypeMapSnapshot write(TypeMap map, List<TypeMapEntry> entries) throws TypeException {
+		try {
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+			buffer.write(MAGIC);
+			buffer.write(VERSION);
+			buffer.write(new byte[8]);
+
+			List<TypeMapEntry> ordered = order(entries);
+
+			// Every exported type is referenced by id only, so mark them all as already defined.
+			TypeOutputStream out = new TypeOutputStream(map, new StreamBaseOutput(buffer));
+			out.markHeaderAnnounced();
+			for (TypeMapEntry entry : ordered) {
+				out.markDefined(entry.streamId());
+			}
+
+			out.output().writeUVarInt32(ordered.size());
+			for (TypeMapEntry entry : ordered) {
+				out.writeObject(new TypeStreamEntry(entry.streamId(), new Entry(entry.typename(), entry.definition())));
+			}
+			out.flush();
+
+			byte[] bytes = buffer.toByteArray();
+			long id = fingerprint(bytes, HEADER_LENGTH);
+			ByteBuffer.wrap(bytes, MAGIC.length + 1, 8).order(ByteOrder.LITTLE_ENDIAN).putLong(id);
+
+			return new TypeMapSnapshot(bytes, id);
+		} catch (IOException e) {
+			throw new TypeException("Failed to write TypeMap snapshot", e);
+		}
+	}
+
+	List<TypeStreamEntry> entries(TypeMap map) throws TypeException {
+		try {
+			TypeInputStream in = new TypeInputStream(map,
+					new ByteArrayBaseInput(Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length)));
+
+			int count = in.input().readUVarInt32();
+			List<TypeStreamEntry> entries = new ArrayList<>(count);
+			for (int x = 0; x < count; x++) {
+				entries.add(in.readObject(TypeStreamEntry.class));
+			}
+			return entries;
+		} catch (IOException e) {
+			throw new TypeException("Failed to read TypeMap snapshot", e);
+		}
+	}
+
+	// Depth first so referenced types come before the types that use them.
+	private static List<TypeMapEntry> order(List<TypeMapEntry> entries) {
+		Map<Typename, TypeMapEntry> byName = new HashMap<>();
+		for (TypeMapEntry entry : entries) {
+			byName.put(entry.typename(), entry);
+		}
+
+		Set<TypeMapEntry> ordered = new LinkedHashSet<>();
+		Set<TypeMapEntry> visiting = new HashSet<>();
+		for (TypeMapEntry entry : entries) {
+			visit(entry, byName, visiting, ordered);
+		}
+		return new ArrayList<>(ordered);
+	}
+
+	private static void visit(TypeMapEntry entry, Map<Typename, TypeMapEntry> byName, Set<TypeMapEntry> visiting,
+			Set<TypeMapEntry> ordered) {
+		if (ordered.contains(entry) || !visiting.add(entry)) {
+			return;
+		}
+
+		List<Typename> references = new ArrayList<>();
+		references(entry.definition(), references);
+		for (Typename reference : references) {
+			TypeMapEntry referenced = byName.get(reference);
+			if (referenced != null) {
+				visit(referenced, byName, visiting, ordered);
+			}
+		}
+
+		ordered.add(entry);
+	}
+
+	private static void references(Definition definition, List<Typename> references) {
+		switch (definition) {
+			case Typename typename -> references.add(typename);
+			case Array array -> references.add(array.type());
+			case Union union -> references.addAll(Arrays.asList(union.map()));
+			case Record record -> {
+				for (Field field : record.fields()) {
+					references(field.type(), references);
+				}
+			}
+			default -> {
+			}
+		}
+	}
+
+	private static long fingerprint(byte[] bytes, int offset) {
+		long hash = 0xcbf29ce484222325L;
+		for (int x = offset; x < bytes.length; x++) {
+			hash ^= bytes[x] & 0xff;
+			hash *= 0x100000001b3L;
+		}
+
+		// Zero means no snapshot.
+		return hash == 0 ? 1 : hash;
+	}
+}
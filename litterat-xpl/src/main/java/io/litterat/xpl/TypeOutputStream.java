@@ -21,21 +21,66 @@ import io.litterat.schema.meta.Entry;
 import io.litterat.schema.meta.Typename;
 import io.litterat.xpl.io.ByteArrayBaseOutput;
 import io.litterat.xpl.io.ByteBufferBaseOutput;
+import io.litterat.xpl.io.ChunkedBaseOutput;
+import io.litterat.xpl.io.SizeBaseOutput;
 import io.litterat.xpl.io.StreamBaseOutput;
+import io.litterat.xpl.lang.MachineStack;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 public class TypeOutputStream implements TypeStream {
 
+	// Smallest number of values encoded by one task of a parallel batch.
+	private static final int MIN_CHUNK_VALUES = 1024;
+
 	private final TypeBaseOutput output;
 	private final TypeMap typeMap;
+	private final TypeStreamListener listener;
+	private final ChunkedBaseOutput chunked;
+	private final MachineStack machines = new MachineStack();
+
+	// Where values are encoded, the output or the frame being built.
+	private TypeBaseOutput target;
+
+	// Null unless framed mode is enabled. Holds the body of the frame being built.
+	private ChunkedBaseOutput frames;
+	private boolean framesAnnounced;
+
+	// Null unless string back references are enabled.
+	private StringTable strings;
+	private boolean stringsAnnounced;
+
+	// Set when arrays of records are written as columns.
+	private boolean columns;
+	private boolean columnsAnnounced;
+
+	// Set while a definition is written, its meta values are not reported as values to the listener.
+	private boolean defining;
+
+	// Stream ids whose definitions have been written to this stream.
+	private final BitSet defined = new BitSet();
+
+	// The stream header, the version and any snapshot id, is written once before the first value.
+	private boolean headerAnnounced;
 
 	public TypeOutputStream(TypeMap map, TypeBaseOutput output) {
+		this(map, output, null);
+	}
+
+	public TypeOutputStream(TypeMap map, TypeBaseOutput output, TypeStreamListener listener) {
 		this.output = output;
+		this.target = output;
 		this.typeMap = map;
+		this.listener = listener;
+		this.chunked = output instanceof ChunkedBaseOutput c ? c : null;
 	}
 
 	public TypeOutputStream(TypeBaseOutput output) {
@@ -71,91 +116,420 @@ public class TypeOutputStream implements TypeStream {
 		return typeMap;
 	}
 
+	@Override
+	public MachineStack machines() {
+		return machines;
+	}
+
 	public TypeBaseOutput output() {
-		return output;
+		return target;
+	}
+
+	/**
+	 * Wrap each top level value in a length prefixed frame so a reader can skip, forward or hand off
+	 * values without decoding them. Definitions are sent in control frames ahead of the values that
+	 * need them. Must be enabled before anything is written, the reader detects this from the stream.
+	 * Frames can not be combined with string back references as skipped frames would lose strings.
+	 */
+	public TypeOutputStream enableFrames() {
+		if (strings != null) {
+			throw new IllegalStateException("Frames can not be used with string references");
+		}
+		if (frames == null) {
+			this.frames = new ChunkedBaseOutput();
+		}
+		return this;
+	}
+
+	/**
+	 * Write repeated strings as references to their first occurrence on this stream. The reader
+	 * detects this from the stream, no configuration is required on the reading side unless the table
+	 * has other than the default limits.
+	 */
+	public TypeOutputStream enableStringReferences() {
+		return enableStringReferences(new StringTable());
+	}
+
+	public TypeOutputStream enableStringReferences(StringTable table) {
+		if (frames != null) {
+			throw new IllegalStateException("String references can not be used with frames");
+		}
+		if (strings == null) {
+			this.strings = table;
+		}
+		return this;
+	}
+
+	/**
+	 * Write arrays of records as columns, the values of each field for every element in turn, rather
+	 * than element by element. Suits large arrays of small records with numeric fields. Must be enabled
+	 * before anything is written, the reader detects this from the stream.
+	 */
+	public TypeOutputStream enableColumns() {
+		this.columns = true;
+		return this;
+	}
+
+	/**
+	 * Returns true if arrays of records are written as columns.
+	 */
+	public boolean columns() {
+		return columns;
+	}
+
+	/**
+	 * The string back reference table, or null if not enabled.
+	 */
+	public StringTable strings() {
+		return strings;
+	}
+
+	private TypeMapEntry entry(Class<?> clazz) throws TypeException, IOException {
+		TypeMapEntry entry = typeMap.getEntry(clazz);
+		if (entry == null) {
+			entry = typeMap.registerStreamEntry(typeMap.context().getTypename(clazz));
+		}
+		return define(entry);
+	}
+
+	private TypeMapEntry entry(Typename typename) throws TypeException, IOException {
+		TypeMapEntry entry = typeMap.getEntry(typename);
+		if (entry == null) {
+			entry = typeMap.registerStreamEntry(typename);
+		}
+		return define(entry);
+	}
+
+	// Write the definition the first time a type is used on this stream. Definitions are tracked per
+	// stream so that streams sharing a TypeMap each send the definitions their reader needs.
+	private TypeMapEntry define(TypeMapEntry entry) throws IOException {
+		int streamId = entry.streamId();
+		if (typeMap.isPredefined(streamId) || defined.get(streamId)) {
+			return entry;
+		}
+		defined.set(streamId);
+		if (!headerAnnounced) {
+			announceHeader();
+		}
+
+		// Definitions are always written as rows.
+		long start = listener != null ? target.position() : 0;
+		boolean valueColumns = columns;
+		boolean valueDefining = defining;
+		target.writeUVarInt32(DEFINE_TYPE);
+		try {
+			columns = false;
+			defining = true;
+			this.writeObject(
+					new TypeStreamEntry(entry.streamId(), new Entry(entry.typename(), entry.definition())));
+		} finally {
+			columns = valueColumns;
+			defining = valueDefining;
+		}
+		if (listener != null) {
+			listener.definitionWritten(entry, target.position() - start);
+		}
+		return entry;
 	}
 
-	private TypeMapEntry register(Typename typeName) throws TypeException, IOException {
-		TypeMapEntry entry = typeMap.registerStreamEntry(typeName);
+	void markDefined(int streamId) {
+		defined.set(streamId);
+	}
+
+	void markHeaderAnnounced() {
+		headerAnnounced = true;
+	}
 
-		// Write the definition before returning.
-		logOutput("writing TypeStreamEntry " + entry.streamId() + " " + entry.typename());
-		this.output().writeUVarInt32(DEFINE_TYPE);
-		this.writeObject(
-				new TypeStreamEntry(entry.streamId(), new Entry(entry.typename(), entry.definition())));
-		logOutput("finished writing TypeStreamEntry " + entry.streamId() + " " + entry.typename() );
-		return typeMap.getEntry(typeName);
+	private void announceHeader() throws IOException {
+		headerAnnounced = true;
+		target.writeUVarInt32(VERSION);
+		target.writeUVarInt32(FORMAT_VERSION);
+		long snapshotId = typeMap.snapshotId();
+		if (snapshotId != 0) {
+			target.writeUVarInt32(SNAPSHOT);
+			target.writeInt64(snapshotId);
+		}
+	}
+
+	private void announceColumns() throws IOException {
+		columnsAnnounced = true;
+		target.writeUVarInt32(COLUMNS);
+	}
+
+	/**
+	 * Returns the exact number of bytes writeObject(object) would add to this stream, including any
+	 * type definitions and string references it would write. The stream itself is not changed. The
+	 * same compiled writers are run against a SizeBaseOutput so the size can not drift from the
+	 * encoding.
+	 */
+	public long sizeOf(Object object) throws IOException {
+		SizeBaseOutput size = new SizeBaseOutput();
+		TypeOutputStream sizing = new TypeOutputStream(typeMap, size);
+		sizing.defined.or(defined);
+		sizing.headerAnnounced = headerAnnounced;
+		if (frames != null) {
+			sizing.frames = new ChunkedBaseOutput();
+			sizing.framesAnnounced = framesAnnounced;
+		}
+		if (strings != null) {
+			sizing.strings = strings.copy();
+			sizing.stringsAnnounced = stringsAnnounced;
+		}
+		sizing.columns = columns;
+		sizing.columnsAnnounced = columnsAnnounced;
+		sizing.writeObject(object);
+		return size.position();
 	}
 
 	public void writeObject(Object object) throws IOException {
-		logOutput("writing object");
 		try {
 			Objects.requireNonNull(object, "writeObject(Object) requires non null value");
 
-			TypeMapEntry entry = typeMap.getEntry(object.getClass());
-			if (entry == null) {
-				entry = register(typeMap.context().getTypename(object.getClass()));
+			if (frames != null && target == output) {
+				writeFrames(null, object);
+			} else {
+				writeObject(entry(object.getClass()), object);
 			}
-
-			writeObject(entry, object);
 		} catch (Throwable e) {
 			throw new IOException(e);
 		}
 	}
 
 	public void writeObject(Typename typename, Object object) throws IOException {
-		logOutput("writing typename, object");
 		try {
 			Objects.requireNonNull(typename, "writeObject(Typename, Object) requires non null value");
 
-			TypeMapEntry entry = typeMap.getEntry(typename);
-			if (entry == null) {
-				entry = register(typename);
+			if (frames != null && target == output) {
+				writeFrames(typename, object);
+			} else {
+				writeObject(entry(typename), object);
 			}
-			writeObject(entry, object);
 		} catch (Throwable e) {
 			throw new IOException(e);
 		}
 	}
 
-	private void writeObject(TypeMapEntry entry, Object object ) throws Throwable {
-		logOutput("writing " + entry.typename() + " streamId " + entry.streamId());
+	/**
+	 * Write the values as a batch, read back with TypeInputStream.readAll. The entry of the class is
+	 * resolved once for the batch, values of other classes are resolved as they are written. Batches
+	 * are not supported on framed streams.
+	 */
+	public <T> void writeAll(Iterable<? extends T> values, Class<T> clss) throws IOException {
+		if (frames != null) {
+			throw new IllegalStateException("Batches can not be written to a framed stream");
+		}
 
+		try {
+			Objects.requireNonNull(values, "writeAll(Iterable, Class) requires non null values");
+
+			TypeMapEntry entry = entry(clss);
+			if (!headerAnnounced) {
+				announceHeader();
+			}
+			if (columns && !columnsAnnounced) {
+				announceColumns();
+			}
+			target.writeUVarInt32(BATCH);
+			writeValues(values, clss, entry);
+			target.writeUVarInt32(0);
+		} catch (Throwable e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Write the values as a batch like writeAll, encoding chunks of the list in parallel on the pool.
+	 * Each chunk is written by its own stream against the shared TypeMap into its own buffer, starting
+	 * from the definitions already sent on this stream, and the buffers are appended in order. A type
+	 * first used by several chunks is defined in each of them, readers ignore repeated definitions.
+	 * Not supported with frames or string references. The listener is not called for batch values.
+	 */
+	public <T> void writeAll(List<? extends T> values, Class<T> clss, ForkJoinPool pool) throws IOException {
+		if (frames != null) {
+			throw new IllegalStateException("Batches can not be written to a framed stream");
+		}
+		if (strings != null) {
+			throw new IllegalStateException("Batches can not be written in parallel with string references");
+		}
+
+		TypeOutputStream[] chunks = null;
+		try {
+			Objects.requireNonNull(values, "writeAll(List, Class, ForkJoinPool) requires non null values");
+
+			TypeMapEntry entry = entry(clss);
+			if (!headerAnnounced) {
+				announceHeader();
+			}
+			if (columns && !columnsAnnounced) {
+				announceColumns();
+			}
+			target.writeUVarInt32(BATCH);
+
+			int chunkValues = Math.max(MIN_CHUNK_VALUES, values.size() / (pool.getParallelism() * 4) + 1);
+			chunks = new TypeOutputStream[(values.size() + chunkValues - 1) / chunkValues];
+			pool.invoke(new ChunkEncoder<>(this, values, clss, entry, chunks, chunkValues, 0, chunks.length));
+
+			// The chunks are written in order, after which their definitions have been sent.
+			for (TypeOutputStream chunk : chunks) {
+				chunk.chunked.writeTo(target);
+				defined.or(chunk.defined);
+			}
+			target.writeUVarInt32(0);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		} catch (Throwable e) {
+			throw new IOException(e);
+		} finally {
+			if (chunks != null) {
+				for (TypeOutputStream chunk : chunks) {
+					if (chunk != null) {
+						chunk.chunked.release();
+					}
+				}
+			}
+		}
+	}
+
+	private <T> void writeValues(Iterable<? extends T> values, Class<T> clss, TypeMapEntry entry) throws Throwable {
+		for (T value : values) {
+			Objects.requireNonNull(value, "writeAll requires non null values");
+			writeObject(value.getClass() == clss ? entry : entry(value.getClass()), value);
+		}
+	}
+
+	// Splits the chunk range in half until a single chunk is left, which is encoded by a new stream
+	// into its own buffer.
+	private static final class ChunkEncoder<T> extends RecursiveAction {
+
+		// Tasks only run on the pool and are never serialized.
+		private static final long serialVersionUID = 1L;
+
+		private final transient TypeOutputStream parent;
+		private final transient List<? extends T> values;
+		private final Class<T> clss;
+		private final transient TypeMapEntry entry;
+		private final transient TypeOutputStream[] chunks;
+		private final int chunkValues;
+		private final int from;
+		private final int to;
+
+		ChunkEncoder(TypeOutputStream parent, List<? extends T> values, Class<T> clss, TypeMapEntry entry,
+				TypeOutputStream[] chunks, int chunkValues, int from, int to) {
+			this.parent = parent;
+			this.values = values;
+			this.clss = clss;
+			this.entry = entry;
+			this.chunks = chunks;
+			this.chunkValues = chunkValues;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > 1) {
+				int mid = (from + to) >>> 1;
+				invokeAll(new ChunkEncoder<>(parent, values, clss, entry, chunks, chunkValues, from, mid),
+						new ChunkEncoder<>(parent, values, clss, entry, chunks, chunkValues, mid, to));
+				return;
+			}
+
+			TypeOutputStream chunk = new TypeOutputStream(parent.typeMap, new ChunkedBaseOutput());
+			chunk.defined.or(parent.defined);
+			chunk.headerAnnounced = true;
+			chunk.columns = parent.columns;
+			chunk.columnsAnnounced = true;
+			chunks[from] = chunk;
+
+			int start = from * chunkValues;
+			try {
+				chunk.writeValues(values.subList(start, Math.min(start + chunkValues, values.size())), clss, entry);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} catch (Throwable e) {
+				throw new UncheckedIOException(new IOException(e));
+			}
+		}
+	}
+
+	// Write a control frame with any definitions and headers the value needs, then the value frame.
+	// Definitions are written with writeObject while the frame is being built, so are not framed.
+	private void writeFrames(Typename typename, Object object) throws Throwable {
+		if (!framesAnnounced) {
+			output.writeUVarInt32(FRAMES);
+			framesAnnounced = true;
+		}
+
+		target = frames;
+		try {
+			if (!headerAnnounced) {
+				announceHeader();
+			}
+			if (columns && !columnsAnnounced) {
+				announceColumns();
+			}
+			TypeMapEntry entry = typename != null ? entry(typename) : entry(object.getClass());
+			if (object instanceof Typename valueTypename) {
+				entry(valueTypename);
+			}
+			if (frames.position() > 0) {
+				writeFrame(FRAME_CONTROL);
+			}
+
+			writeObject(entry, object);
+			writeFrame(FRAME_VALUE);
+		} finally {
+			target = output;
+			frames.release();
+		}
+	}
+
+	private void writeFrame(int flags) throws IOException {
+		output.writeUVarInt32((int) frames.position());
+		output.writeInt8((byte) flags);
+		frames.writeTo(output);
+		frames.release();
+	}
+
+	private void writeObject(TypeMapEntry entry, Object object ) throws Throwable {
 		// If we're writing a Typename, then check if it has been used previously.
 		if (object instanceof Typename typename) {
-			logOutput("writing typename............ " + typename);
-			TypeMapEntry embedded = typeMap.getEntry(typename);
-			if (embedded == null) {
-				logOutput("typename not registered............ " + typename);
-				register(typename);
-			}
+			entry(typename);
 		}
 
-		output().writeUVarInt32(entry.streamId());
+		long start = listener != null || chunked != null ? target.position() : 0;
+		if (chunked != null && target == output) {
+			chunked.reserve(entry.sizeHint());
+		}
+		if (!headerAnnounced) {
+			announceHeader();
+		}
+		if (strings != null && !stringsAnnounced) {
+			target.writeUVarInt32(STRING_REFERENCES);
+			stringsAnnounced = true;
+		}
+		if (columns && !columnsAnnounced) {
+			announceColumns();
+		}
+		target.writeUVarInt32(entry.streamId());
 
-		logOutput( "writing object: " + (object != null ? object.toString():"null"));
 		if (entry.dataClass().bridge().isPresent()) {
 			entry.writer().write( this, entry.dataClass().bridge().get().toData().invoke(object));
 		} else {
 			entry.writer().write(this, object);
 		}
 
-	}
-
-	public void logOutput(String msg) {
-		if (output instanceof ByteArrayBaseOutput out) {
-			System.err.println("Output pos: " + out.getBytesWritten() + " " + msg);
+		if (chunked != null) {
+			entry.sizeHint(target.position() - start);
+		}
+		if (listener != null && !defining) {
+			listener.valueWritten(entry, target.position() - start);
 		}
 	}
 
 	public int getStreamIdentifier(Class<?> clazz) throws IOException {
 		try {
-			TypeMapEntry entry = typeMap.getEntry(clazz);
-			if (entry == null) {
-				entry = register(typeMap.context().getTypename(clazz));
-			}
-
-			return entry.streamId();
+			return entry(clazz).streamId();
 		} catch (Throwable e) {
 			throw new IOException(e);
 		}
@@ -163,19 +537,17 @@ public class TypeOutputStream implements TypeStream {
 
 	public int getStreamIdentifier(Typename typename) throws IOException {
 		try {
-			TypeMapEntry entry = typeMap.getEntry(typename);
-
-			if (entry == null) {
-				entry = register(typename);
-			}
-
-			return entry.streamId();
+			return entry(typename).streamId();
 		} catch (Throwable e) {
 			throw new IOException(e);
 		}
 	}
 
-	public void close() {
+	public void flush() throws IOException {
+		output.flush();
+	}
 
+	public void close() throws IOException {
+		flush();
 	}
 }
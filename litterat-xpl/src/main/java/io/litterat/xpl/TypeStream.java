@@ -15,9 +15,51 @@
  */
 package io.litterat.xpl;
 
+import io.litterat.xpl.lang.MachineStack;
+
 public interface TypeStream {
 
 	public static final int DEFINE_TYPE = 0x128;
 
+	// Sent once before the first value that uses string back references. Strings that follow are
+	// written using the StringTable encoding.
+	public static final int STRING_REFERENCES = 0x129;
+
+	// Sent once at the start of a stream whose TypeMap was loaded from a snapshot, followed by the
+	// snapshot id as a fixed int64. The reader's TypeMap must have loaded the same snapshot.
+	public static final int SNAPSHOT = 0x12A;
+
+	// Sent once at the start of a framed stream. Everything after it is a sequence of frames, each a
+	// uvarint32 body length, a flags byte and the body.
+	public static final int FRAMES = 0x12B;
+
+	// Starts a batch of values written together. Each value is a stream id followed by the value as
+	// usual, the batch ends with a zero stream id. Not used on framed streams.
+	public static final int BATCH = 0x12C;
+
+	// Sent once before the first value when arrays of records are written as columns. On framed
+	// streams it is sent in the first control frame.
+	public static final int COLUMNS = 0x12D;
+
+	// Sent once at the start of every stream, followed by the format version as a uvarint32. On framed
+	// streams it is sent in the first control frame. Readers reject any other control token before it,
+	// streams written before the version was added start with a definition and are refused.
+	public static final int VERSION = 0x12E;
+
+	// Format version written after VERSION. Version 1 numbers the base types 1 to 15 with user types
+	// from 16, and encodes int32 and int64 values as zig-zag varints.
+	public static final int FORMAT_VERSION = 1;
+
+	// A frame holding a single value, the stream id followed by the value.
+	public static final int FRAME_VALUE = 0x00;
+
+	// A frame holding the definitions and headers needed by the value frames that follow.
+	public static final int FRAME_CONTROL = 0x01;
+
 	TypeMap typeMap();
+
+	/**
+	 * Frames used to execute the lambdas of records read or written by this stream.
+	 */
+	MachineStack machines();
 }
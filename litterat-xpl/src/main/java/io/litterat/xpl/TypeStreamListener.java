@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl;
+
+/**
+ * A TypeStreamListener receives events as values and type definitions are written to or read from a
+ * stream. Streams created without a listener skip all listener calls, including reading the stream
+ * position, so there is no cost when tracing is not required.
+ *
+ * Sizes are in bytes and include the stream identifier and any nested values. Listeners are called
+ * on the thread using the stream and should return quickly.
+ */
+public interface TypeStreamListener {
+
+	/**
+	 * A type definition was written to the stream prior to its first use.
+	 */
+	default void definitionWritten(TypeMapEntry entry, long bytes) {
+	}
+
+	/**
+	 * A type definition was read from the stream and registered with the TypeMap.
+	 */
+	default void definitionRead(TypeMapEntry entry, long bytes) {
+	}
+
+	/**
+	 * A value was written to the stream.
+	 */
+	default void valueWritten(TypeMapEntry entry, long bytes) {
+	}
+
+	/**
+	 * A value was read from the stream.
+	 */
+	default void valueRead(TypeMapEntry entry, long bytes) {
+	}
+}
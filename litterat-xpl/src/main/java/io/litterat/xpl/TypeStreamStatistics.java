@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.litterat.schema.meta.Typename;
+
+/**
+ * A TypeStreamListener that collects per Typename counts and byte totals for values and definitions.
+ * A single instance can be shared by many streams across threads. Useful for sizing buffers and
+ * finding types which dominate the stream.
+ */
+public class TypeStreamStatistics implements TypeStreamListener {
+
+	private final Map<Typename, TypeStatistics> statistics = new ConcurrentHashMap<>();
+
+	@Override
+	public void definitionWritten(TypeMapEntry entry, long bytes) {
+		statistics(entry.typename()).definition(bytes);
+	}
+
+	@Override
+	public void definitionRead(TypeMapEntry entry, long bytes) {
+		statistics(entry.typename()).definition(bytes);
+	}
+
+	@Override
+	public void valueWritten(TypeMapEntry entry, long bytes) {
+		statistics(entry.typename()).value(bytes);
+	}
+
+	@Override
+	public void valueRead(TypeMapEntry entry, long bytes) {
+		statistics(entry.typename()).value(bytes);
+	}
+
+	private TypeStatistics statistics(Typename typename) {
+		return statistics.computeIfAbsent(typename, t -> new TypeStatistics());
+	}
+
+	/**
+	 * Returns the statistics for the type or null if the type has not been seen.
+	 */
+	public TypeStatistics get(Typename typename) {
+		return statistics.get(typename);
+	}
+
+	public Map<Typename, TypeStatistics> all() {
+		return Collections.unmodifiableMap(statistics);
+	}
+
+	/**
+	 * Total bytes of all definitions emitted or received.
+	 */
+	public long totalDefinitionBytes() {
+		long total = 0;
+		for (TypeStatistics stats : statistics.values()) {
+			total += stats.definitionBytes();
+		}
+		return total;
+	}
+
+	public void reset() {
+		statistics.clear();
+	}
+
+	public static class TypeStatistics {
+
+		private final LongAdder count = new LongAdder();
+		private final LongAdder bytes = new LongAdder();
+		private final LongAdder definitions = new LongAdder();
+		private final LongAdder definitionBytes = new LongAdder();
+
+		void value(long size) {
+			count.increment();
+			bytes.add(size);
+		}
+
+		void definition(long size) {
+			definitions.increment();
+			definitionBytes.add(size);
+		}
+
+		/**
+		 * Number of values of this type.
+		 */
+		public long count() {
+			return count.sum();
+		}
+
+		/**
+		 * Total bytes of values of this type including nested values.
+		 */
+		public long bytes() {
+			return bytes.sum();
+		}
+
+		/**
+		 * Number of times the definition of this type has been emitted or received.
+		 */
+		public long definitions() {
+			return definitions.sum();
+		}
+
+		public long definitionBytes() {
+			return definitionBytes.sum();
+		}
+
+		@Override
+		public String toString() {
+			return "TypeStatistics [count=" + count() + ", bytes=" + bytes() + ", definitions=" + definitions()
+					+ ", definitionBytes=" + definitionBytes() + "]";
+		}
+	}
+}
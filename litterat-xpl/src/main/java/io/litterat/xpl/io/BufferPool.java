@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of fixed size ByteBuffer chunks used by ChunkedBaseOutput. Chunks are either heap or
+ * direct buffers and are always little endian to match the other base outputs. A pool may be shared
+ * between threads; at most maxPooled chunks are retained, any further released chunks are left for
+ * the garbage collector.
+ */
+public class BufferPool {
+
+	public static final int DEFAULT_CHUNK_SIZE = 8192;
+	public static final int DEFAULT_MAX_POOLED = 64;
+
+	private static final BufferPool HEAP = new BufferPool(DEFAULT_CHUNK_SIZE, false, DEFAULT_MAX_POOLED);
+
+	private final int chunkSize;
+	private final boolean direct;
+	private final int maxPooled;
+
+	private final ConcurrentLinkedQueue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pooled = new AtomicInteger();
+
+	public BufferPool(int chunkSize, boolean direct, int maxPooled) {
+		if (chunkSize < 16) {
+			throw new IllegalArgumentException("chunk size must be at least 16 bytes: " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+		this.direct = direct;
+		this.maxPooled = maxPooled;
+	}
+
+	public static BufferPool heap() {
+		return HEAP;
+	}
+
+	public static BufferPool heap(int chunkSize) {
+		return new BufferPool(chunkSize, false, DEFAULT_MAX_POOLED);
+	}
+
+	public static BufferPool direct(int chunkSize) {
+		return new BufferPool(chunkSize, true, DEFAULT_MAX_POOLED);
+	}
+
+	public int chunkSize() {
+		return chunkSize;
+	}
+
+	public boolean isDirect() {
+		return direct;
+	}
+
+	/**
+	 * Number of chunks currently held by the pool.
+	 */
+	public int pooled() {
+		return pooled.get();
+	}
+
+	public ByteBuffer acquire() {
+		ByteBuffer chunk = pool.poll();
+		if (chunk == null) {
+			chunk = direct ? ByteBuffer.allocateDirect(chunkSize) : ByteBuffer.allocate(chunkSize);
+			chunk.order(ByteOrder.LITTLE_ENDIAN);
+		} else {
+			pooled.decrementAndGet();
+			chunk.clear();
+		}
+		return chunk;
+	}
+
+	public void release(ByteBuffer chunk) {
+		if (chunk.capacity() != chunkSize || chunk.isDirect() != direct) {
+			throw new IllegalArgumentException("chunk was not allocated by this pool");
+		}
+
+		if (pooled.incrementAndGet() <= maxPooled) {
+			pool.offer(chunk);
+		} else {
+			pooled.decrementAndGet();
+		}
+	}
+}
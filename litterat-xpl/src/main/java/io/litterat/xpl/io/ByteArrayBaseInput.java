@@ -18,6 +18,9 @@ package io.litterat.xpl.io;
 import java.io.EOFException;
 import java.io.IOException;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 
 import io.litterat.xpl.TypeBaseInput;
 
@@ -31,12 +34,22 @@ public class ByteArrayBaseInput implements TypeBaseInput {
 		this.pos = 0;
 	}
 
-	private void checkAvailable(int bytes) throws IOException {
+	private void checkAvailable(long bytes) throws IOException {
 		if (pos + bytes > buffer.length) {
 			throw new EOFException();
 		}
 	}
 
+	@Override
+	public long position() {
+		return pos;
+	}
+
+	@Override
+	public long remaining() {
+		return buffer.length - pos;
+	}
+
 	@Override
 	public byte readInt8() throws IOException {
 		checkAvailable(1);
@@ -60,9 +73,9 @@ public class ByteArrayBaseInput implements TypeBaseInput {
 	@Override
 	public long readInt64() throws IOException {
 		checkAvailable(8);
-		return (((buffer[pos++] & 0xff) << 0) | ((buffer[pos++] & 0xff) << 8) | ((buffer[pos++] & 0xff) << 16)
-				| ((buffer[pos++] & 0xff) << 24)) | ((buffer[pos++] & 0xff) << 32) | ((buffer[pos++] & 0xff) << 40)
-				| ((buffer[pos++] & 0xff) << 48) | ((buffer[pos++] & 0xff) << 56);
+		long l = (long) LittleEndian.INT64.get(buffer, pos);
+		pos += 8;
+		return l;
 	}
 
 	@Override
@@ -90,9 +103,8 @@ public class ByteArrayBaseInput implements TypeBaseInput {
 	@Override
 	public BigInteger readUInt64() throws IOException {
 		checkAvailable(8);
-		long rawBits = (((buffer[pos++] & 0xff) << 0) | ((buffer[pos++] & 0xff) << 8) | ((buffer[pos++] & 0xff) << 16)
-				| ((buffer[pos++] & 0xff) << 24)) | ((buffer[pos++] & 0xff) << 32) | ((buffer[pos++] & 0xff) << 40)
-				| ((buffer[pos++] & 0xff) << 48) | ((buffer[pos++] & 0xff) << 56);
+		long rawBits = (long) LittleEndian.INT64.get(buffer, pos);
+		pos += 8;
 
 		if (rawBits > 0) {
 			return BigInteger.valueOf(rawBits);
@@ -104,9 +116,8 @@ public class ByteArrayBaseInput implements TypeBaseInput {
 	@Override
 	public BigInteger readLeUInt64() throws IOException {
 		checkAvailable(8);
-		long rawBits = (((buffer[pos++] & 0xff) << 0) | ((buffer[pos++] & 0xff) << 8) | ((buffer[pos++] & 0xff) << 16)
-				| ((buffer[pos++] & 0xff) << 24)) | ((buffer[pos++] & 0xff) << 32) | ((buffer[pos++] & 0xff) << 40)
-				| ((buffer[pos++] & 0xff) << 48) | ((buffer[pos++] & 0xff) << 56);
+		long rawBits = (long) LittleEndian.INT64.get(buffer, pos);
+		pos += 8;
 
 		rawBits = Long.reverseBytes(rawBits);
 		if (rawBits > 0) {
@@ -120,10 +131,10 @@ public class ByteArrayBaseInput implements TypeBaseInput {
 
 	@Override
 	public int readUVarInt32() throws IOException {
-		checkAvailable(5);
 		int result = 0;
 		int shift = 0;
 		while (true) {
+			checkAvailable(1);
 			byte b = buffer[pos++];
 			result |= (b & 0x7f) << shift;
 			if ((b & 0x80) == 0)
@@ -135,12 +146,12 @@ public class ByteArrayBaseInput implements TypeBaseInput {
 
 	@Override
 	public long readUVarInt64() throws IOException {
-		checkAvailable(9);
 		long result = 0;
 		int shift = 0;
 		while (true) {
+			checkAvailable(1);
 			byte b = buffer[pos++];
-			result |= (b & 0x7f) << shift;
+			result |= (long) (b & 0x7f) << shift;
 			if ((b & 0x80) == 0)
 				break;
 			shift += 7;
@@ -156,4 +167,44 @@ public class ByteArrayBaseInput implements TypeBaseInput {
 
 	}
 
+	@Override
+	public void skip(long length) throws IOException {
+		checkAvailable(length);
+		pos += (int) length;
+	}
+
+	@Override
+	public ByteBuffer readSlice(int length) throws IOException {
+		checkAvailable(length);
+		ByteBuffer slice = ByteBuffer.wrap(buffer, pos, length).slice().order(ByteOrder.LITTLE_ENDIAN);
+		pos += length;
+		return slice;
+	}
+
+	@Override
+	public void readFloats(float[] values, int offset, int length) throws IOException {
+		checkAvailable(length * 4L);
+		for (int x = offset; x < offset + length; x++) {
+			values[x] = (float) LittleEndian.FLOAT.get(buffer, pos);
+			pos += 4;
+		}
+	}
+
+	@Override
+	public void readDoubles(double[] values, int offset, int length) throws IOException {
+		checkAvailable(length * 8L);
+		for (int x = offset; x < offset + length; x++) {
+			values[x] = (double) LittleEndian.DOUBLE.get(buffer, pos);
+			pos += 8;
+		}
+	}
+
+	@Override
+	public String readUtf8(int length) throws IOException {
+		checkAvailable(length);
+		String s = new String(buffer, pos, length, StandardCharsets.UTF_8);
+		pos += length;
+		return s;
+	}
+
 }
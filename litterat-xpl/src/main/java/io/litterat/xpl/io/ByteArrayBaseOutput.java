@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.math.BigInteger;
 
 import io.litterat.xpl.TypeBaseOutput;
+import io.litterat.xpl.util.Utf8;
 
 public class ByteArrayBaseOutput implements TypeBaseOutput {
 
@@ -35,12 +36,17 @@ public class ByteArrayBaseOutput implements TypeBaseOutput {
 		return pos;
 	}
 
-	private void checkSpace(int bytes) throws IOException {
+	private void checkSpace(long bytes) throws IOException {
 		if (pos + bytes > buffer.length) {
 			throw new EOFException();
 		}
 	}
 
+	@Override
+	public long position() {
+		return pos;
+	}
+
 	@Override
 	public void writeBoolean(boolean b) throws IOException {
 		writeInt8((byte) (b ? 1 : 0));
@@ -72,42 +78,8 @@ public class ByteArrayBaseOutput implements TypeBaseOutput {
 	@Override
 	public void writeInt64(long s) throws IOException {
 		checkSpace(8);
-		buffer[pos++] = ((byte) (s & 0xff));
-		buffer[pos++] = ((byte) ((s >> 8) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 16) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 24) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 32) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 40) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 48) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 56) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 64) & 0xff));
-	}
-
-	@Override
-	public void writeVarInt32(int s) throws IOException {
-		checkSpace(4);
-		do {
-			int b = s & 0x7f;
-			s >>>= 7;
-			if (s != 0) {
-				b |= 0x80;
-			}
-			buffer[pos++] = ((byte) b);
-		} while (s != 0);
-	}
-
-	@Override
-	public void writeVarInt64(long s) throws IOException {
-		checkSpace(8);
-		do {
-			int b = (int) (s & 0x7f);
-			s >>>= 7;
-			if (s != 0) {
-				b |= 0x80;
-			}
-			buffer[pos++] = ((byte) b);
-		} while (s != 0);
-
+		LittleEndian.INT64.set(buffer, pos, s);
+		pos += 8;
 	}
 
 	@Override
@@ -144,15 +116,8 @@ public class ByteArrayBaseOutput implements TypeBaseOutput {
 	@Override
 	public void writeUInt64(long s) throws IOException {
 		checkSpace(8);
-		buffer[pos++] = ((byte) (s & 0xff));
-		buffer[pos++] = ((byte) ((s >> 8) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 16) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 24) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 32) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 40) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 48) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 56) & 0xff));
-		buffer[pos++] = ((byte) ((s >> 64) & 0xff));
+		LittleEndian.INT64.set(buffer, pos, s);
+		pos += 8;
 	}
 
 	@Override
@@ -171,7 +136,7 @@ public class ByteArrayBaseOutput implements TypeBaseOutput {
 
 	@Override
 	public void writeUVarInt64(long s) throws IOException {
-		checkSpace(9);
+		checkSpace(10);
 		do {
 			int b = (int) (s & 0x7f);
 			s >>>= 7;
@@ -202,4 +167,28 @@ public class ByteArrayBaseOutput implements TypeBaseOutput {
 		pos += length;
 	}
 
+	@Override
+	public void writeFloats(float[] values, int offset, int length) throws IOException {
+		checkSpace(length * 4L);
+		for (int x = offset; x < offset + length; x++) {
+			LittleEndian.FLOAT.set(buffer, pos, values[x]);
+			pos += 4;
+		}
+	}
+
+	@Override
+	public void writeDoubles(double[] values, int offset, int length) throws IOException {
+		checkSpace(length * 8L);
+		for (int x = offset; x < offset + length; x++) {
+			LittleEndian.DOUBLE.set(buffer, pos, values[x]);
+			pos += 8;
+		}
+	}
+
+	@Override
+	public void writeUtf8(String s, int encodedLength) throws IOException {
+		checkSpace(encodedLength);
+		pos = Utf8.encode(s, buffer, pos);
+	}
+
 }
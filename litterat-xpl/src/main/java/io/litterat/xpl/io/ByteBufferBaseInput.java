@@ -18,6 +18,7 @@ package io.litterat.xpl.io;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 import io.litterat.xpl.TypeBaseInput;
 
@@ -31,6 +32,16 @@ public class ByteBufferBaseInput implements TypeBaseInput {
 		this.input = input;
 	}
 
+	@Override
+	public long position() {
+		return input.position();
+	}
+
+	@Override
+	public long remaining() {
+		return input.remaining();
+	}
+
 	@Override
 	public byte readInt8() throws IOException {
 		return input.get();
@@ -110,7 +121,7 @@ public class ByteBufferBaseInput implements TypeBaseInput {
 		int shift = 0;
 		while (true) {
 			int b = input.get();
-			result |= (b & 0x7f) << shift;
+			result |= (long) (b & 0x7f) << shift;
 			if ((b & 0x80) == 0)
 				break;
 			shift += 7;
@@ -123,4 +134,41 @@ public class ByteBufferBaseInput implements TypeBaseInput {
 		input.get(buffer, offset, length);
 	}
 
+	@Override
+	public void skip(long length) throws IOException {
+		input.position(Math.addExact(input.position(), Math.toIntExact(length)));
+	}
+
+	@Override
+	public ByteBuffer readSlice(int length) throws IOException {
+		ByteBuffer slice = input.slice(input.position(), length).order(input.order());
+		input.position(input.position() + length);
+		return slice;
+	}
+
+	@Override
+	public void readFloats(float[] values, int offset, int length) throws IOException {
+		// Views share the byte order of the buffer.
+		input.asFloatBuffer().get(values, offset, length);
+		input.position(input.position() + length * 4);
+	}
+
+	@Override
+	public void readDoubles(double[] values, int offset, int length) throws IOException {
+		// Views share the byte order of the buffer.
+		input.asDoubleBuffer().get(values, offset, length);
+		input.position(input.position() + length * 8);
+	}
+
+	@Override
+	public String readUtf8(int length) throws IOException {
+		if (!input.hasArray() || input.remaining() < length) {
+			return TypeBaseInput.super.readUtf8(length);
+		}
+
+		String s = new String(input.array(), input.arrayOffset() + input.position(), length, StandardCharsets.UTF_8);
+		input.position(input.position() + length);
+		return s;
+	}
+
 }
@@ -20,6 +20,7 @@ import java.math.BigInteger;
 import java.nio.ByteBuffer;
 
 import io.litterat.xpl.TypeBaseOutput;
+import io.litterat.xpl.util.Utf8;
 
 // Based on...
 // https://stackoverflow.com/questions/9883472/is-it-possible-to-have-an-unsigned-bytebuffer-in-java
@@ -32,6 +33,11 @@ public class ByteBufferBaseOutput implements TypeBaseOutput {
 		this.output = output;
 	}
 
+	@Override
+	public long position() {
+		return output.position();
+	}
+
 	@Override
 	public void writeInt8(byte b) throws IOException {
 		output.put(b);
@@ -113,4 +119,30 @@ public class ByteBufferBaseOutput implements TypeBaseOutput {
 	public void writeBytes(byte[] src, int offset, int length) throws IOException {
 		output.put(src, offset, length);
 	}
+
+	@Override
+	public void writeFloats(float[] values, int offset, int length) throws IOException {
+		// Views share the byte order of the buffer.
+		output.asFloatBuffer().put(values, offset, length);
+		output.position(output.position() + length * 4);
+	}
+
+	@Override
+	public void writeDoubles(double[] values, int offset, int length) throws IOException {
+		// Views share the byte order of the buffer.
+		output.asDoubleBuffer().put(values, offset, length);
+		output.position(output.position() + length * 8);
+	}
+
+	@Override
+	public void writeUtf8(String s, int encodedLength) throws IOException {
+		if (!output.hasArray() || output.remaining() < encodedLength) {
+			TypeBaseOutput.super.writeUtf8(s, encodedLength);
+			return;
+		}
+
+		int start = output.arrayOffset() + output.position();
+		int end = Utf8.encode(s, output.array(), start);
+		output.position(output.position() + (end - start));
+	}
 }
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.io;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.litterat.xpl.TypeBaseOutput;
+import io.litterat.xpl.util.Utf8;
+
+/**
+ * A growable output backed by a list of chunks taken from a BufferPool. When a chunk fills a new
+ * one is added to the list, existing bytes are never copied. Fixed width values are never split
+ * across chunks; if a value does not fit in the remainder of a chunk the remainder is left unused.
+ *
+ * The written chunks can be handed to a GatheringByteChannel in a single gathering write, or copied
+ * out with toByteArray. Calling release returns all chunks to the pool and resets the output so it
+ * can be reused. An output is not thread safe.
+ */
+public class ChunkedBaseOutput implements TypeBaseOutput {
+
+	// Current chunk until the first write. Chunks are only taken from the pool when bytes are written,
+	// so an output discarded without writing holds none.
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+	private final BufferPool pool;
+
+	// Chunks that have been filled. The current chunk is not included.
+	private final List<ByteBuffer> chunks = new ArrayList<>();
+
+	// Chunks acquired in advance by reserve.
+	private final ArrayDeque<ByteBuffer> spare = new ArrayDeque<>();
+
+	private ByteBuffer chunk = EMPTY;
+
+	// Total bytes in filled chunks.
+	private long filled;
+
+	public ChunkedBaseOutput() {
+		this(BufferPool.heap());
+	}
+
+	public ChunkedBaseOutput(BufferPool pool) {
+		this.pool = pool;
+	}
+
+	public BufferPool pool() {
+		return pool;
+	}
+
+	@Override
+	public long position() {
+		return filled + chunk.position();
+	}
+
+	/**
+	 * Acquire enough chunks from the pool in advance to hold the given number of bytes without
+	 * going back to the pool.
+	 */
+	public void reserve(long bytes) {
+		long available = chunk.remaining() + (long) spare.size() * pool.chunkSize();
+		while (available < bytes) {
+			spare.add(pool.acquire());
+			available += pool.chunkSize();
+		}
+	}
+
+	private void nextChunk() {
+		if (chunk.position() > 0) {
+			filled += chunk.position();
+			chunks.add(chunk);
+		} else if (chunk != EMPTY) {
+			return;
+		}
+		ByteBuffer next = spare.poll();
+		chunk = next != null ? next : pool.acquire();
+	}
+
+	private void ensure(int bytes) {
+		if (chunk.remaining() < bytes) {
+			nextChunk();
+		}
+	}
+
+	/**
+	 * Returns read only views of the written bytes. Views are valid until release is called.
+	 */
+	public ByteBuffer[] buffers() {
+		int count = chunks.size() + (chunk.position() > 0 ? 1 : 0);
+		ByteBuffer[] buffers = new ByteBuffer[count];
+		for (int x = 0; x < chunks.size(); x++) {
+			buffers[x] = chunks.get(x).asReadOnlyBuffer().flip();
+		}
+		if (count > chunks.size()) {
+			buffers[count - 1] = chunk.asReadOnlyBuffer().flip();
+		}
+		return buffers;
+	}
+
+	/**
+	 * Write all bytes to the channel using gathering writes. The output is unchanged and can be
+	 * written again or released.
+	 */
+	public long writeTo(GatheringByteChannel channel) throws IOException {
+		ByteBuffer[] buffers = buffers();
+		long total = position();
+		long written = 0;
+		int offset = 0;
+		while (written < total) {
+			written += channel.write(buffers, offset, buffers.length - offset);
+			while (offset < buffers.length && !buffers[offset].hasRemaining()) {
+				offset++;
+			}
+		}
+		return written;
+	}
+
+	/**
+	 * Copy all bytes to another output. The output is unchanged and can be written again or released.
+	 */
+	public void writeTo(TypeBaseOutput output) throws IOException {
+		for (ByteBuffer c : chunks) {
+			writeChunk(c, output);
+		}
+		writeChunk(chunk, output);
+	}
+
+	private static void writeChunk(ByteBuffer c, TypeBaseOutput output) throws IOException {
+		if (c.hasArray()) {
+			output.writeBytes(c.array(), c.arrayOffset(), c.position());
+		} else {
+			byte[] bytes = new byte[c.position()];
+			c.get(0, bytes);
+			output.writeBytes(bytes, 0, bytes.length);
+		}
+	}
+
+	public byte[] toByteArray() {
+		long size = position();
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IllegalStateException("output too large for byte array: " + size);
+		}
+
+		byte[] result = new byte[(int) size];
+		int pos = 0;
+		for (ByteBuffer buffer : buffers()) {
+			int length = buffer.remaining();
+			buffer.get(result, pos, length);
+			pos += length;
+		}
+		return result;
+	}
+
+	/**
+	 * Return all chunks to the pool and reset the output to empty.
+	 */
+	public void release() {
+		for (ByteBuffer c : chunks) {
+			pool.release(c);
+		}
+		for (ByteBuffer c : spare) {
+			pool.release(c);
+		}
+		if (chunk != EMPTY) {
+			pool.release(chunk);
+		}
+		chunks.clear();
+		spare.clear();
+		chunk = EMPTY;
+		filled = 0;
+	}
+
+	@Override
+	public void writeInt8(byte b) throws IOException {
+		ensure(1);
+		chunk.put(b);
+	}
+
+	@Override
+	public void writeUInt8(short b) throws IOException {
+		if (b < UINT8_MIN || b > UINT8_MAX)
+			throw new IOException("uint8: out of range: " + b);
+
+		ensure(1);
+		chunk.put((byte) b);
+	}
+
+	@Override
+	public void writeInt16(short s) throws IOException {
+		ensure(2);
+		chunk.putShort(s);
+	}
+
+	@Override
+	public void writeUInt16(int s) throws IOException {
+		if (s < UINT16_MIN || s > UINT16_MAX)
+			throw new IOException("uint16: value out of range:" + s);
+
+		ensure(2);
+		chunk.putShort((short) s);
+	}
+
+	@Override
+	public void writeInt32(int i) throws IOException {
+		ensure(4);
+		chunk.putInt(i);
+	}
+
+	@Override
+	public void writeUInt32(long i) throws IOException {
+		if (i < UINT32_MIN || i > UINT32_MAX)
+			throw new IOException("uint32: value out of range:" + i);
+
+		ensure(4);
+		chunk.putInt((int) i);
+	}
+
+	@Override
+	public void writeInt64(long l) throws IOException {
+		ensure(8);
+		chunk.putLong(l);
+	}
+
+	@Override
+	public void writeUInt64(long l) throws IOException {
+		if (l < UINT64_MIN || l > UINT64_MAX)
+			throw new IOException("uint64: value out of range: " + l);
+
+		ensure(8);
+		chunk.putLong(l);
+	}
+
+	@Override
+	public void writeLeUInt64(BigInteger v) throws IOException {
+		if (v.signum() < 0 || v.bitLength() > 64)
+			throw new IOException("uint64: value out of range:" + v);
+
+		writeLeUInt64(v.longValue());
+	}
+
+	@Override
+	public void writeUVarInt32(int s) throws IOException {
+		ensure(5);
+		while ((s & ~0x7f) != 0) {
+			chunk.put((byte) ((s & 0x7f) | 0x80));
+			s >>>= 7;
+		}
+		chunk.put((byte) s);
+	}
+
+	@Override
+	public void writeUVarInt64(long s) throws IOException {
+		ensure(10);
+		while ((s & ~0x7fL) != 0) {
+			chunk.put((byte) ((s & 0x7f) | 0x80));
+			s >>>= 7;
+		}
+		chunk.put((byte) s);
+	}
+
+	@Override
+	public void writeUVarInt64(BigInteger v) throws IOException {
+		if (v.signum() < 0 || v.bitLength() > 64)
+			throw new IOException("uint64: value out of range:" + v);
+
+		writeUVarInt64(v.longValue());
+	}
+
+	@Override
+	public void writeBytes(byte[] src, int offset, int length) throws IOException {
+		while (length > 0) {
+			if (!chunk.hasRemaining()) {
+				nextChunk();
+			}
+			int count = Math.min(length, chunk.remaining());
+			chunk.put(src, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+
+	@Override
+	public void writeUtf8(String s, int encodedLength) throws IOException {
+		if (encodedLength > pool.chunkSize() || pool.isDirect()) {
+			TypeBaseOutput.super.writeUtf8(s, encodedLength);
+			return;
+		}
+
+		ensure(encodedLength);
+		int start = chunk.arrayOffset() + chunk.position();
+		int end = Utf8.encode(s, chunk.array(), start);
+		chunk.position(chunk.position() + (end - start));
+	}
+
+}
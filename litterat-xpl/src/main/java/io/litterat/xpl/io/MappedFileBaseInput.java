@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+import io.litterat.xpl.TypeBaseInput;
+
+/**
+ * Reads a file by memory mapping it in read only segments. Only one segment is mapped at a time so
+ * files of any size can be read without copying to the heap. Values are decoded directly from the
+ * mapped segment; values that cross a segment boundary are assembled a byte at a time.
+ *
+ * The channel is owned by the caller and must remain open while the input is used. Segments are
+ * released when garbage collected.
+ */
+public class MappedFileBaseInput implements TypeBaseInput {
+
+	public static final long DEFAULT_SEGMENT_SIZE = 1L << 30;
+
+	private static final int MAX_RETAINED = 1 << 16;
+
+	private final FileChannel channel;
+	private final long segmentSize;
+	private final long size;
+
+	private MappedByteBuffer segment;
+
+	// File position of the start of the current segment.
+	private long segmentStart;
+
+	// Buffer strings are copied into before decoding, kept between reads up to MAX_RETAINED bytes.
+	private byte[] scratch = new byte[64];
+
+	public MappedFileBaseInput(FileChannel channel) throws IOException {
+		this(channel, DEFAULT_SEGMENT_SIZE);
+	}
+
+	public MappedFileBaseInput(FileChannel channel, long segmentSize) throws IOException {
+		if (segmentSize < 16 || segmentSize > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("segment size out of range: " + segmentSize);
+		}
+		this.channel = channel;
+		this.segmentSize = segmentSize;
+		this.size = channel.size();
+		map(0);
+	}
+
+	private void map(long start) throws IOException {
+		long length = Math.min(segmentSize, size - start);
+		segment = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+		segment.order(ByteOrder.LITTLE_ENDIAN);
+		segmentStart = start;
+	}
+
+	/**
+	 * Total size of the file in bytes.
+	 */
+	public long size() {
+		return size;
+	}
+
+	@Override
+	public long remaining() {
+		return size - position();
+	}
+
+	public boolean hasRemaining() {
+		return position() < size;
+	}
+
+	@Override
+	public long position() {
+		return segmentStart + segment.position();
+	}
+
+	/**
+	 * Move to the given file position. The mapping is only changed if the position is outside the
+	 * current segment.
+	 */
+	public void seek(long position) throws IOException {
+		if (position < 0 || position > size) {
+			throw new EOFException("seek out of range: " + position);
+		}
+
+		if (position >= segmentStart && position <= segmentStart + segment.limit()) {
+			segment.position((int) (position - segmentStart));
+		} else {
+			map(position);
+		}
+	}
+
+	private void nextSegment() throws IOException {
+		long next = segmentStart + segment.limit();
+		if (next >= size) {
+			throw new EOFException();
+		}
+		map(next);
+	}
+
+	@Override
+	public byte readInt8() throws IOException {
+		if (!segment.hasRemaining()) {
+			nextSegment();
+		}
+		return segment.get();
+	}
+
+	@Override
+	public short readUInt8() throws IOException {
+		return (short) (readInt8() & 0xff);
+	}
+
+	// Slow path for fixed width values crossing a segment boundary.
+	private long readSpanning(int bytes) throws IOException {
+		long result = 0;
+		for (int x = 0; x < bytes; x++) {
+			result |= (readInt8() & 0xffL) << (x * 8);
+		}
+		return result;
+	}
+
+	@Override
+	public short readInt16() throws IOException {
+		if (segment.remaining() >= 2) {
+			return segment.getShort();
+		}
+		return (short) readSpanning(2);
+	}
+
+	@Override
+	public int readUInt16() throws IOException {
+		return readInt16() & 0xffff;
+	}
+
+	@Override
+	public int readInt32() throws IOException {
+		if (segment.remaining() >= 4) {
+			return segment.getInt();
+		}
+		return (int) readSpanning(4);
+	}
+
+	@Override
+	public long readUInt32() throws IOException {
+		return readInt32() & 0xffffffffL;
+	}
+
+	@Override
+	public long readInt64() throws IOException {
+		if (segment.remaining() >= 8) {
+			return segment.getLong();
+		}
+		return readSpanning(8);
+	}
+
+	// https://stackoverflow.com/questions/55752927/how-to-convert-an-unsigned-long-to-biginteger
+	private static final BigInteger UNSIGNED_LONG_MASK = BigInteger.ONE.shiftLeft(Long.SIZE).subtract(BigInteger.ONE);
+
+	private static BigInteger unsigned(long rawBits) {
+		if (rawBits >= 0) {
+			return BigInteger.valueOf(rawBits);
+		} else {
+			return BigInteger.valueOf(rawBits).and(UNSIGNED_LONG_MASK);
+		}
+	}
+
+	@Override
+	public BigInteger readUInt64() throws IOException {
+		return unsigned(readInt64());
+	}
+
+	@Override
+	public BigInteger readLeUInt64() throws IOException {
+		return unsigned(Long.reverseBytes(readInt64()));
+	}
+
+	// https://en.wikipedia.org/wiki/LEB128
+
+	@Override
+	public int readUVarInt32() throws IOException {
+		return (int) readUVarInt(5);
+	}
+
+	@Override
+	public long readUVarInt64() throws IOException {
+		return readUVarInt(10);
+	}
+
+	private long readUVarInt(int maxBytes) throws IOException {
+		long result = 0;
+		int shift = 0;
+		for (int x = 0; x < maxBytes; x++) {
+			int b = segment.hasRemaining() ? segment.get() : readInt8();
+			result |= (long) (b & 0x7f) << shift;
+			if (b >= 0) {
+				break;
+			}
+			shift += 7;
+		}
+		return result;
+	}
+
+	@Override
+	public void readBytes(byte[] dst, int offset, int length) throws IOException {
+		if (length > remaining()) {
+			throw new EOFException();
+		}
+
+		while (length > 0) {
+			if (!segment.hasRemaining()) {
+				nextSegment();
+			}
+			int count = Math.min(length, segment.remaining());
+			segment.get(dst, offset, count);
+			offset += count;
+			length -= count;
+		}
+	}
+
+	@Override
+	public void skip(long length) throws IOException {
+		if (length < 0 || length > remaining()) {
+			throw new EOFException("skip out of range: " + length);
+		}
+		seek(position() + length);
+	}
+
+	// Whole values in the segment are read through a view, which shares the byte order of the
+	// segment. A value crossing into the next segment is read on its own.
+
+	@Override
+	public void readFloats(float[] values, int offset, int length) throws IOException {
+		if ((long) length * 4 > remaining()) {
+			throw new EOFException();
+		}
+
+		while (length > 0) {
+			int count = Math.min(length, segment.remaining() / 4);
+			if (count == 0) {
+				values[offset++] = Float.intBitsToFloat(readInt32());
+				length--;
+				continue;
+			}
+			segment.asFloatBuffer().get(values, offset, count);
+			segment.position(segment.position() + count * 4);
+			offset += count;
+			length -= count;
+		}
+	}
+
+	@Override
+	public void readDoubles(double[] values, int offset, int length) throws IOException {
+		if ((long) length * 8 > remaining()) {
+			throw new EOFException();
+		}
+
+		while (length > 0) {
+			int count = Math.min(length, segment.remaining() / 8);
+			if (count == 0) {
+				values[offset++] = Double.longBitsToDouble(readInt64());
+				length--;
+				continue;
+			}
+			segment.asDoubleBuffer().get(values, offset, count);
+			segment.position(segment.position() + count * 8);
+			offset += count;
+			length -= count;
+		}
+	}
+
+	@Override
+	public String readUtf8(int length) throws IOException {
+		// Strings are copied out of the segment into a reused buffer, only large strings allocate one.
+		byte[] bytes = length <= MAX_RETAINED ? scratch(length) : new byte[length];
+		readBytes(bytes, 0, length);
+		return new String(bytes, 0, length, StandardCharsets.UTF_8);
+	}
+
+	private byte[] scratch(int length) {
+		if (scratch.length < length) {
+			scratch = new byte[Math.min(MAX_RETAINED, Math.max(length, scratch.length * 2))];
+		}
+		return scratch;
+	}
+
+}
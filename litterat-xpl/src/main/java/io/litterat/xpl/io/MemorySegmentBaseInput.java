@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+
+import io.litterat.xpl.TypeBaseInput;
+
+/**
+ * Reads from a MemorySegment using little endian ValueLayout accessors. The segment may be on or off
+ * heap, arena scoped or shared with other processes through a mapped file. Reading past the end of
+ * the segment throws EOFException.
+ */
+public class MemorySegmentBaseInput implements TypeBaseInput {
+
+	static final ValueLayout.OfShort INT16 = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+	static final ValueLayout.OfInt INT32 = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+	static final ValueLayout.OfLong INT64 = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+	static final ValueLayout.OfFloat FLOAT = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+	static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+	private final MemorySegment segment;
+	private final long limit;
+	private long pos;
+
+	public MemorySegmentBaseInput(MemorySegment segment) {
+		this.segment = segment;
+		this.limit = segment.byteSize();
+		this.pos = 0;
+	}
+
+	public MemorySegment segment() {
+		return segment;
+	}
+
+	@Override
+	public long remaining() {
+		return limit - pos;
+	}
+
+	@Override
+	public long position() {
+		return pos;
+	}
+
+	public void seek(long position) throws IOException {
+		if (position < 0 || position > limit) {
+			throw new EOFException("seek out of range: " + position);
+		}
+		pos = position;
+	}
+
+	private void checkAvailable(long bytes) throws IOException {
+		if (limit - pos < bytes) {
+			throw new EOFException();
+		}
+	}
+
+	@Override
+	public byte readInt8() throws IOException {
+		checkAvailable(1);
+		return segment.get(ValueLayout.JAVA_BYTE, pos++);
+	}
+
+	@Override
+	public short readUInt8() throws IOException {
+		return (short) (readInt8() & 0xff);
+	}
+
+	@Override
+	public short readInt16() throws IOException {
+		checkAvailable(2);
+		short s = segment.get(INT16, pos);
+		pos += 2;
+		return s;
+	}
+
+	@Override
+	public int readUInt16() throws IOException {
+		return readInt16() & 0xffff;
+	}
+
+	@Override
+	public int readInt32() throws IOException {
+		checkAvailable(4);
+		int i = segment.get(INT32, pos);
+		pos += 4;
+		return i;
+	}
+
+	@Override
+	public long readUInt32() throws IOException {
+		return readInt32() & 0xffffffffL;
+	}
+
+	@Override
+	public long readInt64() throws IOException {
+		checkAvailable(8);
+		long l = segment.get(INT64, pos);
+		pos += 8;
+		return l;
+	}
+
+	// https://stackoverflow.com/questions/55752927/how-to-convert-an-unsigned-long-to-biginteger
+	private static final BigInteger UNSIGNED_LONG_MASK = BigInteger.ONE.shiftLeft(Long.SIZE).subtract(BigInteger.ONE);
+
+	private static BigInteger unsigned(long rawBits) {
+		if (rawBits >= 0) {
+			return BigInteger.valueOf(rawBits);
+		} else {
+			return BigInteger.valueOf(rawBits).and(UNSIGNED_LONG_MASK);
+		}
+	}
+
+	@Override
+	public BigInteger readUInt64() throws IOException {
+		return unsigned(readInt64());
+	}
+
+	@Override
+	public BigInteger readLeUInt64() throws IOException {
+		return unsigned(Long.reverseBytes(readInt64()));
+	}
+
+	// https://en.wikipedia.org/wiki/LEB128
+
+	@Override
+	public int readUVarInt32() throws IOException {
+		return (int) readUVarInt(5);
+	}
+
+	@Override
+	public long readUVarInt64() throws IOException {
+		return readUVarInt(10);
+	}
+
+	private long readUVarInt(int maxBytes) throws IOException {
+		long result = 0;
+		int shift = 0;
+		for (int x = 0; x < maxBytes; x++) {
+			int b = readInt8();
+			result |= (long) (b & 0x7f) << shift;
+			if (b >= 0) {
+				break;
+			}
+			shift += 7;
+		}
+		return result;
+	}
+
+	@Override
+	public void readBytes(byte[] dst, int offset, int length) throws IOException {
+		checkAvailable(length);
+		MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, pos, dst, offset, length);
+		pos += length;
+	}
+
+	@Override
+	public void readFloats(float[] values, int offset, int length) throws IOException {
+		checkAvailable(length * 4L);
+		MemorySegment.copy(segment, FLOAT, pos, values, offset, length);
+		pos += length * 4L;
+	}
+
+	@Override
+	public void readDoubles(double[] values, int offset, int length) throws IOException {
+		checkAvailable(length * 8L);
+		MemorySegment.copy(segment, DOUBLE, pos, values, offset, length);
+		pos += length * 8L;
+	}
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.io;
+
+import static io.litterat.xpl.io.MemorySegmentBaseInput.DOUBLE;
+import static io.litterat.xpl.io.MemorySegmentBaseInput.FLOAT;
+import static io.litterat.xpl.io.MemorySegmentBaseInput.INT16;
+import static io.litterat.xpl.io.MemorySegmentBaseInput.INT32;
+import static io.litterat.xpl.io.MemorySegmentBaseInput.INT64;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigInteger;
+
+import io.litterat.xpl.TypeBaseOutput;
+
+/**
+ * Writes to a MemorySegment using little endian ValueLayout accessors. The segment may be on or off
+ * heap, arena scoped or shared with other processes through a mapped file. The segment does not
+ * grow; writing past its end throws EOFException.
+ */
+public class MemorySegmentBaseOutput implements TypeBaseOutput {
+
+	private final MemorySegment segment;
+	private final long limit;
+	private long pos;
+
+	public MemorySegmentBaseOutput(MemorySegment segment) {
+		if (segment.isReadOnly()) {
+			throw new IllegalArgumentException("segment is read only");
+		}
+		this.segment = segment;
+		this.limit = segment.byteSize();
+		this.pos = 0;
+	}
+
+	public MemorySegment segment() {
+		return segment;
+	}
+
+	/**
+	 * Returns a slice of the segment covering the bytes written so far.
+	 */
+	public MemorySegment written() {
+		return segment.asSlice(0, pos);
+	}
+
+	@Override
+	public long position() {
+		return pos;
+	}
+
+	private void checkSpace(long bytes) throws IOException {
+		if (limit - pos < bytes) {
+			throw new EOFException();
+		}
+	}
+
+	@Override
+	public void writeInt8(byte b) throws IOException {
+		checkSpace(1);
+		segment.set(ValueLayout.JAVA_BYTE, pos++, b);
+	}
+
+	@Override
+	public void writeUInt8(short b) throws IOException {
+		if (b < UINT8_MIN || b > UINT8_MAX)
+			throw new IOException("uint8: out of range: " + b);
+
+		writeInt8((byte) b);
+	}
+
+	@Override
+	public void writeInt16(short s) throws IOException {
+		checkSpace(2);
+		segment.set(INT16, pos, s);
+		pos += 2;
+	}
+
+	@Override
+	public void writeUInt16(int s) throws IOException {
+		if (s < UINT16_MIN || s > UINT16_MAX)
+			throw new IOException("uint16: value out of range:" + s);
+
+		writeInt16((short) s);
+	}
+
+	@Override
+	public void writeInt32(int i) throws IOException {
+		checkSpace(4);
+		segment.set(INT32, pos, i);
+		pos += 4;
+	}
+
+	@Override
+	public void writeUInt32(long i) throws IOException {
+		if (i < UINT32_MIN || i > UINT32_MAX)
+			throw new IOException("uint32: value out of range:" + i);
+
+		writeInt32((int) i);
+	}
+
+	@Override
+	public void writeInt64(long l) throws IOException {
+		checkSpace(8);
+		segment.set(INT64, pos, l);
+		pos += 8;
+	}
+
+	@Override
+	public void writeUInt64(long l) throws IOException {
+		writeInt64(l);
+	}
+
+	@Override
+	public void writeLeUInt64(BigInteger v) throws IOException {
+		if (v.signum() < 0 || v.bitLength() > 64)
+			throw new IOException("uint64: value out of range:" + v);
+
+		writeLeUInt64(v.longValue());
+	}
+
+	// https://en.wikipedia.org/wiki/LEB128
+
+	@Override
+	public void writeUVarInt32(int s) throws IOException {
+		writeUVarInt64(s & 0xffffffffL);
+	}
+
+	@Override
+	public void writeUVarInt64(long s) throws IOException {
+		while ((s & ~0x7fL) != 0) {
+			writeInt8((byte) ((s & 0x7f) | 0x80));
+			s >>>= 7;
+		}
+		writeInt8((byte) s);
+	}
+
+	@Override
+	public void writeUVarInt64(BigInteger v) throws IOException {
+		if (v.signum() < 0 || v.bitLength() > 64)
+			throw new IOException("uint64: value out of range:" + v);
+
+		writeUVarInt64(v.longValue());
+	}
+
+	@Override
+	public void writeBytes(byte[] src, int offset, int length) throws IOException {
+		checkSpace(length);
+		MemorySegment.copy(src, offset, segment, ValueLayout.JAVA_BYTE, pos, length);
+		pos += length;
+	}
+
+	@Override
+	public void writeFloats(float[] values, int offset, int length) throws IOException {
+		checkSpace(length * 4L);
+		MemorySegment.copy(values, offset, segment, FLOAT, pos, length);
+		pos += length * 4L;
+	}
+
+	@Override
+	public void writeDoubles(double[] values, int offset, int length) throws IOException {
+		checkSpace(length * 8L);
+		MemorySegment.copy(values, offset, segment, DOUBLE, pos, length);
+		pos += length * 8L;
+	}
+
+}
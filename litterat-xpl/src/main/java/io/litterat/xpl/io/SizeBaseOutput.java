@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.io;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import io.litterat.xpl.TypeBaseOutput;
+
+/**
+ * An output that writes nothing and only counts the bytes each value would take. Running the
+ * compiled writers against it gives the exact encoded size of a value without copying any data;
+ * varints are sized arithmetically and strings use the length already computed by the writer.
+ *
+ * Unsigned values are not range checked, the size of an out of range value is the size it would
+ * have if it were written.
+ */
+public class SizeBaseOutput implements TypeBaseOutput {
+
+	private long size;
+
+	/**
+	 * Number of bytes needed to encode the value as an unsigned LEB128 varint.
+	 */
+	public static int sizeOfUVarInt32(int i) {
+		// one byte for every started group of 7 bits, at least one byte.
+		return ((38 - Integer.numberOfLeadingZeros(i)) * 37) >>> 8 | (i == 0 ? 1 : 0);
+	}
+
+	public static int sizeOfUVarInt64(long l) {
+		return ((70 - Long.numberOfLeadingZeros(l)) * 37) >>> 8 | (l == 0 ? 1 : 0);
+	}
+
+	public static int sizeOfVarInt32(int i) {
+		return sizeOfUVarInt32((i << 1) ^ (i >> 31));
+	}
+
+	public static int sizeOfVarInt64(long l) {
+		return sizeOfUVarInt64((l << 1) ^ (l >> 63));
+	}
+
+	@Override
+	public long position() {
+		return size;
+	}
+
+	/**
+	 * Set the count back to zero so the output can be reused.
+	 */
+	public void reset() {
+		size = 0;
+	}
+
+	@Override
+	public void writeInt8(byte b) throws IOException {
+		size += 1;
+	}
+
+	@Override
+	public void writeUInt8(short b) throws IOException {
+		size += 1;
+	}
+
+	@Override
+	public void writeInt16(short b) throws IOException {
+		size += 2;
+	}
+
+	@Override
+	public void writeUInt16(int b) throws IOException {
+		size += 2;
+	}
+
+	@Override
+	public void writeInt32(int b) throws IOException {
+		size += 4;
+	}
+
+	@Override
+	public void writeUInt32(long b) throws IOException {
+		size += 4;
+	}
+
+	@Override
+	public void writeUVarInt32(int i) throws IOException {
+		size += sizeOfUVarInt32(i);
+	}
+
+	@Override
+	public void writeVarInt32(int s) throws IOException {
+		size += sizeOfVarInt32(s);
+	}
+
+	@Override
+	public void writeInt64(long b) throws IOException {
+		size += 8;
+	}
+
+	@Override
+	public void writeUInt64(long b) throws IOException {
+		size += 8;
+	}
+
+	@Override
+	public void writeLeUInt64(BigInteger v) throws IOException {
+		size += 8;
+	}
+
+	@Override
+	public void writeUVarInt64(long v) throws IOException {
+		size += sizeOfUVarInt64(v);
+	}
+
+	@Override
+	public void writeUVarInt64(BigInteger v) throws IOException {
+		size += sizeOfUVarInt64(v.longValue());
+	}
+
+	@Override
+	public void writeVarInt64(long s) throws IOException {
+		size += sizeOfVarInt64(s);
+	}
+
+	@Override
+	public void writeFloat(float f) throws IOException {
+		size += 4;
+	}
+
+	@Override
+	public void writeDouble(double d) throws IOException {
+		size += 8;
+	}
+
+	@Override
+	public void writeBoolean(boolean b) throws IOException {
+		size += 1;
+	}
+
+	@Override
+	public void writeBytes(byte[] buffer, int offset, int length) throws IOException {
+		size += length;
+	}
+
+	@Override
+	public void writeFloats(float[] values, int offset, int length) throws IOException {
+		size += 4L * length;
+	}
+
+	@Override
+	public void writeDoubles(double[] values, int offset, int length) throws IOException {
+		size += 8L * length;
+	}
+
+	@Override
+	public void writeUtf8(String s, int encodedLength) throws IOException {
+		size += encodedLength;
+	}
+}
@@ -19,194 +19,270 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 
 import io.litterat.xpl.TypeBaseInput;
 
+// Reads are served from an internal buffer that is refilled from the InputStream. Values are
+// decoded directly from the buffer and only fall back to a slow path when a value crosses the end of
+// the buffered data. As with BufferedInputStream, bytes may be read from the underlying stream ahead
+// of the values that have been decoded.
 public class StreamBaseInput implements TypeBaseInput {
 
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
 	private final InputStream input;
+	private final byte[] buffer;
+	private int pos;
+	private int limit;
+
+	// Stream position of buffer[0].
+	private long base;
 
 	public StreamBaseInput(InputStream input) {
+		this(input, DEFAULT_BUFFER_SIZE);
+	}
+
+	public StreamBaseInput(InputStream input, int bufferSize) {
+		if (bufferSize < 16) {
+			throw new IllegalArgumentException("buffer size must be at least 16 bytes: " + bufferSize);
+		}
 		this.input = input;
+		this.buffer = new byte[bufferSize];
+	}
+
+	/**
+	 * Ensure at least the given number of bytes are buffered, or throw EOFException.
+	 */
+	private void require(int bytes) throws IOException {
+		if (limit - pos >= bytes) {
+			return;
+		}
+
+		if (pos > 0) {
+			int remaining = limit - pos;
+			System.arraycopy(buffer, pos, buffer, 0, remaining);
+			base += pos;
+			pos = 0;
+			limit = remaining;
+		}
+
+		while (limit < bytes) {
+			int read = input.read(buffer, limit, buffer.length - limit);
+			if (read < 0) {
+				throw new EOFException();
+			}
+			limit += read;
+		}
+	}
+
+	@Override
+	public long position() {
+		return base + pos;
 	}
 
 	@Override
 	public byte readInt8() throws IOException {
-		int b = input.read();
-		if (b < 0) {
-			throw new EOFException();
+		if (pos == limit) {
+			require(1);
 		}
-		return (byte) b;
+		return buffer[pos++];
 	}
 
 	@Override
 	public short readUInt8() throws IOException {
-		int b = input.read();
-		if (b < 0) {
-			throw new EOFException();
+		if (pos == limit) {
+			require(1);
 		}
-		return (short) b;
+		return (short) (buffer[pos++] & 0xff);
 	}
 
 	@Override
 	public short readInt16() throws IOException {
-
-		int a = input.read();
-		int b = input.read();
-		if ((a | b) < 0) {
-			throw new EOFException();
-		}
-
-		return (short) (((a & 0xff) << 8) | (b & 0xff));
+		require(2);
+		return (short) ((buffer[pos++] & 0xff) | ((buffer[pos++] & 0xff) << 8));
 	}
 
 	@Override
 	public int readUInt16() throws IOException {
+		require(2);
+		return (buffer[pos++] & 0xff) | ((buffer[pos++] & 0xff) << 8);
+	}
 
-		int a = input.read();
-		int b = input.read();
-		if ((a | b) < 0) {
-			throw new EOFException();
-		}
+	private int int32() {
+		return (buffer[pos++] & 0xff) | ((buffer[pos++] & 0xff) << 8) | ((buffer[pos++] & 0xff) << 16)
+				| ((buffer[pos++] & 0xff) << 24);
+	}
 
-		return ((a & 0xff) << 8) | (b & 0xff);
+	private long int64() {
+		return (int32() & 0xffffffffL) | ((long) int32() << 32);
 	}
 
 	@Override
 	public int readInt32() throws IOException {
-		int a = input.read();
-		int b = input.read();
-		int c = input.read();
-		int d = input.read();
-		if ((a | b | c | d) < 0) {
-			throw new EOFException();
-		}
-
-		return (((a & 0xff) << 0) | ((b & 0xff) << 8) | ((c & 0xff) << 16) | (d & 0xff) << 24);
+		require(4);
+		return int32();
 	}
 
 	@Override
 	public long readUInt32() throws IOException {
-		int a = input.read();
-		int b = input.read();
-		int c = input.read();
-		int d = input.read();
-		if ((a | b | c | d) < 0) {
-			throw new EOFException();
-		}
-
-		return (((a & 0xff) << 0) | ((b & 0xff) << 8) | ((c & 0xff) << 16) | (d & 0xff) << 24);
+		require(4);
+		return int32() & 0xffffffffL;
 	}
 
 	@Override
 	public long readInt64() throws IOException {
-
-		int a = input.read();
-		int b = input.read();
-		int c = input.read();
-		int d = input.read();
-		int e = input.read();
-		int f = input.read();
-		int g = input.read();
-		int h = input.read();
-		if ((a | b | c | d | e | f | g | h) < 0) {
-			throw new EOFException();
-		}
-
-		return (((a & 0xff) << 0) | ((b & 0xff) << 8) | ((c & 0xff) << 16) | ((d & 0xff) << 24) | ((e & 0xff) << 32)
-				| ((f & 0xff) << 40) | ((g & 0xff) << 48) | (h & 0xff) << 56);
+		require(8);
+		return int64();
 	}
 
 	// https://stackoverflow.com/questions/55752927/how-to-convert-an-unsigned-long-to-biginteger
 	private static final BigInteger UNSIGNED_LONG_MASK = BigInteger.ONE.shiftLeft(Long.SIZE).subtract(BigInteger.ONE);
 
-	@Override
-	public BigInteger readUInt64() throws IOException {
-		int a = input.read();
-		int b = input.read();
-		int c = input.read();
-		int d = input.read();
-		int e = input.read();
-		int f = input.read();
-		int g = input.read();
-		int h = input.read();
-		if ((a | b | c | d | e | f | g | h) < 0) {
-			throw new EOFException();
-		}
-
-		long rawBits = (((a & 0xff) << 0) | ((b & 0xff) << 8) | ((c & 0xff) << 16) | ((d & 0xff) << 24)
-				| ((e & 0xff) << 32) | ((f & 0xff) << 40) | ((g & 0xff) << 48) | (h & 0xff) << 56);
-
-		rawBits = Long.reverseBytes(rawBits);
-		if (rawBits > 0) {
+	private static BigInteger unsigned(long rawBits) {
+		if (rawBits >= 0) {
 			return BigInteger.valueOf(rawBits);
 		} else {
 			return BigInteger.valueOf(rawBits).and(UNSIGNED_LONG_MASK);
 		}
 	}
 
+	@Override
+	public BigInteger readUInt64() throws IOException {
+		require(8);
+		return unsigned(int64());
+	}
+
 	@Override
 	public BigInteger readLeUInt64() throws IOException {
-		int a = input.read();
-		int b = input.read();
-		int c = input.read();
-		int d = input.read();
-		int e = input.read();
-		int f = input.read();
-		int g = input.read();
-		int h = input.read();
-		if ((a | b | c | d | e | f | g | h) < 0) {
-			throw new EOFException();
-		}
-
-		long rawBits = (((a & 0xff) << 0) | ((b & 0xff) << 8) | ((c & 0xff) << 16) | ((d & 0xff) << 24)
-				| ((e & 0xff) << 32) | ((f & 0xff) << 40) | ((g & 0xff) << 48) | (h & 0xff) << 56);
-
-		rawBits = Long.reverseBytes(rawBits);
-		if (rawBits > 0) {
-			return BigInteger.valueOf(rawBits);
-		} else {
-			return BigInteger.valueOf(rawBits).and(UNSIGNED_LONG_MASK);
-		}
+		require(8);
+		return unsigned(Long.reverseBytes(int64()));
 	}
 
+	// https://en.wikipedia.org/wiki/LEB128
+
 	@Override
 	public int readUVarInt32() throws IOException {
-		int result = 0;
-		int shift = 0;
-		while (true) {
-			int b = input.read();
-			if (b < 0) {
-				throw new EOFException();
-			}
+		if (limit - pos < 5) {
+			return (int) readUVarIntSlow(5);
+		}
+
+		int b = buffer[pos++];
+		if (b >= 0) {
+			return b;
+		}
+		int result = b & 0x7f;
+		int shift = 7;
+		do {
+			b = buffer[pos++];
 			result |= (b & 0x7f) << shift;
-			if ((b & 0x80) == 0)
-				break;
 			shift += 7;
-		}
+		} while (b < 0 && shift < 35);
 		return result;
 	}
 
 	@Override
 	public long readUVarInt64() throws IOException {
+		if (limit - pos < 10) {
+			return readUVarIntSlow(10);
+		}
+
 		long result = 0;
 		int shift = 0;
-		while (true) {
-			int b = input.read();
-			if (b < 0) {
-				throw new EOFException();
-			}
-			result |= (b & 0x7f) << shift;
-			if ((b & 0x80) == 0)
+		int b;
+		do {
+			b = buffer[pos++];
+			result |= (long) (b & 0x7f) << shift;
+			shift += 7;
+		} while (b < 0 && shift < 70);
+		return result;
+	}
+
+	// Used when the varint may cross the end of the buffered data.
+	private long readUVarIntSlow(int maxBytes) throws IOException {
+		long result = 0;
+		int shift = 0;
+		for (int x = 0; x < maxBytes; x++) {
+			int b = readInt8();
+			result |= (long) (b & 0x7f) << shift;
+			if (b >= 0) {
 				break;
+			}
 			shift += 7;
 		}
 		return result;
 	}
 
 	@Override
-	public void readBytes(byte[] buffer, int offset, int length) throws IOException {
-		input.read(buffer, offset, length);
+	public void readBytes(byte[] dst, int offset, int length) throws IOException {
+		int buffered = Math.min(length, limit - pos);
+		System.arraycopy(buffer, pos, dst, offset, buffered);
+		pos += buffered;
+		offset += buffered;
+		length -= buffered;
+
+		if (length == 0) {
+			return;
+		}
+
+		if (length < buffer.length) {
+			require(length);
+			System.arraycopy(buffer, pos, dst, offset, length);
+			pos += length;
+			return;
+		}
+
+		// Large reads bypass the buffer. The buffer is empty at this point.
+		base += pos;
+		pos = 0;
+		limit = 0;
+		while (length > 0) {
+			int read = input.read(dst, offset, length);
+			if (read < 0) {
+				throw new EOFException();
+			}
+			base += read;
+			offset += read;
+			length -= read;
+		}
+	}
+
+	@Override
+	public void readFloats(float[] values, int offset, int length) throws IOException {
+		int end = offset + length;
+		while (offset < end) {
+			require(4);
+			int count = Math.min(end - offset, (limit - pos) / 4);
+			for (int x = 0; x < count; x++) {
+				values[offset++] = (float) LittleEndian.FLOAT.get(buffer, pos);
+				pos += 4;
+			}
+		}
+	}
+
+	@Override
+	public void readDoubles(double[] values, int offset, int length) throws IOException {
+		int end = offset + length;
+		while (offset < end) {
+			require(8);
+			int count = Math.min(end - offset, (limit - pos) / 8);
+			for (int x = 0; x < count; x++) {
+				values[offset++] = (double) LittleEndian.DOUBLE.get(buffer, pos);
+				pos += 8;
+			}
+		}
+	}
+
+	@Override
+	public String readUtf8(int length) throws IOException {
+		if (length > buffer.length) {
+			return TypeBaseInput.super.readUtf8(length);
+		}
+
+		require(length);
+		String s = new String(buffer, pos, length, StandardCharsets.UTF_8);
+		pos += length;
+		return s;
 	}
 
 }
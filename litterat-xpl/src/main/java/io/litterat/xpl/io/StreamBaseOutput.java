@@ -20,48 +20,101 @@ import java.io.OutputStream;
 import java.math.BigInteger;
 
 import io.litterat.xpl.TypeBaseOutput;
+import io.litterat.xpl.util.Utf8;
 
 // https://tools.ietf.org/html/draft-newman-network-byte-order-01
 // Fixed primitives use Little Endian Byte order.
 // Variable length primitives are using Little Endian Byte order.
 //
+// Values are encoded into an internal buffer which is written to the OutputStream when full or
+// when flush is called.
 public class StreamBaseOutput implements TypeBaseOutput {
 
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
 	private final OutputStream out;
+	private final byte[] buffer;
+	private int pos;
+
+	// Bytes already written to the OutputStream.
+	private long written;
 
 	public StreamBaseOutput(OutputStream out) {
+		this(out, DEFAULT_BUFFER_SIZE);
+	}
+
+	public StreamBaseOutput(OutputStream out, int bufferSize) {
+		if (bufferSize < 16) {
+			throw new IllegalArgumentException("buffer size must be at least 16 bytes: " + bufferSize);
+		}
 		this.out = out;
+		this.buffer = new byte[bufferSize];
+	}
+
+	private void ensure(int bytes) throws IOException {
+		if (buffer.length - pos < bytes) {
+			flushBuffer();
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		if (pos > 0) {
+			out.write(buffer, 0, pos);
+			written += pos;
+			pos = 0;
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		out.flush();
+	}
+
+	@Override
+	public long position() {
+		return written + pos;
 	}
 
 	@Override
 	public void writeInt8(byte b) throws IOException {
-		out.write(b & 0xff);
+		ensure(1);
+		buffer[pos++] = b;
+	}
+
+	private void int16(int s) {
+		buffer[pos++] = (byte) s;
+		buffer[pos++] = (byte) (s >> 8);
+	}
+
+	private void int32(int s) {
+		buffer[pos++] = (byte) s;
+		buffer[pos++] = (byte) (s >> 8);
+		buffer[pos++] = (byte) (s >> 16);
+		buffer[pos++] = (byte) (s >> 24);
+	}
+
+	private void int64(long s) {
+		int32((int) s);
+		int32((int) (s >> 32));
 	}
 
 	@Override
 	public void writeInt16(short s) throws IOException {
-		out.write((s >> 8) & 0xff);
-		out.write(s & 0xff);
+		ensure(2);
+		int16(s);
 	}
 
 	@Override
 	public final void writeInt32(int s) throws IOException {
-		out.write((byte) (s & 0xff));
-		out.write((byte) ((s >> 8) & 0xff));
-		out.write((byte) ((s >> 16) & 0xff));
-		out.write((byte) ((s >> 24) & 0xff));
+		ensure(4);
+		int32(s);
 	}
 
 	@Override
 	public void writeInt64(long s) throws IOException {
-		out.write((byte) (s & 0xff));
-		out.write((byte) ((s >> 8) & 0xff));
-		out.write((byte) ((s >> 16) & 0xff));
-		out.write((byte) ((s >> 24) & 0xff));
-		out.write((byte) ((s >> 32) & 0xff));
-		out.write((byte) ((s >> 40) & 0xff));
-		out.write((byte) ((s >> 48) & 0xff));
-		out.write((byte) ((s >> 56) & 0xff));
+		ensure(8);
+		int64(s);
 	}
 
 	@Override
@@ -73,7 +126,9 @@ public class StreamBaseOutput implements TypeBaseOutput {
 	public void writeUInt8(short b) throws IOException {
 		if (b < UINT8_MIN || b > UINT8_MAX)
 			throw new IOException("uint8: out of range: " + b);
-		out.write(b);
+
+		ensure(1);
+		buffer[pos++] = (byte) b;
 	}
 
 	@Override
@@ -81,8 +136,8 @@ public class StreamBaseOutput implements TypeBaseOutput {
 		if (s < UINT16_MIN || s > UINT16_MAX)
 			throw new IOException("uint16: value out of range:" + s);
 
-		out.write((s >> 8) & 0xff);
-		out.write(s & 0xff);
+		ensure(2);
+		int16(s);
 	}
 
 	@Override
@@ -90,10 +145,8 @@ public class StreamBaseOutput implements TypeBaseOutput {
 		if (s < UINT32_MIN || s > UINT32_MAX)
 			throw new IOException("uint32: value out of range:" + s);
 
-		out.write((int) (s & 0xff));
-		out.write((int) ((s >> 8) & 0xff));
-		out.write((int) ((s >> 16) & 0xff));
-		out.write((int) ((s >> 24) & 0xff));
+		ensure(4);
+		int32((int) s);
 	}
 
 	@Override
@@ -101,57 +154,102 @@ public class StreamBaseOutput implements TypeBaseOutput {
 		if (s < UINT64_MIN || s > UINT64_MAX)
 			throw new IOException("uint64: value out of range: " + s);
 
-		out.write((int) (s & 0xff));
-		out.write((int) ((s >> 8) & 0xff));
-		out.write((int) ((s >> 16) & 0xff));
-		out.write((int) ((s >> 24) & 0xff));
-		out.write((int) ((s >> 32) & 0xff));
-		out.write((int) ((s >> 40) & 0xff));
-		out.write((int) ((s >> 48) & 0xff));
-		out.write((int) ((s >> 56) & 0xff));
+		ensure(8);
+		int64(s);
 	}
 
 	// https://en.wikipedia.org/wiki/LEB128
 	@Override
 	public void writeUVarInt32(int s) throws IOException {
-
-		do {
-			int b = s & 0x7f;
+		ensure(5);
+		while ((s & ~0x7f) != 0) {
+			buffer[pos++] = (byte) ((s & 0x7f) | 0x80);
 			s >>>= 7;
-			if (s != 0) {
-				b |= 0x80;
-			}
-			out.write(b);
-		} while (s != 0);
+		}
+		buffer[pos++] = (byte) s;
 	}
 
 	@Override
 	public void writeUVarInt64(long s) throws IOException {
-		do {
-			int b = (int) (s & 0x7f);
+		ensure(10);
+		while ((s & ~0x7fL) != 0) {
+			buffer[pos++] = (byte) ((s & 0x7f) | 0x80);
 			s >>>= 7;
-			if (s != 0) {
-				b |= 0x80;
-			}
-			out.write(b);
-		} while (s != 0);
+		}
+		buffer[pos++] = (byte) s;
 	}
 
 	@Override
 	public void writeLeUInt64(BigInteger v) throws IOException {
-		// TODO Auto-generated method stub
-		throw new IOException("not implemented");
+		if (v.signum() < 0 || v.bitLength() > 64)
+			throw new IOException("uint64: value out of range:" + v);
+
+		ensure(8);
+		int64(Long.reverseBytes(v.longValue()));
 	}
 
 	@Override
 	public void writeUVarInt64(BigInteger v) throws IOException {
-		// TODO Auto-generated method stub
-		throw new IOException("not implemented");
+		if (v.signum() < 0 || v.bitLength() > 64)
+			throw new IOException("uint64: value out of range:" + v);
+
+		writeUVarInt64(v.longValue());
+	}
+
+	@Override
+	public void writeBytes(byte[] src, int offset, int length) throws IOException {
+		if (length <= buffer.length - pos) {
+			System.arraycopy(src, offset, buffer, pos, length);
+			pos += length;
+			return;
+		}
+
+		// Large writes bypass the buffer.
+		flushBuffer();
+		if (length < buffer.length) {
+			System.arraycopy(src, offset, buffer, 0, length);
+			pos = length;
+		} else {
+			out.write(src, offset, length);
+			written += length;
+		}
+	}
+
+	@Override
+	public void writeFloats(float[] values, int offset, int length) throws IOException {
+		int end = offset + length;
+		while (offset < end) {
+			ensure(4);
+			int count = Math.min(end - offset, (buffer.length - pos) / 4);
+			for (int x = 0; x < count; x++) {
+				LittleEndian.FLOAT.set(buffer, pos, values[offset++]);
+				pos += 4;
+			}
+		}
+	}
+
+	@Override
+	public void writeDoubles(double[] values, int offset, int length) throws IOException {
+		int end = offset + length;
+		while (offset < end) {
+			ensure(8);
+			int count = Math.min(end - offset, (buffer.length - pos) / 8);
+			for (int x = 0; x < count; x++) {
+				LittleEndian.DOUBLE.set(buffer, pos, values[offset++]);
+				pos += 8;
+			}
+		}
 	}
 
 	@Override
-	public void writeBytes(byte[] buffer, int offset, int length) throws IOException {
-		out.write(buffer, offset, length);
+	public void writeUtf8(String s, int encodedLength) throws IOException {
+		if (encodedLength > buffer.length) {
+			TypeBaseOutput.super.writeUtf8(s, encodedLength);
+			return;
+		}
+
+		ensure(encodedLength);
+		pos = Utf8.encode(s, buffer, pos);
 	}
 
 }
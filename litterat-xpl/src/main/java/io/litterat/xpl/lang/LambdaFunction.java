@@ -20,4 +20,20 @@ import io.litterat.schema.TypeException;
 public interface LambdaFunction {
 
 	public Object execute(Object... args) throws TypeException;
+
+	/**
+	 * Execute a lambda with a single argument, usually the stream. Implementations should override
+	 * this to avoid allocating the varargs array.
+	 */
+	public default Object execute(Object arg0) throws TypeException {
+		return execute(new Object[] { arg0 });
+	}
+
+	/**
+	 * Execute a lambda with two arguments, usually the stream and value. Implementations should
+	 * override this to avoid allocating the varargs array.
+	 */
+	public default Object execute(Object arg0, Object arg1) throws TypeException {
+		return execute(new Object[] { arg0, arg1 });
+	}
 }
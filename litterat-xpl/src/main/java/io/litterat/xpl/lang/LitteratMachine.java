@@ -15,22 +15,50 @@
  */
 package io.litterat.xpl.lang;
 
+import java.util.Arrays;
+
 import io.litterat.xpl.TypeMap;
 
+/**
+ * The LitteratMachine holds the slots for a single lambda invocation. Reference slots are held in an
+ * Object array while primitive slots are held as raw bits in a long array so that reading and
+ * writing primitive values does not box. Machines are reused through a MachineStack held by each
+ * stream so executing a lambda does not allocate.
+ */
 public class LitteratMachine {
 
 	public static final int VAR_TRANSPORT = 0;
 
-	private final TypeMap typeMap;
-
-	private final Class<?>[] slotTypes;
-	private final Object[] slotValues;
+	private TypeMap typeMap;
+	private Class<?>[] slotTypes;
+	private Object[] objects;
+	private long[] primitives;
 
 	public LitteratMachine(TypeMap typeMap, Class<?>[] slotTypes) {
 		this.typeMap = typeMap;
+		this.slotTypes = slotTypes;
+		this.objects = new Object[slotTypes.length];
+		this.primitives = new long[slotTypes.length];
+	}
 
+	/**
+	 * Prepare the machine for a new invocation. Storage is only reallocated if the new lambda has more
+	 * slots than any previous lambda that used this machine.
+	 */
+	public void reset(TypeMap typeMap, Class<?>[] slotTypes) {
+		this.typeMap = typeMap;
 		this.slotTypes = slotTypes;
-		this.slotValues = new Object[slotTypes.length];
+		if (slotTypes.length > objects.length) {
+			this.objects = new Object[slotTypes.length];
+			this.primitives = new long[slotTypes.length];
+		}
+	}
+
+	/**
+	 * Release references held in slots so that values are not kept alive by a pooled machine.
+	 */
+	public void clear() {
+		Arrays.fill(objects, 0, slotTypes.length, null);
 	}
 
 	public TypeMap typeMap() {
@@ -38,15 +66,91 @@ public class LitteratMachine {
 	}
 
 	public void setVariable(int slot, Object value) {
-		this.slotValues[slot] = value;
+		Class<?> type = slotTypes[slot];
+		if (!type.isPrimitive()) {
+			this.objects[slot] = value;
+		} else if (value == null) {
+			this.primitives[slot] = 0;
+		} else if (type == boolean.class) {
+			this.primitives[slot] = ((Boolean) value) ? 1 : 0;
+		} else if (type == char.class) {
+			this.primitives[slot] = (Character) value;
+		} else if (type == float.class) {
+			setFloat(slot, ((Number) value).floatValue());
+		} else if (type == double.class) {
+			setDouble(slot, ((Number) value).doubleValue());
+		} else {
+			this.primitives[slot] = ((Number) value).longValue();
+		}
 	}
 
 	public Object getVariable(int slot) {
-		return this.slotValues[slot];
+		Class<?> type = slotTypes[slot];
+		if (!type.isPrimitive()) {
+			return this.objects[slot];
+		}
+
+		long bits = this.primitives[slot];
+		if (type == int.class) {
+			return (int) bits;
+		} else if (type == long.class) {
+			return bits;
+		} else if (type == boolean.class) {
+			return bits != 0;
+		} else if (type == float.class) {
+			return getFloat(slot);
+		} else if (type == double.class) {
+			return getDouble(slot);
+		} else if (type == short.class) {
+			return (short) bits;
+		} else if (type == byte.class) {
+			return (byte) bits;
+		} else {
+			return (char) bits;
+		}
+	}
+
+	public int getInt(int slot) {
+		return (int) this.primitives[slot];
+	}
+
+	public void setInt(int slot, int value) {
+		this.primitives[slot] = value;
+	}
+
+	public long getLong(int slot) {
+		return this.primitives[slot];
+	}
+
+	public void setLong(int slot, long value) {
+		this.primitives[slot] = value;
+	}
+
+	public boolean getBoolean(int slot) {
+		return this.primitives[slot] != 0;
+	}
+
+	public void setBoolean(int slot, boolean value) {
+		this.primitives[slot] = value ? 1 : 0;
+	}
+
+	public float getFloat(int slot) {
+		return Float.intBitsToFloat((int) this.primitives[slot]);
+	}
+
+	public void setFloat(int slot, float value) {
+		this.primitives[slot] = Float.floatToRawIntBits(value);
+	}
+
+	public double getDouble(int slot) {
+		return Double.longBitsToDouble(this.primitives[slot]);
+	}
+
+	public void setDouble(int slot, double value) {
+		this.primitives[slot] = Double.doubleToRawLongBits(value);
 	}
 
 	public Class<?> getVariableType(int slot) {
 		return this.slotTypes[slot];
 	}
-
 }
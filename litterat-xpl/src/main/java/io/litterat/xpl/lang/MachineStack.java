@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang;
+
+import java.util.Arrays;
+
+import io.litterat.xpl.TypeMap;
+
+/**
+ * A stack of LitteratMachine frames owned by a single stream. Nested records push a new frame for
+ * the duration of their lambda and the frames are reused for the life of the stream, so executing
+ * lambdas does not allocate once the stack has reached the maximum nesting depth.
+ *
+ * Like the streams which own them, a MachineStack is not thread safe.
+ */
+public final class MachineStack {
+
+	private LitteratMachine[] frames = new LitteratMachine[8];
+	private int depth;
+
+	public LitteratMachine push(TypeMap typeMap, Class<?>[] slots) {
+		if (depth == frames.length) {
+			frames = Arrays.copyOf(frames, frames.length * 2);
+		}
+
+		LitteratMachine machine = frames[depth];
+		if (machine == null) {
+			machine = new LitteratMachine(typeMap, slots);
+			frames[depth] = machine;
+		} else {
+			machine.reset(typeMap, slots);
+		}
+
+		depth++;
+		return machine;
+	}
+
+	public void pop() {
+		frames[--depth].clear();
+	}
+
+	public int depth() {
+		return depth;
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang;
+
+import io.litterat.annotation.Record;
+import io.litterat.annotation.Typename;
+import io.litterat.bind.DataClassArray;
+import io.litterat.schema.meta.Array;
+
+/**
+ * Reads a primitive array written by WriteBulkArray as a single block.
+ */
+
+@Record
+@Typename(namespace = "xpl", name = "read_bulk_array")
+public class ReadBulkArray implements Expression {
+
+	private final DataClassArray dataArray;
+	private final Array arrayDef;
+
+	public ReadBulkArray(DataClassArray dataArray, Array arrayDef) {
+		this.dataArray = dataArray;
+		this.arrayDef = arrayDef;
+	}
+
+	public DataClassArray dataClassArray() {
+		return dataArray;
+	}
+
+	public Array arrayDef() {
+		return arrayDef;
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang;
+
+import io.litterat.annotation.Record;
+import io.litterat.bind.DataClassArray;
+import io.litterat.schema.meta.Typename;
+
+/**
+ * Reads an array of records written by WriteRecordArray.
+ */
+
+@Record
+@io.litterat.annotation.Typename(namespace = "xpl", name = "read_record_array")
+public class ReadRecordArray implements Expression {
+
+	private final DataClassArray dataArray;
+	private final Typename elementType;
+
+	public ReadRecordArray(DataClassArray dataArray, Typename elementType) {
+		this.dataArray = dataArray;
+		this.elementType = elementType;
+	}
+
+	public DataClassArray dataClassArray() {
+		return dataArray;
+	}
+
+	public Typename elementType() {
+		return elementType;
+	}
+
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang;
+
+import io.litterat.annotation.Record;
+import io.litterat.schema.meta.Element;
+
+/**
+ * Moves the input stream past a value of the given type without constructing it.
+ */
+
+@Record
+@io.litterat.annotation.Typename(namespace = "xpl", name = "skip_value")
+public class SkipValue extends Statement {
+
+	private final Element type;
+
+	public SkipValue(Element type) {
+		this.type = type;
+	}
+
+	public Element type() {
+		return type;
+	}
+
+}
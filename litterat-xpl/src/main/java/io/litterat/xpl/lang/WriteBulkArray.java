@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang;
+
+import io.litterat.annotation.Record;
+import io.litterat.annotation.Typename;
+import io.litterat.bind.DataClassArray;
+import io.litterat.schema.meta.Array;
+
+/**
+ * Writes a primitive array as its length followed by one contiguous block of fixed width values, or
+ * with the encoding of the array definition.
+ */
+
+@Record
+@Typename(namespace = "xpl", name = "write_bulk_array")
+public class WriteBulkArray extends Statement {
+
+	private final DataClassArray dataClassArray;
+	private final Array arrayDef;
+	private final Expression arrayExpression;
+
+	public WriteBulkArray(DataClassArray dataArray, Array arrayDef, Expression arrayExpression) {
+		this.dataClassArray = dataArray;
+		this.arrayDef = arrayDef;
+		this.arrayExpression = arrayExpression;
+	}
+
+	public DataClassArray dataClassArray() {
+		return dataClassArray;
+	}
+
+	public Array arrayDef() {
+		return arrayDef;
+	}
+
+	public Expression arrayExpression() {
+		return arrayExpression;
+	}
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang;
+
+import io.litterat.annotation.Record;
+import io.litterat.bind.DataClassArray;
+import io.litterat.schema.meta.Typename;
+
+/**
+ * Writes an array of records, as columns when enabled on the stream.
+ */
+
+@Record
+@io.litterat.annotation.Typename(namespace = "xpl", name = "write_record_array")
+public class WriteRecordArray extends Statement {
+
+	private final DataClassArray dataClassArray;
+	private final Typename elementType;
+	private final Expression arrayExpression;
+
+	public WriteRecordArray(DataClassArray dataArray, Typename elementType, Expression arrayExpression) {
+		this.dataClassArray = dataArray;
+		this.elementType = elementType;
+		this.arrayExpression = arrayExpression;
+	}
+
+	public DataClassArray dataClassArray() {
+		return dataClassArray;
+	}
+
+	public Typename elementType() {
+		return elementType;
+	}
+
+	public Expression arrayExpression() {
+		return arrayExpression;
+	}
+
+}
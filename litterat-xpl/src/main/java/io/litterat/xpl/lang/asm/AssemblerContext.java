@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandleInfo;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.lang.Lambda;
+import io.litterat.xpl.lang.LitteratMachine;
+
+/**
+ * The AssemblerContext holds the state of a single method being assembled. Lambda slots are mapped
+ * to JVM local variables and any runtime values required by the method (MethodHandles, Typenames
+ * and constants) are loaded from the hidden class data. All reference types are erased to Object so
+ * that the generated class does not require access to the application classes. Only primitive
+ * types are kept so values can be passed through without boxing.
+ */
+public class AssemblerContext {
+
+	private static final Handle CLASS_DATA_AT = new Handle(Opcodes.H_INVOKESTATIC,
+			Type.getInternalName(MethodHandles.class), "classDataAt",
+			MethodType.methodType(Object.class, MethodHandles.Lookup.class, String.class, Class.class, int.class)
+					.toMethodDescriptorString(),
+			false);
+
+	private final MethodHandles.Lookup lookup;
+	private final TypeMap typeMap;
+	private final MethodVisitor code;
+	private final Class<?> streamClass;
+	private final Class<?> returnType;
+	private final List<Object> constants;
+
+	private final Class<?>[] slotTypes;
+	private final int[] slotLocals;
+	private int nextLocal;
+
+	public AssemblerContext(MethodHandles.Lookup lookup, TypeMap typeMap, MethodVisitor code, Lambda lambda,
+			Class<?> streamClass, Class<?>[] parameterTypes, Class<?> returnType, List<Object> constants)
+			throws TypeException {
+		this.lookup = lookup;
+		this.typeMap = typeMap;
+		this.code = code;
+		this.streamClass = streamClass;
+		this.returnType = returnType;
+		this.constants = constants;
+
+		Class<?>[] slots = lambda.slots();
+		if (slots.length < parameterTypes.length) {
+			throw new TypeException(String.format("lambda requires at least %d slots", parameterTypes.length));
+		}
+
+		this.slotTypes = new Class<?>[slots.length];
+		this.slotLocals = new int[slots.length];
+
+		// local 0 is this. Parameters follow and then any other slots.
+		this.nextLocal = 1;
+		for (int x = 0; x < slots.length; x++) {
+			Class<?> type = x < parameterTypes.length ? parameterTypes[x] : erase(slots[x]);
+			slotTypes[x] = type;
+			slotLocals[x] = nextLocal;
+			nextLocal += Type.getType(type).getSize();
+		}
+	}
+
+	public static Class<?> erase(Class<?> type) {
+		return type.isPrimitive() ? type : Object.class;
+	}
+
+	public static MethodType erase(MethodType type) {
+		MethodType erased = type.changeReturnType(erase(type.returnType()));
+		for (int x = 0; x < type.parameterCount(); x++) {
+			erased = erased.changeParameterType(x, erase(type.parameterType(x)));
+		}
+		return erased;
+	}
+
+	public TypeMap typeMap() {
+		return typeMap;
+	}
+
+	public MethodVisitor code() {
+		return code;
+	}
+
+	public Class<?> streamClass() {
+		return streamClass;
+	}
+
+	public Class<?> slotType(int slot) {
+		return slotTypes[slot];
+	}
+
+	/**
+	 * Allocate a local variable that is not associated with a lambda slot.
+	 */
+	public int newLocal(Class<?> type) {
+		int local = nextLocal;
+		nextLocal += Type.getType(type).getSize();
+		return local;
+	}
+
+	public void loadStream() {
+		code.visitVarInsn(Opcodes.ALOAD, slotLocals[LitteratMachine.VAR_TRANSPORT]);
+	}
+
+	public Class<?> loadSlot(int slot) {
+		Class<?> type = slotTypes[slot];
+		code.visitVarInsn(Type.getType(type).getOpcode(Opcodes.ILOAD), slotLocals[slot]);
+		return type;
+	}
+
+	public void storeSlot(int slot) {
+		code.visitVarInsn(Type.getType(slotTypes[slot]).getOpcode(Opcodes.ISTORE), slotLocals[slot]);
+	}
+
+	public void load(int local, Class<?> type) {
+		code.visitVarInsn(Type.getType(type).getOpcode(Opcodes.ILOAD), local);
+	}
+
+	public void store(int local, Class<?> type) {
+		code.visitVarInsn(Type.getType(type).getOpcode(Opcodes.ISTORE), local);
+	}
+
+	public void push(int value) {
+		if (value >= -1 && value <= 5) {
+			code.visitInsn(Opcodes.ICONST_0 + value);
+		} else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+			code.visitIntInsn(Opcodes.BIPUSH, value);
+		} else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+			code.visitIntInsn(Opcodes.SIPUSH, value);
+		} else {
+			code.visitLdcInsn(value);
+		}
+	}
+
+	/**
+	 * Loads a value from the hidden class data. The value is a constant to the JIT.
+	 */
+	public void loadConstant(Object value, Class<?> type) {
+		int index = constants.size();
+		constants.add(value);
+
+		code.visitLdcInsn(new ConstantDynamic("_", Type.getDescriptor(type), CLASS_DATA_AT, index));
+	}
+
+	/**
+	 * Push a MethodHandle erased to primitives and Object on to the stack. Arguments should be pushed
+	 * after this call and followed by a call to invokeExact with the returned type.
+	 */
+	public MethodType loadHandle(MethodHandle handle) {
+		MethodHandle erased = handle.asType(erase(handle.type()));
+		loadConstant(erased, MethodHandle.class);
+		return erased.type();
+	}
+
+	public Class<?> invokeExact(MethodType type) {
+		code.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(MethodHandle.class), "invokeExact",
+				type.toMethodDescriptorString(), false);
+		return type.returnType();
+	}
+
+	/**
+	 * Emit a direct virtual call to the method that is the target of the handle. The receiver and
+	 * arguments must already be on the stack.
+	 */
+	public Class<?> invokeDirect(MethodHandle handle) throws TypeException {
+		try {
+			MethodHandleInfo info = lookup.revealDirect(handle);
+			if (info.getReferenceKind() != MethodHandleInfo.REF_invokeVirtual
+					&& info.getReferenceKind() != MethodHandleInfo.REF_invokeInterface) {
+				throw new TypeException("Not a virtual method handle: " + info);
+			}
+
+			Class<?> owner = info.getDeclaringClass();
+			code.visitMethodInsn(owner.isInterface() ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL,
+					Type.getInternalName(owner), info.getName(), info.getMethodType().toMethodDescriptorString(),
+					owner.isInterface());
+			return info.getMethodType().returnType();
+		} catch (IllegalArgumentException e) {
+			throw new TypeException("Failed to reveal method handle", e);
+		}
+	}
+
+	public void invokeVirtual(Class<?> owner, String name, Class<?> returnType, Class<?>... parameters) {
+		code.visitMethodInsn(owner.isInterface() ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL,
+				Type.getInternalName(owner), name,
+				MethodType.methodType(returnType, parameters).toMethodDescriptorString(), owner.isInterface());
+	}
+
+	/**
+	 * Return the value on the stack from the method being assembled.
+	 */
+	public void returnValue(Class<?> type) {
+		convert(type, returnType);
+		code.visitInsn(Type.getType(returnType).getOpcode(Opcodes.IRETURN));
+	}
+
+	/**
+	 * Convert the value on the stack from one type to another. Reference types are always erased so
+	 * the only conversions required are boxing, unboxing and primitive widening/narrowing.
+	 */
+	public void convert(Class<?> from, Class<?> to) {
+		if (from == to) {
+			return;
+		}
+
+		if (to == void.class) {
+			code.visitInsn(Type.getType(from).getSize() == 2 ? Opcodes.POP2 : Opcodes.POP);
+		} else if (!from.isPrimitive() && !to.isPrimitive()) {
+			// All references are erased to Object.
+			return;
+		} else if (from.isPrimitive() && !to.isPrimitive()) {
+			Class<?> wrapper = MethodType.methodType(from).wrap().returnType();
+			code.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(wrapper), "valueOf",
+					MethodType.methodType(wrapper, from).toMethodDescriptorString(), false);
+		} else if (!from.isPrimitive()) {
+			Class<?> wrapper = MethodType.methodType(to).wrap().returnType();
+			Class<?> owner = (to == boolean.class || to == char.class) ? wrapper : Number.class;
+			code.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(owner));
+			code.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(owner), to.getName() + "Value",
+					MethodType.methodType(to).toMethodDescriptorString(), false);
+		} else {
+			convertPrimitive(from, to);
+		}
+	}
+
+	/**
+	 * Widen or narrow a primitive on the stack with the JVM conversion instructions. Values of byte,
+	 * short and char are ints on the stack so only need narrowing when they are the target.
+	 */
+	private void convertPrimitive(Class<?> from, Class<?> to) {
+		if (from == boolean.class || to == boolean.class) {
+			throw new IllegalArgumentException("Unable to convert " + from.getName() + " to " + to.getName());
+		}
+
+		Class<?> stackFrom = stackType(from);
+		Class<?> stackTo = stackType(to);
+		if (stackFrom != stackTo) {
+			code.visitInsn(conversion(stackFrom, stackTo));
+		}
+
+		if (to == byte.class && from != byte.class) {
+			code.visitInsn(Opcodes.I2B);
+		} else if (to == short.class && from != short.class && from != byte.class) {
+			code.visitInsn(Opcodes.I2S);
+		} else if (to == char.class) {
+			code.visitInsn(Opcodes.I2C);
+		}
+	}
+
+	private static Class<?> stackType(Class<?> type) {
+		return type == long.class || type == float.class || type == double.class ? type : int.class;
+	}
+
+	private static int conversion(Class<?> from, Class<?> to) {
+		if (from == int.class) {
+			return to == long.class ? Opcodes.I2L : to == float.class ? Opcodes.I2F : Opcodes.I2D;
+		} else if (from == long.class) {
+			return to == int.class ? Opcodes.L2I : to == float.class ? Opcodes.L2F : Opcodes.L2D;
+		} else if (from == float.class) {
+			return to == int.class ? Opcodes.F2I : to == long.class ? Opcodes.F2L : Opcodes.F2D;
+		} else {
+			return to == int.class ? Opcodes.D2I : to == long.class ? Opcodes.D2L : Opcodes.D2F;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import io.litterat.schema.TypeException;
+
+public class BlockArrayAssembler implements ExpressionAssembler {
+
+	private final ExpressionAssembler[] statements;
+
+	public BlockArrayAssembler(ExpressionAssembler[] statements) {
+		this.statements = statements;
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+
+		context.push(statements.length);
+		context.code().visitTypeInsn(Opcodes.ANEWARRAY, Type.getInternalName(Object.class));
+		for (int x = 0; x < statements.length; x++) {
+			context.code().visitInsn(Opcodes.DUP);
+			context.push(x);
+			context.convert(statements[x].assemble(context), Object.class);
+			context.code().visitInsn(Opcodes.AASTORE);
+		}
+		return Object.class;
+	}
+}
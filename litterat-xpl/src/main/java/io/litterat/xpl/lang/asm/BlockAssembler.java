@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import io.litterat.schema.TypeException;
+
+public class BlockAssembler implements StatementAssembler {
+
+	private final StatementAssembler[] statements;
+
+	public BlockAssembler(StatementAssembler[] statements) {
+		this.statements = statements;
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+
+		for (StatementAssembler statement : statements) {
+			context.convert(statement.assemble(context), void.class);
+		}
+		return void.class;
+	}
+
+	public boolean returns() {
+		return statements.length > 0 && statements[statements.length - 1] instanceof ReturnAssembler;
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import io.litterat.bind.DataClassRecord;
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.lang.ConstructInstance;
+import io.litterat.xpl.lang.interpret.ConstructInstanceInterpreter;
+
+public class ConstructInstanceAssembler implements ExpressionAssembler {
+
+	private final ExpressionAssembler[] params;
+	private final MethodHandle constructor;
+
+	public ConstructInstanceAssembler(TypeMap typeMap, ConstructInstance createInstance, ExpressionAssembler[] params)
+			throws TypeException {
+		this.params = params;
+
+		DataClassRecord typeClass = (DataClassRecord) typeMap.context().getDescriptor(createInstance.type());
+
+		// Each parameter is passed directly from the stack with each field's toObject conversion applied on
+		// the way in. Primitive fields stay unboxed where the record has a direct constructor.
+		this.constructor = ConstructInstanceInterpreter.constructorHandle(typeClass);
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+
+		MethodType type = context.loadHandle(constructor);
+		for (int x = 0; x < params.length; x++) {
+			context.convert(params[x].assemble(context), type.parameterType(x));
+		}
+		return context.invokeExact(type);
+	}
+}
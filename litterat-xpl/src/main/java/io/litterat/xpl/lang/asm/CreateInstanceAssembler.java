@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import java.lang.invoke.MethodHandle;
+
+import io.litterat.bind.DataClass;
+import io.litterat.bind.DataClassRecord;
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.lang.CreateInstance;
+
+public class CreateInstanceAssembler implements ExpressionAssembler {
+
+	private final MethodHandle constructor;
+
+	public CreateInstanceAssembler(TypeMap typeMap, CreateInstance createInstance) throws TypeException {
+
+		DataClass dataClass = typeMap.context().getDescriptor(createInstance.type());
+		if (dataClass instanceof DataClassRecord dataClassRecord) {
+			this.constructor = dataClassRecord.creator();
+		} else {
+			throw new TypeException("Type not a record type");
+		}
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) {
+
+		return context.invokeExact(context.loadHandle(constructor));
+	}
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import io.litterat.bind.DataClassRecord;
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.lang.FieldRead;
+import io.litterat.xpl.resolve.ModelHelper;
+
+public class FieldReadAssembler implements ExpressionAssembler {
+
+	private final ExpressionAssembler expression;
+	private final MethodHandle fieldGetter;
+
+	public FieldReadAssembler(TypeMap typeMap, FieldRead fieldRead, ExpressionAssembler expression)
+			throws TypeException {
+		this.expression = expression;
+
+		DataClassRecord dataClass = (DataClassRecord) typeMap.context().getDescriptor(fieldRead.type());
+		this.fieldGetter = ModelHelper.resolveFieldGetter(dataClass, fieldRead.field());
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+
+		// (obj) -> obj.getField();
+		MethodType type = context.loadHandle(fieldGetter);
+		context.convert(expression.assemble(context), type.parameterType(0));
+		return context.invokeExact(type);
+	}
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import io.litterat.bind.DataClassRecord;
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.lang.FieldSet;
+import io.litterat.xpl.resolve.ModelHelper;
+
+public class FieldSetAssembler implements StatementAssembler {
+
+	private final ExpressionAssembler objectExpression;
+	private final ExpressionAssembler valueExpression;
+	private final MethodHandle fieldSetter;
+
+	public FieldSetAssembler(TypeMap typeMap, FieldSet fieldSet, ExpressionAssembler objectExpression,
+			ExpressionAssembler valueExpression) throws TypeException {
+		this.objectExpression = objectExpression;
+		this.valueExpression = valueExpression;
+
+		DataClassRecord dataClass = (DataClassRecord) typeMap.context().getDescriptor(fieldSet.type());
+		this.fieldSetter = ModelHelper.resolveFieldSetter(dataClass, fieldSet.field());
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+
+		MethodType type = context.loadHandle(fieldSetter);
+		context.convert(objectExpression.assemble(context), type.parameterType(0));
+		context.convert(valueExpression.assemble(context), type.parameterType(1));
+		return context.invokeExact(type);
+	}
+}
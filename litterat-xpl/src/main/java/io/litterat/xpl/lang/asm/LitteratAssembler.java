@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import io.litterat.bind.DataBindException;
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Array;
+import io.litterat.schema.meta.Atom;
+import io.litterat.schema.meta.Definition;
+import io.litterat.schema.meta.Record;
+import io.litterat.schema.meta.Typename;
+import io.litterat.schema.meta.Union;
+import io.litterat.schema.meta.atom.StringAtom;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.TypeReader;
+import io.litterat.xpl.TypeReaderWriter;
+import io.litterat.xpl.lang.Block;
+import io.litterat.xpl.lang.BlockArray;
+import io.litterat.xpl.lang.ConstructInstance;
+import io.litterat.xpl.lang.CreateInstance;
+import io.litterat.xpl.lang.Expression;
+import io.litterat.xpl.lang.FieldRead;
+import io.litterat.xpl.lang.FieldSet;
+import io.litterat.xpl.lang.Lambda;
+import io.litterat.xpl.lang.Loop;
+import io.litterat.xpl.lang.ReadArray;
+import io.litterat.xpl.lang.ReadBulkArray;
+import io.litterat.xpl.lang.ReadRecordArray;
+import io.litterat.xpl.lang.ReadValue;
+import io.litterat.xpl.lang.ReturnNode;
+import io.litterat.xpl.lang.SkipValue;
+import io.litterat.xpl.lang.SlotReference;
+import io.litterat.xpl.lang.SlotSet;
+import io.litterat.xpl.lang.Statement;
+import io.litterat.xpl.lang.Value;
+import io.litterat.xpl.lang.WriteArray;
+import io.litterat.xpl.lang.WriteBulkArray;
+import io.litterat.xpl.lang.WriteRecordArray;
+import io.litterat.xpl.lang.WriteValue;
+
+/**
+ * Compiles a pair of reader and writer lambdas into a hidden class implementing TypeReaderWriter.
+ * MethodHandles used by the lambdas are stored in the class data and loaded as dynamic constants,
+ * and atom values are read and written with direct calls on TypeBaseInput/TypeBaseOutput.
+ */
+public class LitteratAssembler {
+
+	private static final String CLASS_NAME = Type.getInternalName(LitteratAssembler.class) + "Codec";
+
+	private static final MethodType READ_TYPE = MethodType.methodType(Object.class, TypeInputStream.class);
+	private static final MethodType WRITE_TYPE = MethodType.methodType(void.class, TypeOutputStream.class,
+			Object.class);
+
+	private final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+	public TypeReaderWriter compile(TypeMap typeMap, Lambda reader, Lambda writer)
+			throws NoSuchMethodException, IllegalAccessException, DataBindException, TypeException {
+
+		return (TypeReaderWriter) define(typeMap, TypeReaderWriter.class, reader, writer);
+	}
+
+	/**
+	 * Compiles a reader lambda on its own into a hidden class implementing TypeReader.
+	 */
+	public TypeReader compileReader(TypeMap typeMap, Lambda reader)
+			throws NoSuchMethodException, IllegalAccessException, DataBindException, TypeException {
+
+		return (TypeReader) define(typeMap, TypeReader.class, reader, null);
+	}
+
+	private Object define(TypeMap typeMap, Class<?> codecInterface, Lambda reader, Lambda writer)
+			throws NoSuchMethodException, IllegalAccessException, DataBindException, TypeException {
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES) {
+
+			// All references are erased to Object so no class loading is required to merge frames.
+			@Override
+			protected String getCommonSuperClass(String type1, String type2) {
+				return Type.getInternalName(Object.class);
+			}
+		};
+
+		cw.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, CLASS_NAME, null,
+				Type.getInternalName(Object.class), new String[] { Type.getInternalName(codecInterface) });
+
+		MethodVisitor init = cw.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+		init.visitCode();
+		init.visitVarInsn(Opcodes.ALOAD, 0);
+		init.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+		init.visitInsn(Opcodes.RETURN);
+		init.visitMaxs(0, 0);
+		init.visitEnd();
+
+		// Class data may legitimately contain null values so don't use List.of.
+		List<Object> constants = new ArrayList<>();
+
+		assembleMethod(cw, typeMap, reader, "read", READ_TYPE, "Failed to read", constants);
+		if (writer != null) {
+			assembleMethod(cw, typeMap, writer, "write", WRITE_TYPE, "Failed to write", constants);
+		}
+
+		cw.visitEnd();
+
+		try {
+			MethodHandles.Lookup codec = lookup.defineHiddenClassWithClassData(cw.toByteArray(), constants, true);
+			return codec.findConstructor(codec.lookupClass(), MethodType.methodType(void.class)).invoke();
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new TypeException("Failed to create codec", e);
+		}
+	}
+
+	private void assembleMethod(ClassWriter cw, TypeMap typeMap, Lambda lambda, String name, MethodType type,
+			String failure, List<Object> constants)
+			throws NoSuchMethodException, IllegalAccessException, DataBindException, TypeException {
+
+		MethodVisitor code = cw.visitMethod(Opcodes.ACC_PUBLIC, name, type.toMethodDescriptorString(), null,
+				new String[] { Type.getInternalName(IOException.class) });
+		code.visitCode();
+
+		AssemblerContext context = new AssemblerContext(lookup, typeMap, code, lambda, type.parameterType(0),
+				type.parameterArray(), type.returnType(), constants);
+
+		BlockAssembler block = compileBlock(typeMap, lambda.block());
+
+		Label start = new Label();
+		Label end = new Label();
+		Label handler = new Label();
+		code.visitTryCatchBlock(start, end, handler, Type.getInternalName(Throwable.class));
+
+		code.visitLabel(start);
+		block.assemble(context);
+		if (!block.returns()) {
+			if (type.returnType() == void.class) {
+				code.visitInsn(Opcodes.RETURN);
+			} else {
+				code.visitInsn(Opcodes.ACONST_NULL);
+				context.returnValue(Object.class);
+			}
+		}
+		code.visitLabel(end);
+
+		// catch (Throwable t) { if (t instanceof IOException) throw t; throw new IOException(failure, t); }
+		Label wrap = new Label();
+		code.visitLabel(handler);
+		code.visitInsn(Opcodes.DUP);
+		code.visitTypeInsn(Opcodes.INSTANCEOF, Type.getInternalName(IOException.class));
+		code.visitJumpInsn(Opcodes.IFEQ, wrap);
+		code.visitInsn(Opcodes.ATHROW);
+		code.visitLabel(wrap);
+		int exception = context.newLocal(Throwable.class);
+		code.visitVarInsn(Opcodes.ASTORE, exception);
+		code.visitTypeInsn(Opcodes.NEW, Type.getInternalName(IOException.class));
+		code.visitInsn(Opcodes.DUP);
+		code.visitLdcInsn(failure);
+		code.visitVarInsn(Opcodes.ALOAD, exception);
+		code.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(IOException.class), "<init>",
+				MethodType.methodType(void.class, String.class, Throwable.class).toMethodDescriptorString(), false);
+		code.visitInsn(Opcodes.ATHROW);
+
+		code.visitMaxs(0, 0);
+		code.visitEnd();
+	}
+
+	private BlockAssembler compileBlock(TypeMap typeMap, Block block)
+			throws NoSuchMethodException, IllegalAccessException, DataBindException, TypeException {
+
+		List<StatementAssembler> statements = new ArrayList<>();
+		for (Statement statement : block.statements()) {
+			statements.add(compileStatement(typeMap, statement));
+		}
+
+		StatementAssembler[] compiledStatements = new StatementAssembler[statements.size()];
+		return new BlockAssembler(statements.toArray(compiledStatements));
+	}
+
+	private StatementAssembler compileStatement(TypeMap typeMap, Statement statement)
+			throws NoSuchMethodException, IllegalAccessException, DataBindException, TypeException {
+
+		return switch (statement) {
+			case Block block -> compileBlock(typeMap, block);
+			case FieldSet fieldSet -> new FieldSetAssembler(typeMap, fieldSet,
+					compileExpression(typeMap, fieldSet.objectExpression()),
+					compileExpression(typeMap, fieldSet.valueExpression()));
+			case ReturnNode returnNode -> new ReturnAssembler(compileExpression(typeMap, returnNode.expression()));
+			case SlotSet slotSet -> new SlotSetAssembler(slotSet, compileExpression(typeMap, slotSet.expression()));
+			case WriteValue writeType -> {
+				Definition def = typeMap.context().library().getDefinition(writeType.type());
+				yield switch (def) {
+					case Record _, Typename _, Union _, StringAtom _, Array _ ->
+						new WriteObjectAssembler(writeType, compileExpression(typeMap, writeType.expression()));
+					case Atom _ -> new WriteAtomAssembler(writeType, compileExpression(typeMap, writeType.expression()));
+					case null, default -> throw new IllegalArgumentException("Write type not recognised: " + def);
+				};
+			}
+			case Loop loop -> new LoopAssembler(loop, compileExpression(typeMap, loop.arrayExpression()),
+					compileStatement(typeMap, loop.loopStatement()));
+			case WriteArray loop -> new WriteArrayAssembler(loop, compileExpression(typeMap, loop.arrayExpression()),
+					compileStatement(typeMap, loop.writeStatement()));
+			case WriteBulkArray writeArray ->
+				new WriteBulkArrayAssembler(writeArray, compileExpression(typeMap, writeArray.arrayExpression()));
+			case WriteRecordArray writeArray ->
+				new WriteRecordArrayAssembler(typeMap, writeArray,
+						compileExpression(typeMap, writeArray.arrayExpression()));
+			case SkipValue skipValue -> new SkipValueAssembler(typeMap, skipValue);
+			case null, default ->
+				throw new IllegalArgumentException("Statement type not recognised: " + statement.getClass().getName());
+		};
+	}
+
+	private ExpressionAssembler compileExpression(TypeMap typeMap, Expression expression)
+			throws NoSuchMethodException, IllegalAccessException, DataBindException, TypeException {
+
+		return switch (expression) {
+			case ConstructInstance createInstance -> new ConstructInstanceAssembler(typeMap, createInstance,
+					compileExpressions(typeMap, createInstance.parameters()));
+			case CreateInstance createInstance -> new CreateInstanceAssembler(typeMap, createInstance);
+			case BlockArray blockArray -> new BlockArrayAssembler(compileExpressions(typeMap, blockArray.statements()));
+			case FieldRead fieldRead -> new FieldReadAssembler(typeMap, fieldRead,
+					compileExpression(typeMap, fieldRead.expression()));
+			case ReadValue readType -> {
+				// Make sure the descriptor has been resolved prior to reading.
+				typeMap.context().getDescriptor(readType.type());
+
+				Definition def = typeMap.context().library().getDefinition(readType.type());
+				yield switch (def) {
+					case Record _, Typename _, Union _, StringAtom _, Array _ -> new ReadObjectAssembler(readType);
+					case Atom _ -> new ReadAtomAssembler(readType);
+					case null, default -> throw new IllegalArgumentException("Read type not recognised: " + def);
+				};
+			}
+			case ReadArray readArray -> new ReadArrayAssembler(readArray,
+					compileExpression(typeMap, readArray.readExpression()));
+			case ReadBulkArray readArray -> new ReadBulkArrayAssembler(readArray);
+			case ReadRecordArray readArray -> new ReadRecordArrayAssembler(typeMap, readArray);
+			case SlotReference slotReference -> new SlotReferenceAssembler(slotReference);
+			case Value value -> new ValueAssembler(value);
+			case null, default ->
+				throw new IllegalArgumentException("Expression type not recognised: " + expression.getClass().getName());
+		};
+	}
+
+	private ExpressionAssembler[] compileExpressions(TypeMap typeMap, Expression[] expressions)
+			throws NoSuchMethodException, IllegalAccessException, DataBindException, TypeException {
+
+		ExpressionAssembler[] args = new ExpressionAssembler[expressions.length];
+		for (int x = 0; x < args.length; x++) {
+			args[x] = compileExpression(typeMap, expressions[x]);
+		}
+		return args;
+	}
+}
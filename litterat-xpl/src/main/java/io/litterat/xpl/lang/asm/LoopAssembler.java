@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.lang.Loop;
+
+public class LoopAssembler implements StatementAssembler {
+
+	private final Loop loop;
+	private final ExpressionAssembler arrayExpr;
+	private final StatementAssembler loopStatement;
+
+	public LoopAssembler(Loop loop, ExpressionAssembler arrayExpr, StatementAssembler loopStatement) {
+		this.loop = loop;
+		this.arrayExpr = arrayExpr;
+		this.loopStatement = loopStatement;
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+		MethodVisitor code = context.code();
+
+		int array = context.newLocal(Object[].class);
+		int index = context.newLocal(int.class);
+
+		context.convert(arrayExpr.assemble(context), Object.class);
+		code.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(Object[].class));
+		code.visitVarInsn(Opcodes.ASTORE, array);
+		context.push(0);
+		context.store(index, int.class);
+
+		Label test = new Label();
+		Label end = new Label();
+		code.visitLabel(test);
+		context.load(index, int.class);
+		code.visitVarInsn(Opcodes.ALOAD, array);
+		code.visitInsn(Opcodes.ARRAYLENGTH);
+		code.visitJumpInsn(Opcodes.IF_ICMPGE, end);
+
+		code.visitVarInsn(Opcodes.ALOAD, array);
+		context.load(index, int.class);
+		code.visitInsn(Opcodes.AALOAD);
+		context.convert(Object.class, context.slotType(loop.valSlot()));
+		context.storeSlot(loop.valSlot());
+		context.convert(loopStatement.assemble(context), void.class);
+
+		code.visitIincInsn(index, 1);
+		code.visitJumpInsn(Opcodes.GOTO, test);
+		code.visitLabel(end);
+		return void.class;
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import java.lang.invoke.MethodType;
+
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import io.litterat.bind.DataClassArray;
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeBaseInput;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.lang.ReadArray;
+
+public class ReadArrayAssembler implements ExpressionAssembler {
+
+	private final DataClassArray arrayClass;
+	private final ExpressionAssembler readElement;
+
+	public ReadArrayAssembler(ReadArray readArray, ExpressionAssembler readElement) {
+		this.arrayClass = readArray.dataClassArray();
+		this.readElement = readElement;
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+		MethodVisitor code = context.code();
+
+		int length = context.newLocal(int.class);
+		int index = context.newLocal(int.class);
+
+		context.loadStream();
+		context.invokeVirtual(TypeInputStream.class, "input", TypeBaseInput.class);
+		context.invokeVirtual(TypeBaseInput.class, "readUVarInt32", int.class);
+		context.store(length, int.class);
+
+		// arrayData = constructor(length)
+		MethodType constructorType = context.loadHandle(arrayClass.constructor());
+		context.load(length, int.class);
+		Class<?> arrayType = context.invokeExact(constructorType);
+		int arrayData = context.newLocal(arrayType);
+		context.store(arrayData, arrayType);
+
+		// iterator = iterator(arrayData)
+		MethodType iteratorType = context.loadHandle(arrayClass.iterator());
+		context.load(arrayData, arrayType);
+		Class<?> iteratorClass = context.invokeExact(iteratorType);
+		int iterator = context.newLocal(iteratorClass);
+		context.store(iterator, iteratorClass);
+
+		context.push(0);
+		context.store(index, int.class);
+
+		Label test = new Label();
+		Label end = new Label();
+		code.visitLabel(test);
+		context.load(index, int.class);
+		context.load(length, int.class);
+		code.visitJumpInsn(Opcodes.IF_ICMPGE, end);
+
+		// put(arrayData, iterator, value)
+		MethodType putType = context
+				.loadHandle(arrayClass.put().asType(arrayClass.put().type().changeReturnType(void.class)));
+		context.load(arrayData, arrayType);
+		context.load(iterator, iteratorClass);
+		context.convert(readElement.assemble(context), putType.parameterType(2));
+		context.invokeExact(putType);
+
+		code.visitIincInsn(index, 1);
+		code.visitJumpInsn(Opcodes.GOTO, test);
+		code.visitLabel(end);
+
+		context.load(arrayData, arrayType);
+		return arrayType;
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import java.lang.invoke.MethodHandle;
+
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeBaseInput;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.lang.ReadValue;
+import io.litterat.xpl.resolve.TransportHandles;
+
+public class ReadAtomAssembler implements ExpressionAssembler {
+
+	private final MethodHandle readType;
+
+	public ReadAtomAssembler(ReadValue readType) throws TypeException {
+		this.readType = TransportHandles.getInputHandle(readType.type());
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+
+		// stream.input().readXXX()
+		context.loadStream();
+		context.invokeVirtual(TypeInputStream.class, "input", TypeBaseInput.class);
+		return context.invokeDirect(readType);
+	}
+}
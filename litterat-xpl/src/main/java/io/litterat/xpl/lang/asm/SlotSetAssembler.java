@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.lang.SlotSet;
+
+public class SlotSetAssembler implements StatementAssembler {
+
+	private final SlotSet slotSet;
+	private final ExpressionAssembler expression;
+
+	public SlotSetAssembler(SlotSet slotSet, ExpressionAssembler expression) {
+		this.slotSet = slotSet;
+		this.expression = expression;
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+
+		context.convert(expression.assemble(context), context.slotType(slotSet.variable()));
+		context.storeSlot(slotSet.variable());
+		return void.class;
+	}
+}
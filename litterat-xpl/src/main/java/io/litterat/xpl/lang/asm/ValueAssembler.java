@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import io.litterat.xpl.lang.Value;
+
+public class ValueAssembler implements ExpressionAssembler {
+
+	private final Value value;
+
+	public ValueAssembler(Value value) {
+		this.value = value;
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) {
+
+		// Primitive values are pushed as constants, anything else is loaded from the class data.
+		Class<?> type = value.valueClass();
+		Object constant = value.value();
+		if (!type.isPrimitive() || constant == null) {
+			context.loadConstant(constant, Object.class);
+			return Object.class;
+		}
+
+		if (type == long.class) {
+			context.code().visitLdcInsn(((Number) constant).longValue());
+		} else if (type == float.class) {
+			context.code().visitLdcInsn(((Number) constant).floatValue());
+		} else if (type == double.class) {
+			context.code().visitLdcInsn(((Number) constant).doubleValue());
+		} else if (type == boolean.class) {
+			context.push((Boolean) constant ? 1 : 0);
+		} else if (type == char.class) {
+			context.push((Character) constant);
+		} else {
+			context.push(((Number) constant).intValue());
+		}
+		return type;
+	}
+}
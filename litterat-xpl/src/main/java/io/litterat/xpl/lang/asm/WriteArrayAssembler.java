@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import java.lang.invoke.MethodType;
+
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import io.litterat.bind.DataClassArray;
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeBaseOutput;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.lang.WriteArray;
+
+public class WriteArrayAssembler implements StatementAssembler {
+
+	private final WriteArray writeArray;
+	private final ExpressionAssembler arrayExpr;
+	private final StatementAssembler writeElement;
+
+	public WriteArrayAssembler(WriteArray writeArray, ExpressionAssembler arrayExpr, StatementAssembler writeElement) {
+		this.writeArray = writeArray;
+		this.arrayExpr = arrayExpr;
+		this.writeElement = writeElement;
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+		MethodVisitor code = context.code();
+		DataClassArray arrayClass = writeArray.dataClassArray();
+
+		int arrayData = context.newLocal(Object.class);
+		int length = context.newLocal(int.class);
+		int index = context.newLocal(int.class);
+
+		context.convert(arrayExpr.assemble(context), Object.class);
+		context.store(arrayData, Object.class);
+
+		// length = size(arrayData)
+		MethodType sizeType = context.loadHandle(arrayClass.size());
+		context.load(arrayData, Object.class);
+		context.convert(Object.class, sizeType.parameterType(0));
+		context.convert(context.invokeExact(sizeType), int.class);
+		context.store(length, int.class);
+
+		// iterator = iterator(arrayData)
+		MethodType iteratorType = context.loadHandle(arrayClass.iterator());
+		context.load(arrayData, Object.class);
+		Class<?> iteratorClass = context.invokeExact(iteratorType);
+		int iterator = context.newLocal(iteratorClass);
+		context.store(iterator, iteratorClass);
+
+		context.loadStream();
+		context.invokeVirtual(TypeOutputStream.class, "output", TypeBaseOutput.class);
+		context.load(length, int.class);
+		context.invokeVirtual(TypeBaseOutput.class, "writeUVarInt32", void.class, int.class);
+
+		context.push(0);
+		context.store(index, int.class);
+
+		Label test = new Label();
+		Label end = new Label();
+		code.visitLabel(test);
+		context.load(index, int.class);
+		context.load(length, int.class);
+		code.visitJumpInsn(Opcodes.IF_ICMPGE, end);
+
+		// slot = get(arrayData, iterator)
+		MethodType getType = context.loadHandle(arrayClass.get());
+		context.load(arrayData, Object.class);
+		context.load(iterator, iteratorClass);
+		context.convert(context.invokeExact(getType), context.slotType(writeArray.valueSlot()));
+		context.storeSlot(writeArray.valueSlot());
+		context.convert(writeElement.assemble(context), void.class);
+
+		code.visitIincInsn(index, 1);
+		code.visitJumpInsn(Opcodes.GOTO, test);
+		code.visitLabel(end);
+		return void.class;
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import java.lang.invoke.MethodHandle;
+
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeBaseOutput;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.lang.WriteValue;
+import io.litterat.xpl.resolve.TransportHandles;
+
+public class WriteAtomAssembler implements StatementAssembler {
+
+	private final MethodHandle writeType;
+	private final ExpressionAssembler expression;
+
+	public WriteAtomAssembler(WriteValue writeType, ExpressionAssembler expression) throws TypeException {
+		this.writeType = TransportHandles.getOutputHandle(writeType.type());
+		this.expression = expression;
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+
+		// stream.output().writeXXX(value)
+		context.loadStream();
+		context.invokeVirtual(TypeOutputStream.class, "output", TypeBaseOutput.class);
+		context.convert(expression.assemble(context), writeType.type().parameterType(1));
+		return context.invokeDirect(writeType);
+	}
+}
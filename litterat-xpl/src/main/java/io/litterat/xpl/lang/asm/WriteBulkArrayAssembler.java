@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeBaseOutput;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.lang.WriteBulkArray;
+import io.litterat.xpl.resolve.PrimitiveArrays;
+
+public class WriteBulkArrayAssembler implements StatementAssembler {
+
+	private final MethodHandle write;
+	private final ExpressionAssembler arrayExpr;
+
+	public WriteBulkArrayAssembler(WriteBulkArray writeArray, ExpressionAssembler arrayExpr) throws TypeException {
+		this.write = PrimitiveArrays.getWriteHandle(writeArray.dataClassArray().typeClass(),
+				writeArray.arrayDef());
+		this.arrayExpr = arrayExpr;
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+
+		// write(stream.output(), array)
+		MethodType writeType = context.loadHandle(write);
+		context.loadStream();
+		context.invokeVirtual(TypeOutputStream.class, "output", TypeBaseOutput.class);
+		context.convert(arrayExpr.assemble(context), writeType.parameterType(1));
+		return context.invokeExact(writeType);
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Typename;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.lang.WriteValue;
+
+public class WriteObjectAssembler implements StatementAssembler {
+
+	private final ExpressionAssembler expression;
+	private final Typename typename;
+
+	public WriteObjectAssembler(WriteValue writeType, ExpressionAssembler expression) {
+		this.expression = expression;
+		this.typename = writeType.type();
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+
+		context.loadStream();
+		context.loadConstant(typename, Typename.class);
+		context.convert(expression.assemble(context), Object.class);
+		context.invokeVirtual(TypeOutputStream.class, "writeObject", void.class, Typename.class, Object.class);
+		return void.class;
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.asm;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.lang.WriteRecordArray;
+import io.litterat.xpl.resolve.RecordColumns;
+
+public class WriteRecordArrayAssembler implements StatementAssembler {
+
+	private final MethodHandle write;
+	private final ExpressionAssembler arrayExpr;
+
+	public WriteRecordArrayAssembler(TypeMap typeMap, WriteRecordArray writeArray, ExpressionAssembler arrayExpr)
+			throws TypeException {
+		this.write = new RecordColumns(typeMap, writeArray.elementType(), writeArray.dataClassArray()).writeHandle();
+		this.arrayExpr = arrayExpr;
+	}
+
+	@Override
+	public Class<?> assemble(AssemblerContext context) throws TypeException {
+
+		// write(stream, array)
+		MethodType writeType = context.loadHandle(write);
+		context.loadStream();
+		context.convert(arrayExpr.assemble(context), writeType.parameterType(1));
+		return context.invokeExact(writeType);
+	}
+}
@@ -63,6 +63,29 @@ public class ConstructInstanceInterpreter implements ExpressionInterpreter {
 		return createInstance;
 	}
 
+	/**
+	 * Returns (p0, p1, ...) -> new X( toObject[0](p0), toObject[1](p1), ... ). Where the record offers a
+	 * direct constructor, values are passed through with their own types so primitives are not boxed.
+	 */
+	public static MethodHandle constructorHandle(DataClassRecord dataClass) {
+
+		MethodHandle[] toObject = collectToObject(dataClass);
+		MethodHandle direct = dataClass.directConstructor();
+		if (direct != null) {
+			for (int x = 0; x < toObject.length; x++) {
+				toObject[x] = toObject[x].asType(toObject[x].type().changeReturnType(direct.type().parameterType(x)));
+			}
+			return MethodHandles.filterArguments(direct, 0, toObject);
+		}
+
+		for (int x = 0; x < toObject.length; x++) {
+			toObject[x] = toObject[x].asType(toObject[x].type().changeReturnType(Object.class));
+		}
+
+		MethodHandle spread = dataClass.constructor().asCollector(Object[].class, toObject.length);
+		return MethodHandles.filterArguments(spread, 0, toObject);
+	}
+
 	public static MethodHandle[] collectToObject(DataClassRecord dataClass) {
 
 		MethodHandle[] toObject = new MethodHandle[dataClass.fields().length];
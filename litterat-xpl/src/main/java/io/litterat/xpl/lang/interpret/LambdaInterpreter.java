@@ -20,6 +20,7 @@ import io.litterat.xpl.TypeStream;
 import io.litterat.xpl.lang.Lambda;
 import io.litterat.xpl.lang.LambdaFunction;
 import io.litterat.xpl.lang.LitteratMachine;
+import io.litterat.xpl.lang.MachineStack;
 
 public class LambdaInterpreter implements LambdaFunction {
 
@@ -33,25 +34,63 @@ public class LambdaInterpreter implements LambdaFunction {
 
 	@Override
 	public Object execute(Object... args) throws TypeException {
-		try {
-			lambda.signature().arguments();
-			if (args.length != lambda.signature().arguments().length) {
-				throw new TypeException(String.format("incorrect arguments. Expected %s. Received %s ",
-						lambda.signature().arguments().length, args.length));
-			}
-			LitteratMachine machine = new LitteratMachine(((TypeStream) args[0]).typeMap(), this.lambda.slots());
+		checkArguments(args.length);
 
+		MachineStack stack = ((TypeStream) args[0]).machines();
+		LitteratMachine machine = stack.push(((TypeStream) args[0]).typeMap(), this.lambda.slots());
+		try {
 			// Set the arguments into variable slots in the machine.
-
 			for (int x = 0; x < args.length; x++) {
-
 				machine.setVariable(x, args[x]);
 			}
 
 			return this.expression.execute(machine);
+		} catch (Throwable e) {
+			throw new TypeException("Failed to execute lambda", e);
+		} finally {
+			stack.pop();
+		}
+	}
+
+	@Override
+	public Object execute(Object arg0) throws TypeException {
+		checkArguments(1);
 
+		MachineStack stack = ((TypeStream) arg0).machines();
+		LitteratMachine machine = stack.push(((TypeStream) arg0).typeMap(), this.lambda.slots());
+		try {
+			machine.setVariable(0, arg0);
+
+			return this.expression.execute(machine);
 		} catch (Throwable e) {
 			throw new TypeException("Failed to execute lambda", e);
+		} finally {
+			stack.pop();
+		}
+	}
+
+	@Override
+	public Object execute(Object arg0, Object arg1) throws TypeException {
+		checkArguments(2);
+
+		MachineStack stack = ((TypeStream) arg0).machines();
+		LitteratMachine machine = stack.push(((TypeStream) arg0).typeMap(), this.lambda.slots());
+		try {
+			machine.setVariable(0, arg0);
+			machine.setVariable(1, arg1);
+
+			return this.expression.execute(machine);
+		} catch (Throwable e) {
+			throw new TypeException("Failed to execute lambda", e);
+		} finally {
+			stack.pop();
+		}
+	}
+
+	private void checkArguments(int count) throws TypeException {
+		if (count != lambda.signature().arguments().length) {
+			throw new TypeException(String.format("incorrect arguments. Expected %s. Received %s ",
+					lambda.signature().arguments().length, count));
 		}
 	}
 
@@ -37,13 +37,18 @@ import io.litterat.xpl.lang.Lambda;
 import io.litterat.xpl.lang.LambdaFunction;
 import io.litterat.xpl.lang.Loop;
 import io.litterat.xpl.lang.ReadArray;
+import io.litterat.xpl.lang.ReadBulkArray;
+import io.litterat.xpl.lang.ReadRecordArray;
 import io.litterat.xpl.lang.ReadValue;
 import io.litterat.xpl.lang.ReturnNode;
+import io.litterat.xpl.lang.SkipValue;
 import io.litterat.xpl.lang.SlotReference;
 import io.litterat.xpl.lang.SlotSet;
 import io.litterat.xpl.lang.Statement;
 import io.litterat.xpl.lang.Value;
 import io.litterat.xpl.lang.WriteArray;
+import io.litterat.xpl.lang.WriteBulkArray;
+import io.litterat.xpl.lang.WriteRecordArray;
 import io.litterat.xpl.lang.WriteValue;
 
 import java.util.ArrayList;
@@ -100,6 +105,12 @@ public class LitteratInterpreter {
             case WriteArray loop ->
                     new WriteArrayInterpreter(loop, compileExpression(typeMap, loop.arrayExpression()),
                             compileStatement(typeMap, loop.writeStatement()));
+            case WriteBulkArray writeArray ->
+                    new WriteBulkArrayInterpreter(writeArray, compileExpression(typeMap, writeArray.arrayExpression()));
+            case WriteRecordArray writeArray ->
+                    new WriteRecordArrayInterpreter(typeMap, writeArray,
+                            compileExpression(typeMap, writeArray.arrayExpression()));
+            case SkipValue skipValue -> new SkipValueInterpreter(typeMap, skipValue);
             case null, default ->
                     throw new IllegalArgumentException("Statement type not recognised: " + statement.getClass().getName());
         };
@@ -150,6 +161,8 @@ public class LitteratInterpreter {
             }
             case ReadArray readArray -> new ReadArrayInterpreter(readArray,
                     compileExpression(typeMap, readArray.readExpression()));
+            case ReadBulkArray readArray -> new ReadBulkArrayInterpreter(readArray);
+            case ReadRecordArray readArray -> new ReadRecordArrayInterpreter(typeMap, readArray);
             case SlotReference slotReference -> new SlotReferenceInterpreter(slotReference);
             case Value value -> new ValueInterpreter(value);
             case null, default ->
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.interpret;
+
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeSkipper;
+import io.litterat.xpl.lang.LitteratMachine;
+import io.litterat.xpl.lang.SkipValue;
+import io.litterat.xpl.resolve.ValueSkipper;
+
+public class SkipValueInterpreter implements StatementInterpreter {
+
+	private final TypeSkipper skipper;
+
+	public SkipValueInterpreter(TypeMap typeMap, SkipValue skipValue) throws TypeException {
+		this.skipper = ValueSkipper.element(typeMap, skipValue.type());
+	}
+
+	@Override
+	public Object execute(LitteratMachine m) throws Throwable {
+		skipper.skip((TypeInputStream) m.getVariable(LitteratMachine.VAR_TRANSPORT));
+		return null;
+	}
+
+}
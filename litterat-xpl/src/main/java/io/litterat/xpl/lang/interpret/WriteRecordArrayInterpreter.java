@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.interpret;
+
+import java.lang.invoke.MethodHandle;
+
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.lang.LitteratMachine;
+import io.litterat.xpl.lang.WriteRecordArray;
+import io.litterat.xpl.resolve.RecordColumns;
+
+public class WriteRecordArrayInterpreter implements StatementInterpreter {
+
+	private final MethodHandle write;
+	private final ExpressionInterpreter arrayExpr;
+
+	public WriteRecordArrayInterpreter(TypeMap typeMap, WriteRecordArray writeArray, ExpressionInterpreter arrayExpr)
+			throws TypeException {
+		this.write = new RecordColumns(typeMap, writeArray.elementType(), writeArray.dataClassArray()).writeHandle();
+		this.arrayExpr = arrayExpr;
+	}
+
+	@Override
+	public Object execute(LitteratMachine m) throws Throwable {
+		Object arrayData = arrayExpr.execute(m);
+		write.invoke((TypeOutputStream) m.getVariable(LitteratMachine.VAR_TRANSPORT), arrayData);
+		return null;
+	}
+
+}
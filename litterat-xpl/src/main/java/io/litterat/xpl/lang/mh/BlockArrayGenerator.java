@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.mh;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.lang.LitteratMachine;
+
+public class BlockArrayGenerator implements ExpressionGenerator {
+
+	private final ExpressionGenerator[] statements;
+
+	public BlockArrayGenerator(ExpressionGenerator[] statements) {
+		this.statements = statements;
+	}
+
+	@Override
+	public MethodHandle bind(LitteratMachine am)
+			throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException, TypeException {
+
+		// (Object, Object, ...) -> new Object[] { ... }
+		MethodHandle result = MethodHandles.identity(Object[].class).asCollector(Object[].class, statements.length);
+
+		// (am, am, ...) -> new Object[] { statements[0].execute(am), ... }
+		for (int x = statements.length - 1; x >= 0; x--) {
+			result = MethodHandles.collectArguments(result, x,
+					statements[x].bind(am).asType(MethodType.methodType(Object.class, LitteratMachine.class)));
+		}
+
+		// (am) -> new Object[] { statements[0].execute(am), ... }
+		return MachineHandles.mergeMachine(result);
+	}
+}
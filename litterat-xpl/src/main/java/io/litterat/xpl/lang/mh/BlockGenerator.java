@@ -21,7 +21,6 @@ import java.lang.invoke.MethodType;
 
 import io.litterat.schema.TypeException;
 import io.litterat.xpl.lang.LitteratMachine;
-import io.litterat.xpl.lang.ReturnNode;
 
 public class BlockGenerator implements StatementGenerator {
 
@@ -35,22 +34,26 @@ public class BlockGenerator implements StatementGenerator {
 	public MethodHandle bind(LitteratMachine am)
 			throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException, TypeException {
 
+		MethodType voidType = MethodType.methodType(void.class, LitteratMachine.class);
+		if (statements.length == 0) {
+			return MethodHandles.empty(voidType);
+		}
+
 		// All statements must have the take a single param LitteratMachine.class and
 		// optionally return a value. Currently it is assumed the return value is at the
 		// end of the block. Any statements that are not ReturnNode that return a
 		// value are ignored.
-		MethodHandle statement = statements[0].bind(am);
-		for (int x = 1; x < statements.length; x++) {
-
-			MethodHandle h = statements[x].bind(am);
-
-			if (h.type().returnType() != void.class && !(statements[x] instanceof ReturnNode)) {
-				h = h.asType(MethodType.methodType(void.class, LitteratMachine.class));
-			}
-
-			statement = MethodHandles.foldArguments(h, statement);
+		int last = statements.length - 1;
+		MethodHandle statement = statements[last].bind(am);
+		if (!(statements[last] instanceof ReturnGenerator)) {
+			statement = statement.asType(voidType);
 		}
 
+		// (am) -> { statement[x].execute(am); statement[x+1].execute(am) ... }
+		for (int x = last - 1; x >= 0; x--) {
+			MethodHandle h = statements[x].bind(am).asType(voidType);
+			statement = MethodHandles.foldArguments(statement, h);
+		}
 		return statement;
 	}
 }
@@ -19,17 +19,19 @@ import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 
-import io.litterat.schema.TypeException;
 import io.litterat.bind.DataClass;
 import io.litterat.bind.DataClassRecord;
+import io.litterat.schema.TypeException;
 import io.litterat.xpl.TypeMap;
 import io.litterat.xpl.lang.ConstructInstance;
 import io.litterat.xpl.lang.LitteratMachine;
+import io.litterat.xpl.lang.interpret.ConstructInstanceInterpreter;
 
 public class ConstructInstanceGenerator implements ExpressionGenerator {
 
 	private final ConstructInstance createInstance;
 	private final ExpressionGenerator[] params;
+
 	private final MethodHandle constructor;
 
 	public ConstructInstanceGenerator(final TypeMap typeMap, final ConstructInstance createInstance,
@@ -38,30 +40,32 @@ public class ConstructInstanceGenerator implements ExpressionGenerator {
 		this.params = params;
 
 		DataClass dataClass = typeMap.context().getDescriptor(createInstance.type());
-		if (dataClass instanceof DataClassRecord) {
-			this.constructor = ((DataClassRecord) dataClass).constructor();
+		if (dataClass instanceof DataClassRecord dataClassRecord) {
+
+			// (p0, p1, ...) -> new X( toObject[0](p0), toObject[1](p1), ... )
+			this.constructor = ConstructInstanceInterpreter.constructorHandle(dataClassRecord);
 		} else {
 			throw new TypeException("Type not a record type");
 		}
-
 	}
 
 	@Override
 	public MethodHandle bind(LitteratMachine am)
 			throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException, TypeException {
 
-		for (int x = 0; x < params.length; x++) {
-			@SuppressWarnings("unused")
-			MethodHandle arg = params[x].bind(am);
+		// (am, am, ...) -> new X( params[0].execute(am), params[1].execute(am), ... )
+		MethodHandle result = constructor;
+		for (int x = params.length - 1; x >= 0; x--) {
+			MethodHandle param = params[x].bind(am)
+					.asType(MethodType.methodType(constructor.type().parameterType(x), LitteratMachine.class));
+			result = MethodHandles.collectArguments(result, x, param);
 		}
 
-		// (am) -> return new X();
-		return MethodHandles.permuteArguments(constructor,
-				MethodType.methodType(constructor.type().returnType(), LitteratMachine.class));
+		// (am) -> new X( params[0].execute(am), params[1].execute(am), ... )
+		return MachineHandles.mergeMachine(result);
 	}
 
 	public ConstructInstance createInstance() {
 		return createInstance;
 	}
-
 }
@@ -16,12 +16,15 @@
 package io.litterat.xpl.lang.mh;
 
 import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
 
 import io.litterat.schema.TypeException;
 import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeStream;
 import io.litterat.xpl.lang.Lambda;
 import io.litterat.xpl.lang.LambdaFunction;
 import io.litterat.xpl.lang.LitteratMachine;
+import io.litterat.xpl.lang.MachineStack;
 
 public class LambdaGenerator implements GeneratorNode, LambdaFunction {
 
@@ -44,7 +47,7 @@ public class LambdaGenerator implements GeneratorNode, LambdaFunction {
 
 		try {
 			LitteratMachine machine = new LitteratMachine(typeMap, this.lambda.slots());
-			this.compiled = bind(machine);
+			this.compiled = bind(machine).asType(MethodType.methodType(Object.class, LitteratMachine.class));
 		} catch (NoSuchFieldException | IllegalAccessException | NoSuchMethodException | TypeException e) {
 			throw new TypeException(e);
 		}
@@ -52,22 +55,63 @@ public class LambdaGenerator implements GeneratorNode, LambdaFunction {
 
 	@Override
 	public Object execute(Object... args) throws TypeException {
-		try {
-			if (args.length != lambda.signature().arguments().length) {
-				throw new TypeException(String.format("incorrect arguments. Expected %s. Received %s ",
-						lambda.signature().arguments().length, args.length));
-			}
-			LitteratMachine machine = new LitteratMachine((TypeMap) args[0], this.lambda.slots());
+		checkArguments(args.length);
 
+		MachineStack stack = ((TypeStream) args[0]).machines();
+		LitteratMachine machine = stack.push(((TypeStream) args[0]).typeMap(), this.lambda.slots());
+		try {
 			// Set the arguments into variable slots in the machine.
 			for (int x = 0; x < args.length; x++) {
 				machine.setVariable(x, args[x]);
 			}
 
-			return this.compiled.invoke(machine);
+			return (Object) this.compiled.invokeExact(machine);
+		} catch (Throwable e) {
+			throw new TypeException("Failed to execute lambda", e);
+		} finally {
+			stack.pop();
+		}
+	}
+
+	@Override
+	public Object execute(Object arg0) throws TypeException {
+		checkArguments(1);
+
+		MachineStack stack = ((TypeStream) arg0).machines();
+		LitteratMachine machine = stack.push(((TypeStream) arg0).typeMap(), this.lambda.slots());
+		try {
+			machine.setVariable(0, arg0);
 
+			return (Object) this.compiled.invokeExact(machine);
 		} catch (Throwable e) {
 			throw new TypeException("Failed to execute lambda", e);
+		} finally {
+			stack.pop();
+		}
+	}
+
+	@Override
+	public Object execute(Object arg0, Object arg1) throws TypeException {
+		checkArguments(2);
+
+		MachineStack stack = ((TypeStream) arg0).machines();
+		LitteratMachine machine = stack.push(((TypeStream) arg0).typeMap(), this.lambda.slots());
+		try {
+			machine.setVariable(0, arg0);
+			machine.setVariable(1, arg1);
+
+			return (Object) this.compiled.invokeExact(machine);
+		} catch (Throwable e) {
+			throw new TypeException("Failed to execute lambda", e);
+		} finally {
+			stack.pop();
+		}
+	}
+
+	private void checkArguments(int count) throws TypeException {
+		if (count != lambda.signature().arguments().length) {
+			throw new TypeException(String.format("incorrect arguments. Expected %s. Received %s ",
+					lambda.signature().arguments().length, count));
 		}
 	}
 
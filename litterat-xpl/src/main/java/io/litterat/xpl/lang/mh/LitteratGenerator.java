@@ -19,8 +19,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Array;
+import io.litterat.schema.meta.Atom;
+import io.litterat.schema.meta.Definition;
+import io.litterat.schema.meta.Record;
+import io.litterat.schema.meta.Typename;
+import io.litterat.schema.meta.Union;
+import io.litterat.schema.meta.atom.StringAtom;
 import io.litterat.xpl.TypeMap;
 import io.litterat.xpl.lang.Block;
+import io.litterat.xpl.lang.BlockArray;
 import io.litterat.xpl.lang.ConstructInstance;
 import io.litterat.xpl.lang.CreateInstance;
 import io.litterat.xpl.lang.Expression;
@@ -28,19 +36,30 @@ import io.litterat.xpl.lang.FieldRead;
 import io.litterat.xpl.lang.FieldSet;
 import io.litterat.xpl.lang.Lambda;
 import io.litterat.xpl.lang.LambdaFunction;
+import io.litterat.xpl.lang.Loop;
+import io.litterat.xpl.lang.ReadArray;
+import io.litterat.xpl.lang.ReadBulkArray;
+import io.litterat.xpl.lang.ReadRecordArray;
 import io.litterat.xpl.lang.ReadValue;
 import io.litterat.xpl.lang.ReturnNode;
+import io.litterat.xpl.lang.SkipValue;
 import io.litterat.xpl.lang.SlotReference;
 import io.litterat.xpl.lang.SlotSet;
 import io.litterat.xpl.lang.Statement;
 import io.litterat.xpl.lang.Value;
+import io.litterat.xpl.lang.WriteArray;
+import io.litterat.xpl.lang.WriteBulkArray;
+import io.litterat.xpl.lang.WriteRecordArray;
 import io.litterat.xpl.lang.WriteValue;
 
 public class LitteratGenerator {
+
 	public LambdaFunction compile(TypeMap typeMap, Lambda lambda)
 			throws NoSuchMethodException, IllegalAccessException, TypeException {
 
-		return new LambdaGenerator(lambda, compileBlock(typeMap, lambda.block()));
+		LambdaGenerator generator = new LambdaGenerator(lambda, compileBlock(typeMap, lambda.block()));
+		generator.compile(typeMap);
+		return generator;
 	}
 
 	private BlockGenerator compileBlock(TypeMap typeMap, Block block)
@@ -58,56 +77,78 @@ public class LitteratGenerator {
 	private StatementGenerator compileStatement(TypeMap typeMap, Statement statement)
 			throws NoSuchMethodException, IllegalAccessException, TypeException {
 
-		StatementGenerator compiledStatement = null;
-		if (statement instanceof FieldSet) {
-			FieldSet fieldSet = (FieldSet) statement;
-			compiledStatement = new FieldSetGenerator(fieldSet, compileExpression(typeMap, fieldSet.objectExpression()),
+		return switch (statement) {
+			case Block block -> compileBlock(typeMap, block);
+			case FieldSet fieldSet -> new FieldSetGenerator(fieldSet,
+					compileExpression(typeMap, fieldSet.objectExpression()),
 					compileExpression(typeMap, fieldSet.valueExpression()));
-		} else if (statement instanceof ReturnNode) {
-			ReturnNode retrn = (ReturnNode) statement;
-			compiledStatement = new ReturnGenerator(retrn, compileExpression(typeMap, retrn.expression()));
-		} else if (statement instanceof SlotSet) {
-			SlotSet slotSet = (SlotSet) statement;
-			compiledStatement = new SlotSetGenerator(slotSet, compileExpression(typeMap, slotSet.expression()));
-		} else if (statement instanceof WriteValue) {
-			WriteValue writeType = (WriteValue) statement;
-			compiledStatement = new WriteAtomGenerator(writeType, compileExpression(typeMap, writeType.expression()));
-		} else {
-			throw new IllegalArgumentException("Statement type not recognised: " + statement.getClass().getName());
-		}
-		return compiledStatement;
+			case ReturnNode returnNode ->
+				new ReturnGenerator(returnNode, compileExpression(typeMap, returnNode.expression()));
+			case SlotSet slotSet -> new SlotSetGenerator(slotSet, compileExpression(typeMap, slotSet.expression()));
+			case WriteValue writeType -> {
+				Definition def = typeMap.context().library().getDefinition(writeType.type());
+				yield switch (def) {
+					case Record _, Typename _, Union _, StringAtom _, Array _ ->
+						new WriteObjectGenerator(writeType, compileExpression(typeMap, writeType.expression()));
+					case Atom _ -> new WriteAtomGenerator(writeType, compileExpression(typeMap, writeType.expression()));
+					case null, default -> throw new IllegalArgumentException("Write type not recognised: " + def);
+				};
+			}
+			case Loop loop -> new LoopGenerator(loop, compileExpression(typeMap, loop.arrayExpression()),
+					compileStatement(typeMap, loop.loopStatement()));
+			case WriteArray loop -> new WriteArrayGenerator(loop, compileExpression(typeMap, loop.arrayExpression()),
+					compileStatement(typeMap, loop.writeStatement()));
+			case WriteBulkArray writeArray ->
+				new WriteBulkArrayGenerator(writeArray, compileExpression(typeMap, writeArray.arrayExpression()));
+			case WriteRecordArray writeArray ->
+				new WriteRecordArrayGenerator(typeMap, writeArray,
+						compileExpression(typeMap, writeArray.arrayExpression()));
+			case SkipValue skipValue -> new SkipValueGenerator(typeMap, skipValue);
+			case null, default ->
+				throw new IllegalArgumentException("Statement type not recognised: " + statement.getClass().getName());
+		};
 	}
 
 	private ExpressionGenerator compileExpression(TypeMap typeMap, Expression expression)
 			throws NoSuchMethodException, IllegalAccessException, TypeException {
-		ExpressionGenerator compiledExpression = null;
 
-		if (expression instanceof ConstructInstance) {
-			ConstructInstance createInstance = (ConstructInstance) expression;
-			ExpressionGenerator[] args = new ExpressionGenerator[createInstance.parameters().length];
-			for (int x = 0; x < args.length; x++) {
-				args[x] = compileExpression(typeMap, createInstance.parameters()[x]);
+		return switch (expression) {
+			case ConstructInstance createInstance -> {
+				ExpressionGenerator[] args = new ExpressionGenerator[createInstance.parameters().length];
+				for (int x = 0; x < args.length; x++) {
+					args[x] = compileExpression(typeMap, createInstance.parameters()[x]);
+				}
+				yield new ConstructInstanceGenerator(typeMap, createInstance, args);
 			}
-			compiledExpression = new ConstructInstanceGenerator(typeMap, createInstance, args);
-		} else if (expression instanceof CreateInstance) {
-			CreateInstance createInstance = (CreateInstance) expression;
-			compiledExpression = new CreateInstanceGenerator(typeMap, createInstance);
-		} else if (expression instanceof FieldRead) {
-			FieldRead fieldRead = (FieldRead) expression;
-			compiledExpression = new FieldReadGenerator(fieldRead, compileExpression(typeMap, fieldRead.expression()));
-		} else if (expression instanceof ReadValue) {
-			ReadValue readType = (ReadValue) expression;
-			compiledExpression = new ReadAtomGenerator(readType);
-		} else if (expression instanceof SlotReference) {
-			SlotReference slotReference = (SlotReference) expression;
-			compiledExpression = new SlotReferenceGenerator(slotReference);
-		} else if (expression instanceof Value) {
-			Value value = (Value) expression;
-			compiledExpression = new ValueGenerator(value);
-		} else {
-			throw new IllegalArgumentException("Expression type not recognised: " + expression.getClass().getName());
-		}
+			case CreateInstance createInstance -> new CreateInstanceGenerator(typeMap, createInstance);
+			case BlockArray blockArray -> {
+				ExpressionGenerator[] args = new ExpressionGenerator[blockArray.statements().length];
+				for (int x = 0; x < args.length; x++) {
+					args[x] = compileExpression(typeMap, blockArray.statements()[x]);
+				}
+				yield new BlockArrayGenerator(args);
+			}
+			case FieldRead fieldRead ->
+				new FieldReadGenerator(fieldRead, compileExpression(typeMap, fieldRead.expression()));
+			case ReadValue readType -> {
+				// Make sure the descriptor has been resolved prior to reading.
+				typeMap.context().getDescriptor(readType.type());
 
-		return compiledExpression;
+				Definition def = typeMap.context().library().getDefinition(readType.type());
+				yield switch (def) {
+					case Record _, Typename _, Union _, StringAtom _, Array _ -> new ReadObjectGenerator(readType);
+					case Atom _ -> new ReadAtomGenerator(readType);
+					case null, default -> throw new IllegalArgumentException("Read type not recognised: " + def);
+				};
+			}
+			case ReadArray readArray ->
+				new ReadArrayGenerator(readArray, compileExpression(typeMap, readArray.readExpression()));
+			case ReadBulkArray readArray -> new ReadBulkArrayGenerator(readArray);
+			case ReadRecordArray readArray -> new ReadRecordArrayGenerator(typeMap, readArray);
+			case SlotReference slotReference -> new SlotReferenceGenerator(slotReference);
+			case Value value -> new ValueGenerator(value);
+			case null, default ->
+				throw new IllegalArgumentException("Expression type not recognised: " + expression.getClass().getName());
+		};
 	}
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.mh;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.lang.LitteratMachine;
+import io.litterat.xpl.lang.Loop;
+
+public class LoopGenerator implements StatementGenerator {
+
+	private final Loop loop;
+	private final ExpressionGenerator arrayExpr;
+	private final StatementGenerator loopStatement;
+
+	public LoopGenerator(Loop loop, ExpressionGenerator arrayExpr, StatementGenerator loopStatement) {
+		this.loop = loop;
+		this.arrayExpr = arrayExpr;
+		this.loopStatement = loopStatement;
+	}
+
+	@Override
+	public MethodHandle bind(LitteratMachine am)
+			throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException, TypeException {
+
+		// (am, array, i) -> am.setVariable( valSlot, array[i] )
+		MethodHandle setter = MachineHandles.setVariable(am, loop.valSlot());
+		MethodHandle set = MethodHandles.collectArguments(setter, 1, MethodHandles.arrayElementGetter(Object[].class)
+				.asType(MethodType.methodType(setter.type().parameterType(1), Object[].class, int.class)));
+
+		// (i, am, array) -> am.setVariable( valSlot, array[i] )
+		set = MethodHandles.permuteArguments(set,
+				MethodType.methodType(void.class, int.class, LitteratMachine.class, Object[].class), 1, 2, 0);
+
+		// (i, am, array) -> loopStatement.execute(am)
+		MethodHandle statement = loopStatement.bind(am)
+				.asType(MethodType.methodType(void.class, LitteratMachine.class));
+		statement = MethodHandles.dropArguments(statement, 0, int.class);
+		statement = MethodHandles.dropArguments(statement, 2, Object[].class);
+
+		// (i, am, array) -> { am.setVariable( valSlot, array[i] ); loopStatement.execute(am); }
+		MethodHandle body = MethodHandles.foldArguments(statement, set);
+
+		// (am, array) -> array.length
+		MethodHandle iterations = MethodHandles.dropArguments(MethodHandles.arrayLength(Object[].class), 0,
+				LitteratMachine.class);
+
+		// (am, array) -> for (int i=0; i<array.length; i++) { ... }
+		MethodHandle forLoop = MethodHandles.countedLoop(iterations, null, body);
+
+		// (am) -> array = (Object[]) arrayExpr.execute(am); for (...) { ... }
+		MethodHandle array = arrayExpr.bind(am).asType(MethodType.methodType(Object[].class, LitteratMachine.class));
+		return MachineHandles.mergeMachine(MethodHandles.collectArguments(forLoop, 1, array));
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.mh;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.litterat.xpl.TypeBaseInput;
+import io.litterat.xpl.TypeBaseOutput;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.lang.LitteratMachine;
+
+/**
+ * Common MethodHandles used by the generator nodes to access the LitteratMachine.
+ */
+final class MachineHandles {
+
+	private static final MethodHandle GET_VARIABLE;
+	private static final MethodHandle SET_VARIABLE;
+	private static final Map<Class<?>, MethodHandle> GET_PRIMITIVE = new HashMap<>();
+	private static final Map<Class<?>, MethodHandle> SET_PRIMITIVE = new HashMap<>();
+	private static final MethodHandle STREAM_INPUT;
+	private static final MethodHandle STREAM_OUTPUT;
+
+	static {
+		try {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+			GET_VARIABLE = lookup.findVirtual(LitteratMachine.class, "getVariable",
+					MethodType.methodType(Object.class, int.class));
+			SET_VARIABLE = lookup.findVirtual(LitteratMachine.class, "setVariable",
+					MethodType.methodType(void.class, int.class, Object.class));
+			for (Class<?> type : new Class<?>[] { int.class, long.class, boolean.class, float.class, double.class }) {
+				String name = Character.toUpperCase(type.getName().charAt(0)) + type.getName().substring(1);
+				GET_PRIMITIVE.put(type,
+						lookup.findVirtual(LitteratMachine.class, "get" + name, MethodType.methodType(type, int.class)));
+				SET_PRIMITIVE.put(type, lookup.findVirtual(LitteratMachine.class, "set" + name,
+						MethodType.methodType(void.class, int.class, type)));
+			}
+			STREAM_INPUT = lookup.findVirtual(TypeInputStream.class, "input",
+					MethodType.methodType(TypeBaseInput.class));
+			STREAM_OUTPUT = lookup.findVirtual(TypeOutputStream.class, "output",
+					MethodType.methodType(TypeBaseOutput.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private MachineHandles() {
+	}
+
+	// (am) -> am.getVariable( slot )
+	static MethodHandle getVariable(int slot) {
+		return MethodHandles.insertArguments(GET_VARIABLE, 1, slot);
+	}
+
+	// (am) -> am.getX( slot ) where X is the primitive storage of the slot type or Object.
+	static MethodHandle getVariable(LitteratMachine am, int slot) {
+		Class<?> type = am.getVariableType(slot);
+		if (!type.isPrimitive()) {
+			return getVariable(slot);
+		}
+
+		MethodHandle getter = GET_PRIMITIVE.get(storage(type));
+		return MethodHandles.explicitCastArguments(MethodHandles.insertArguments(getter, 1, slot),
+				MethodType.methodType(type, LitteratMachine.class));
+	}
+
+	// (am, value) -> am.setVariable( slot, value )
+	static MethodHandle setVariable(int slot) {
+		return MethodHandles.insertArguments(SET_VARIABLE, 1, slot);
+	}
+
+	// (am, value) -> am.setX( slot, value ) where X is the primitive storage of the slot type or Object.
+	static MethodHandle setVariable(LitteratMachine am, int slot) {
+		Class<?> type = am.getVariableType(slot);
+		if (!type.isPrimitive()) {
+			return setVariable(slot);
+		}
+
+		MethodHandle setter = SET_PRIMITIVE.get(storage(type));
+		return MethodHandles.insertArguments(setter, 1, slot)
+				.asType(MethodType.methodType(void.class, LitteratMachine.class, type));
+	}
+
+	// byte, short and char are held in int storage.
+	private static Class<?> storage(Class<?> type) {
+		return (type == byte.class || type == short.class || type == char.class) ? int.class : type;
+	}
+
+	// (am) -> (TypeInputStream) am.getVariable( VAR_TRANSPORT )
+	static MethodHandle inputStream() {
+		return getVariable(LitteratMachine.VAR_TRANSPORT)
+				.asType(MethodType.methodType(TypeInputStream.class, LitteratMachine.class));
+	}
+
+	// (am) -> (TypeOutputStream) am.getVariable( VAR_TRANSPORT )
+	static MethodHandle outputStream() {
+		return getVariable(LitteratMachine.VAR_TRANSPORT)
+				.asType(MethodType.methodType(TypeOutputStream.class, LitteratMachine.class));
+	}
+
+	// (am) -> ((TypeInputStream) am.getVariable( VAR_TRANSPORT )).input()
+	static MethodHandle input() {
+		return MethodHandles.filterReturnValue(inputStream(), STREAM_INPUT);
+	}
+
+	// (am) -> ((TypeOutputStream) am.getVariable( VAR_TRANSPORT )).output()
+	static MethodHandle output() {
+		return MethodHandles.filterReturnValue(outputStream(), STREAM_OUTPUT);
+	}
+
+	// Combine a handle taking count LitteratMachine arguments into one taking a single LitteratMachine.
+	static MethodHandle mergeMachine(MethodHandle handle) {
+		int count = handle.type().parameterCount();
+		if (count == 0) {
+			return MethodHandles.dropArguments(handle, 0, LitteratMachine.class);
+		}
+		return MethodHandles.permuteArguments(handle,
+				MethodType.methodType(handle.type().returnType(), LitteratMachine.class), new int[count]);
+	}
+}
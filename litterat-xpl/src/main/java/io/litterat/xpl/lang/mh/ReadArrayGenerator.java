@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.mh;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import io.litterat.bind.DataClassArray;
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeBaseInput;
+import io.litterat.xpl.lang.LitteratMachine;
+import io.litterat.xpl.lang.ReadArray;
+
+public class ReadArrayGenerator implements ExpressionGenerator {
+
+	private final DataClassArray arrayClass;
+	private final ExpressionGenerator readElement;
+
+	public ReadArrayGenerator(ReadArray readArray, ExpressionGenerator readElement) {
+		this.arrayClass = readArray.dataClassArray();
+		this.readElement = readElement;
+	}
+
+	@Override
+	public MethodHandle bind(LitteratMachine am)
+			throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException, TypeException {
+
+		// (length) -> new A[length]
+		MethodHandle constructor = arrayClass.constructor();
+		Class<?> arrayType = constructor.type().returnType();
+
+		// (arrayData) -> iterator
+		MethodHandle iterator = arrayClass.iterator();
+		iterator = iterator.asType(iterator.type().changeParameterType(0, arrayType));
+		Class<?> iteratorType = iterator.type().returnType();
+
+		// (arrayData, iterator, value) -> put( arrayData, iterator, value )
+		MethodHandle put = arrayClass.put();
+		put = put.asType(MethodType.methodType(void.class, arrayType, iteratorType, put.type().parameterType(2)));
+
+		// (arrayData, iterator, am) -> put( arrayData, iterator, readElement.execute(am) )
+		MethodHandle putElement = MethodHandles.collectArguments(put, 2, readElement.bind(am)
+				.asType(MethodType.methodType(put.type().parameterType(2), LitteratMachine.class)));
+
+		// (i, am, length, arrayData, iterator) -> put( arrayData, iterator, readElement.execute(am) )
+		MethodHandle body = MethodHandles.permuteArguments(putElement, MethodType.methodType(void.class, int.class,
+				LitteratMachine.class, int.class, arrayType, iteratorType), 3, 4, 1);
+
+		// (am, length, arrayData, iterator) -> length
+		MethodHandle iterations = MethodHandles.dropArguments(MethodHandles.identity(int.class), 0,
+				LitteratMachine.class);
+		iterations = MethodHandles.dropArguments(iterations, 2, arrayType, iteratorType);
+
+		// (am, length, arrayData, iterator) -> for (int i=0; i<length; i++) { ... }
+		MethodHandle forLoop = MethodHandles.countedLoop(iterations, null, body);
+
+		// (am, length, arrayData, iterator) -> { for (...) { ... }; return arrayData; }
+		MethodHandle result = MethodHandles.dropArguments(MethodHandles.identity(arrayType), 0,
+				LitteratMachine.class, int.class);
+		result = MethodHandles.dropArguments(result, 3, iteratorType);
+		result = MethodHandles.foldArguments(result, forLoop);
+
+		// (am, length, arrayData) -> iterator = iterator( arrayData ); ...
+		result = MethodHandles.collectArguments(result, 3, iterator);
+		result = MethodHandles.permuteArguments(result,
+				MethodType.methodType(arrayType, LitteratMachine.class, int.class, arrayType), 0, 1, 2, 2);
+
+		// (am, length) -> arrayData = new A[length]; ...
+		result = MethodHandles.collectArguments(result, 2, constructor);
+		result = MethodHandles.permuteArguments(result,
+				MethodType.methodType(arrayType, LitteratMachine.class, int.class), 0, 1, 1);
+
+		// (am) -> length = in.readUVarInt32(); ...
+		MethodHandle readLength = MethodHandles.lookup().findVirtual(TypeBaseInput.class, "readUVarInt32",
+				MethodType.methodType(int.class));
+		result = MethodHandles.collectArguments(result, 1,
+				MethodHandles.filterReturnValue(MachineHandles.input(), readLength));
+		return MachineHandles.mergeMachine(result);
+	}
+}
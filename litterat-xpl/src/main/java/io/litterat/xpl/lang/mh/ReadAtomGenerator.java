@@ -17,10 +17,8 @@ package io.litterat.xpl.lang.mh;
 
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
-import java.lang.invoke.MethodType;
 
 import io.litterat.schema.TypeException;
-import io.litterat.xpl.TypeBaseInput;
 import io.litterat.xpl.lang.LitteratMachine;
 import io.litterat.xpl.lang.ReadValue;
 import io.litterat.xpl.resolve.TransportHandles;
@@ -37,18 +35,7 @@ public class ReadAtomGenerator implements ExpressionGenerator {
 	public MethodHandle bind(LitteratMachine machine)
 			throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException {
 
-		// (machine, slot) -> am.getVariable( slot )
-		MethodHandle varGetter = MethodHandles.lookup().findVirtual(LitteratMachine.class, "getVariable",
-				MethodType.methodType(Object.class, int.class));
-
-		// () -> return VAR_TRANSPORT
-		MethodHandle av = MethodHandles.constant(int.class, LitteratMachine.VAR_TRANSPORT);
-
-		// (machine) -> (TypeBaseInput) am.getVariable( VAR_TRANSPORT );
-		MethodHandle in = MethodHandles.collectArguments(varGetter, 1, av)
-				.asType(MethodType.methodType(TypeBaseInput.class, LitteratMachine.class));
-
-		// (machine) -> ((TypeBaseInput) am.getVariable( VAR_TRANSPORT )).readX();
-		return MethodHandles.collectArguments(readType, 0, in);
+		// (machine) -> ((TypeInputStream) am.getVariable( VAR_TRANSPORT )).input().readX();
+		return MethodHandles.filterReturnValue(MachineHandles.input(), readType);
 	}
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.mh;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import io.litterat.schema.meta.Typename;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.lang.LitteratMachine;
+import io.litterat.xpl.lang.ReadValue;
+
+public class ReadObjectGenerator implements ExpressionGenerator {
+
+	private final Typename typename;
+
+	public ReadObjectGenerator(ReadValue readType) {
+		this.typename = readType.type();
+	}
+
+	@Override
+	public MethodHandle bind(LitteratMachine am)
+			throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException {
+
+		// (in, typename) -> in.readObject( typename )
+		MethodHandle readObject = MethodHandles.lookup().findVirtual(TypeInputStream.class, "readObject",
+				MethodType.methodType(Object.class, Typename.class));
+
+		// (in) -> in.readObject( typename )
+		MethodHandle read = MethodHandles.insertArguments(readObject, 1, typename);
+
+		// (am) -> ((TypeInputStream) am.getVariable( VAR_TRANSPORT )).readObject( typename )
+		return MethodHandles.filterReturnValue(MachineHandles.inputStream(), read);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2003-2020, Live Media Pty. Ltd. All Rights Reserved.
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,6 @@
 package io.litterat.xpl.lang.mh;
 
 import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.MethodType;
 
 import io.litterat.xpl.lang.LitteratMachine;
 import io.litterat.xpl.lang.SlotReference;
@@ -34,15 +32,7 @@ public class SlotReferenceGenerator implements ExpressionGenerator {
 	public MethodHandle bind(LitteratMachine am)
 			throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException {
 
-		// (am, slot) -> am.getVariable( slot );
-		MethodHandle varGetter = MethodHandles.lookup().findVirtual(LitteratMachine.class, "getVariable",
-				MethodType.methodType(Object.class, int.class));
-
-		// () -> return variable;
-		MethodHandle av = MethodHandles.constant(int.class, slotReference.variable());
-
 		// (am) -> am.getVariable( variable );
-		return MethodHandles.collectArguments(varGetter, 1, av);
+		return MachineHandles.getVariable(am, slotReference.variable());
 	}
-
 }
@@ -40,21 +40,14 @@ public class SlotSetGenerator implements StatementGenerator {
 		// (am) -> return express.execute(am)
 		MethodHandle expr = expression.bind(am);
 
-		// (am, int, Object) -> am.setVariable( int, Object);
-		MethodHandle varSetter = MethodHandles.lookup().findVirtual(LitteratMachine.class, "setVariable",
-				MethodType.methodType(void.class, new Class[] { int.class, Object.class }));
-
-		// () -> return variable;
-		MethodHandle av = MethodHandles.constant(int.class, slotSet.variable());
-
 		// (am, Object) -> am.setVariable( variable, Object );
-		MethodHandle setPos = MethodHandles.collectArguments(varSetter, 1, av);
+		MethodHandle setPos = MachineHandles.setVariable(am, slotSet.variable());
 
 		// (am1, am2) -> am1.setVariable( variable, expression.execute(am2) );
 		MethodHandle result = MethodHandles.collectArguments(setPos, 1,
-				expr.asType(MethodType.methodType(Object.class, LitteratMachine.class)));
+				expr.asType(MethodType.methodType(setPos.type().parameterType(1), LitteratMachine.class)));
 
 		// (am) -> am.setVariable( variable, expression.execute(am) );
-		return MethodHandles.permuteArguments(result, MethodType.methodType(void.class, LitteratMachine.class), 0, 0);
+		return MachineHandles.mergeMachine(result);
 	}
 }
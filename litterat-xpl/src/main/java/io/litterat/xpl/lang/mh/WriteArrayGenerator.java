@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.mh;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import io.litterat.bind.DataClassArray;
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeBaseOutput;
+import io.litterat.xpl.lang.LitteratMachine;
+import io.litterat.xpl.lang.WriteArray;
+
+public class WriteArrayGenerator implements StatementGenerator {
+
+	private final WriteArray writeArray;
+	private final ExpressionGenerator arrayExpr;
+	private final StatementGenerator writeElement;
+
+	public WriteArrayGenerator(WriteArray writeArray, ExpressionGenerator arrayExpr, StatementGenerator writeElement) {
+		this.writeArray = writeArray;
+		this.arrayExpr = arrayExpr;
+		this.writeElement = writeElement;
+	}
+
+	@Override
+	public MethodHandle bind(LitteratMachine am)
+			throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException, TypeException {
+
+		DataClassArray arrayClass = writeArray.dataClassArray();
+
+		// (arrayData) -> size
+		MethodHandle size = arrayClass.size();
+		Class<?> arrayType = size.type().parameterType(0);
+		size = size.asType(MethodType.methodType(int.class, arrayType));
+
+		// (arrayData) -> iterator
+		MethodHandle iterator = arrayClass.iterator();
+		iterator = iterator.asType(iterator.type().changeParameterType(0, arrayType));
+		Class<?> iteratorType = iterator.type().returnType();
+
+		// (arrayData, iterator) -> value
+		MethodHandle setter = MachineHandles.setVariable(am, writeArray.valueSlot());
+		MethodHandle get = arrayClass.get()
+				.asType(MethodType.methodType(setter.type().parameterType(1), arrayType, iteratorType));
+
+		// (am, arrayData, iterator) -> am.setVariable( valueSlot, get( arrayData, iterator ) )
+		MethodHandle set = MethodHandles.collectArguments(setter, 1, get);
+
+		// (am, arrayData, iterator) -> writeElement.execute(am)
+		MethodHandle element = writeElement.bind(am).asType(MethodType.methodType(void.class, LitteratMachine.class));
+		element = MethodHandles.dropArguments(element, 1, arrayType, iteratorType);
+
+		// (i, am, length, arrayData, iterator) -> { am.setVariable( ... ); writeElement.execute(am); }
+		MethodHandle body = MethodHandles.foldArguments(element, set);
+		body = MethodHandles.dropArguments(body, 1, int.class);
+		body = MethodHandles.dropArguments(body, 0, int.class);
+
+		// (am, length, arrayData, iterator) -> length
+		MethodHandle iterations = MethodHandles.dropArguments(MethodHandles.identity(int.class), 0,
+				LitteratMachine.class);
+		iterations = MethodHandles.dropArguments(iterations, 2, arrayType, iteratorType);
+
+		// (am, length, arrayData, iterator) -> for (int i=0; i<length; i++) { ... }
+		MethodHandle result = MethodHandles.countedLoop(iterations, null, body);
+
+		// (am, length, ...) -> { out.writeUVarInt32( length ); for (...) { ... } }
+		MethodHandle writeLength = MethodHandles.lookup().findVirtual(TypeBaseOutput.class, "writeUVarInt32",
+				MethodType.methodType(void.class, int.class));
+		result = MethodHandles.foldArguments(result,
+				MethodHandles.collectArguments(writeLength, 0, MachineHandles.output()));
+
+		// (am, length, arrayData) -> iterator = iterator( arrayData ); ...
+		result = MethodHandles.collectArguments(result, 3, iterator);
+		result = MethodHandles.permuteArguments(result,
+				MethodType.methodType(void.class, LitteratMachine.class, int.class, arrayType), 0, 1, 2, 2);
+
+		// (am, arrayData) -> length = size( arrayData ); ...
+		result = MethodHandles.collectArguments(result, 1, size);
+		result = MethodHandles.permuteArguments(result,
+				MethodType.methodType(void.class, LitteratMachine.class, arrayType), 0, 1, 1);
+
+		// (am) -> arrayData = arrayExpr.execute(am); ...
+		result = MethodHandles.collectArguments(result, 1,
+				arrayExpr.bind(am).asType(MethodType.methodType(arrayType, LitteratMachine.class)));
+		return MachineHandles.mergeMachine(result);
+	}
+}
@@ -20,7 +20,6 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 
 import io.litterat.schema.TypeException;
-import io.litterat.xpl.TypeBaseOutput;
 import io.litterat.xpl.lang.LitteratMachine;
 import io.litterat.xpl.lang.WriteValue;
 import io.litterat.xpl.resolve.TransportHandles;
@@ -40,29 +39,17 @@ public class WriteAtomGenerator implements StatementGenerator {
 	public MethodHandle bind(LitteratMachine am)
 			throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException, TypeException {
 
-		// am.getVariable( int.class );
-		MethodHandle varGetter = MethodHandles.lookup().findVirtual(LitteratMachine.class, "getVariable",
-				MethodType.methodType(Object.class, int.class));
+		// (am) -> expressionNode.execute( am )
+		MethodHandle value = expression.bind(am)
+				.asType(MethodType.methodType(writeType.type().parameterType(1), LitteratMachine.class));
 
-		// constant VAR_TRANSPORT
-		MethodHandle av = MethodHandles.constant(int.class, LitteratMachine.VAR_TRANSPORT);
+		// (output, am) -> output.writeX( expressionNode.execute(am) );
+		MethodHandle expr = MethodHandles.collectArguments(writeType, 1, value);
 
-		// (TypeBaseOutput) (am (LitteratMachine)).getVariable( VAR_TRANSPORT );
-		MethodHandle out = MethodHandles.collectArguments(varGetter, 1, av)
-				.asType(MethodType.methodType(TypeBaseOutput.class, LitteratMachine.class));
+		// (am, am) -> am.getVariable( VAR_TRANSPORT ).output().writeX( expressionNode.execute( am ) );
+		MethodHandle write = MethodHandles.collectArguments(expr, 0, MachineHandles.output());
 
-		// output.writeX( expressionNode.execute(am) );
-		MethodHandle expr = MethodHandles.collectArguments(writeType, 1, expression.bind(am));
-
-		// (am,am) -> (am (LitteratMachine)).getVariable( VAR_TRANSPORT ).writeX(
-		// expressionNode.execute( am );
-		MethodHandle write = MethodHandles.collectArguments(expr, 0, out);
-
-		// (am) -> (am (LitteratMachine)).getVariable( VAR_TRANSPORT ).writeX(
-		// expressionNode.execute( am );
-		MethodHandle result = MethodHandles.permuteArguments(write,
-				MethodType.methodType(void.class, LitteratMachine.class), 0, 0);
-
-		return result;
+		// (am) -> am.getVariable( VAR_TRANSPORT ).output().writeX( expressionNode.execute( am ) );
+		return MachineHandles.mergeMachine(write);
 	}
 }
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.mh;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Typename;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.lang.LitteratMachine;
+import io.litterat.xpl.lang.WriteValue;
+
+public class WriteObjectGenerator implements StatementGenerator {
+
+	private final ExpressionGenerator expression;
+	private final Typename typename;
+
+	public WriteObjectGenerator(WriteValue writeType, ExpressionGenerator expression) {
+		this.expression = expression;
+		this.typename = writeType.type();
+	}
+
+	@Override
+	public MethodHandle bind(LitteratMachine am)
+			throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException, TypeException {
+
+		// (out, typename, object) -> out.writeObject( typename, object )
+		MethodHandle writeObject = MethodHandles.lookup().findVirtual(TypeOutputStream.class, "writeObject",
+				MethodType.methodType(void.class, Typename.class, Object.class));
+
+		// (out, am) -> out.writeObject( typename, expression.execute(am) )
+		MethodHandle write = MethodHandles.collectArguments(MethodHandles.insertArguments(writeObject, 1, typename),
+				1, expression.bind(am).asType(MethodType.methodType(Object.class, LitteratMachine.class)));
+
+		// (am) -> ((TypeOutputStream) am.getVariable( VAR_TRANSPORT )).writeObject( typename, expression.execute(am) )
+		return MachineHandles.mergeMachine(MethodHandles.collectArguments(write, 0, MachineHandles.outputStream()));
+	}
+}
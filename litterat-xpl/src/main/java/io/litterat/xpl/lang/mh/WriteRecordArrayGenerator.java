@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.lang.mh;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+import io.litterat.schema.TypeException;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.lang.LitteratMachine;
+import io.litterat.xpl.lang.WriteRecordArray;
+import io.litterat.xpl.resolve.RecordColumns;
+
+public class WriteRecordArrayGenerator implements StatementGenerator {
+
+	private final MethodHandle write;
+	private final ExpressionGenerator arrayExpr;
+
+	public WriteRecordArrayGenerator(TypeMap typeMap, WriteRecordArray writeArray, ExpressionGenerator arrayExpr)
+			throws TypeException {
+		this.write = new RecordColumns(typeMap, writeArray.elementType(), writeArray.dataClassArray()).writeHandle();
+		this.arrayExpr = arrayExpr;
+	}
+
+	@Override
+	public MethodHandle bind(LitteratMachine am)
+			throws NoSuchFieldException, IllegalAccessException, NoSuchMethodException, TypeException {
+
+		// (am) -> arrayExpr.execute( am )
+		MethodHandle value = arrayExpr.bind(am).asType(MethodType.methodType(Object.class, LitteratMachine.class));
+
+		// (stream, am) -> write( stream, arrayExpr.execute(am) );
+		MethodHandle expr = MethodHandles.collectArguments(write, 1, value);
+
+		// (am, am) -> write( am.getVariable( VAR_TRANSPORT ), arrayExpr.execute( am ) );
+		MethodHandle result = MethodHandles.collectArguments(expr, 0, MachineHandles.outputStream());
+
+		// (am) -> write( am.getVariable( VAR_TRANSPORT ), arrayExpr.execute( am ) );
+		return MachineHandles.mergeMachine(result);
+	}
+}
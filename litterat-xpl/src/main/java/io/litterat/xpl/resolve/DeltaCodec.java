@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.resolve;
+
+import java.io.IOException;
+
+import io.litterat.xpl.TypeBaseInput;
+import io.litterat.xpl.TypeBaseOutput;
+
+/**
+ * Writes the length followed by the first element and the difference between each element and the
+ * one before as zig-zag varints. Differences wrap, so any array round trips. Sorted or slowly
+ * changing arrays such as timestamps and sequence numbers become one or two bytes per element.
+ */
+public class DeltaCodec implements IntegerArrayCodec {
+
+	@Override
+	public void write(TypeBaseOutput output, int[] values) throws IOException {
+		output.writeUVarInt32(values.length);
+		int previous = 0;
+		for (int value : values) {
+			output.writeVarInt32(value - previous);
+			previous = value;
+		}
+	}
+
+	@Override
+	public void write(TypeBaseOutput output, long[] values) throws IOException {
+		output.writeUVarInt32(values.length);
+		long previous = 0;
+		for (long value : values) {
+			output.writeVarInt64(value - previous);
+			previous = value;
+		}
+	}
+
+	@Override
+	public int[] readInt32s(TypeBaseInput input) throws IOException {
+		int[] values = new int[PrimitiveArrays.readLength(input, 1)];
+		int previous = 0;
+		for (int x = 0; x < values.length; x++) {
+			previous += input.readVarInt32();
+			values[x] = previous;
+		}
+		return values;
+	}
+
+	@Override
+	public long[] readInt64s(TypeBaseInput input) throws IOException {
+		long[] values = new long[PrimitiveArrays.readLength(input, 1)];
+		long previous = 0;
+		for (int x = 0; x < values.length; x++) {
+			previous += input.readVarInt64();
+			values[x] = previous;
+		}
+		return values;
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.resolve;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import io.litterat.xpl.TypeBaseInput;
+import io.litterat.xpl.TypeBaseOutput;
+
+/**
+ * Writes the length followed by blocks of up to 128 elements. Each block is its smallest element as
+ * a zig-zag varint, a byte with the number of bits needed for the largest offset from it, then the
+ * offset of every element packed into that many bits, least significant bit first. A block of equal
+ * elements is just its reference and a zero width.
+ */
+public class FrameOfReferenceCodec implements IntegerArrayCodec {
+
+	private static final int BLOCK = 128;
+
+	private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class,
+			ByteOrder.LITTLE_ENDIAN);
+
+	// Codecs are shared, so each thread packs into its own block sized buffer. A full width block is
+	// 1024 bytes and is padded so a word can be read or written at any byte of it.
+	private static final ThreadLocal<byte[]> PACKED = ThreadLocal.withInitial(() -> new byte[BLOCK * 8 + 9]);
+
+	@Override
+	public void write(TypeBaseOutput output, int[] values) throws IOException {
+		output.writeUVarInt32(values.length);
+
+		long[] offsets = new long[BLOCK];
+		for (int start = 0; start < values.length; start += BLOCK) {
+			int count = Math.min(BLOCK, values.length - start);
+			int min = values[start];
+			for (int x = 1; x < count; x++) {
+				min = Math.min(min, values[start + x]);
+			}
+
+			// Offsets of int elements fit in 32 bits.
+			for (int x = 0; x < count; x++) {
+				offsets[x] = (long) values[start + x] - min;
+			}
+			output.writeVarInt32(min);
+			writeBlock(output, offsets, count);
+		}
+	}
+
+	@Override
+	public void write(TypeBaseOutput output, long[] values) throws IOException {
+		output.writeUVarInt32(values.length);
+
+		long[] offsets = new long[BLOCK];
+		for (int start = 0; start < values.length; start += BLOCK) {
+			int count = Math.min(BLOCK, values.length - start);
+			long min = values[start];
+			for (int x = 1; x < count; x++) {
+				min = Math.min(min, values[start + x]);
+			}
+
+			// Offsets are unsigned and may use all 64 bits.
+			for (int x = 0; x < count; x++) {
+				offsets[x] = values[start + x] - min;
+			}
+			output.writeVarInt64(min);
+			writeBlock(output, offsets, count);
+		}
+	}
+
+	@Override
+	public int[] readInt32s(TypeBaseInput input) throws IOException {
+		int[] values = new int[PrimitiveArrays.readLength(input, 0)];
+
+		long[] offsets = new long[BLOCK];
+		for (int start = 0; start < values.length; start += BLOCK) {
+			int count = Math.min(BLOCK, values.length - start);
+			int min = input.readVarInt32();
+			readBlock(input, offsets, count);
+			for (int x = 0; x < count; x++) {
+				values[start + x] = (int) (min + offsets[x]);
+			}
+		}
+		return values;
+	}
+
+	@Override
+	public long[] readInt64s(TypeBaseInput input) throws IOException {
+		long[] values = new long[PrimitiveArrays.readLength(input, 0)];
+
+		long[] offsets = new long[BLOCK];
+		for (int start = 0; start < values.length; start += BLOCK) {
+			int count = Math.min(BLOCK, values.length - start);
+			long min = input.readVarInt64();
+			readBlock(input, offsets, count);
+			for (int x = 0; x < count; x++) {
+				values[start + x] = min + offsets[x];
+			}
+		}
+		return values;
+	}
+
+	private static void writeBlock(TypeBaseOutput output, long[] offsets, int count) throws IOException {
+		long bits = 0;
+		for (int x = 0; x < count; x++) {
+			bits |= offsets[x];
+		}
+		int width = 64 - Long.numberOfLeadingZeros(bits);
+		output.writeUInt8((short) width);
+		if (width == 0) {
+			return;
+		}
+
+		// Offsets are added to a word which is stored little endian each time it fills, so the bytes
+		// are the same as packing least significant bit first.
+		byte[] packed = PACKED.get();
+		int position = 0;
+		long word = 0;
+		int filled = 0;
+		for (int x = 0; x < count; x++) {
+			long offset = offsets[x];
+			word |= offset << filled;
+			filled += width;
+			if (filled >= 64) {
+				LONG.set(packed, position, word);
+				position += 8;
+				filled -= 64;
+				word = filled == 0 ? 0 : offset >>> (width - filled);
+			}
+		}
+		LONG.set(packed, position, word);
+		output.writeBytes(packed, 0, (count * width + 7) >>> 3);
+	}
+
+	private static void readBlock(TypeBaseInput input, long[] offsets, int count) throws IOException {
+		int width = input.readUInt8();
+		if (width > 64) {
+			throw new IOException("Invalid frame of reference width: " + width);
+		}
+		if (width == 0) {
+			Arrays.fill(offsets, 0, count, 0);
+			return;
+		}
+
+		// Bytes past the block are left from earlier blocks but are masked off.
+		byte[] packed = PACKED.get();
+		input.readBytes(packed, 0, (count * width + 7) >>> 3);
+		long mask = -1L >>> (64 - width);
+		int position = 0;
+		for (int x = 0; x < count; x++) {
+			int index = position >>> 3;
+			int shift = position & 7;
+			long offset = (long) LONG.get(packed, index) >>> shift;
+			if (shift + width > 64) {
+				offset |= (long) (packed[index + 8] & 0xff) << (64 - shift);
+			}
+			offsets[x] = offset & mask;
+			position += width;
+		}
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.resolve;
+
+import java.io.IOException;
+
+import io.litterat.xpl.TypeBaseInput;
+import io.litterat.xpl.TypeBaseOutput;
+
+/**
+ * Encodes int32 and int64 arrays with an ArrayEncoding. Each array is written with its length so it
+ * can be read back without any other information. Codecs are registered with PrimitiveArrays.
+ */
+public interface IntegerArrayCodec {
+
+	public void write(TypeBaseOutput output, int[] values) throws IOException;
+
+	public void write(TypeBaseOutput output, long[] values) throws IOException;
+
+	public int[] readInt32s(TypeBaseInput input) throws IOException;
+
+	public long[] readInt64s(TypeBaseInput input) throws IOException;
+}
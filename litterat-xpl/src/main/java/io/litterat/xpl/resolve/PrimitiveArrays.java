@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.resolve;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.litterat.bind.DataClassArray;
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Array;
+import io.litterat.schema.meta.ArrayEncoding;
+import io.litterat.schema.meta.Meta;
+import io.litterat.schema.meta.Typename;
+import io.litterat.xpl.TypeBaseInput;
+import io.litterat.xpl.TypeBaseOutput;
+
+/**
+ * Bulk encoding of primitive arrays. An int[], long[], float[] or double[] whose element type is the
+ * matching atom is written as a uvarint length followed by the elements. The encoding is always the
+ * same as writing each element in turn, so the wire only depends on the schema and not on the class
+ * used by the writer. Float and double elements are fixed width and are copied as one block, int32
+ * and int64 elements are zig-zag varints written in a single loop, the same encoding TransportHandles
+ * uses for the int32 and int64 atoms.
+ *
+ * An int32 or int64 array with an encoding in its definition is written by the IntegerArrayCodec
+ * registered for the encoding instead. Encoded arrays must be bound to int[] or long[].
+ */
+public class PrimitiveArrays {
+
+	/**
+	 * Largest array length accepted from the peer. Inputs which know their size also reject a length
+	 * that would need more bytes than are left.
+	 */
+	public static final int MAX_LENGTH = 1 << 26;
+
+	private static final Lookup lookup = MethodHandles.lookup();
+
+	private static final Map<Class<?>, Typename> elementTypes = new HashMap<>();
+	private static final Map<Class<?>, MethodHandle> readHandles = new HashMap<>();
+	private static final Map<Class<?>, MethodHandle> writeHandles = new HashMap<>();
+
+	private static final Map<Class<? extends ArrayEncoding>, IntegerArrayCodec> codecs = new ConcurrentHashMap<>();
+
+	static {
+		try {
+			register(Meta.INT32, int[].class, "readInt32s");
+			register(Meta.INT64, long[].class, "readInt64s");
+			register(Meta.FLOAT, float[].class, "readFloats");
+			register(Meta.DOUBLE, double[].class, "readDoubles");
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			// not expecting an exception here.
+			e.printStackTrace();
+		}
+
+		codecs.put(ArrayEncoding.ArrayDelta.class, new DeltaCodec());
+		codecs.put(ArrayEncoding.ArrayFrameOfReference.class, new FrameOfReferenceCodec());
+		codecs.put(ArrayEncoding.ArrayStreamVByte.class, new StreamVByteCodec());
+	}
+
+	private static void register(Typename elementType, Class<?> arrayClass, String readName)
+			throws NoSuchMethodException, IllegalAccessException {
+		elementTypes.put(arrayClass, elementType);
+		readHandles.put(arrayClass, lookup.findStatic(PrimitiveArrays.class, readName,
+				MethodType.methodType(arrayClass, TypeBaseInput.class)));
+		writeHandles.put(arrayClass, lookup.findStatic(PrimitiveArrays.class, "write",
+				MethodType.methodType(void.class, TypeBaseOutput.class, arrayClass)));
+	}
+
+	private PrimitiveArrays() {
+	}
+
+	/**
+	 * Returns true if the array can be written in bulk.
+	 */
+	public static boolean isBulk(DataClassArray dataArray, Typename elementType) {
+		return elementType.equals(elementTypes.get(dataArray.typeClass()));
+	}
+
+	/**
+	 * Returns true if the array can be written in bulk. Encoded arrays must be written in bulk, a
+	 * TypeException is thrown if the class can not be.
+	 */
+	public static boolean isBulk(DataClassArray dataArray, Array array) throws TypeException {
+		boolean bulk = isBulk(dataArray, array.type());
+		if (isEncoded(array) && (!bulk || !isInteger(array.type()))) {
+			throw new TypeException(String.format("Encoded array of %s must be bound to int[] or long[], found %s",
+					array.type(), dataArray.typeClass().getName()));
+		}
+		return bulk;
+	}
+
+	public static boolean isEncoded(Array array) {
+		return array.encoding() != null && array.encoding().length > 0;
+	}
+
+	private static boolean isInteger(Typename elementType) {
+		return elementType.equals(Meta.INT32) || elementType.equals(Meta.INT64);
+	}
+
+	/**
+	 * Replace the codec used for arrays with the encoding.
+	 */
+	public static void registerCodec(Class<? extends ArrayEncoding> encoding, IntegerArrayCodec codec) {
+		codecs.put(encoding, codec);
+	}
+
+	/**
+	 * Returns the codec of the array's encoding.
+	 */
+	public static IntegerArrayCodec getCodec(Array array) throws TypeException {
+		if (array.encoding().length != 1) {
+			throw new TypeException("Array must have a single encoding: " + array);
+		}
+		IntegerArrayCodec codec = codecs.get(array.encoding()[0].getClass());
+		if (codec == null) {
+			throw new TypeException("No codec for array encoding: " + array.encoding()[0].getClass().getName());
+		}
+		return codec;
+	}
+
+	/**
+	 * Returns a handle of type (TypeBaseOutput, A[])void which writes the length and elements using
+	 * the encoding of the array definition.
+	 */
+	public static MethodHandle getWriteHandle(Class<?> arrayClass, Array array) throws TypeException {
+		if (!isEncoded(array)) {
+			return getWriteHandle(arrayClass);
+		}
+		try {
+			return lookup.findVirtual(IntegerArrayCodec.class, "write",
+					MethodType.methodType(void.class, TypeBaseOutput.class, arrayClass)).bindTo(getCodec(array));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new TypeException("No encoded write for array: " + arrayClass.getName(), e);
+		}
+	}
+
+	/**
+	 * Returns a handle of type (TypeBaseInput)A[] which reads the length and elements using the
+	 * encoding of the array definition.
+	 */
+	public static MethodHandle getReadHandle(Class<?> arrayClass, Array array) throws TypeException {
+		if (!isEncoded(array)) {
+			return getReadHandle(arrayClass);
+		}
+		String readName = arrayClass == int[].class ? "readInt32s" : "readInt64s";
+		try {
+			return lookup.findVirtual(IntegerArrayCodec.class, readName,
+					MethodType.methodType(arrayClass, TypeBaseInput.class)).bindTo(getCodec(array));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new TypeException("No encoded read for array: " + arrayClass.getName(), e);
+		}
+	}
+
+	/**
+	 * Returns a handle of type (TypeBaseOutput, A[])void which writes the length and elements.
+	 */
+	public static MethodHandle getWriteHandle(Class<?> arrayClass) throws TypeException {
+		MethodHandle handle = writeHandles.get(arrayClass);
+		if (handle == null) {
+			throw new TypeException("No bulk write for array: " + arrayClass.getName());
+		}
+		return handle;
+	}
+
+	/**
+	 * Returns a handle of type (TypeBaseInput)A[] which reads the length and elements.
+	 */
+	public static MethodHandle getReadHandle(Class<?> arrayClass) throws TypeException {
+		MethodHandle handle = readHandles.get(arrayClass);
+		if (handle == null) {
+			throw new TypeException("No bulk read for array: " + arrayClass.getName());
+		}
+		return handle;
+	}
+
+	public static void write(TypeBaseOutput output, int[] values) throws IOException {
+		output.writeUVarInt32(values.length);
+		for (int value : values) {
+			output.writeVarInt32(value);
+		}
+	}
+
+	public static void write(TypeBaseOutput output, long[] values) throws IOException {
+		output.writeUVarInt32(values.length);
+		for (long value : values) {
+			output.writeVarInt64(value);
+		}
+	}
+
+	public static void write(TypeBaseOutput output, float[] values) throws IOException {
+		output.writeUVarInt32(values.length);
+		output.writeFloats(values, 0, values.length);
+	}
+
+	public static void write(TypeBaseOutput output, double[] values) throws IOException {
+		output.writeUVarInt32(values.length);
+		output.writeDoubles(values, 0, values.length);
+	}
+
+	/**
+	 * Read an array length written by the peer. A length which is negative, larger than MAX_LENGTH or
+	 * which needs more than the remaining bytes at minBytes per element throws an IOException rather
+	 * than allocating the array.
+	 */
+	public static int readLength(TypeBaseInput input, int minBytes) throws IOException {
+		int length = input.readUVarInt32();
+		if (length < 0 || length > MAX_LENGTH) {
+			throw new IOException("Array length out of range: " + Integer.toUnsignedString(length));
+		}
+		if ((long) length * minBytes > input.remaining()) {
+			throw new IOException(String.format("Array length %d exceeds the %d bytes remaining", length,
+					input.remaining()));
+		}
+		return length;
+	}
+
+	public static int[] readInt32s(TypeBaseInput input) throws IOException {
+		int[] values = new int[readLength(input, 1)];
+		for (int x = 0; x < values.length; x++) {
+			values[x] = input.readVarInt32();
+		}
+		return values;
+	}
+
+	public static long[] readInt64s(TypeBaseInput input) throws IOException {
+		long[] values = new long[readLength(input, 1)];
+		for (int x = 0; x < values.length; x++) {
+			values[x] = input.readVarInt64();
+		}
+		return values;
+	}
+
+	public static float[] readFloats(TypeBaseInput input) throws IOException {
+		float[] values = new float[readLength(input, 4)];
+		input.readFloats(values, 0, values.length);
+		return values;
+	}
+
+	public static double[] readDoubles(TypeBaseInput input) throws IOException {
+		double[] values = new double[readLength(input, 8)];
+		input.readDoubles(values, 0, values.length);
+		return values;
+	}
+}
@@ -0,0 +1,483 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.resolve;
+
+import io.litterat.bind.DataClass;
+import io.litterat.bind.DataClassArray;
+import io.litterat.bind.DataClassField;
+import io.litterat.bind.DataClassRecord;
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Array;
+import io.litterat.schema.meta.Definition;
+import io.litterat.schema.meta.Element;
+import io.litterat.schema.meta.Field;
+import io.litterat.schema.meta.Meta;
+import io.litterat.schema.meta.Record;
+import io.litterat.schema.meta.Typename;
+import io.litterat.xpl.TypeBaseInput;
+import io.litterat.xpl.TypeBaseOutput;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeMapEntry;
+import io.litterat.xpl.TypeOutputStream;
+import io.litterat.xpl.TypeReader;
+import io.litterat.xpl.TypeSkipper;
+import io.litterat.xpl.lang.interpret.ConstructInstanceInterpreter;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Writes and reads arrays whose elements are records. By default an array is its length followed by
+ * each element with its stream id, as for any other array. When columns are enabled on the stream the
+ * length is followed by the element stream id once, then the values of the first field of every
+ * element, then the second field and so on. Float and double columns are written as one fixed width
+ * block. Columns of primitive int and long fields are written from the record without boxing, each
+ * value in the encoding of its atom so the layout is the same for every column of that atom.
+ *
+ * Columns written with the local definition are read into primitive arrays and each row constructed
+ * with the constructor handle used by the compiled record readers. Columns written with an evolved
+ * definition are read with a ResolvingReader, so elements are resolved in the same way as rows.
+ */
+public class RecordColumns {
+
+	private final TypeMap typeMap;
+	private final Typename elementType;
+
+	// Null when only used to skip.
+	private final DataClassArray dataArray;
+
+	// Column writers of the local element class, compiled on first use.
+	private volatile ColumnWriter[] writers;
+
+	// Reader and skippers of the element stream id last read, compiled on first use.
+	private volatile ColumnReader columnReader;
+
+	private interface ColumnWriter {
+		void write(TypeOutputStream stream, Object[] rows) throws Throwable;
+	}
+
+	private interface ColumnRows {
+		Object[] read(TypeInputStream stream, int length) throws IOException;
+	}
+
+	private interface ColumnRead {
+		Object read(TypeInputStream stream, int length) throws Throwable;
+	}
+
+	private record ColumnReader(int streamId, ColumnRows rows, TypeSkipper[] skippers) {}
+
+	public RecordColumns(TypeMap typeMap, Typename elementType, DataClassArray dataArray) {
+		this.typeMap = typeMap;
+		this.elementType = elementType;
+		this.dataArray = dataArray;
+	}
+
+	/**
+	 * Returns true if arrays of the element type are written by RecordColumns.
+	 */
+	public static boolean isRecordArray(TypeMap typeMap, Element element) throws TypeException {
+		return element instanceof Array array && array.type() instanceof Typename type
+				&& typeMap.context().getDefinition(type) instanceof Record;
+	}
+
+	public Typename elementType() {
+		return elementType;
+	}
+
+	/**
+	 * Returns write bound to this instance, (TypeOutputStream, Object)void.
+	 */
+	public MethodHandle writeHandle() throws TypeException {
+		try {
+			return MethodHandles.lookup()
+					.findVirtual(RecordColumns.class, "write",
+							MethodType.methodType(void.class, TypeOutputStream.class, Object.class))
+					.bindTo(this);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new TypeException("Failed to bind columns writer", e);
+		}
+	}
+
+	/**
+	 * Returns read bound to this instance, (TypeInputStream)Object.
+	 */
+	public MethodHandle readHandle() throws TypeException {
+		try {
+			return MethodHandles.lookup()
+					.findVirtual(RecordColumns.class, "read", MethodType.methodType(Object.class, TypeInputStream.class))
+					.bindTo(this);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new TypeException("Failed to bind columns reader", e);
+		}
+	}
+
+	public void write(TypeOutputStream stream, Object arrayData) throws IOException {
+		try {
+			int length = (int) dataArray.size().invoke(arrayData);
+			Object iterator = dataArray.iterator().invoke(arrayData);
+			stream.output().writeUVarInt32(length);
+
+			if (!stream.columns()) {
+				for (int x = 0; x < length; x++) {
+					stream.writeObject(elementType, dataArray.get().invoke(arrayData, iterator));
+				}
+				return;
+			}
+			if (length == 0) {
+				return;
+			}
+
+			Object[] rows = new Object[length];
+			Class<?> elementClass = dataArray.arrayDataClass().typeClass();
+			for (int x = 0; x < length; x++) {
+				rows[x] = dataArray.get().invoke(arrayData, iterator);
+				if (rows[x] == null || rows[x].getClass() != elementClass) {
+					throw new IOException("Columns require non null elements of class " + elementClass.getName());
+				}
+			}
+
+			// The element stream id follows any definitions it needs.
+			int streamId = stream.getStreamIdentifier(elementType);
+			stream.output().writeUVarInt32(streamId);
+			for (ColumnWriter writer : writers()) {
+				writer.write(stream, rows);
+			}
+		} catch (IOException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IOException("Failed to write array of " + elementType, e);
+		}
+	}
+
+	public Object read(TypeInputStream stream) throws IOException {
+		try {
+			int length = stream.input().readUVarInt32();
+			Object arrayData = dataArray.constructor().invoke(length);
+			Object iterator = dataArray.iterator().invoke(arrayData);
+
+			if (!stream.columns()) {
+				for (int x = 0; x < length; x++) {
+					dataArray.put().invoke(arrayData, iterator, stream.readObject(elementType));
+				}
+				return arrayData;
+			}
+			if (length == 0) {
+				return arrayData;
+			}
+
+			Object[] rows = columnReader(stream.readStreamIdentifier()).rows().read(stream, length);
+			for (int x = 0; x < length; x++) {
+				dataArray.put().invoke(arrayData, iterator, rows[x]);
+			}
+			return arrayData;
+		} catch (IOException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IOException("Failed to read array of " + elementType, e);
+		}
+	}
+
+	public void skip(TypeInputStream stream) throws IOException {
+		int length = stream.input().readUVarInt32();
+		if (!stream.columns()) {
+			for (int x = 0; x < length; x++) {
+				stream.skipValue(elementType);
+			}
+			return;
+		}
+		if (length == 0) {
+			return;
+		}
+
+		for (TypeSkipper skipper : columnReader(stream.readStreamIdentifier()).skippers()) {
+			for (int x = 0; x < length; x++) {
+				skipper.skip(stream);
+			}
+		}
+	}
+
+	private ColumnReader columnReader(int streamId) throws IOException {
+		ColumnReader result = columnReader;
+		if (result == null || result.streamId() != streamId) {
+			TypeMapEntry entry = typeMap.getEntry(streamId);
+			if (entry == null || !entry.typename().equals(elementType)) {
+				throw new IOException("wrong type on stream: expected " + elementType + " found: " + streamId);
+			}
+
+			try {
+				if (!(entry.definition() instanceof Record writer)) {
+					throw new IOException("Columns require a record definition: " + elementType);
+				}
+
+				ColumnRows rows = null;
+				if (dataArray != null && entry.dataClass() instanceof DataClassRecord dataClass
+						&& typeMap.context().getDefinition(elementType) instanceof Record local) {
+					rows = writer.equals(local) ? rows(writer, dataClass)
+							: ResolvingReader.resolution(typeMap, writer, dataClass, local)::readColumns;
+				}
+
+				Field[] fields = writer.fields();
+				TypeSkipper[] skippers = new TypeSkipper[fields.length];
+				for (int x = 0; x < fields.length; x++) {
+					skippers[x] = ValueSkipper.element(typeMap, fields[x].type());
+				}
+
+				result = new ColumnReader(streamId, rows, skippers);
+				columnReader = result;
+			} catch (TypeException e) {
+				throw new IOException("Failed to compile columns of " + elementType, e);
+			}
+		}
+		return result;
+	}
+
+	// Reads each column into an array, primitive where the field allows, then constructs every row from
+	// the columns with a handle of (Object[] columns, int row) -> new X( columns[0][row], ... ).
+	private ColumnRows rows(Record writer, DataClassRecord dataClass) throws TypeException {
+		Field[] fields = writer.fields();
+		DataClassField[] dataFields = dataClass.fields();
+		MethodHandle constructor = ConstructInstanceInterpreter.constructorHandle(dataClass);
+
+		ColumnRead[] columns = new ColumnRead[fields.length];
+		MethodHandle row = constructor;
+		for (int x = fields.length - 1; x >= 0; x--) {
+			Class<?> type = constructor.type().parameterType(x);
+			Class<?> columnClass = columnClass(fields[x].type(), type);
+			columns[x] = column(fields[x].type(), dataFields[x].dataClass(), columnClass);
+
+			// (Object[] columns, int row) -> ((type[]) columns[x])[row]
+			MethodHandle column = MethodHandles.insertArguments(MethodHandles.arrayElementGetter(Object[].class), 1, x)
+					.asType(MethodType.methodType(columnClass, Object[].class));
+			MethodHandle cell = MethodHandles.filterArguments(MethodHandles.arrayElementGetter(columnClass), 0, column);
+			row = MethodHandles.collectArguments(row, x, cell.asType(cell.type().changeReturnType(type)));
+		}
+
+		// Every cell takes the same columns and row.
+		int[] reorder = new int[fields.length * 2];
+		for (int x = 0; x < fields.length; x++) {
+			reorder[x * 2 + 1] = 1;
+		}
+		MethodType rowType = MethodType.methodType(Object.class, Object[].class, int.class);
+		MethodHandle construct = MethodHandles.permuteArguments(row.asType(row.type().changeReturnType(Object.class)),
+				rowType, reorder);
+
+		return (stream, length) -> {
+			try {
+				Object[] values = new Object[columns.length];
+				for (int x = 0; x < columns.length; x++) {
+					values[x] = columns[x].read(stream, length);
+				}
+
+				Object[] rows = new Object[length];
+				for (int x = 0; x < length; x++) {
+					rows[x] = (Object) construct.invokeExact(values, x);
+				}
+				return rows;
+			} catch (IOException e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new IOException("Failed to read columns of " + elementType, e);
+			}
+		};
+	}
+
+	// Array class a column is read into. Float and double columns are fixed width blocks, int and long
+	// columns are primitive where their atom is read as the constructor parameter type.
+	private Class<?> columnClass(Element element, Class<?> type) throws TypeException {
+		if ((type == double.class && Meta.DOUBLE.equals(element))
+				|| (type == float.class && Meta.FLOAT.equals(element))) {
+			return type.arrayType();
+		}
+		if ((type == int.class || type == long.class) && element instanceof Typename typename
+				&& ValueSkipper.isAtom(typeMap, typename)
+				&& TransportHandles.getInputHandle(typename).type().returnType() == type) {
+			return type.arrayType();
+		}
+		return Object[].class;
+	}
+
+	private ColumnRead column(Element element, DataClass dataClass, Class<?> columnClass) throws TypeException {
+		if (columnClass == double[].class) {
+			return (stream, length) -> {
+				double[] column = new double[length];
+				stream.input().readDoubles(column, 0, length);
+				return column;
+			};
+		} else if (columnClass == float[].class) {
+			return (stream, length) -> {
+				float[] column = new float[length];
+				stream.input().readFloats(column, 0, length);
+				return column;
+			};
+		} else if (columnClass == int[].class) {
+			MethodHandle read = TransportHandles.getInputHandle((Typename) element)
+					.asType(MethodType.methodType(int.class, TypeBaseInput.class));
+			return (stream, length) -> {
+				TypeBaseInput input = stream.input();
+				int[] column = new int[length];
+				for (int x = 0; x < length; x++) {
+					column[x] = (int) read.invokeExact(input);
+				}
+				return column;
+			};
+		} else if (columnClass == long[].class) {
+			MethodHandle read = TransportHandles.getInputHandle((Typename) element)
+					.asType(MethodType.methodType(long.class, TypeBaseInput.class));
+			return (stream, length) -> {
+				TypeBaseInput input = stream.input();
+				long[] column = new long[length];
+				for (int x = 0; x < length; x++) {
+					column[x] = (long) read.invokeExact(input);
+				}
+				return column;
+			};
+		}
+
+		TypeReader reader = ResolvingReader.reader(typeMap, element, dataClass);
+		return (stream, length) -> {
+			Object[] column = new Object[length];
+			for (int x = 0; x < length; x++) {
+				column[x] = reader.read(stream);
+			}
+			return column;
+		};
+	}
+
+	private ColumnWriter[] writers() throws TypeException {
+		ColumnWriter[] result = writers;
+		if (result == null) {
+			if (!(dataArray.arrayDataClass() instanceof DataClassRecord dataClass)
+					|| dataClass.bridge().isPresent()) {
+				throw new TypeException("Columns require an unbridged record class: " + elementType);
+			}
+			Definition definition = typeMap.context().getDefinition(elementType);
+			if (!(definition instanceof Record record)) {
+				throw new TypeException("Columns require a record definition: " + elementType);
+			}
+
+			Field[] fields = record.fields();
+			result = new ColumnWriter[fields.length];
+			for (int x = 0; x < fields.length; x++) {
+				result[x] = column(dataClass, fields[x]);
+			}
+			writers = result;
+		}
+		return result;
+	}
+
+	private ColumnWriter column(DataClassRecord dataClass, Field field) throws TypeException {
+		MethodHandle getter = ModelHelper.resolveFieldGetter(dataClass, field.name());
+		Class<?> type = getter.type().returnType();
+		MethodHandle get = getter.asType(MethodType.methodType(Object.class, Object.class));
+
+		if (type == double.class) {
+			MethodHandle value = getter.asType(MethodType.methodType(double.class, Object.class));
+			return (stream, rows) -> {
+				double[] column = new double[rows.length];
+				for (int x = 0; x < rows.length; x++) {
+					column[x] = (double) value.invokeExact(rows[x]);
+				}
+				stream.output().writeDoubles(column, 0, column.length);
+			};
+		} else if (type == float.class) {
+			MethodHandle value = getter.asType(MethodType.methodType(float.class, Object.class));
+			return (stream, rows) -> {
+				float[] column = new float[rows.length];
+				for (int x = 0; x < rows.length; x++) {
+					column[x] = (float) value.invokeExact(rows[x]);
+				}
+				stream.output().writeFloats(column, 0, column.length);
+			};
+		} else if ((type == int.class || type == long.class) && field.type() instanceof Typename typename
+				&& ValueSkipper.isAtom(typeMap, typename)
+				&& TransportHandles.getOutputHandle(typename).type().parameterType(1) == type) {
+			MethodHandle write = TransportHandles.getOutputHandle(typename)
+					.asType(MethodType.methodType(void.class, TypeBaseOutput.class, type));
+			if (type == int.class) {
+				MethodHandle value = getter.asType(MethodType.methodType(int.class, Object.class));
+				return (stream, rows) -> {
+					TypeBaseOutput output = stream.output();
+					for (Object row : rows) {
+						write.invokeExact(output, (int) value.invokeExact(row));
+					}
+				};
+			}
+			MethodHandle value = getter.asType(MethodType.methodType(long.class, Object.class));
+			return (stream, rows) -> {
+				TypeBaseOutput output = stream.output();
+				for (Object row : rows) {
+					write.invokeExact(output, (long) value.invokeExact(row));
+				}
+			};
+		}
+
+		DataClass fieldClass = null;
+		for (DataClassField dataField : dataClass.fields()) {
+			if (dataField.name().equals(field.name())) {
+				fieldClass = dataField.dataClass();
+			}
+		}
+		ValueWriter writer = writer(field.type(), fieldClass);
+		return (stream, rows) -> {
+			for (Object row : rows) {
+				writer.write(stream, get.invoke(row));
+			}
+		};
+	}
+
+	private interface ValueWriter {
+		void write(TypeOutputStream stream, Object value) throws Throwable;
+	}
+
+	// Writes a value as the compiled record writer would write the field.
+	private ValueWriter writer(Element element, DataClass dataClass) throws TypeException {
+		if (element instanceof Typename typename) {
+			if (ValueSkipper.isAtom(typeMap, typename)) {
+				MethodHandle write = TransportHandles.getOutputHandle(typename);
+				MethodHandle generic = write.asType(
+						MethodType.methodType(void.class, TypeBaseOutput.class, Object.class));
+				return (stream, value) -> {
+					generic.invokeExact(stream.output(), value);
+				};
+			}
+			return (stream, value) -> stream.writeObject(typename, value);
+		} else if (element instanceof Array array && dataClass instanceof DataClassArray fieldArray) {
+			if (PrimitiveArrays.isBulk(fieldArray, array)) {
+				MethodHandle write = PrimitiveArrays.getWriteHandle(fieldArray.typeClass(), array);
+				return (stream, value) -> write.invoke(stream.output(), value);
+			}
+			if (isRecordArray(typeMap, array)) {
+				RecordColumns nested = new RecordColumns(typeMap, array.type(), fieldArray);
+				return nested::write;
+			}
+
+			ValueWriter elementWriter = writer(array.type(), fieldArray.arrayDataClass());
+			return (stream, value) -> {
+				int length = (int) fieldArray.size().invoke(value);
+				Object iterator = fieldArray.iterator().invoke(value);
+				stream.output().writeUVarInt32(length);
+				for (int x = 0; x < length; x++) {
+					elementWriter.write(stream, fieldArray.get().invoke(value, iterator));
+				}
+			};
+		}
+
+		throw new TypeException("Unable to write column of " + element);
+	}
+}
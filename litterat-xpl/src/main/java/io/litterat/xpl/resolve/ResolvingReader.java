@@ -0,0 +1,409 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.resolve;
+
+import io.litterat.bind.DataClass;
+import io.litterat.bind.DataClassArray;
+import io.litterat.bind.DataClassField;
+import io.litterat.bind.DataClassRecord;
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Array;
+import io.litterat.schema.meta.Element;
+import io.litterat.schema.meta.Field;
+import io.litterat.schema.meta.FunctionSignature;
+import io.litterat.schema.meta.Meta;
+import io.litterat.schema.meta.Record;
+import io.litterat.schema.meta.Typename;
+import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeMapEntry;
+import io.litterat.xpl.TypeReader;
+import io.litterat.xpl.TypeSkipper;
+import io.litterat.xpl.TypeStream;
+import io.litterat.xpl.lang.Block;
+import io.litterat.xpl.lang.ConstructInstance;
+import io.litterat.xpl.lang.Expression;
+import io.litterat.xpl.lang.Lambda;
+import io.litterat.xpl.lang.ReadArray;
+import io.litterat.xpl.lang.ReadBulkArray;
+import io.litterat.xpl.lang.ReadRecordArray;
+import io.litterat.xpl.lang.ReadValue;
+import io.litterat.xpl.lang.ReturnNode;
+import io.litterat.xpl.lang.SkipValue;
+import io.litterat.xpl.lang.SlotAssigner;
+import io.litterat.xpl.lang.SlotReference;
+import io.litterat.xpl.lang.SlotSet;
+import io.litterat.xpl.lang.Statement;
+import io.litterat.xpl.lang.Value;
+import io.litterat.xpl.lang.interpret.ConstructInstanceInterpreter;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads a record written with one definition into a local class bound to another. Fields are matched
+ * by name and read in the writer's order into the local constructor order. Writer fields without a
+ * local field are skipped without being constructed. Single values are read by a lambda compiled with
+ * the backend of the type map, the same as records read with their own definition.
+ *
+ * A projection requires every local field in the writer definition with the same type. A resolution
+ * follows the usual schema evolution rules, local fields missing from the writer take the default
+ * value of their type and numeric atoms may be widened.
+ */
+public class ResolvingReader implements TypeReader {
+
+	// Numeric atoms in widening order, a writer atom can be read into any atom after it.
+	private static final List<Typename> NUMERIC = List.of(Meta.INT8, Meta.INT16, Meta.INT32, Meta.INT64, Meta.FLOAT,
+			Meta.DOUBLE);
+	private static final Class<?>[] NUMERIC_CLASSES = { byte.class, short.class, int.class, long.class, float.class,
+			double.class };
+
+	// For each writer field, the index of the constructor argument it is read into or -1 to skip it.
+	private final int[] targets;
+	private final TypeReader[] readers;
+	private final TypeSkipper[] skippers;
+
+	// For each writer field, float or double if its column is read as a fixed width block.
+	private final Class<?>[] blocks;
+
+	// Constructor arguments of local fields not in the writer definition, null for the others.
+	private final Object[] defaults;
+
+	private final MethodHandle[] toObject;
+	private final MethodHandle constructor;
+
+	private final TypeReader compiled;
+
+	private ResolvingReader(Field[] fields, int[] targets, TypeReader[] readers, TypeSkipper[] skippers,
+			Object[] defaults, MethodHandle[] toObject, DataClassRecord dataClass, TypeReader compiled) {
+		this.targets = targets;
+		this.readers = readers;
+		this.skippers = skippers;
+		this.blocks = new Class<?>[targets.length];
+		for (int x = 0; x < fields.length; x++) {
+			if (targets[x] >= 0 && Meta.DOUBLE.equals(fields[x].type())) {
+				blocks[x] = double.class;
+			} else if (targets[x] >= 0 && Meta.FLOAT.equals(fields[x].type())) {
+				blocks[x] = float.class;
+			}
+		}
+		this.defaults = defaults;
+		this.toObject = toObject;
+		this.constructor = dataClass.constructor();
+		this.compiled = compiled;
+	}
+
+	/**
+	 * Compile a reader of the source entry into the target class, which has a subset of the source fields.
+	 */
+	public static ResolvingReader projection(TypeMap typeMap, TypeMapEntry source, Class<?> targetClass)
+			throws TypeException {
+		if (!(source.definition() instanceof Record record)) {
+			throw new TypeException("Projection source must be a record: " + source.typename());
+		}
+		if (!(typeMap.context().getDescriptor(targetClass) instanceof DataClassRecord dataClass)) {
+			throw new TypeException("Projection target must be a record: " + targetClass.getName());
+		}
+
+		int[] sources = typeMap.context().bindFields(targetClass, record);
+
+		Field[] fields = record.fields();
+		int[] targets = new int[fields.length];
+		TypeReader[] readers = new TypeReader[fields.length];
+		Arrays.fill(targets, -1);
+		for (int x = 0; x < sources.length; x++) {
+			targets[sources[x]] = x;
+			readers[sources[x]] = reader(typeMap, fields[sources[x]].type(), dataClass.fields()[x].dataClass());
+		}
+
+		MethodHandle[] toObject = ConstructInstanceInterpreter.collectToObject(dataClass);
+		Expression[] values = new Expression[toObject.length];
+		Lambda lambda = generateReader(typeMap, fields, targets, values, dataClass, toObject);
+		return new ResolvingReader(fields, targets, readers, skippers(typeMap, fields, targets),
+				new Object[toObject.length], toObject, dataClass, SchemaResolver.compileReader(typeMap, lambda));
+	}
+
+	/**
+	 * Compile a reader of values written with the writer definition into the local record class, which
+	 * is bound to the local definition.
+	 */
+	public static ResolvingReader resolution(TypeMap typeMap, Record writer, DataClassRecord dataClass, Record local)
+			throws TypeException {
+		Field[] writerFields = writer.fields();
+		Field[] localFields = local.fields();
+		DataClassField[] dataFields = dataClass.fields();
+
+		MethodHandle[] toObject = ConstructInstanceInterpreter.collectToObject(dataClass);
+
+		int[] targets = new int[writerFields.length];
+		TypeReader[] readers = new TypeReader[writerFields.length];
+		Object[] defaults = new Object[localFields.length];
+		Expression[] values = new Expression[localFields.length];
+		Arrays.fill(targets, -1);
+		for (int x = 0; x < localFields.length; x++) {
+			int source = -1;
+			for (int y = 0; y < writerFields.length; y++) {
+				if (writerFields[y].name().equals(localFields[x].name())) {
+					source = y;
+					break;
+				}
+			}
+
+			if (source < 0) {
+				Class<?> serialType = toObject[x].type().parameterType(0);
+				defaults[x] = defaultValue(dataClass, dataFields[x], toObject[x]);
+				values[x] = new Value(serialType, serialType.isPrimitive() ? zero(serialType) : null);
+				continue;
+			}
+
+			Element writerType = writerFields[source].type();
+			Element localType = localFields[x].type();
+			targets[source] = x;
+			if (isSameType(writerType, localType)) {
+				readers[source] = reader(typeMap, writerType, dataFields[x].dataClass());
+			} else if (isWidening(writerType, localType)) {
+				readers[source] = widening((Typename) writerType, (Typename) localType);
+			} else {
+				throw new TypeException(String.format("Field '%s' of %s can not be read from %s to %s",
+						localFields[x].name(), dataClass.typeClass().getName(), writerType, localType));
+			}
+		}
+
+		Lambda lambda = generateReader(typeMap, writerFields, targets, values, dataClass, toObject);
+		return new ResolvingReader(writerFields, targets, readers, skippers(typeMap, writerFields, targets), defaults,
+				toObject, dataClass, SchemaResolver.compileReader(typeMap, lambda));
+	}
+
+	/**
+	 * Generate a lambda that reads each writer field in the writer's order into a slot or skips it, then
+	 * constructs the local class from the slots in local order. Values holds the constant for each local
+	 * field not in the writer definition and is filled in with the slot of the others.
+	 */
+	private static Lambda generateReader(TypeMap typeMap, Field[] fields, int[] targets, Expression[] values,
+			DataClassRecord dataClass, MethodHandle[] toObject) throws TypeException {
+		try {
+			SlotAssigner slots = new SlotAssigner(TypeStream.class);
+			DataClassField[] dataFields = dataClass.fields();
+
+			List<Statement> statements = new ArrayList<>();
+			for (int x = 0; x < fields.length; x++) {
+				int target = targets[x];
+				if (target < 0) {
+					statements.add(new SkipValue(fields[x].type()));
+					continue;
+				}
+
+				// Widened atoms are read as the writer type and converted when stored in the slot.
+				int slot = slots.getSlot(toObject[target].type().parameterType(0));
+				Expression read = readExpression(typeMap, fields[x].type(), dataFields[target].dataClass());
+				statements.add(new SlotSet(slot, read));
+				values[target] = new SlotReference(slot);
+			}
+
+			Typename typename = typeMap.context().getTypename(dataClass.typeClass());
+			statements.add(new ReturnNode(new ConstructInstance(typename, values)));
+
+			return new Lambda(new FunctionSignature(typename, new Typename("vm", "input")), slots.getSlots(),
+					new Block(statements.toArray(new Statement[statements.size()])));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw new TypeException(e);
+		}
+	}
+
+	private static Expression readExpression(TypeMap typeMap, Element element, DataClass dataClass)
+			throws TypeException, NoSuchMethodException, IllegalAccessException {
+		if (element instanceof Typename typename) {
+			return new ReadValue(typename);
+		} else if (element instanceof Array array && dataClass instanceof DataClassArray dataArray) {
+			if (PrimitiveArrays.isBulk(dataArray, array)) {
+				return new ReadBulkArray(dataArray, array);
+			} else if (RecordColumns.isRecordArray(typeMap, array)) {
+				return new ReadRecordArray(dataArray, array.type());
+			}
+			return new ReadArray(dataArray, array, new ReadValue(array.type()));
+		}
+
+		throw new TypeException("Unable to resolve element: " + element.getClass().getName());
+	}
+
+	private static Object zero(Class<?> type) throws TypeException {
+		try {
+			return MethodHandles.zero(type).invoke();
+		} catch (Throwable e) {
+			throw new TypeException("Failed to create zero of " + type.getName(), e);
+		}
+	}
+
+	private static TypeSkipper[] skippers(TypeMap typeMap, Field[] fields, int[] targets) throws TypeException {
+		TypeSkipper[] skippers = new TypeSkipper[fields.length];
+		for (int x = 0; x < fields.length; x++) {
+			if (targets[x] < 0) {
+				skippers[x] = ValueSkipper.element(typeMap, fields[x].type());
+			}
+		}
+		return skippers;
+	}
+
+	// Primitives default to zero and other fields to null, which Optional fields turn into empty.
+	private static Object defaultValue(DataClassRecord dataClass, DataClassField field, MethodHandle toObject)
+			throws TypeException {
+		Class<?> serialType = toObject.type().parameterType(0);
+		if (!serialType.isPrimitive() && field.isRequired()) {
+			throw new TypeException(String.format("Required field '%s' of %s not in writer definition", field.name(),
+					dataClass.typeClass().getName()));
+		}
+
+		try {
+			return toObject.invoke(serialType.isPrimitive() ? MethodHandles.zero(serialType).invoke() : null);
+		} catch (Throwable e) {
+			throw new TypeException(String.format("Failed to create default for field '%s' of %s", field.name(),
+					dataClass.typeClass().getName()), e);
+		}
+	}
+
+	// Arrays are read with the writer's encoding, so only the element types need to match.
+	private static boolean isSameType(Element writerType, Element localType) {
+		if (writerType instanceof Array writerArray && localType instanceof Array localArray) {
+			return writerArray.type().equals(localArray.type());
+		}
+		return writerType.equals(localType);
+	}
+
+	private static boolean isWidening(Element writerType, Element localType) {
+		int writerIndex = NUMERIC.indexOf(writerType);
+		return writerIndex >= 0 && NUMERIC.indexOf(localType) > writerIndex;
+	}
+
+	private static TypeReader widening(Typename writerType, Typename localType) throws TypeException {
+		MethodHandle handle = TransportHandles.getInputHandle(writerType);
+		MethodHandle read = handle.asType(handle.type().changeReturnType(NUMERIC_CLASSES[NUMERIC.indexOf(localType)]));
+		return (reader) -> {
+			try {
+				return read.invoke(reader.input());
+			} catch (Throwable e) {
+				throw new IOException("Failed to read", e);
+			}
+		};
+	}
+
+	// Reads a value as the compiled record reader would read the field.
+	static TypeReader reader(TypeMap typeMap, Element element, DataClass dataClass) throws TypeException {
+		if (element instanceof Typename typename) {
+			if (ValueSkipper.isAtom(typeMap, typename)) {
+				MethodHandle read = TransportHandles.getInputHandle(typename);
+				return (reader) -> {
+					try {
+						return read.invoke(reader.input());
+					} catch (Throwable e) {
+						throw new IOException("Failed to read", e);
+					}
+				};
+			}
+			return (reader) -> reader.readObject(typename);
+		} else if (element instanceof Array array && dataClass instanceof DataClassArray dataArray) {
+			if (PrimitiveArrays.isBulk(dataArray, array)) {
+				MethodHandle read = PrimitiveArrays.getReadHandle(dataArray.typeClass(), array);
+				return (reader) -> {
+					try {
+						return read.invoke(reader.input());
+					} catch (Throwable e) {
+						throw new IOException("Failed to read", e);
+					}
+				};
+			}
+
+			if (RecordColumns.isRecordArray(typeMap, array)) {
+				return new RecordColumns(typeMap, array.type(), dataArray)::read;
+			}
+
+			TypeReader elementReader = reader(typeMap, array.type(), dataArray.arrayDataClass());
+			return (reader) -> {
+				try {
+					int length = reader.input().readUVarInt32();
+					Object arrayData = dataArray.constructor().invoke(length);
+					Object iterator = dataArray.iterator().invoke(arrayData);
+					for (int x = 0; x < length; x++) {
+						dataArray.put().invoke(arrayData, iterator, elementReader.read(reader));
+					}
+					return arrayData;
+				} catch (IOException e) {
+					throw e;
+				} catch (Throwable e) {
+					throw new IOException("Failed to read", e);
+				}
+			};
+		}
+
+		throw new TypeException("Unable to resolve element: " + element.getClass().getName());
+	}
+
+	/**
+	 * Read the given number of values written as columns, the values of each writer field for every
+	 * value in turn. Float and double columns are read as one fixed width block.
+	 */
+	Object[] readColumns(TypeInputStream reader, int length) throws IOException {
+		Object[][] args = new Object[length][];
+		for (int row = 0; row < length; row++) {
+			args[row] = defaults.clone();
+		}
+
+		try {
+			for (int x = 0; x < targets.length; x++) {
+				int target = targets[x];
+				if (target < 0) {
+					for (int row = 0; row < length; row++) {
+						skippers[x].skip(reader);
+					}
+				} else if (blocks[x] == double.class) {
+					double[] column = new double[length];
+					reader.input().readDoubles(column, 0, length);
+					for (int row = 0; row < length; row++) {
+						args[row][target] = toObject[target].invoke(column[row]);
+					}
+				} else if (blocks[x] == float.class) {
+					float[] column = new float[length];
+					reader.input().readFloats(column, 0, length);
+					for (int row = 0; row < length; row++) {
+						args[row][target] = toObject[target].invoke(column[row]);
+					}
+				} else {
+					for (int row = 0; row < length; row++) {
+						args[row][target] = toObject[target].invoke(readers[x].read(reader));
+					}
+				}
+			}
+
+			Object[] rows = new Object[length];
+			for (int row = 0; row < length; row++) {
+				rows[row] = constructor.invoke(args[row]);
+			}
+			return rows;
+		} catch (IOException e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IOException("Failed to read", e);
+		}
+	}
+
+	@Override
+	public Object read(TypeInputStream reader) throws IOException {
+		return compiled.read(reader);
+	}
+}
@@ -37,8 +37,8 @@ import io.litterat.xpl.TypeMap;
 import io.litterat.xpl.TypeMapEntry;
 import io.litterat.xpl.TypeOutputStream;
 import io.litterat.xpl.TypeReader;
+import io.litterat.xpl.TypeReaderWriter;
 import io.litterat.xpl.TypeStream;
-import io.litterat.xpl.TypeWriter;
 import io.litterat.xpl.lang.Block;
 import io.litterat.xpl.lang.ConstructInstance;
 import io.litterat.xpl.lang.Expression;
@@ -47,6 +47,8 @@ import io.litterat.xpl.lang.FieldSet;
 import io.litterat.xpl.lang.Lambda;
 import io.litterat.xpl.lang.LambdaFunction;
 import io.litterat.xpl.lang.ReadArray;
+import io.litterat.xpl.lang.ReadBulkArray;
+import io.litterat.xpl.lang.ReadRecordArray;
 import io.litterat.xpl.lang.ReadValue;
 import io.litterat.xpl.lang.ReturnNode;
 import io.litterat.xpl.lang.SlotAssigner;
@@ -54,8 +56,12 @@ import io.litterat.xpl.lang.SlotReference;
 import io.litterat.xpl.lang.SlotSet;
 import io.litterat.xpl.lang.Statement;
 import io.litterat.xpl.lang.WriteArray;
+import io.litterat.xpl.lang.WriteBulkArray;
+import io.litterat.xpl.lang.WriteRecordArray;
 import io.litterat.xpl.lang.WriteValue;
+import io.litterat.xpl.lang.asm.LitteratAssembler;
 import io.litterat.xpl.lang.interpret.LitteratInterpreter;
+import io.litterat.xpl.lang.mh.LitteratGenerator;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -92,9 +98,10 @@ public class SchemaResolver {
 		TypeMapEntry result = null;
 
         switch (descriptor) {
-            case DataClassRecord dataClass ->
-                    result = new TypeMapEntry(0, name, definition, descriptor, generateSequenceReaderConstructor(typeMap, name, (Record) definition, dataClass),
-                            generateSequenceWriter(typeMap, name, (Record) definition, dataClass));
+            case DataClassRecord dataClass -> {
+                TypeReaderWriter codec = compileRecord(typeMap, name, (Record) definition, dataClass);
+                result = new TypeMapEntry(0, name, definition, descriptor, codec, codec);
+            }
             case DataClassUnion dataClassUnion -> {
                 UnionReaderWriter union = new UnionReaderWriter(name);
                 result = new TypeMapEntry(0, name, definition, descriptor, union, union);
@@ -114,9 +121,46 @@ public class SchemaResolver {
 		return result;
 	}
 
+	private static TypeReaderWriter compileRecord(TypeMap typeMap, Typename typeName, Record sequence,
+			DataClassRecord dataClass) throws TypeException {
+		try {
+			Lambda reader = generateSequenceReaderConstructor(typeMap, typeName, sequence, dataClass);
+			Lambda writer = generateSequenceWriter(typeMap, typeName, sequence, dataClass);
+
+			return switch (typeMap.backend()) {
+				case INTERPRETER -> {
+					LitteratInterpreter compiler = new LitteratInterpreter();
+					yield new LambdaReaderWriter(compiler.compile(typeMap, reader), compiler.compile(typeMap, writer));
+				}
+				case METHOD_HANDLE -> {
+					LitteratGenerator compiler = new LitteratGenerator();
+					yield new LambdaReaderWriter(compiler.compile(typeMap, reader), compiler.compile(typeMap, writer));
+				}
+				case BYTECODE -> new LitteratAssembler().compile(typeMap, reader, writer);
+			};
+		} catch (NoSuchMethodException | IllegalAccessException | DataBindException e) {
+			throw new TypeException(e);
+		}
+	}
+
+	/**
+	 * Compile a reader lambda on its own with the backend of the type map.
+	 */
+	static TypeReader compileReader(TypeMap typeMap, Lambda reader) throws TypeException {
+		try {
+			return switch (typeMap.backend()) {
+				case INTERPRETER -> new LambdaReader(new LitteratInterpreter().compile(typeMap, reader));
+				case METHOD_HANDLE -> new LambdaReader(new LitteratGenerator().compile(typeMap, reader));
+				case BYTECODE -> new LitteratAssembler().compileReader(typeMap, reader);
+			};
+		} catch (NoSuchMethodException | IllegalAccessException | DataBindException e) {
+			throw new TypeException(e);
+		}
+	}
+
 	// TODO this needs more work. Should start as DataClass and look at each type.
-	private static TypeWriter generateSequenceWriter(TypeMap typeMap, Typename typeName, Record sequence, DataClassRecord dataClass)
-			throws TypeException {
+	private static Lambda generateSequenceWriter(TypeMap typeMap, Typename typeName, Record sequence,
+			DataClassRecord dataClass) throws TypeException {
 		try {
 			SlotAssigner slots = new SlotAssigner(TypeStream.class);
 
@@ -135,6 +179,14 @@ public class SchemaResolver {
                     Statement writeField = new WriteValue(type,
 							new FieldRead(new SlotReference(varObject), typeName, field.name()));
 					statements.add(writeField);
+				} else if (field.type() instanceof Array array
+						&& PrimitiveArrays.isBulk((DataClassArray) dataClassField.dataClass(), array)) {
+					Expression readField = new FieldRead(new SlotReference(varObject), typeName, field.name());
+					statements.add(new WriteBulkArray((DataClassArray) dataClassField.dataClass(), array, readField));
+				} else if (RecordColumns.isRecordArray(typeMap, field.type())) {
+					Expression readField = new FieldRead(new SlotReference(varObject), typeName, field.name());
+					statements.add(new WriteRecordArray((DataClassArray) dataClassField.dataClass(),
+							((Array) field.type()).type(), readField));
 				} else if (field.type() instanceof Array array) {
                     DataClassArray dataArray = (DataClassArray) dataClassField.dataClass();
 
@@ -153,23 +205,16 @@ public class SchemaResolver {
 			Statement[] statementArray = new Statement[statements.size()];
 			Block blockNode = new Block(statements.toArray(statementArray));
 
-			Lambda lambda = new Lambda(new FunctionSignature(Meta.VOID, new Typename("vm", "output"), typeName),
+			return new Lambda(new FunctionSignature(Meta.VOID, new Typename("vm", "output"), typeName),
 					slots.getSlots(), blockNode);
 
-			LitteratInterpreter compiler = new LitteratInterpreter();
-			// LitteratGenerator compiler = new LitteratGenerator();
-
-			LambdaFunction lambdaFunction = compiler.compile(typeMap, lambda);
-
-			return new LambdaTypeWriter(lambdaFunction);
-
-		} catch (NoSuchMethodException | IllegalAccessException | TypeException | DataBindException e) {
+		} catch (NoSuchMethodException | IllegalAccessException e) {
 			throw new TypeException(e);
 		}
 	}
 
 	@SuppressWarnings("unused")
-	private static TypeReader generateSequenceReader(TypeMap typeMap, Typename typeName, Record sequence, DataClassRecord dataClass)
+	private static Lambda generateSequenceReader(Typename typeName, Record sequence, DataClassRecord dataClass)
 			throws TypeException {
 
 		try {
@@ -196,23 +241,17 @@ public class SchemaResolver {
 			Statement[] statementArray = new Statement[statements.size()];
 			Block blockNode = new Block(statements.toArray(statementArray));
 
-			Lambda lambda = new Lambda(new FunctionSignature(typeName, new Typename("vm", "input")), slots.getSlots(),
+			return new Lambda(new FunctionSignature(typeName, new Typename("vm", "input")), slots.getSlots(),
 					blockNode);
 
-			LitteratInterpreter compiler = new LitteratInterpreter();
-			// LitteratGenerator compiler = new LitteratGenerator();
-			LambdaFunction lambdaFunction = compiler.compile(typeMap, lambda);
-
-			return new LambdaTypeReader(lambdaFunction);
-
-		} catch (NoSuchMethodException | IllegalAccessException | TypeException | DataBindException e) {
+		} catch (NoSuchMethodException | IllegalAccessException e) {
 			throw new TypeException(e);
 		}
 
 	}
 
-	private static TypeReader generateSequenceReaderConstructor(TypeMap typeMap, Typename typeName, Record sequence, DataClassRecord dataClass
-			) throws TypeException {
+	private static Lambda generateSequenceReaderConstructor(TypeMap typeMap, Typename typeName, Record sequence,
+			DataClassRecord dataClass) throws TypeException {
 
 		try {
 
@@ -242,7 +281,13 @@ public class SchemaResolver {
 					Array array = (Array) field.type();
 					DataClassArray dataArray = (DataClassArray) dataClassField.dataClass();
 
-					constructorBlock[x] = new ReadArray(dataArray, array, new ReadValue(array.type()));
+					if (PrimitiveArrays.isBulk(dataArray, array)) {
+						constructorBlock[x] = new ReadBulkArray(dataArray, array);
+					} else if (RecordColumns.isRecordArray(typeMap, array)) {
+						constructorBlock[x] = new ReadRecordArray(dataArray, array.type());
+					} else {
+						constructorBlock[x] = new ReadArray(dataArray, array, new ReadValue(array.type()));
+					}
 				} else if (field.type() instanceof Union union) {
 					System.out.println("union field:" + field.name());
 					//constructorBlock[x] = new ReadValue(union.);
@@ -261,27 +306,20 @@ public class SchemaResolver {
 			Statement[] statementArray = new Statement[statements.size()];
 			Block blockNode = new Block(statements.toArray(statementArray));
 
-			Lambda lambda = new Lambda(new FunctionSignature(typeName, new Typename("vm", "input")), slots.getSlots(),
+			return new Lambda(new FunctionSignature(typeName, new Typename("vm", "input")), slots.getSlots(),
 					blockNode);
 
-			LitteratInterpreter compiler = new LitteratInterpreter();
-			// LitteratGenerator compiler = new LitteratGenerator();
-
-			LambdaFunction lambdaFunction = compiler.compile(typeMap, lambda);
-
-			return new LambdaTypeReader(lambdaFunction);
-
-		} catch (NoSuchMethodException | IllegalAccessException | DataBindException e) {
+		} catch (NoSuchMethodException | IllegalAccessException e) {
 			throw new TypeException(e);
 		}
 
 	}
 
-	private static class LambdaTypeReader implements TypeReader {
+	private static class LambdaReader implements TypeReader {
 
 		private final LambdaFunction readerLambda;
 
-		public LambdaTypeReader(LambdaFunction reader) {
+		public LambdaReader(LambdaFunction reader) {
 			this.readerLambda = reader;
 		}
 
@@ -295,14 +333,25 @@ public class SchemaResolver {
 		}
 	}
 
-	private static class LambdaTypeWriter implements TypeWriter {
+	private static class LambdaReaderWriter implements TypeReaderWriter {
 
+		private final LambdaFunction readerLambda;
 		private final LambdaFunction writerLambda;
 
-		public LambdaTypeWriter(LambdaFunction writer) {
+		public LambdaReaderWriter(LambdaFunction reader, LambdaFunction writer) {
+			this.readerLambda = reader;
 			this.writerLambda = writer;
 		}
 
+		@Override
+		public Object read(TypeInputStream reader) throws IOException {
+			try {
+				return readerLambda.execute(reader);
+			} catch (Throwable e) {
+				throw new IOException("Failed to read", e);
+			}
+		}
+
 		@Override
 		public void write(TypeOutputStream writer, Object o) throws IOException {
 			try {
@@ -311,7 +360,6 @@ public class SchemaResolver {
 				throw new IOException("Failed to write", e);
 			}
 		}
-
 	}
 
 }
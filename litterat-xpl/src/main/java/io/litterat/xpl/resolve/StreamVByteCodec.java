@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.resolve;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+import io.litterat.xpl.TypeBaseInput;
+import io.litterat.xpl.TypeBaseOutput;
+
+/**
+ * Writes the length, then a block of control codes, then a block of data bytes. Elements are zig-zag
+ * encoded and each is written as its significant bytes, little endian. An int32 element has a two
+ * bit code of its byte length less one, four to a control byte. An int64 element has a three bit
+ * code in a nibble, two to a control byte. The data length follows from the control block, so the
+ * data is read in one call and decoded without branching on each element by masking a full width
+ * little endian read.
+ */
+public class StreamVByteCodec implements IntegerArrayCodec {
+
+	private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class,
+			ByteOrder.LITTLE_ENDIAN);
+
+	private static final int MAX_RETAINED = 1 << 20;
+
+	private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[1024]);
+
+	private static final int[] INT_MASKS = { 0xff, 0xffff, 0xffffff, 0xffffffff };
+
+	// Data bytes of each int32 and int64 control byte.
+	private static final int[] INT_LENGTHS = new int[256];
+	private static final int[] LONG_LENGTHS = new int[256];
+
+	static {
+		for (int control = 0; control < 256; control++) {
+			INT_LENGTHS[control] = (control & 3) + (control >>> 2 & 3) + (control >>> 4 & 3) + (control >>> 6 & 3)
+					+ 4;
+			LONG_LENGTHS[control] = (control & 7) + (control >>> 4 & 7) + 2;
+		}
+	}
+
+	@Override
+	public void write(TypeBaseOutput output, int[] values) throws IOException {
+		output.writeUVarInt32(values.length);
+
+		// Control bytes at the start of the buffer and data after them, written in one call.
+		int controls = (values.length + 3) >>> 2;
+		byte[] buffer = buffer(controls + values.length * 4 + 3);
+		int position = controls;
+		int control = 0;
+		for (int x = 0; x < values.length; x++) {
+			int value = (values[x] << 1) ^ (values[x] >> 31);
+			int code = (31 - Integer.numberOfLeadingZeros(value | 1)) >>> 3;
+			control |= code << ((x & 3) << 1);
+			if ((x & 3) == 3) {
+				buffer[x >>> 2] = (byte) control;
+				control = 0;
+			}
+			INT.set(buffer, position, value);
+			position += code + 1;
+		}
+		if ((values.length & 3) != 0) {
+			buffer[controls - 1] = (byte) control;
+		}
+		output.writeBytes(buffer, 0, position);
+	}
+
+	@Override
+	public void write(TypeBaseOutput output, long[] values) throws IOException {
+		output.writeUVarInt32(values.length);
+
+		int controls = (values.length + 1) >>> 1;
+		byte[] buffer = buffer(controls + values.length * 8 + 7);
+		int position = controls;
+		int control = 0;
+		for (int x = 0; x < values.length; x++) {
+			long value = (values[x] << 1) ^ (values[x] >> 63);
+			int code = (63 - Long.numberOfLeadingZeros(value | 1)) >>> 3;
+			control |= code << ((x & 1) << 2);
+			if ((x & 1) == 1) {
+				buffer[x >>> 1] = (byte) control;
+				control = 0;
+			}
+			LONG.set(buffer, position, value);
+			position += code + 1;
+		}
+		if ((values.length & 1) != 0) {
+			buffer[controls - 1] = (byte) control;
+		}
+		output.writeBytes(buffer, 0, position);
+	}
+
+	@Override
+	public int[] readInt32s(TypeBaseInput input) throws IOException {
+		int[] values = new int[PrimitiveArrays.readLength(input, 1)];
+
+		int controls = (values.length + 3) >>> 2;
+		byte[] buffer = buffer(controls + values.length * 4 + 3);
+		input.readBytes(buffer, 0, controls);
+
+		// Unused codes of the last control byte are zero and counted as one byte each.
+		int length = -(controls * 4 - values.length);
+		for (int x = 0; x < controls; x++) {
+			length += INT_LENGTHS[buffer[x] & 0xff];
+		}
+
+		// Bytes past the data are left from earlier calls but are masked off.
+		input.readBytes(buffer, controls, length);
+
+		int position = controls;
+		for (int x = 0; x < values.length; x++) {
+			int code = (buffer[x >>> 2] >>> ((x & 3) << 1)) & 3;
+			int value = (int) INT.get(buffer, position) & INT_MASKS[code];
+			values[x] = (value >>> 1) ^ -(value & 1);
+			position += code + 1;
+		}
+		return values;
+	}
+
+	@Override
+	public long[] readInt64s(TypeBaseInput input) throws IOException {
+		long[] values = new long[PrimitiveArrays.readLength(input, 1)];
+
+		int controls = (values.length + 1) >>> 1;
+		byte[] buffer = buffer(controls + values.length * 8 + 7);
+		input.readBytes(buffer, 0, controls);
+
+		// An unused code in the last control byte is zero and counted as one byte.
+		int length = -(controls * 2 - values.length);
+		for (int x = 0; x < controls; x++) {
+			length += LONG_LENGTHS[buffer[x] & 0xff];
+		}
+
+		input.readBytes(buffer, controls, length);
+
+		int position = controls;
+		for (int x = 0; x < values.length; x++) {
+			int code = (buffer[x >>> 1] >>> ((x & 1) << 2)) & 7;
+			long value = (long) LONG.get(buffer, position) & (-1L >>> ((7 - code) << 3));
+			values[x] = (value >>> 1) ^ -(value & 1);
+			position += code + 1;
+		}
+		return values;
+	}
+
+	/**
+	 * Codecs are shared, so each thread keeps its own buffer, grown to the largest array seen up to
+	 * a limit. Larger arrays get a buffer of their own rather than pinning it to the thread.
+	 */
+	private static byte[] buffer(int length) {
+		byte[] buffer = BUFFER.get();
+		if (buffer.length >= length) {
+			return buffer;
+		}
+		buffer = new byte[length];
+		if (length <= MAX_RETAINED) {
+			BUFFER.set(buffer);
+		}
+		return buffer;
+	}
+}
@@ -18,10 +18,22 @@ package io.litterat.xpl.resolve;
 import java.io.IOException;
 
 import io.litterat.xpl.TypeInputStream;
+import io.litterat.xpl.StringTable;
 import io.litterat.xpl.TypeOutputStream;
 import io.litterat.xpl.TypeReader;
 import io.litterat.xpl.TypeWriter;
+import io.litterat.xpl.util.Utf8;
 
+/**
+ * Strings are written as a uvarint of the UTF-8 length plus one, with zero representing null,
+ * followed by the UTF-8 bytes. Encoding and decoding are delegated to the base input and output so
+ * that array backed transports work directly against their buffers.
+ *
+ * When string back references are enabled on the stream the prefix changes: zero is null, one is
+ * followed by a uvarint index into the stream's StringTable, and any other value is
+ * ((length << 1) | added) + 2 followed by the UTF-8 bytes, where added indicates the writer put the
+ * string in its table.
+ */
 public class StringReaderWriter {
 
 	public static class StringReader implements TypeReader {
@@ -30,13 +42,21 @@ public class StringReaderWriter {
 		public Object read(TypeInputStream reader) throws IOException {
 
 			int length = reader.input().readUVarInt32();
+			StringTable strings = reader.strings();
 			if (length == 0) {
 				return null;
+			} else if (strings == null) {
+				return reader.input().readUtf8(length - 1);
+			} else if (length == 1) {
+				return strings.get(reader.input().readUVarInt32());
 			} else {
-				byte[] bytes = new byte[length - 1];
-				reader.input().readBytes(bytes, 0, length - 1);
-
-				return new String(bytes);
+				int prefix = length - 2;
+				int encodedLength = prefix >>> 1;
+				String s = reader.input().readUtf8(encodedLength);
+				if ((prefix & 1) != 0) {
+					strings.addRead(s, encodedLength);
+				}
+				return s;
 			}
 		}
 
@@ -47,12 +67,26 @@ public class StringReaderWriter {
 		@Override
 		public void write(TypeOutputStream writer, Object o) throws IOException {
 
+			StringTable strings = writer.strings();
 			if (o == null) {
 				writer.output().writeUVarInt32(0);
+			} else if (strings == null) {
+				String s = (String) o;
+				int length = Utf8.encodedLength(s);
+				writer.output().writeUVarInt32(length + 1);
+				writer.output().writeUtf8(s, length);
 			} else {
-				byte[] bytes = ((String) o).getBytes();
-				writer.output().writeUVarInt32(bytes.length + 1);
-				writer.output().writeBytes(bytes, 0, bytes.length);
+				String s = (String) o;
+				int index = strings.indexOf(s);
+				if (index >= 0) {
+					writer.output().writeUVarInt32(1);
+					writer.output().writeUVarInt32(index);
+				} else {
+					int length = Utf8.encodedLength(s);
+					int added = strings.add(s, length) ? 1 : 0;
+					writer.output().writeUVarInt32(((length << 1) | added) + 2);
+					writer.output().writeUtf8(s, length);
+				}
 			}
 		}
 
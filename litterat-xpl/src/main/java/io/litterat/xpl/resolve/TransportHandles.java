@@ -44,23 +44,38 @@ public class TransportHandles {
 	static {
 
 		try {
-			readHandles.put(Meta.FLOAT,
-					lookup.findVirtual(TypeBaseInput.class, "readFloat", MethodType.methodType(float.class)));
+			// Signed integers are zig-zag varints, int8 is a single byte as a varint can't be smaller.
+			read(Meta.INT8, "readInt8", byte.class);
+			read(Meta.INT16, "readVarInt16", short.class);
+			read(Meta.INT32, "readVarInt32", int.class);
+			read(Meta.INT64, "readVarInt64", long.class);
 
-			readHandles.put(Meta.BOOLEAN,
-					lookup.findVirtual(TypeBaseInput.class, "readBoolean", MethodType.methodType(boolean.class)));
+			// Unsigned integers are plain varints carried in the next larger signed type, uint64 uses all of long.
+			read(Meta.UINT8, "readUInt8", short.class);
+			read(Meta.UINT16, "readUVarInt32", int.class);
+			read(Meta.UINT32, "readUVarInt64", long.class);
+			read(Meta.UINT64, "readUVarInt64", long.class);
 
-			readHandles.put(Meta.INT32,
-					lookup.findVirtual(TypeBaseInput.class, "readInt32", MethodType.methodType(int.class)));
+			// Reals are fixed width.
+			read(Meta.FLOAT, "readFloat", float.class);
+			read(Meta.DOUBLE, "readDouble", double.class);
 
-			writeHandles.put(Meta.FLOAT, lookup.findVirtual(TypeBaseOutput.class, "writeFloat",
-					MethodType.methodType(void.class, float.class)));
+			read(Meta.BOOLEAN, "readBoolean", boolean.class);
 
-			writeHandles.put(Meta.BOOLEAN, lookup.findVirtual(TypeBaseOutput.class, "writeBoolean",
-					MethodType.methodType(void.class, boolean.class)));
+			write(Meta.INT8, "writeInt8", byte.class);
+			write(Meta.INT16, "writeVarInt16", short.class);
+			write(Meta.INT32, "writeVarInt32", int.class);
+			write(Meta.INT64, "writeVarInt64", long.class);
 
-			writeHandles.put(Meta.INT32, lookup.findVirtual(TypeBaseOutput.class, "writeInt32",
-					MethodType.methodType(void.class, int.class)));
+			write(Meta.UINT8, "writeUInt8", short.class);
+			write(Meta.UINT16, "writeUVarInt32", int.class);
+			write(Meta.UINT32, "writeUVarInt64", long.class);
+			write(Meta.UINT64, "writeUVarInt64", long.class);
+
+			write(Meta.FLOAT, "writeFloat", float.class);
+			write(Meta.DOUBLE, "writeDouble", double.class);
+
+			write(Meta.BOOLEAN, "writeBoolean", boolean.class);
 
 		} catch (NoSuchMethodException | IllegalAccessException e) {
 			// not expecting an exception here.
@@ -69,6 +84,19 @@ public class TransportHandles {
 
 	}
 
+	// (input) -> input.method()
+	private static void read(Typename typename, String method, Class<?> type)
+			throws NoSuchMethodException, IllegalAccessException {
+		readHandles.put(typename, lookup.findVirtual(TypeBaseInput.class, method, MethodType.methodType(type)));
+	}
+
+	// (output, value) -> output.method( value )
+	private static void write(Typename typename, String method, Class<?> type)
+			throws NoSuchMethodException, IllegalAccessException {
+		writeHandles.put(typename,
+				lookup.findVirtual(TypeBaseOutput.class, method, MethodType.methodType(void.class, type)));
+	}
+
 	public static MethodHandle getInputHandle(Typename typeName)
 			throws TypeException {
 		MethodHandle handle = readHandles.get(typeName);
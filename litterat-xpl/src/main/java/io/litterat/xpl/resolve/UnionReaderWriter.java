@@ -18,12 +18,11 @@ package io.litterat.xpl.resolve;
 import io.litterat.schema.meta.Typename;
 import io.litterat.xpl.TypeInputStream;
 import io.litterat.xpl.TypeOutputStream;
-import io.litterat.xpl.TypeReader;
-import io.litterat.xpl.TypeWriter;
+import io.litterat.xpl.TypeReaderWriter;
 
 import java.io.IOException;
 
-public class UnionReaderWriter implements TypeReader, TypeWriter {
+public class UnionReaderWriter implements TypeReaderWriter {
 
 	@SuppressWarnings("unused")
 	private final Typename typename;
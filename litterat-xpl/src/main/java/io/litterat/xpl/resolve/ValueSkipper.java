@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2020-2021, Live Media Pty. Ltd. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.litterat.xpl.resolve;
+
+import io.litterat.schema.TypeException;
+import io.litterat.schema.meta.Array;
+import io.litterat.schema.meta.Atom;
+import io.litterat.schema.meta.Definition;
+import io.litterat.schema.meta.Element;
+import io.litterat.schema.meta.Field;
+import io.litterat.schema.meta.Meta;
+import io.litterat.schema.meta.Record;
+import io.litterat.schema.meta.Typename;
+import io.litterat.schema.meta.atom.StringAtom;
+import io.litterat.xpl.TypeBaseInput;
+import io.litterat.xpl.TypeMap;
+import io.litterat.xpl.TypeMapEntry;
+import io.litterat.xpl.TypeSkipper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Skippers compiled from schema definitions. The wire encoding of a value only depends on its
+ * definition, so a record is skipped field by field without reading into objects. Atoms are skipped
+ * by width or by varint, fixed width arrays in one step and nested objects through the stream so
+ * their own skippers are used.
+ */
+public class ValueSkipper {
+
+	// Width in bytes of the fixed width atoms.
+	private static final Map<Typename, Integer> fixedWidths = new HashMap<>();
+
+	static {
+		fixedWidths.put(Meta.INT8, 1);
+		fixedWidths.put(Meta.UINT8, 1);
+		fixedWidths.put(Meta.BOOLEAN, 1);
+		fixedWidths.put(Meta.FLOAT, 4);
+		fixedWidths.put(Meta.DOUBLE, 8);
+	}
+
+	private static final TypeSkipper VARINT = (reader) -> reader.input().readUVarInt64();
+
+	private ValueSkipper() {
+	}
+
+	/**
+	 * Compile a skipper for the value of a stream entry, not including its stream id.
+	 */
+	public static TypeSkipper compile(TypeMap typeMap, TypeMapEntry entry) throws TypeException {
+		if (entry.definition() instanceof Record record) {
+			Field[] fields = record.fields();
+			TypeSkipper[] skippers = new TypeSkipper[fields.length];
+			for (int x = 0; x < fields.length; x++) {
+				skippers[x] = element(typeMap, fields[x].type());
+			}
+			return (reader) -> {
+				for (TypeSkipper skipper : skippers) {
+					skipper.skip(reader);
+				}
+			};
+		}
+
+		// Anything else is read and dropped. Strings must still be read to keep any string
+		// references in step with the writer.
+		return (reader) -> entry.reader().read(reader);
+	}
+
+	/**
+	 * Compile a skipper for a field or array element.
+	 */
+	public static TypeSkipper element(TypeMap typeMap, Element element) throws TypeException {
+		if (element instanceof Typename typename) {
+			if (isAtom(typeMap, typename)) {
+				Integer width = fixedWidths.get(typename);
+				if (width == null) {
+					return VARINT;
+				}
+				int bytes = width;
+				return (reader) -> reader.input().skip(bytes);
+			}
+
+			// Records and strings are written with their stream id.
+			return (reader) -> reader.skipValue(typename);
+		} else if (element instanceof Array array) {
+			Element type = array.type();
+
+			// Encoded arrays are decoded by their codec, which reads the length and elements.
+			if (PrimitiveArrays.isEncoded(array)) {
+				IntegerArrayCodec codec = PrimitiveArrays.getCodec(array);
+				if (Meta.INT64.equals(type)) {
+					return (reader) -> codec.readInt64s(reader.input());
+				}
+				return (reader) -> codec.readInt32s(reader.input());
+			}
+			Integer width = type instanceof Typename typename && isAtom(typeMap, typename) ? fixedWidths.get(typename)
+					: null;
+			if (width != null) {
+				long bytes = width;
+				return (reader) -> {
+					TypeBaseInput input = reader.input();
+					input.skip(input.readUVarInt32() * bytes);
+				};
+			}
+
+			if (RecordColumns.isRecordArray(typeMap, array)) {
+				return new RecordColumns(typeMap, (Typename) type, null)::skip;
+			}
+
+			TypeSkipper skipper = element(typeMap, type);
+			return (reader) -> {
+				int length = reader.input().readUVarInt32();
+				for (int x = 0; x < length; x++) {
+					skipper.skip(reader);
+				}
+			};
+		}
+
+		throw new TypeException("Unable to skip element: " + element.getClass().getName());
+	}
+
+	// Atoms other than strings are written inline without a stream id.
+	static boolean isAtom(TypeMap typeMap, Typename typename) throws TypeException {
+		Definition definition = typeMap.context().getDefinition(typename);
+		return definition instanceof Atom && !(definition instanceof StringAtom);
+	}
+}
@@ -20,4 +20,6 @@ module io.litterat.xpl {
     requires transitive io.litterat.bind;
 	requires transitive io.litterat.schema;
 	requires transitive io.litterat.core;
+
+	requires org.objectweb.asm;
 }
\ No newline at end of file